@@ -20,8 +20,9 @@ import java.util.Arrays;
 import org.apache.kafka.common.config.ConfigException;
 import org.kie.hacep.Config;
 import org.kie.hacep.EnvConfig;
+import org.kie.hacep.consumer.DroolsConsumerHandler;
+import org.kie.hacep.core.infra.MetricsServer;
 import org.kie.hacep.core.infra.consumer.ConsumerController;
-import org.kie.hacep.core.infra.consumer.ConsumerHandler;
 import org.kie.hacep.core.infra.election.LeaderElection;
 import org.kie.remote.impl.producer.Producer;
 import org.slf4j.Logger;
@@ -36,6 +37,8 @@ public class Bootstrap {
     private static Producer eventProducer;
     private static ConsumerController consumerController;
     private static CoreKube coreKube;
+    private static PipelineMetrics metrics;
+    private static MetricsServer metricsServer;
 
     private Bootstrap() {}
 
@@ -43,10 +46,13 @@ public class Bootstrap {
         //order matter
         checkKJarVersion(envConfig);
         if (!envConfig.isUnderTest()) {
-            coreKube = new CoreKube(envConfig.getNamespace(), null);
+            coreKube = new CoreKube(envConfig.getNamespace(), envConfig.isPartitioned() ? envConfig.getPartition() : null, null);
         }
         eventProducer = startProducer(envConfig);
         startConsumers(envConfig, eventProducer);
+        if (envConfig.getMetricsPort() > 0) {
+            metricsServer = new MetricsServer(envConfig.getMetricsPort(), metrics).start();
+        }
         if (!envConfig.isUnderTest()) {
             leaderElection();
         }
@@ -74,11 +80,24 @@ public class Bootstrap {
             eventProducer.stop();
         }
         logger.info("Stop eventProducer");
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
         eventProducer = null;
         consumerController = null;
+        metricsServer = null;
+        metrics = null;
         GlobalStatus.setNodeLive(false);
     }
 
+    /**
+     * The metrics of this pod, for services embedding the engine that want to serve their registry on their own
+     * endpoint instead of the one started with {@link EnvConfig#withMetricsPort(String)}.
+     */
+    public static PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
     // only for tests
     public static ConsumerController getConsumerController() {
         return consumerController;
@@ -95,13 +114,14 @@ public class Bootstrap {
     }
 
     private static Producer startProducer(EnvConfig envConfig) {
-        Producer producer = InfraFactory.getProducer(envConfig.isLocal());
+        Producer producer = InfraFactory.getProducer(envConfig);
         producer.start(Config.getProducerConfig("EventProducer"));
         return producer;
     }
 
     private static void startConsumers(EnvConfig envConfig, Producer producer) {
-        ConsumerHandler handler = InfraFactory.getConsumerHandler(producer, envConfig);
+        DroolsConsumerHandler handler = InfraFactory.getConsumerHandler(producer, envConfig);
+        metrics = handler.getMetrics();
         consumerController = new ConsumerController(handler, InfraFactory.getEventConsumer(envConfig));
         consumerController.start();
     }
@@ -21,6 +21,7 @@ import org.kie.hacep.core.infra.election.KubernetesLockConfiguration;
 import org.kie.hacep.core.infra.election.LeaderElection;
 import org.kie.hacep.core.infra.election.LeaderElectionImpl;
 import org.kie.hacep.core.infra.election.State;
+import org.kie.remote.util.PartitionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,12 +33,20 @@ public class CoreKube {
     private LeaderElection leadership;
 
     public CoreKube(String namespace, State initialState){
+        this(namespace, null, initialState);
+    }
+
+    /**
+     * @param partition the partition served by this pod, each partition elects its own leader, null when the
+     * deployment isn't partitioned
+     */
+    public CoreKube(String namespace, Integer partition, State initialState){
         kubernetesClient = new DefaultKubernetesClient();
-        configuration = createKubeConfiguration(namespace);
+        configuration = createKubeConfiguration(namespace, partition);
         leadership = new LeaderElectionImpl(kubernetesClient, configuration, initialState);
     }
 
-    private KubernetesLockConfiguration createKubeConfiguration(String namespace) {
+    private KubernetesLockConfiguration createKubeConfiguration(String namespace, Integer partition) {
         String podName = System.getenv("POD_NAME");
         if (podName == null) {
             podName = System.getenv("HOSTNAME");
@@ -46,6 +55,9 @@ public class CoreKube {
             logger.info("PodName: {}", podName);
         }
         KubernetesLockConfiguration newConfiguration = new KubernetesLockConfiguration(namespace);
+        if (partition != null) {
+            newConfiguration.setConfigMapName(PartitionUtil.partitionName(newConfiguration.getConfigMapName(), partition));
+        }
         newConfiguration.setPodName(podName);
         return newConfiguration;
     }
@@ -30,7 +30,6 @@ import org.kie.hacep.EnvConfig;
 import org.kie.hacep.consumer.DroolsConsumerHandler;
 import org.kie.hacep.core.infra.DefaultSessionSnapShooter;
 import org.kie.hacep.core.infra.SessionSnapshooter;
-import org.kie.hacep.core.infra.consumer.ConsumerHandler;
 import org.kie.hacep.core.infra.consumer.DefaultKafkaConsumer;
 import org.kie.hacep.core.infra.consumer.EventConsumer;
 import org.kie.hacep.core.infra.consumer.ItemToProcess;
@@ -46,6 +45,7 @@ import org.kie.remote.impl.consumer.Listener;
 import org.kie.remote.impl.producer.EventProducer;
 import org.kie.remote.impl.producer.LocalProducer;
 import org.kie.remote.impl.producer.Producer;
+import org.kie.remote.util.SerializationUtil;
 
 public class InfraFactory {
 
@@ -57,19 +57,22 @@ public class InfraFactory {
 
     public static EventConsumer getEventConsumer(EnvConfig config) {
         return config.isLocal() ? new LocalConsumer(config) : new DefaultKafkaConsumer(config,
-                                                                                       getProducer(false), snapshotOnDemandUtils);
+                                                                                       getProducer(config), snapshotOnDemandUtils);
     }
 
     public static SessionSnapshooter getSnapshooter(EnvConfig envConfig) {
         return new DefaultSessionSnapShooter(envConfig, snapshotOnDemandUtils);
     }
 
-    public static ConsumerHandler getConsumerHandler(Producer producer,
-                                                     EnvConfig envConfig) {
-        return new DroolsConsumerHandler(producer,
-                                         envConfig,
-                                         getSnapshooter(envConfig),
-                                         new ConsumerUtilsCoreImpl());
+    public static DroolsConsumerHandler getConsumerHandler(Producer producer,
+                                                           EnvConfig envConfig) {
+        DefaultSessionSnapShooter snapShooter = new DefaultSessionSnapShooter(envConfig, snapshotOnDemandUtils);
+        DroolsConsumerHandler consumerHandler = new DroolsConsumerHandler(producer,
+                                                                          envConfig,
+                                                                          snapShooter,
+                                                                          new ConsumerUtilsCoreImpl());
+        snapShooter.getMetrics().register(consumerHandler.getMetrics());
+        return consumerHandler;
     }
 
     public static KafkaConsumer getConsumer(String topic,
@@ -113,6 +116,15 @@ public class InfraFactory {
         return isLocal ? new LocalProducer() : new EventProducer();
     }
 
+    /**
+     * Returns a producer serializing its messages with the serializer configured in the given {@link EnvConfig}.
+     */
+    public static Producer getProducer(EnvConfig config) {
+        Producer producer = getProducer(config.isLocal());
+        producer.setSerializer(SerializationUtil.getSerializer(config.getMessageSerializer()));
+        return producer;
+    }
+
     public static RemoteStreamingKieSession createRemoteStreamingKieSession(Properties configuration,
                                                                             Listener listener,
                                                                             Producer producer) {
@@ -17,23 +17,31 @@ package org.kie.hacep.core.infra;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.kie.api.KieServices;
-import org.kie.api.marshalling.KieMarshallers;
+import org.kie.api.marshalling.Marshaller;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
-import org.kie.api.runtime.KieSessionConfiguration;
-import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.hacep.Config;
 import org.kie.hacep.EnvConfig;
+import org.kie.hacep.consumer.FactHandlesManager;
 import org.kie.hacep.consumer.KieContainerUtils;
 import org.kie.hacep.core.KieSessionContext;
+import org.kie.hacep.core.infra.message.SnapshotManifestMessage;
 import org.kie.hacep.core.infra.message.SnapshotMessage;
 import org.kie.hacep.core.infra.utils.SnapshotOnDemandUtils;
 import org.kie.remote.impl.producer.EventProducer;
@@ -47,73 +55,232 @@ public class DefaultSessionSnapShooter implements SessionSnapshooter {
     private final Logger logger = LoggerFactory.getLogger(DefaultSessionSnapShooter.class);
     private EnvConfig envConfig;
     private SnapshotOnDemandUtils snapshotOnDemandUtils;
+    private final SnapshotMetrics metrics = new SnapshotMetrics();
+    /* the snapshot waiting for the snapshot thread, a newer one replaces it */
+    private final AtomicReference<PendingSnapshot> pending = new AtomicReference<>();
+    private ExecutorService snapshotExecutor;
+    private Producer producer;
 
     public static final String KEY = "LAST-SNAPSHOT";
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC_FIRST = GZIPInputStream.GZIP_MAGIC & 0xff;
+    private static final int GZIP_MAGIC_SECOND = GZIPInputStream.GZIP_MAGIC >> 8;
 
     public DefaultSessionSnapShooter(EnvConfig envConfig, SnapshotOnDemandUtils snapshotOnDemandUtils) {
         this.envConfig = envConfig;
         this.snapshotOnDemandUtils = snapshotOnDemandUtils;
     }
 
+    /**
+     * Takes a snapshot of the session. The session is always marshalled on the calling thread, which is the only one
+     * allowed to touch it; with <code>async.snapshot</code> only compressing and publishing the marshalled bytes
+     * happen on a dedicated thread. With <code>snapshot.chunk.size</code> the snapshot is published in compressed
+     * chunks, synchronous snapshots are marshalled straight into them.
+     */
     public void serialize(KieSessionContext kieSessionContext, String lastInsertedEventkey, long lastInsertedEventOffset) {
-        KieMarshallers marshallers = KieServices.get().getMarshallers();
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Producer producer = new EventProducer<>();
-            producer.start(Config.getSnapshotProducerConfig());
-            marshallers.newMarshaller(kieSessionContext.
-                    getKieSession().
-                    getKieBase()).
-                    marshall(out, kieSessionContext.getKieSession());
-            /* We are storing the last inserted key and offset together with the session's bytes */
-            byte[] bytes = out.toByteArray();
-            SnapshotMessage message = new SnapshotMessage(UUID.randomUUID().toString(),
-                                                          envConfig.getKJarGAV(),
-                                                          bytes,
-                                                          kieSessionContext.getFhManager(),
-                                                          lastInsertedEventkey,
-                                                          lastInsertedEventOffset,
-                                                          LocalDateTime.now());
-            producer.produceSync(envConfig.getSnapshotTopicName(), KEY, message);
-            producer.stop();
+        long start = System.nanoTime();
+        KieSession kieSession = kieSessionContext.getKieSession();
+        Marshaller marshaller = KieServices.get().getMarshallers().newMarshaller(kieSession.getKieBase());
+        try {
+            if (envConfig.getSnapshotChunkSize() > 0 && !envConfig.isAsyncSnapshot()) {
+                publishChunks(kieSessionContext.getFhManager(),
+                              out -> marshaller.marshall(out, kieSession),
+                              lastInsertedEventkey,
+                              lastInsertedEventOffset,
+                              LocalDateTime.now(),
+                              start);
+                metrics.paused(System.nanoTime() - start);
+                return;
+            }
+            PendingSnapshot snapshot;
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                marshaller.marshall(out, kieSession);
+                /* We are storing the last inserted key and offset together with the session's bytes */
+                snapshot = new PendingSnapshot(out.toByteArray(),
+                                               envConfig.isAsyncSnapshot() ? kieSessionContext.getFhManager().copy() : kieSessionContext.getFhManager(),
+                                               lastInsertedEventkey,
+                                               lastInsertedEventOffset,
+                                               LocalDateTime.now(),
+                                               start);
+            }
+            metrics.paused(System.nanoTime() - start);
+            if (envConfig.isAsyncSnapshot()) {
+                publishAsync(snapshot);
+            } else {
+                publish(snapshot);
+            }
         } catch (IOException e) {
+            metrics.failed();
             logger.error(e.getMessage(), e);
         }
     }
 
+    private synchronized void publishAsync(PendingSnapshot snapshot) {
+        if (snapshotExecutor == null) {
+            snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "drools-ha-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (pending.getAndSet(snapshot) == null) {
+            snapshotExecutor.execute(this::publishPending);
+        } else {
+            metrics.skipped();
+        }
+    }
+
+    private void publishPending() {
+        PendingSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot != null) {
+            try {
+                publish(snapshot);
+            } catch (IOException | RuntimeException e) {
+                metrics.failed();
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void publish(PendingSnapshot snapshot) throws IOException {
+        if (envConfig.getSnapshotChunkSize() > 0) {
+            publishChunks(snapshot.fhManager, out -> out.write(snapshot.session), snapshot.key, snapshot.offset, snapshot.time, snapshot.start);
+            return;
+        }
+        byte[] bytes = envConfig.isAsyncSnapshot() ? compress(snapshot.session) : snapshot.session;
+        SnapshotMessage message = new SnapshotMessage(UUID.randomUUID().toString(),
+                                                      envConfig.getKJarGAV(),
+                                                      bytes,
+                                                      snapshot.fhManager,
+                                                      snapshot.key,
+                                                      snapshot.offset,
+                                                      snapshot.time);
+        getProducer().produceSync(envConfig.getSnapshotTopicName(), KEY, message);
+        metrics.published(System.nanoTime() - snapshot.start, snapshot.session.length, bytes.length);
+        if (logger.isInfoEnabled()) {
+            logger.info("Snapshot published {}", metrics);
+        }
+    }
+
+    /**
+     * Publishes the chunks and then the manifest of a snapshot. Once decompressed, the chunks hold the fact handles
+     * manager followed by the session, so a replica can restore them reading one chunk at a time.
+     */
+    private void publishChunks(FactHandlesManager fhManager, SessionWriter sessionWriter, String key, long offset, LocalDateTime time, long start) throws IOException {
+        String snapshotId = UUID.randomUUID().toString();
+        Producer snapshotProducer = getProducer();
+        SnapshotChunkOutputStream chunks = new SnapshotChunkOutputStream(snapshotId, envConfig.getSnapshotChunkSize(), snapshotProducer, envConfig.getSnapshotTopicName(), KEY);
+        long factHandlesLength;
+        long sessionLength;
+        try (CountingOutputStream out = new CountingOutputStream(new GZIPOutputStream(chunks, BUFFER_SIZE))) {
+            ObjectOutputStream fhOut = new ObjectOutputStream(out);
+            fhOut.writeObject(fhManager);
+            fhOut.flush();
+            factHandlesLength = out.getCount();
+            sessionWriter.write(out);
+            sessionLength = out.getCount() - factHandlesLength;
+        }
+        snapshotProducer.flush();
+        SnapshotManifestMessage manifest = new SnapshotManifestMessage(snapshotId,
+                                                                       envConfig.getKJarGAV(),
+                                                                       chunks.getChunks(),
+                                                                       factHandlesLength,
+                                                                       sessionLength,
+                                                                       key,
+                                                                       offset,
+                                                                       time);
+        snapshotProducer.produceSync(envConfig.getSnapshotTopicName(), KEY, manifest);
+        metrics.published(System.nanoTime() - start, sessionLength, chunks.getSize());
+        if (logger.isInfoEnabled()) {
+            logger.info("Snapshot published in {} chunks {}", chunks.getChunks(), metrics);
+        }
+    }
+
+    /* accessed by one thread at a time, the consumer one in sync mode and the snapshot one in async mode */
+    private Producer getProducer() {
+        if (producer == null) {
+            producer = createProducer();
+            producer.start(Config.getSnapshotProducerConfig());
+        }
+        return producer;
+    }
+
+    protected Producer createProducer() {
+        return new EventProducer<>(SerializationUtil.getSerializer(envConfig.getMessageSerializer()));
+    }
+
+    public SnapshotMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Waits for the snapshot being published, if any, and releases the snapshot thread and producer.
+     */
+    @Override
+    public synchronized void stop() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            try {
+                if (!snapshotExecutor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Snapshot not published within {} seconds", STOP_TIMEOUT_SECONDS);
+                    snapshotExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            snapshotExecutor = null;
+        }
+        if (producer != null) {
+            producer.stop();
+            producer = null;
+        }
+    }
+
+    static byte[] compress(byte[] session) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, session.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(session);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Opens the session bytes of a {@link SnapshotMessage}, decompressing them when they have been published by the
+     * async snapshot mode. A marshalled session can't start with the GZIP magic as it isn't a valid protobuf tag.
+     */
+    public static InputStream openSession(byte[] serializedSession) throws IOException {
+        InputStream in = new ByteArrayInputStream(serializedSession);
+        if (serializedSession.length > 1 && (serializedSession[0] & 0xff) == GZIP_MAGIC_FIRST && (serializedSession[1] & 0xff) == GZIP_MAGIC_SECOND) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return in;
+    }
+
     public SnapshotInfos deserialize() {
         KieServices srv = KieServices.get();
         if (srv != null) {
             KafkaConsumer<String, byte[]> consumer = snapshotOnDemandUtils.getConfiguredSnapshotConsumer(envConfig);
-            ConsumerRecords<String, byte[]> records = consumer.poll(envConfig.getPollSnapshotDuration());
-            byte[] bytes = null;
-            for (ConsumerRecord record : records) {
-                bytes = (byte[]) record.value();
-            }
-            consumer.close();
-
-            SnapshotMessage snapshotMsg = bytes != null ? SerializationUtil.deserialize(bytes) : null;
-            if (snapshotMsg != null) {
-                KieContainer kieContainer = null;
-                KieSession kSession = null;
-                try (ByteArrayInputStream in = new ByteArrayInputStream(snapshotMsg.getSerializedSession())) {
-
-                    KieSessionConfiguration conf = srv.newKieSessionConfiguration();
-                    conf.setOption(ClockTypeOption.get("pseudo"));
-                    kieContainer = KieContainerUtils.getKieContainer(envConfig, srv);
-                    kSession = srv.getMarshallers().newMarshaller(kieContainer.getKieBase()).unmarshall(in, conf, null);
-                } catch (IOException | ClassNotFoundException e) {
-                    logger.error(e.getMessage(), e);
+            try {
+                SnapshotReader reader = new SnapshotReader(consumer, envConfig.getPollSnapshotDuration());
+                reader.readToEnd();
+                if (reader.hasSnapshot()) {
+                    try {
+                        return reader.restore(envConfig);
+                    } catch (IOException | ClassNotFoundException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                    KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, srv);
+                    return new SnapshotInfos(kieContainer.newKieSession(),
+                                             kieContainer,
+                                             null,
+                                             reader.getLastInsertedEventkey(),
+                                             reader.getLastInsertedEventOffset(),
+                                             reader.getTime(),
+                                             reader.getKjarGAV());
                 }
-                if (kSession == null && kieContainer != null) {//Snapshot topic empty
-                    kSession = kieContainer.newKieSession();
-                }
-                return new SnapshotInfos(kSession,
-                                         kieContainer,
-                                         snapshotMsg.getFhManager(),
-                                         snapshotMsg.getLastInsertedEventkey(),
-                                         snapshotMsg.getLastInsertedEventOffset(),
-                                         snapshotMsg.getTime(),
-                                         snapshotMsg.getKjarGAV());
+            } finally {
+                consumer.close();
             }
         } else {
             throw new IllegalStateException("KieServices is null");
@@ -124,18 +291,61 @@ public class DefaultSessionSnapShooter implements SessionSnapshooter {
     @Override
     public LocalDateTime getLastSnapshotTime() {
         KafkaConsumer<String, byte[]> consumer = snapshotOnDemandUtils.getConfiguredSnapshotConsumer(envConfig);
-        ConsumerRecords<String, byte[]> records = consumer.poll(envConfig.getPollSnapshotDuration());
-        byte[] bytes = null;
-        for (ConsumerRecord record : records) {
-            bytes = (byte[]) record.value();
-        }
-        consumer.close();
-        SnapshotMessage snapshotMsg = bytes != null ? SerializationUtil.deserialize(bytes) : null;
-        if (snapshotMsg != null) {
-            return snapshotMsg.getTime();
-        } else {
-            return null;
+        try {
+            SnapshotReader reader = new SnapshotReader(consumer, envConfig.getPollSnapshotDuration());
+            reader.readToEnd();
+            return reader.hasSnapshot() ? reader.getTime() : null;
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private interface SessionWriter {
+
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        private long getCount() {
+            return count;
         }
     }
 
+    private static class PendingSnapshot {
+
+        private final byte[] session;
+        private final FactHandlesManager fhManager;
+        private final String key;
+        private final long offset;
+        private final LocalDateTime time;
+        private final long start;
+
+        private PendingSnapshot(byte[] session, FactHandlesManager fhManager, String key, long offset, LocalDateTime time, long start) {
+            this.session = session;
+            this.fhManager = fhManager;
+            this.key = key;
+            this.offset = offset;
+            this.time = time;
+            this.start = start;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.HTTPServer;
+import org.kie.hacep.core.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the {@link PipelineMetrics} of this pod in the Prometheus text format at <code>/metrics</code>.
+ * Every pod runs its own server, so the metrics of the replicas can be scraped as well as the ones of the leader.
+ */
+public class MetricsServer {
+
+    public static final String PATH = "/metrics";
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServer.class);
+
+    private final int port;
+    private final CollectorRegistry registry;
+    private HTTPServer server;
+
+    public MetricsServer(int port, PipelineMetrics metrics) {
+        this.port = port;
+        this.registry = metrics.getRegistry();
+    }
+
+    public MetricsServer start() {
+        try {
+            // daemon threads, the server doesn't keep the pod alive once the engine is stopped
+            server = new HTTPServer(new InetSocketAddress(port), registry, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start the metrics server on port " + port, e);
+        }
+        logger.info("Metrics served on port {}", port);
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+}
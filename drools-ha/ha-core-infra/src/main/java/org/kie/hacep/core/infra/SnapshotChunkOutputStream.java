@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.kie.hacep.core.infra.message.SnapshotChunkMessage;
+import org.kie.remote.impl.producer.Producer;
+
+/**
+ * Publishes what is written to it as {@link SnapshotChunkMessage} of at most the given size. Chunks are sent
+ * asynchronously, the producer has to be flushed once the stream is closed.
+ */
+class SnapshotChunkOutputStream extends OutputStream {
+
+    private final String snapshotId;
+    private final Producer producer;
+    private final String topic;
+    private final String key;
+    private final byte[] buffer;
+    private int position;
+    private int chunks;
+    private long size;
+    private boolean closed;
+
+    SnapshotChunkOutputStream(String snapshotId, int chunkSize, Producer producer, String topic, String key) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid snapshot chunk size " + chunkSize);
+        }
+        this.snapshotId = snapshotId;
+        this.producer = producer;
+        this.topic = topic;
+        this.key = key;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(int b) {
+        if (position == buffer.length) {
+            publishChunk();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            if (position == buffer.length) {
+                publishChunk();
+            }
+            int copied = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, copied);
+            position += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (position > 0) {
+                publishChunk();
+            }
+        }
+    }
+
+    private void publishChunk() {
+        producer.produceAsync(topic, key, new SnapshotChunkMessage(snapshotId, chunks++, Arrays.copyOf(buffer, position)));
+        size += position;
+        position = 0;
+    }
+
+    int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Bytes published so far.
+     */
+    long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kie.hacep.core.PipelineMetrics;
+
+/**
+ * Timings and sizes of the snapshots taken by a {@link DefaultSessionSnapShooter}. The pause is the time event
+ * processing is stopped to take a consistent copy of the session, the duration covers the whole snapshot up to its
+ * publication.
+ */
+public class SnapshotMetrics {
+
+    private final AtomicLong snapshots = new AtomicLong();
+    private final AtomicLong failedSnapshots = new AtomicLong();
+    private final AtomicLong skippedSnapshots = new AtomicLong();
+    private final AtomicLong totalPauseNanos = new AtomicLong();
+    private final AtomicLong maxPauseNanos = new AtomicLong();
+    private volatile long lastPauseNanos;
+    private volatile long lastDurationNanos;
+    private volatile long lastSessionSize;
+    private volatile long lastPublishedSize;
+
+    void paused(long pauseNanos) {
+        lastPauseNanos = pauseNanos;
+        totalPauseNanos.addAndGet(pauseNanos);
+        maxPauseNanos.accumulateAndGet(pauseNanos, Math::max);
+    }
+
+    void published(long durationNanos, long sessionSize, long publishedSize) {
+        lastDurationNanos = durationNanos;
+        lastSessionSize = sessionSize;
+        lastPublishedSize = publishedSize;
+        snapshots.incrementAndGet();
+    }
+
+    void failed() {
+        failedSnapshots.incrementAndGet();
+    }
+
+    void skipped() {
+        skippedSnapshots.incrementAndGet();
+    }
+
+    public long getSnapshots() {
+        return snapshots.get();
+    }
+
+    public long getFailedSnapshots() {
+        return failedSnapshots.get();
+    }
+
+    /**
+     * Snapshots replaced by a newer one while waiting for the publication of the previous one.
+     */
+    public long getSkippedSnapshots() {
+        return skippedSnapshots.get();
+    }
+
+    public long getLastPauseNanos() {
+        return lastPauseNanos;
+    }
+
+    public long getMaxPauseNanos() {
+        return maxPauseNanos.get();
+    }
+
+    public long getTotalPauseNanos() {
+        return totalPauseNanos.get();
+    }
+
+    public long getLastDurationNanos() {
+        return lastDurationNanos;
+    }
+
+    /**
+     * Size in bytes of the last marshalled session, before compression.
+     */
+    public long getLastSessionSize() {
+        return lastSessionSize;
+    }
+
+    /**
+     * Size in bytes of the session as published in the last snapshot.
+     */
+    public long getLastPublishedSize() {
+        return lastPublishedSize;
+    }
+
+    /**
+     * Exposes these metrics as gauges of the given pipeline metrics.
+     */
+    public void register(PipelineMetrics metrics) {
+        String pause = "Time event processing was stopped to take snapshots";
+        String size = "Size of the last snapshot";
+        metrics.gauge("drools_ha_snapshots_total", "Snapshots published", this::getSnapshots);
+        metrics.gauge("drools_ha_snapshot_failures_total", "Snapshots failed", this::getFailedSnapshots);
+        metrics.gauge("drools_ha_snapshots_skipped_total", "Snapshots replaced by a newer one before being published", this::getSkippedSnapshots);
+        metrics.gauge("drools_ha_snapshot_pause_seconds", pause, () -> getLastPauseNanos() / 1e9, "stat", "last");
+        metrics.gauge("drools_ha_snapshot_pause_seconds", pause, () -> getMaxPauseNanos() / 1e9, "stat", "max");
+        metrics.gauge("drools_ha_snapshot_pause_seconds", pause, () -> getTotalPauseNanos() / 1e9, "stat", "total");
+        metrics.gauge("drools_ha_snapshot_duration_seconds", "Time taken by the last snapshot up to its publication", () -> getLastDurationNanos() / 1e9);
+        metrics.gauge("drools_ha_snapshot_size_bytes", size, this::getLastSessionSize, "kind", "session");
+        metrics.gauge("drools_ha_snapshot_size_bytes", size, this::getLastPublishedSize, "kind", "published");
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SnapshotMetrics{");
+        sb.append("snapshots=").append(snapshots);
+        sb.append(", failedSnapshots=").append(failedSnapshots);
+        sb.append(", skippedSnapshots=").append(skippedSnapshots);
+        sb.append(", lastPauseNanos=").append(lastPauseNanos);
+        sb.append(", maxPauseNanos=").append(maxPauseNanos);
+        sb.append(", totalPauseNanos=").append(totalPauseNanos);
+        sb.append(", lastDurationNanos=").append(lastDurationNanos);
+        sb.append(", lastSessionSize=").append(lastSessionSize);
+        sb.append(", lastPublishedSize=").append(lastPublishedSize);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.kie.api.KieServices;
+import org.kie.api.marshalling.Marshaller;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.hacep.EnvConfig;
+import org.kie.hacep.consumer.FactHandlesManager;
+import org.kie.hacep.consumer.KieContainerUtils;
+import org.kie.hacep.core.infra.message.SnapshotChunkMessage;
+import org.kie.hacep.core.infra.message.SnapshotManifestMessage;
+import org.kie.hacep.core.infra.message.SnapshotMessage;
+import org.kie.remote.util.SerializationUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the last complete snapshot of the snapshot topic, published either as a single {@link SnapshotMessage} or in
+ * chunks followed by a {@link SnapshotManifestMessage}. Chunks are only located while looking for the snapshot, on
+ * restore they are read again and streamed into the unmarshaller, so only one chunk at a time is held in memory.
+ * <p>
+ * {@link #readToEnd()} searches the topic backwards from its end, so the older snapshots it retains aren't read,
+ * while {@link #poll()} reads forward the snapshots published from the current position on.
+ */
+public class SnapshotReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotReader.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Consumer<String, byte[]> consumer;
+    private final Duration pollDuration;
+    /* position of the first chunk of the snapshots whose manifest hasn't been read yet */
+    private final Map<String, ChunkPosition> firstChunks = new HashMap<>();
+    private SnapshotMessage snapshotMessage;
+    private SnapshotManifestMessage manifest;
+    private ChunkPosition manifestFirstChunk;
+
+    public SnapshotReader(Consumer<String, byte[]> consumer, Duration pollDuration) {
+        this.consumer = consumer;
+        this.pollDuration = pollDuration;
+    }
+
+    /**
+     * Reads the next records of the snapshot topic, returns false if there weren't any.
+     */
+    public boolean poll() {
+        ConsumerRecords<String, byte[]> records = consumer.poll(pollDuration);
+        for (ConsumerRecord<String, byte[]> record : records) {
+            read(record);
+        }
+        return !records.isEmpty();
+    }
+
+    /**
+     * Finds the last complete snapshot published up to now. Records are read backwards from the end offsets in
+     * windows doubling in size, from one record on, as the manifest or the snapshot is usually the last record;
+     * the first chunk of a manifest is then located from the number of its chunks.
+     */
+    public void readToEnd() {
+        Set<TopicPartition> partitions = consumer.assignment();
+        Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+        for (TopicPartition partition : partitions) {
+            readLast(partition, beginningOffsets.get(partition), endOffsets.get(partition));
+        }
+    }
+
+    private void readLast(TopicPartition partition, long beginningOffset, long endOffset) {
+        long to = endOffset;
+        int window = 1;
+        while (to > beginningOffset) {
+            long from = Math.max(beginningOffset, to - window);
+            List<ConsumerRecord<String, byte[]>> records = read(partition, from, to);
+            for (int i = records.size() - 1; i >= 0; i--) {
+                ConsumerRecord<String, byte[]> record = records.get(i);
+                Object message = SerializationUtil.deserialize(record.value());
+                if (message instanceof SnapshotMessage) {
+                    SnapshotMessage candidate = (SnapshotMessage) message;
+                    if (!hasSnapshot() || candidate.getTime().isAfter(getTime())) {
+                        snapshotMessage = candidate;
+                        manifest = null;
+                        manifestFirstChunk = null;
+                    }
+                    return;
+                }
+                if (message instanceof SnapshotManifestMessage) {
+                    SnapshotManifestMessage candidate = (SnapshotManifestMessage) message;
+                    Long firstChunk = findFirstChunk(partition, beginningOffset, record.offset(), candidate);
+                    if (firstChunk != null) {
+                        if (!hasSnapshot() || candidate.getTime().isAfter(getTime())) {
+                            manifest = candidate;
+                            manifestFirstChunk = new ChunkPosition(partition, firstChunk);
+                            snapshotMessage = null;
+                        }
+                        return;
+                    }
+                    logger.warn("Skipping snapshot {}, its chunks are missing", candidate.getId());
+                }
+            }
+            to = from;
+            window *= 2;
+        }
+    }
+
+    /**
+     * Returns the offset of the first chunk of the given manifest, or null when it is missing. The chunks of a
+     * snapshot are published one after the other right before its manifest, some of them possibly twice, so the
+     * first one is at the latest as many records before the manifest as there are chunks.
+     */
+    private Long findFirstChunk(TopicPartition partition, long beginningOffset, long manifestOffset, SnapshotManifestMessage manifest) {
+        long offset = manifestOffset - manifest.getChunks();
+        while (offset >= beginningOffset) {
+            List<ConsumerRecord<String, byte[]>> records = read(partition, offset, offset + 1);
+            if (records.isEmpty()) {
+                return null;
+            }
+            Object message = SerializationUtil.deserialize(records.get(0).value());
+            if (!(message instanceof SnapshotChunkMessage) || !manifest.getId().equals(((SnapshotChunkMessage) message).getId())) {
+                return null;
+            }
+            int index = ((SnapshotChunkMessage) message).getIndex();
+            if (index == 0) {
+                return offset;
+            }
+            /* chunks before this one have been sent again */
+            offset -= index;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the records of the partition from the given offset included to the given one excluded.
+     */
+    private List<ConsumerRecord<String, byte[]>> read(TopicPartition partition, long from, long to) {
+        consumer.seek(partition, from);
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        while (consumer.position(partition) < to) {
+            ConsumerRecords<String, byte[]> polled = consumer.poll(pollDuration);
+            if (polled.isEmpty()) {
+                break;
+            }
+            for (ConsumerRecord<String, byte[]> record : polled.records(partition)) {
+                if (record.offset() >= from && record.offset() < to) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    private void read(ConsumerRecord<String, byte[]> record) {
+        Object message = SerializationUtil.deserialize(record.value());
+        if (message instanceof SnapshotChunkMessage) {
+            SnapshotChunkMessage chunk = (SnapshotChunkMessage) message;
+            if (chunk.getIndex() == 0) {
+                firstChunks.put(chunk.getId(), new ChunkPosition(new TopicPartition(record.topic(), record.partition()), record.offset()));
+            }
+        } else if (message instanceof SnapshotManifestMessage) {
+            SnapshotManifestMessage candidate = (SnapshotManifestMessage) message;
+            ChunkPosition firstChunk = firstChunks.remove(candidate.getId());
+            if (firstChunk != null) {
+                manifest = candidate;
+                manifestFirstChunk = firstChunk;
+                snapshotMessage = null;
+            } else {
+                logger.warn("Skipping snapshot {}, its chunks are missing", candidate.getId());
+            }
+        } else if (message instanceof SnapshotMessage) {
+            snapshotMessage = (SnapshotMessage) message;
+            manifest = null;
+            manifestFirstChunk = null;
+        }
+    }
+
+    public boolean hasSnapshot() {
+        return snapshotMessage != null || manifest != null;
+    }
+
+    public LocalDateTime getTime() {
+        return manifest != null ? manifest.getTime() : snapshotMessage.getTime();
+    }
+
+    public String getLastInsertedEventkey() {
+        return manifest != null ? manifest.getLastInsertedEventkey() : snapshotMessage.getLastInsertedEventkey();
+    }
+
+    public long getLastInsertedEventOffset() {
+        return manifest != null ? manifest.getLastInsertedEventOffset() : snapshotMessage.getLastInsertedEventOffset();
+    }
+
+    public String getKjarGAV() {
+        return manifest != null ? manifest.getKjarGAV() : snapshotMessage.getKjarGAV();
+    }
+
+    public SnapshotInfos restore(EnvConfig envConfig) throws IOException, ClassNotFoundException {
+        KieServices srv = KieServices.get();
+        KieSessionConfiguration conf = srv.newKieSessionConfiguration();
+        conf.setOption(ClockTypeOption.get("pseudo"));
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, srv);
+        Marshaller marshaller = srv.getMarshallers().newMarshaller(kieContainer.getKieBase());
+        FactHandlesManager fhManager;
+        KieSession kSession;
+        if (manifest != null) {
+            try (InputStream in = new GZIPInputStream(new ChunkInputStream(manifest, manifestFirstChunk), BUFFER_SIZE)) {
+                /* the fact handles precede the session, so they are restored without reading the whole session */
+                fhManager = (FactHandlesManager) new ObjectInputStream(new LimitedInputStream(in, manifest.getFactHandlesLength())).readObject();
+                kSession = marshaller.unmarshall(in, conf, null);
+            }
+        } else {
+            try (InputStream in = DefaultSessionSnapShooter.openSession(snapshotMessage.getSerializedSession())) {
+                fhManager = snapshotMessage.getFhManager();
+                kSession = marshaller.unmarshall(in, conf, null);
+            }
+        }
+        return new SnapshotInfos(kSession,
+                                 kieContainer,
+                                 fhManager,
+                                 getLastInsertedEventkey(),
+                                 getLastInsertedEventOffset(),
+                                 getTime(),
+                                 getKjarGAV());
+    }
+
+    private static class ChunkPosition {
+
+        private final TopicPartition partition;
+        private final long offset;
+
+        private ChunkPosition(TopicPartition partition, long offset) {
+            this.partition = partition;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Reads the chunks of a snapshot in order starting from the first one, polling them one batch at a time.
+     */
+    private class ChunkInputStream extends InputStream {
+
+        private final String snapshotId;
+        private final int chunks;
+        private Iterator<ConsumerRecord<String, byte[]>> records = Collections.emptyIterator();
+        private byte[] chunk = new byte[0];
+        private int position;
+        private int nextIndex;
+
+        private ChunkInputStream(SnapshotManifestMessage manifest, ChunkPosition firstChunk) {
+            this.snapshotId = manifest.getId();
+            this.chunks = manifest.getChunks();
+            consumer.seek(firstChunk.partition, firstChunk.offset);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return nextChunkIfNeeded() ? chunk[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextChunkIfNeeded()) {
+                return -1;
+            }
+            int read = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, bytes, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean nextChunkIfNeeded() throws IOException {
+            while (position == chunk.length) {
+                if (nextIndex == chunks) {
+                    return false;
+                }
+                chunk = nextChunk().getBytes();
+                position = 0;
+                nextIndex++;
+            }
+            return true;
+        }
+
+        private SnapshotChunkMessage nextChunk() throws IOException {
+            while (true) {
+                while (!records.hasNext()) {
+                    ConsumerRecords<String, byte[]> polled = consumer.poll(pollDuration);
+                    if (polled.isEmpty()) {
+                        throw new IOException("Chunk " + nextIndex + " of snapshot " + snapshotId + " not found");
+                    }
+                    records = polled.iterator();
+                }
+                Object message = SerializationUtil.deserialize(records.next().value());
+                if (message instanceof SnapshotChunkMessage && snapshotId.equals(((SnapshotChunkMessage) message).getId())) {
+                    SnapshotChunkMessage next = (SnapshotChunkMessage) message;
+                    if (next.getIndex() == nextIndex) {
+                        return next;
+                    }
+                    if (next.getIndex() > nextIndex) {
+                        throw new IOException("Chunk " + nextIndex + " of snapshot " + snapshotId + " not found");
+                    }
+                    /* a chunk sent again, already read */
+                }
+            }
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int read = in.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            /* the underlying stream is still to be read */
+        }
+    }
+}
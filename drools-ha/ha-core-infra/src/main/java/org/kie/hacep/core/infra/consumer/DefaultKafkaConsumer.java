@@ -15,12 +15,15 @@
  */
 package org.kie.hacep.core.infra.consumer;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -29,11 +32,13 @@ import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.apache.kafka.common.errors.WakeupException;
 import org.kie.hacep.Config;
 import org.kie.hacep.EnvConfig;
 import org.kie.hacep.consumer.DroolsConsumerHandler;
 import org.kie.hacep.core.InfraFactory;
+import org.kie.hacep.core.PipelineMetrics;
 import org.kie.hacep.core.infra.DefaultSessionSnapShooter;
 import org.kie.hacep.core.infra.SnapshotInfos;
 import org.kie.hacep.core.infra.election.State;
@@ -57,6 +62,8 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
 
     public static final String SECONDARY_CONSUMER = "SecondaryConsumer";
     public static final String PRIMARY_CONSUMER = "PrimaryConsumer";
+    private static final long LAG_UPDATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration LAG_UPDATE_TIMEOUT = Duration.ofMillis(100);
     private Logger logger = LoggerFactory.getLogger(DefaultKafkaConsumer.class);
     private Map<TopicPartition, OffsetAndMetadata> offsetsEvents = new HashMap<>();
     protected Consumer<String, T> kafkaConsumer;
@@ -82,8 +89,14 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
     protected Producer producer;
     protected ConsumerUtilsCore consumerUtilsCore;
     protected SnapshotOnDemandUtils snapshotOnDemandUtils;
+    private PipelineMetrics metrics;
+    private AtomicLong processedEventOffset;
+    private AtomicLong processedControlOffset;
+    private long lastLagUpdate;
 
-    public DefaultKafkaConsumer(){}
+    public DefaultKafkaConsumer(){
+        initMetrics(new PipelineMetrics());
+    }
 
     public DefaultKafkaConsumer(EnvConfig config, Producer producer, SnapshotOnDemandUtils snapshotOnDemandUtils) {
         this.envConfig = config;
@@ -97,6 +110,17 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
         this.producer = producer;
         this.consumerUtilsCore = new ConsumerUtilsCoreImpl();
         this.snapshotOnDemandUtils = snapshotOnDemandUtils;
+        initMetrics(new PipelineMetrics());
+    }
+
+    PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void initMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+        processedEventOffset = metrics.processedOffset(PipelineMetrics.TOPIC_EVENTS);
+        processedControlOffset = metrics.processedOffset(PipelineMetrics.TOPIC_CONTROL);
     }
 
     public void initKafkaConsumer(){
@@ -113,6 +137,7 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
 
     public void initConsumer(ConsumerHandler consumerHandler) {
         this.consumerHandler = (DroolsConsumerHandler) consumerHandler;
+        initMetrics(this.consumerHandler.getMetrics());
         this.snapShooter = (DefaultSessionSnapShooter) InfraFactory.getSnapshooter(envConfig);
         initKafkaConsumer();
         updateKafkaSecondaryConsumer();
@@ -215,7 +240,8 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
 
         if (snapshotInfos != null) {
             if (partitionCollection.size() > 1) {
-                throw new IllegalStateException("The system must run with only one partition per topic");
+                throw new IllegalStateException("The system must run with only one partition per topic, " +
+                                                        "scale out with a partitioned deployment (" + Config.PARTITION + ") instead");
             }
             kafkaConsumer.assignment().forEach(topicPartition -> kafkaConsumer.seek(partitionCollection.iterator().next(),
                                                                                     snapshotInfos.getOffsetDuringSnapshot()));
@@ -335,7 +361,45 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
             } else {
                 defaultProcessAsAReplica();
             }
+            long now = System.nanoTime();
+            if (now - lastLagUpdate >= LAG_UPDATE_INTERVAL_NANOS) {
+                lastLagUpdate = now;
+                updateLag();
+            }
+        }
+    }
+
+    /**
+     * The lag is the number of records in a topic after the last one processed by this node: the events still
+     * to be processed by the leader and, on a replica, the control messages of the leader still to be replayed.
+     */
+    protected void updateLag() {
+        updateLag(kafkaConsumer, PipelineMetrics.TOPIC_EVENTS, processedEventOffset.get());
+        if (currentState.equals(State.REPLICA) && kafkaSecondaryConsumer != null) {
+            updateLag(kafkaSecondaryConsumer, PipelineMetrics.TOPIC_CONTROL, processedControlOffset.get());
+        }
+    }
+
+    /**
+     * Runs on the poll thread, so the lookup of the end offsets is bounded by {@link #LAG_UPDATE_TIMEOUT}: when the
+     * brokers don't answer in time the previous lag is kept and the update is retried at the next interval.
+     */
+    private void updateLag(Consumer<String, T> consumer, String topic, long processedOffset) {
+        long lag = 0;
+        try {
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(consumer.assignment(), LAG_UPDATE_TIMEOUT);
+            if (endOffsets == null || endOffsets.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+                long next = processedOffset >= 0 ? processedOffset + 1 : consumer.position(endOffset.getKey(), LAG_UPDATE_TIMEOUT);
+                lag += Math.max(0, endOffset.getValue() - next);
+            }
+        } catch (TimeoutException e) {
+            logger.debug("Offsets of topic {} not available within {} ms, lag not updated", topic, LAG_UPDATE_TIMEOUT.toMillis());
+            return;
         }
+        metrics.offsetLag(topic).set(lag);
     }
 
     protected void defaultProcessAsLeader() {
@@ -344,6 +408,7 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
             consumeEventsFromBufferAsALeader();
         }
         ConsumerRecords<String, T> records = kafkaConsumer.poll(envConfig.getPollDuration());
+        metrics.polled(PipelineMetrics.TOPIC_EVENTS, records.count());
         if (!records.isEmpty() && eventsBuffer == null) {
             ConsumerRecord<String, T> first = records.iterator().next();
             eventsBuffer = records.records(new TopicPartition(first.topic(), first.partition()));
@@ -365,12 +430,42 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
     }
 
     protected void consumeEventsFromBufferAsALeader() {
-        for (ConsumerRecord<String, T> record : eventsBuffer) {
-            processLeader(record);
+        if (envConfig.isLeaderBatch()) {
+            processLeaderBatch(eventsBuffer);
+        } else {
+            for (ConsumerRecord<String, T> record : eventsBuffer) {
+                processLeader(record);
+            }
         }
         eventsBuffer = null;
     }
 
+    /**
+     * Processes the whole batch sending the control messages asynchronously, they are flushed once before
+     * committing the offset of the last record instead of waiting for a round trip per record.
+     * The control messages keep the order of the events as they all go through the same producer
+     * to the single partition of the control topic.
+     */
+    protected void processLeaderBatch(List<ConsumerRecord<String, T>> records) {
+        ConsumerRecord<String, T> last = null;
+        for (ConsumerRecord<String, T> record : records) {
+            if (envConfig.isSkipOnDemandSnapshot() && counter.incrementAndGet() == iterationBetweenSnapshot) {
+                counter.set(0);
+                // a snapshot must not be ahead of the control topic
+                consumerHandler.flushControlMessages();
+                consumerHandler.processWithSnapshot(InfraFactory.getItemToProcess(record), currentState);
+            } else {
+                consumerHandler.processBatched(InfraFactory.getItemToProcess(record), currentState);
+            }
+            processingKey = record.key();// the new processed became the new processingKey
+            last = record;
+        }
+        if (last != null) {
+            consumerHandler.flushControlMessages();
+            saveOffset(last, kafkaConsumer);
+        }
+    }
+
     protected void handleSnapshotBetweenIteration(ConsumerRecord<String, T> record) {
         int iteration = counter.incrementAndGet();
         if (iteration == iterationBetweenSnapshot) {
@@ -387,6 +482,7 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
                 consumeEventsFromBufferAsAReplica();
             }
             ConsumerRecords<String, T> records = kafkaConsumer.poll(envConfig.getPollDuration());
+            metrics.polled(PipelineMetrics.TOPIC_EVENTS, records.count());
             if (!records.isEmpty()) {
                 ConsumerRecord<String, T> first = records.iterator().next();
                 eventsBuffer = records.records(new TopicPartition(first.topic(), first.partition()));
@@ -403,6 +499,7 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
             }
 
             ConsumerRecords<String, T> records = kafkaSecondaryConsumer.poll(envConfig.getPollDuration());
+            metrics.polled(PipelineMetrics.TOPIC_CONTROL, records.count());
             if (records.count() > 0) {
                 ConsumerRecord<String, T> first = records.iterator().next();
                 controlBuffer = records.records(new TopicPartition(first.topic(), first.partition()));
@@ -489,6 +586,11 @@ public class DefaultKafkaConsumer<T> implements EventConsumer {
         map.put(new TopicPartition(record.topic(), record.partition()),
                 new OffsetAndMetadata(record.offset() + 1));
         kafkaConsumer.commitSync(map);
+        if (kafkaConsumer == kafkaSecondaryConsumer) {
+            processedControlOffset.set(record.offset());
+        } else {
+            processedEventOffset.set(record.offset());
+        }
     }
 
     protected void startConsume() {
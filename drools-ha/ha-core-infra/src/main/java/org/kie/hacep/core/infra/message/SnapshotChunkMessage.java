@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra.message;
+
+import java.io.Serializable;
+
+import org.kie.remote.message.AbstractMessage;
+
+/**
+ * A piece of the compressed content of a snapshot, the id is the one of the snapshot it belongs to.
+ */
+public class SnapshotChunkMessage extends AbstractMessage implements Serializable {
+
+  private int index;
+  private byte[] bytes;
+
+  /* Empty constructor for serialization */
+  public SnapshotChunkMessage() { }
+
+  public SnapshotChunkMessage(String id, int index, byte[] bytes) {
+    super(id);
+    this.index = index;
+    this.bytes = bytes;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotChunkMessage{" +
+            "id='" + id + '\'' +
+            ", index=" + index +
+            ", bytes=" + bytes.length +
+            '}';
+  }
+}
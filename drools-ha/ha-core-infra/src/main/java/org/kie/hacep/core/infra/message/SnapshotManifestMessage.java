@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra.message;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import org.kie.remote.message.AbstractMessage;
+
+/**
+ * Last record of a snapshot published in chunks, it follows all the {@link SnapshotChunkMessage} of the snapshot
+ * having its same id. Once decompressed, the content of the chunks is the serialized FactHandlesManager followed by
+ * the marshalled session.
+ */
+public class SnapshotManifestMessage extends AbstractMessage implements Serializable {
+
+  private String kjarGAV;
+  private int chunks;
+  private long factHandlesLength;
+  private long sessionLength;
+  private String lastInsertedEventkey;
+  private long lastInsertedEventOffset;
+  private LocalDateTime time;
+
+  /* Empty constructor for serialization */
+  public SnapshotManifestMessage() { }
+
+  public SnapshotManifestMessage(String id,
+                                 String kjarGAV,
+                                 int chunks,
+                                 long factHandlesLength,
+                                 long sessionLength,
+                                 String lastInsertedEventkey,
+                                 long lastInsertedEventOffset,
+                                 LocalDateTime time) {
+    super(id);
+    this.kjarGAV = kjarGAV;
+    this.chunks = chunks;
+    this.factHandlesLength = factHandlesLength;
+    this.sessionLength = sessionLength;
+    this.lastInsertedEventkey = lastInsertedEventkey;
+    this.lastInsertedEventOffset = lastInsertedEventOffset;
+    this.time = time;
+  }
+
+  public String getKjarGAV() {
+    return kjarGAV;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+
+  public long getFactHandlesLength() {
+    return factHandlesLength;
+  }
+
+  public long getSessionLength() {
+    return sessionLength;
+  }
+
+  public String getLastInsertedEventkey() {
+    return lastInsertedEventkey;
+  }
+
+  public long getLastInsertedEventOffset() {
+    return lastInsertedEventOffset;
+  }
+
+  public LocalDateTime getTime() {
+    return time;
+  }
+
+  @Override
+  public String toString() {
+    return "SnapshotManifestMessage{" +
+            "id='" + id + '\'' +
+            ", kjarGAV='" + kjarGAV + '\'' +
+            ", chunks=" + chunks +
+            ", factHandlesLength=" + factHandlesLength +
+            ", sessionLength=" + sessionLength +
+            ", lastInsertedEventkey='" + lastInsertedEventkey + '\'' +
+            ", lastInsertedEventOffset=" + lastInsertedEventOffset +
+            ", time=" + time +
+            '}';
+  }
+}
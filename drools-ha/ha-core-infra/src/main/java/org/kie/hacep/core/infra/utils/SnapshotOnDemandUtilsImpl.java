@@ -15,7 +15,6 @@
  */
 package org.kie.hacep.core.infra.utils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,28 +22,18 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
 
-import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
-import org.kie.api.KieServices;
-import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
-import org.kie.api.runtime.KieSessionConfiguration;
-import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.hacep.Config;
 import org.kie.hacep.EnvConfig;
-import org.kie.hacep.consumer.KieContainerUtils;
 import org.kie.hacep.core.GlobalStatus;
 import org.kie.hacep.core.infra.SessionSnapshooter;
 import org.kie.hacep.core.infra.SnapshotInfos;
-import org.kie.hacep.core.infra.message.SnapshotMessage;
-import org.kie.remote.TopicsConfig;
+import org.kie.hacep.core.infra.SnapshotReader;
 import org.kie.remote.command.SnapshotOnDemandCommand;
 import org.kie.remote.impl.producer.Producer;
 import org.kie.remote.impl.producer.Sender;
-import org.kie.remote.util.SerializationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,53 +61,32 @@ public class SnapshotOnDemandUtilsImpl implements SnapshotOnDemandUtils {
     }
 
     private SnapshotInfos buildNewSnapshotOnDemand(EnvConfig envConfig, LocalDateTime limitAge, Producer producer) {
-        SnapshotMessage snapshotMsg = askAndReadSnapshotOnDemand(envConfig, limitAge, producer);
-        KieSession kSession = null;
-        KieContainer kieContainer = null;
-        try (ByteArrayInputStream in = new ByteArrayInputStream(snapshotMsg.getSerializedSession())) {
-            KieServices ks = KieServices.get();
-            kieContainer = KieContainerUtils.getKieContainer(envConfig, ks);
-            KieSessionConfiguration conf = ks.newKieSessionConfiguration();
-            conf.setOption(ClockTypeOption.get("pseudo"));
-            kSession = ks.getMarshallers().newMarshaller(kieContainer.getKieBase()).unmarshall(in, conf, null);
+        Properties props = Config.getProducerConfig("SnapshotOnDemandUtils.askASnapshotOnDemand");
+        Sender sender = new Sender(props, producer);
+        sender.start();
+        sender.sendCommand(new SnapshotOnDemandCommand(), envConfig.getEventsTopicName());
+        sender.stop();
+        KafkaConsumer<String, byte[]> consumer = getConfiguredSnapshotConsumer(envConfig);
+        try {
+            /* the consumer stays open to stream the chunks of the snapshot while restoring it */
+            return readSnapshotOnDemand(envConfig, limitAge, consumer).restore(envConfig);
         } catch (IOException | ClassNotFoundException e) {
             throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            consumer.close();
         }
-        return new SnapshotInfos(kSession,
-                                 kieContainer,
-                                 snapshotMsg.getFhManager(),
-                                 snapshotMsg.getLastInsertedEventkey(),
-                                 snapshotMsg.getLastInsertedEventOffset(),
-                                 snapshotMsg.getTime(),
-                                 snapshotMsg.getKjarGAV());
     }
 
-    private SnapshotMessage askAndReadSnapshotOnDemand(EnvConfig envConfig,
-                                                              LocalDateTime limitAge,
-                                                              Producer producer) {
-        Properties props = Config.getProducerConfig("SnapshotOnDemandUtils.askASnapshotOnDemand");
-        Sender sender = new Sender(props, producer);
-        sender.start();
-        sender.sendCommand(new SnapshotOnDemandCommand(), TopicsConfig.getDefaultTopicsConfig().getEventsTopicName());
-        sender.stop();
-        KafkaConsumer consumer = getConfiguredSnapshotConsumer(envConfig);
-        boolean snapshotReady = false;
-        SnapshotMessage msg = null;
+    private SnapshotReader readSnapshotOnDemand(EnvConfig envConfig,
+                                                LocalDateTime limitAge,
+                                                KafkaConsumer<String, byte[]> consumer) {
+        SnapshotReader reader = new SnapshotReader(consumer, envConfig.getPollSnapshotDuration());
         try {
             GlobalStatus.setCanBecomeLeader(false);
             int counter = 0;
-            while (!snapshotReady) {
-                ConsumerRecords<String, byte[]> records = consumer.poll(envConfig.getPollSnapshotDuration());
-                byte[] bytes = null;
-                for (ConsumerRecord record : records) {
-                    bytes = (byte[]) record.value();
-                }
-                SnapshotMessage snapshotMsg = bytes != null ? SerializationUtil.deserialize(bytes) : null;
-                if (snapshotMsg != null && limitAge.isBefore(snapshotMsg.getTime())) {
-                    snapshotReady = true;
-                    msg = snapshotMsg;
-                } else {
-                    // use a counter to avoid infinite attempts
+            while (!reader.hasSnapshot() || !limitAge.isBefore(reader.getTime())) {
+                // use a counter of the polls without records to avoid infinite attempts
+                if (!reader.poll()) {
                     counter += 1;
                     if (counter > envConfig.getMaxSnapshotRequestAttempts()) {
                         GlobalStatus.setNodeLive(false);
@@ -129,10 +97,9 @@ public class SnapshotOnDemandUtilsImpl implements SnapshotOnDemandUtils {
                 }
             }
         } finally {
-            consumer.close();
             GlobalStatus.setCanBecomeLeader(true);
         }
-        return msg;
+        return reader;
     }
 
     @Override
@@ -44,7 +44,7 @@ public class RemoteStreamingKieSessionImplTest extends KafkaFullTopicsTests{
         kafkaServerTest.insertBatchStockTicketEvent(7, topicsConfig, RemoteStreamingKieSession.class, KafkaRemoteUtil.getListener(props, false));
         RemoteStreamingKieSessionImpl client = new RemoteStreamingKieSessionImpl(Config.getProducerConfig("FactCountConsumerTest"),
                                                                                  topicsConfig,
-                                                                                 KafkaRemoteUtil.getListener(props, false),
+                                                                                 KafkaRemoteUtil.getListener(props, false, topicsConfig),
                                                                                  InfraFactory.getProducer(false));
         try {
             CompletableFuture<Long> factCountFuture = client.getFactCount();
@@ -63,7 +63,7 @@ public class RemoteStreamingKieSessionImplTest extends KafkaFullTopicsTests{
         kafkaServerTest.insertBatchStockTicketEvent(1, topicsConfig, RemoteStreamingKieSession.class, KafkaRemoteUtil.getListener(props, false));
         Producer prod = InfraFactory.getProducer(false);
         RemoteStreamingKieSessionImpl client = new RemoteStreamingKieSessionImpl(CommonConfig.getProducerConfig(),
-                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false), prod);
+                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false, topicsConfig), prod);
         try {
             CompletableFuture<Collection> listKieObjectsFuture = client.getObjects();
             Collection listKieObjects = listKieObjectsFuture.get(5, TimeUnit.SECONDS);
@@ -83,7 +83,7 @@ public class RemoteStreamingKieSessionImplTest extends KafkaFullTopicsTests{
         kafkaServerTest.insertBatchStockTicketEvent(1, topicsConfig, RemoteStreamingKieSession.class, KafkaRemoteUtil.getListener(props, false));
         Producer prod = InfraFactory.getProducer(false);
         RemoteStreamingKieSessionImpl client = new RemoteStreamingKieSessionImpl(Config.getProducerConfig("ListKieSessionObjectsWithClassTypeTest"),
-                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false), prod);
+                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false, topicsConfig), prod);
         try {
             CompletableFuture<Collection<StockTickEvent>> listKieObjectsFuture = client.getObjects(StockTickEvent.class);
             Collection<? extends Object> listKieObjects = listKieObjectsFuture.get(5, TimeUnit.SECONDS);
@@ -103,7 +103,7 @@ public class RemoteStreamingKieSessionImplTest extends KafkaFullTopicsTests{
         kafkaServerTest.insertBatchStockTicketEvent(1, topicsConfig, RemoteStreamingKieSession.class, KafkaRemoteUtil.getListener(props, false));
         Producer prod = InfraFactory.getProducer(false);
         RemoteStreamingKieSessionImpl client = new RemoteStreamingKieSessionImpl(Config.getProducerConfig("ListKieSessionObjectsWithNamedQueryTest"),
-                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false), prod);
+                                                                                 topicsConfig, KafkaRemoteUtil.getListener(props, false, topicsConfig), prod);
         try{
 
             doQuery( client, "IBM", 0 );
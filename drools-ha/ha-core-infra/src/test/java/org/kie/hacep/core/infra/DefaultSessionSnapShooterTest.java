@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.hacep.EnvConfig;
+import org.kie.hacep.consumer.KieContainerUtils;
+import org.kie.hacep.core.KieSessionContext;
+import org.kie.hacep.core.infra.message.SnapshotChunkMessage;
+import org.kie.hacep.core.infra.message.SnapshotManifestMessage;
+import org.kie.hacep.core.infra.message.SnapshotMessage;
+import org.kie.remote.RemoteFactHandle;
+import org.kie.remote.impl.RemoteFactHandleImpl;
+import org.kie.remote.impl.producer.LocalProducer;
+import org.kie.remote.impl.producer.Producer;
+import org.kie.remote.util.LocalMessageSystem;
+import org.kie.remote.util.SerializationUtil;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DefaultSessionSnapShooterTest {
+
+    private DefaultSessionSnapShooter snapShooter;
+
+    @After
+    public void cleanup() {
+        if (snapShooter != null) {
+            snapShooter.stop();
+        }
+    }
+
+    @Test
+    public void asyncSnapshotTest() throws Exception {
+        EnvConfig envConfig = envConfig("asyncSnapshotTest").withAsyncSnapshot(Boolean.TRUE.toString());
+        KieSessionContext context = sessionContext(envConfig);
+        for (int i = 0; i < 100; i++) {
+            context.getKieSession().insert("myObject" + i);
+        }
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+
+        snapShooter.serialize(context, "key", 5L);
+        snapShooter.stop();
+
+        SnapshotMessage message = (SnapshotMessage) LocalMessageSystem.get().poll(envConfig.getSnapshotTopicName());
+        assertNotNull(message);
+        assertEquals("key", message.getLastInsertedEventkey());
+        assertEquals(5L, message.getLastInsertedEventOffset());
+        assertEquals(100, restore(envConfig, message.getSerializedSession()).getFactCount());
+
+        SnapshotMetrics metrics = snapShooter.getMetrics();
+        assertEquals(1, metrics.getSnapshots());
+        assertEquals(0, metrics.getFailedSnapshots());
+        assertEquals(message.getSerializedSession().length, metrics.getLastPublishedSize());
+        assertTrue(metrics.getLastPublishedSize() < metrics.getLastSessionSize());
+        assertTrue(metrics.getLastPauseNanos() > 0);
+        assertTrue(metrics.getLastDurationNanos() >= metrics.getLastPauseNanos());
+    }
+
+    @Test
+    public void syncSnapshotTest() throws Exception {
+        EnvConfig envConfig = envConfig("syncSnapshotTest");
+        KieSessionContext context = sessionContext(envConfig);
+        context.getKieSession().insert("myObject");
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+
+        snapShooter.serialize(context, "key", 5L);
+
+        SnapshotMessage message = (SnapshotMessage) LocalMessageSystem.get().poll(envConfig.getSnapshotTopicName());
+        assertNotNull(message);
+        assertEquals(snapShooter.getMetrics().getLastSessionSize(), message.getSerializedSession().length);
+        assertEquals(1, restore(envConfig, message.getSerializedSession()).getFactCount());
+    }
+
+    @Test
+    public void chunkedSnapshotTest() throws Exception {
+        EnvConfig envConfig = envConfig("chunkedSnapshotTest").withSnapshotChunkSize("64");
+        KieSessionContext context = sessionContext(envConfig);
+        RemoteFactHandle remoteFactHandle = new RemoteFactHandleImpl("myObject");
+        context.getFhManager().registerHandle(remoteFactHandle, context.getKieSession().insert("myObject"));
+        for (int i = 0; i < 100; i++) {
+            context.getKieSession().insert("myObject" + i);
+        }
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+
+        snapShooter.serialize(context, "key", 5L);
+
+        List<Object> messages = drain(envConfig.getSnapshotTopicName());
+        SnapshotManifestMessage manifest = (SnapshotManifestMessage) messages.get(messages.size() - 1);
+        assertEquals(messages.size() - 1, manifest.getChunks());
+        assertTrue(manifest.getChunks() > 1);
+        for (int i = 0; i < manifest.getChunks(); i++) {
+            SnapshotChunkMessage chunk = (SnapshotChunkMessage) messages.get(i);
+            assertEquals(manifest.getId(), chunk.getId());
+            assertEquals(i, chunk.getIndex());
+            assertTrue(chunk.getBytes().length <= 64);
+        }
+
+        SnapshotReader reader = new SnapshotReader(consumerOf(messages), Duration.ofMillis(1));
+        reader.readToEnd();
+        SnapshotInfos infos = reader.restore(envConfig);
+        assertEquals(101, infos.getKieSession().getFactCount());
+        assertEquals("key", infos.getKeyDuringSnaphot());
+        assertEquals(5L, infos.getOffsetDuringSnapshot());
+        assertTrue(infos.getFhManager().getFhMapKeys().contains(remoteFactHandle));
+        assertNotNull(infos.getFhManager().mapRemoteFactHandle(remoteFactHandle));
+        assertEquals(manifest.getSessionLength(), snapShooter.getMetrics().getLastSessionSize());
+    }
+
+    @Test
+    public void asyncChunkedSnapshotTest() throws Exception {
+        EnvConfig envConfig = envConfig("asyncChunkedSnapshotTest").withSnapshotChunkSize("128").withAsyncSnapshot(Boolean.TRUE.toString());
+        KieSessionContext context = sessionContext(envConfig);
+        for (int i = 0; i < 100; i++) {
+            context.getKieSession().insert("myObject" + i);
+        }
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+
+        snapShooter.serialize(context, "key", 5L);
+        snapShooter.stop();
+
+        SnapshotReader reader = new SnapshotReader(consumerOf(drain(envConfig.getSnapshotTopicName())), Duration.ofMillis(1));
+        reader.readToEnd();
+        assertEquals(100, reader.restore(envConfig).getKieSession().getFactCount());
+    }
+
+    @Test
+    public void incompleteChunkedSnapshotSkippedTest() throws Exception {
+        EnvConfig envConfig = envConfig("incompleteChunkedSnapshotSkippedTest");
+        KieSessionContext context = sessionContext(envConfig);
+        context.getKieSession().insert("myObject");
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+        snapShooter.serialize(context, "key", 5L);
+        snapShooter.stop();
+
+        context.getKieSession().insert("otherObject");
+        envConfig.withSnapshotChunkSize("64");
+        snapShooter.serialize(context, "otherKey", 6L);
+
+        List<Object> messages = drain(envConfig.getSnapshotTopicName());
+        assertTrue(messages.get(0) instanceof SnapshotMessage);
+        assertTrue(messages.remove(1) instanceof SnapshotChunkMessage);
+
+        SnapshotReader reader = new SnapshotReader(consumerOf(messages), Duration.ofMillis(1));
+        reader.readToEnd();
+        assertTrue(reader.hasSnapshot());
+        assertEquals("key", reader.getLastInsertedEventkey());
+        assertEquals(1, reader.restore(envConfig).getKieSession().getFactCount());
+    }
+
+    @Test
+    public void readToEndReadsOnlyLastSnapshotTest() throws Exception {
+        EnvConfig envConfig = envConfig("readToEndReadsOnlyLastSnapshotTest").withSnapshotChunkSize("64");
+        KieSessionContext context = sessionContext(envConfig);
+        snapShooter = new LocalSessionSnapShooter(envConfig);
+        for (int i = 0; i < 3; i++) {
+            context.getKieSession().insert("myObject" + i);
+            snapShooter.serialize(context, "key" + i, i);
+        }
+
+        List<Object> messages = drain(envConfig.getSnapshotTopicName());
+        SnapshotManifestMessage manifest = (SnapshotManifestMessage) messages.get(messages.size() - 1);
+        AtomicInteger polledRecords = new AtomicInteger();
+        SnapshotReader reader = new SnapshotReader(consumerOf(messages, polledRecords), Duration.ofMillis(1));
+        reader.readToEnd();
+        assertEquals("key2", reader.getLastInsertedEventkey());
+        // the manifest, then its first chunk within a single poll of few records
+        assertTrue(polledRecords.get() <= 4);
+
+        polledRecords.set(0);
+        assertEquals(3, reader.restore(envConfig).getKieSession().getFactCount());
+        // only the chunks of the last snapshot are read again
+        assertTrue(polledRecords.get() <= manifest.getChunks() + 3);
+    }
+
+    private static List<Object> drain(String topic) {
+        List<Object> messages = new ArrayList<>();
+        Object message;
+        while ((message = LocalMessageSystem.get().poll(topic)) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    /* a consumer of a single partition holding the given messages, returning few records per poll */
+    private static Consumer<String, byte[]> consumerOf(List<Object> messages) {
+        return consumerOf(messages, new AtomicInteger());
+    }
+
+    private static Consumer<String, byte[]> consumerOf(List<Object> messages, AtomicInteger polledRecords) {
+        TopicPartition partition = new TopicPartition("snapshot", 0);
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        for (Object message : messages) {
+            records.add(new ConsumerRecord<>(partition.topic(), partition.partition(), records.size(), DefaultSessionSnapShooter.KEY, SerializationUtil.serialize(message)));
+        }
+        AtomicLong position = new AtomicLong();
+        Consumer<String, byte[]> consumer = mock(Consumer.class);
+        when(consumer.assignment()).thenReturn(Collections.singleton(partition));
+        when(consumer.beginningOffsets(anyCollection())).thenReturn(Collections.singletonMap(partition, 0L));
+        when(consumer.endOffsets(anyCollection())).thenReturn(Collections.singletonMap(partition, (long) records.size()));
+        when(consumer.position(partition)).thenAnswer(invocation -> position.get());
+        doAnswer(invocation -> {
+            position.set((Long) invocation.getArguments()[1]);
+            return null;
+        }).when(consumer).seek(eq(partition), anyLong());
+        when(consumer.poll(any(Duration.class))).thenAnswer(invocation -> {
+            int from = (int) position.get();
+            int to = Math.min(records.size(), from + 3);
+            position.set(to);
+            polledRecords.addAndGet(to - from);
+            return new ConsumerRecords<>(Collections.singletonMap(partition, records.subList(from, to)));
+        });
+        return consumer;
+    }
+
+    private static EnvConfig envConfig(String snapshotTopic) {
+        return EnvConfig.getDefaultEnvConfig().local(true).withSnapshotTopicName(snapshotTopic);
+    }
+
+    private static KieSessionContext sessionContext(EnvConfig envConfig) {
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, KieServices.get());
+        KieSessionContext context = new KieSessionContext();
+        context.init(kieContainer, kieContainer.newKieSession());
+        return context;
+    }
+
+    private static KieSession restore(EnvConfig envConfig, byte[] serializedSession) throws Exception {
+        KieServices srv = KieServices.get();
+        KieSessionConfiguration conf = srv.newKieSessionConfiguration();
+        conf.setOption(ClockTypeOption.get("pseudo"));
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, srv);
+        try (InputStream in = DefaultSessionSnapShooter.openSession(serializedSession)) {
+            return srv.getMarshallers().newMarshaller(kieContainer.getKieBase()).unmarshall(in, conf, null);
+        }
+    }
+
+    private static class LocalSessionSnapShooter extends DefaultSessionSnapShooter {
+
+        LocalSessionSnapShooter(EnvConfig envConfig) {
+            super(envConfig, null);
+        }
+
+        @Override
+        protected Producer createProducer() {
+            return new LocalProducer();
+        }
+    }
+}
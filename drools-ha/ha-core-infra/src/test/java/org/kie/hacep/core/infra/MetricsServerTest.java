@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.hacep.core.PipelineMetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsServerTest {
+
+    private PipelineMetrics metrics;
+    private MetricsServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        metrics = new PipelineMetrics();
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new MetricsServer(port, metrics).start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testScrape() throws Exception {
+        metrics.offsetLag(PipelineMetrics.TOPIC_EVENTS).set(42);
+        metrics.polled(PipelineMetrics.TOPIC_EVENTS, 4);
+
+        HttpURLConnection connection = open(MetricsServer.PATH);
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain"));
+        String body = read(connection.getInputStream());
+        assertTrue(body, body.contains("# TYPE " + PipelineMetrics.OFFSET_LAG + " gauge\n"));
+        assertTrue(body, body.contains(PipelineMetrics.OFFSET_LAG + "{topic=\"events\",} 42.0\n"));
+        assertTrue(body, body.contains("# TYPE " + PipelineMetrics.POLL_RECORDS + " histogram\n"));
+        assertTrue(body, body.contains(PipelineMetrics.POLL_RECORDS + "_bucket{topic=\"events\",le=\"5.0\",} 1.0\n"));
+    }
+
+    @Test
+    public void testSelectedMetrics() throws Exception {
+        metrics.offsetLag(PipelineMetrics.TOPIC_EVENTS).set(42);
+        metrics.polled(PipelineMetrics.TOPIC_EVENTS, 4);
+
+        String body = read(open(MetricsServer.PATH + "?name[]=" + PipelineMetrics.OFFSET_LAG).getInputStream());
+        assertTrue(body, body.contains(PipelineMetrics.OFFSET_LAG));
+        assertFalse(body, body.contains(PipelineMetrics.POLL_RECORDS));
+    }
+
+    private HttpURLConnection open(String path) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    private static String read(InputStream in) throws Exception {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
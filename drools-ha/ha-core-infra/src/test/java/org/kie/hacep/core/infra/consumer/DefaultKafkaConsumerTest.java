@@ -15,14 +15,25 @@
  */
 package org.kie.hacep.core.infra.consumer;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.hacep.EnvConfig;
 import org.kie.hacep.consumer.DroolsConsumerHandler;
+import org.kie.hacep.core.PipelineMetrics;
 import org.kie.hacep.core.infra.DefaultSessionSnapShooter;
 import org.kie.hacep.core.infra.SnapshotInfos;
 import org.kie.hacep.core.infra.election.State;
@@ -30,10 +41,13 @@ import org.kie.hacep.core.infra.utils.SnapshotOnDemandUtils;
 import org.kie.hacep.util.ConsumerUtilsCore;
 import org.kie.remote.impl.producer.Producer;
 import org.kie.remote.message.ControlMessage;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
@@ -123,4 +137,44 @@ public class DefaultKafkaConsumerTest {
     verify(spy, times(1)).assignAndStartConsume();
   }
 
+  @Test
+  public void processLeaderBatchTest(){
+    spy.envConfig.withLeaderBatch(Boolean.TRUE.toString());
+    spy.updateStatus(State.LEADER);
+    List<ConsumerRecord<String, byte[]>> records = Arrays.asList(new ConsumerRecord<>("events", 0, 5, "1", new byte[0]),
+                                                                 new ConsumerRecord<>("events", 0, 6, "2", new byte[0]));
+
+    spy.processLeaderBatch(records);
+
+    // control messages are flushed once, before committing the offset of the whole batch
+    InOrder inOrder = inOrder(handlerMock, primaryConsumerMock);
+    inOrder.verify(handlerMock, times(2)).processBatched(any(ItemToProcess.class), eq(State.LEADER));
+    inOrder.verify(handlerMock).flushControlMessages();
+    ArgumentCaptor<Map> offsets = ArgumentCaptor.forClass(Map.class);
+    inOrder.verify(primaryConsumerMock).commitSync(offsets.capture());
+    assertEquals(7, ((OffsetAndMetadata) offsets.getValue().get(new TopicPartition("events", 0))).offset());
+    verify(primaryConsumerMock, times(1)).commitSync(any(Map.class));
+    verify(handlerMock, never()).process(any(ItemToProcess.class), any(State.class));
+  }
+
+  @Test
+  public void updateLagKeepsPreviousValueOnTimeoutTest(){
+    TopicPartition partition = new TopicPartition("events", 0);
+    when(primaryConsumerMock.assignment()).thenReturn(Collections.singleton(partition));
+    when(primaryConsumerMock.endOffsets(any(Collection.class), any(Duration.class))).thenReturn(Collections.singletonMap(partition, 10L));
+    when(primaryConsumerMock.position(eq(partition), any(Duration.class))).thenReturn(4L);
+
+    spy.updateLag();
+    assertEquals(6L, lag());
+
+    // the brokers don't answer in time: the poll loop goes on and the lag is left as is
+    when(primaryConsumerMock.endOffsets(any(Collection.class), any(Duration.class))).thenThrow(new TimeoutException());
+    spy.updateLag();
+    assertEquals(6L, lag());
+    verify(primaryConsumerMock, never()).endOffsets(any(Collection.class));
+  }
+
+  private long lag() {
+    return spy.getMetrics().offsetLag(PipelineMetrics.TOPIC_EVENTS).get();
+  }
 }
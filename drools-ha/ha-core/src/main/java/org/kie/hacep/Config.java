@@ -51,6 +51,13 @@ public class Config {
     public static final String UPDATABLE_KJAR = "UPDATABLEKJAR";
     public static final String KJAR_GAV = "KJARGAV";
     public static final String DEFAULT_MAX_SNAPSHOT_REQUEST_ATTEMPTS = "30";
+    public static final String LEADER_BATCH = "leader.batch";
+    public static final String ASYNC_SNAPSHOT = "async.snapshot";
+    public static final String SNAPSHOT_CHUNK_SIZE = "snapshot.chunk.size";
+    public static final String DEFAULT_SNAPSHOT_CHUNK_SIZE = "0";
+    public static final String METRICS_PORT = "metrics.port";
+    public static final String DEFAULT_METRICS_PORT = "0";
+    public static final String PARTITION = "partition";
     private static final Logger logger = LoggerFactory.getLogger(Config.class);
     private static final String CONSUMER_CONF = "consumer.properties";
     private static final String PRODUCER_CONF = "producer.properties";
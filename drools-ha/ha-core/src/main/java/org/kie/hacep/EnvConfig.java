@@ -20,6 +20,8 @@ import java.util.Optional;
 
 import org.kie.hacep.util.PrinterLogImpl;
 import org.kie.remote.CommonConfig;
+import org.kie.remote.util.JavaMessageSerializer;
+import org.kie.remote.util.PartitionUtil;
 
 public final class EnvConfig {
 
@@ -42,6 +44,12 @@ public final class EnvConfig {
     private Duration pollDuration;
     private Duration pollSnapshotDuration;
     private boolean updatableKJar;
+    private boolean leaderBatch;
+    private String messageSerializer;
+    private boolean asyncSnapshot;
+    private int snapshotChunkSize;
+    private int metricsPort;
+    private Integer partition;
     private String kJarGAV;//groupid:artifactid:version
     public static final String SECONDS = "sec";
     public static final String MILLISEC = "millisec";
@@ -66,6 +74,12 @@ public final class EnvConfig {
                 withMaxSnapshotRequestAttempts(Optional.ofNullable(System.getenv(Config.MAX_SNAPSHOT_REQUEST_ATTEMPTS)).orElse(Config.DEFAULT_MAX_SNAPSHOT_REQUEST_ATTEMPTS)).
                 withUpdatableKJar(Optional.ofNullable(System.getenv(Config.UPDATABLE_KJAR)).orElse(Boolean.FALSE.toString())).
                 withKJarGAV(Optional.ofNullable(System.getenv(Config.KJAR_GAV)).orElse(null)).
+                withLeaderBatch(Optional.ofNullable(System.getenv(Config.LEADER_BATCH)).orElse(Boolean.FALSE.toString())).
+                withMessageSerializer(Optional.ofNullable(System.getenv(CommonConfig.MESSAGE_SERIALIZER)).orElse(JavaMessageSerializer.NAME)).
+                withAsyncSnapshot(Optional.ofNullable(System.getenv(Config.ASYNC_SNAPSHOT)).orElse(Boolean.FALSE.toString())).
+                withSnapshotChunkSize(Optional.ofNullable(System.getenv(Config.SNAPSHOT_CHUNK_SIZE)).orElse(Config.DEFAULT_SNAPSHOT_CHUNK_SIZE)).
+                withMetricsPort(Optional.ofNullable(System.getenv(Config.METRICS_PORT)).orElse(Config.DEFAULT_METRICS_PORT)).
+                withPartition(Optional.ofNullable(System.getenv(Config.PARTITION)).orElse(null)).
                 underTest(Optional.ofNullable(System.getenv(Config.UNDER_TEST)).orElse(Config.TEST));
     }
 
@@ -195,20 +209,67 @@ public final class EnvConfig {
         return this;
     }
 
+    public EnvConfig withLeaderBatch(String leaderBatch) {
+        this.leaderBatch = Boolean.valueOf(leaderBatch);
+        return this;
+    }
+
+    public EnvConfig withMessageSerializer(String messageSerializer) {
+        this.messageSerializer = messageSerializer;
+        return this;
+    }
+
+    /**
+     * Publishes snapshots on a dedicated thread. The session is still marshalled on the consumer thread, as drools
+     * can't copy a session more cheaply than by marshalling it, so this only takes the compression and the publishing
+     * of the snapshot off the consumer thread.
+     */
+    public EnvConfig withAsyncSnapshot(String asyncSnapshot) {
+        this.asyncSnapshot = Boolean.valueOf(asyncSnapshot);
+        return this;
+    }
+
+    public EnvConfig withSnapshotChunkSize(String snapshotChunkSize) {
+        this.snapshotChunkSize = Integer.parseInt(snapshotChunkSize);
+        return this;
+    }
+
+    /**
+     * Port on which every pod, leader or replica, serves its pipeline metrics at <code>/metrics</code>;
+     * 0 (the default) doesn't start the metrics server.
+     */
+    public EnvConfig withMetricsPort(String metricsPort) {
+        this.metricsPort = Integer.parseInt(metricsPort);
+        return this;
+    }
+
+    /**
+     * Makes this pod serve only the given partition of a partitioned deployment: it uses the events, control and
+     * snapshot topics of that partition and takes part only to its leader election.
+     */
+    public EnvConfig withPartition(String partition) {
+        this.partition = partition != null ? Integer.valueOf(partition) : null;
+        return this;
+    }
+
     public String getNamespace() {
         return namespace;
     }
 
     public String getEventsTopicName() {
-        return eventsTopicName;
+        return partitioned(eventsTopicName);
     }
 
     public String getControlTopicName() {
-        return controlTopicName;
+        return partitioned(controlTopicName);
     }
 
     public String getSnapshotTopicName() {
-        return snapshotTopicName;
+        return partitioned(snapshotTopicName);
+    }
+
+    private String partitioned(String topicName) {
+        return partition != null ? PartitionUtil.partitionName(topicName, partition) : topicName;
     }
 
     public String getKieSessionInfosTopicName() {
@@ -275,6 +336,34 @@ public final class EnvConfig {
         return kJarGAV;
     }
 
+    public boolean isLeaderBatch() {
+        return leaderBatch;
+    }
+
+    public String getMessageSerializer() {
+        return messageSerializer;
+    }
+
+    public boolean isPartitioned() {
+        return partition != null;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public boolean isAsyncSnapshot() {
+        return asyncSnapshot;
+    }
+
+    public int getSnapshotChunkSize() {
+        return snapshotChunkSize;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("EnvConfig{");
@@ -298,6 +387,12 @@ public final class EnvConfig {
         sb.append(", pollSnapshotDuration=").append(pollSnapshotDuration);
         sb.append(", updatableKJar=").append(updatableKJar);
         sb.append(", kJarGAV='").append(kJarGAV).append('\'');
+        sb.append(", leaderBatch=").append(leaderBatch);
+        sb.append(", messageSerializer='").append(messageSerializer).append('\'');
+        sb.append(", asyncSnapshot=").append(asyncSnapshot);
+        sb.append(", snapshotChunkSize=").append(snapshotChunkSize);
+        sb.append(", metricsPort=").append(metricsPort);
+        sb.append(", partition=").append(partition);
         sb.append('}');
         return sb.toString();
     }
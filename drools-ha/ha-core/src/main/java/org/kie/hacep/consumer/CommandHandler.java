@@ -29,16 +29,19 @@ import org.kie.api.definition.type.Timestamp;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.hacep.EnvConfig;
 import org.kie.hacep.core.KieSessionContext;
+import org.kie.hacep.core.PipelineMetrics;
 import org.kie.hacep.core.infra.SessionSnapshooter;
 import org.kie.hacep.util.ConsumerUtilsCore;
 import org.kie.remote.DroolsExecutor;
 import org.kie.remote.RemoteFactHandle;
 import org.kie.remote.command.DeleteCommand;
+import org.kie.remote.command.EventInsertAllCommand;
 import org.kie.remote.command.EventInsertCommand;
 import org.kie.remote.command.FactCountCommand;
 import org.kie.remote.command.FireAllRulesCommand;
 import org.kie.remote.command.FireUntilHaltCommand;
 import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
 import org.kie.remote.command.GetObjectCommand;
 import org.kie.remote.command.HaltCommand;
 import org.kie.remote.command.InsertCommand;
@@ -57,6 +60,7 @@ import org.kie.remote.message.FireAllRuleMessage;
 import org.kie.remote.message.GetKJarGAVMessage;
 import org.kie.remote.message.GetObjectMessage;
 import org.kie.remote.message.ListKieSessionObjectMessage;
+import org.kie.remote.message.MetricsMessage;
 
 import org.kie.remote.message.UpdateKJarMessage;
 import org.slf4j.Logger;
@@ -72,17 +76,28 @@ public class CommandHandler implements VisitorCommand {
     private SessionSnapshooter sessionSnapshooter;
     private volatile boolean firingUntilHalt;
     private ConsumerUtilsCore consumerUtilsCore;
+    private PipelineMetrics metrics;
 
     public CommandHandler(KieSessionContext kieSessionContext,
                           EnvConfig envConfig,
                           Producer producer,
                           SessionSnapshooter sessionSnapshooter,
                           ConsumerUtilsCore consumerUtilsCore) {
+        this(kieSessionContext, envConfig, producer, sessionSnapshooter, consumerUtilsCore, new PipelineMetrics());
+    }
+
+    public CommandHandler(KieSessionContext kieSessionContext,
+                          EnvConfig envConfig,
+                          Producer producer,
+                          SessionSnapshooter sessionSnapshooter,
+                          ConsumerUtilsCore consumerUtilsCore,
+                          PipelineMetrics metrics) {
         this.kieSessionContext = kieSessionContext;
         this.envConfig = envConfig;
         this.producer = producer;
         this.sessionSnapshooter = sessionSnapshooter;
         this.consumerUtilsCore = consumerUtilsCore;
+        this.metrics = metrics;
     }
 
     public static boolean isEvent(Object obj) {
@@ -127,26 +142,39 @@ public class CommandHandler implements VisitorCommand {
         internalInsert(command, command.getObject());
     }
 
+    @Override
+    public void visit(EventInsertAllCommand command) {
+        // same as inserting the events one by one, so rules fire (and the clock advances to each event time) after each of them
+        List<Serializable> objects = command.getObjects();
+        for (int i = 0; i < objects.size(); i++) {
+            internalInsert(command, objects.get(i), command.getTimestamp(i));
+        }
+    }
+
     private FactHandle internalInsert(WorkingMemoryActionCommand command, Object obj) {
-        FactHandle fh = isEvent(obj) ? insertEvent(command, obj) : insertFact(command, obj);
+        return internalInsert(command, obj, command.getTimestamp());
+    }
+
+    private FactHandle internalInsert(WorkingMemoryActionCommand command, Object obj, long timestamp) {
+        FactHandle fh = isEvent(obj) ? insertEvent(command, obj, timestamp) : insertFact(command, obj);
         if (firingUntilHalt) {
             kieSessionContext.getKieSession().fireAllRules();
         }
         return fh;
     }
 
-    private FactHandle insertEvent(WorkingMemoryActionCommand command, Object obj) {
+    private FactHandle insertEvent(WorkingMemoryActionCommand command, Object obj, long timestamp) {
         FactHandle fh;
         if (hasTimestamp(obj)) {
             fh = insertFact(command, obj);
             kieSessionContext.setClockAt(((EventFactHandle) fh).getStartTimestamp());
         } else {
-            // if the event doesn't have an its own timestamp, it has to use the command's one and then
-            // advance the pseudo clock to the command timestamp before inserting the event
+            // if the event doesn't have an its own timestamp, it has to use the one of the command and then
+            // advance the pseudo clock to the time the event was sent before inserting it
             if (logger.isDebugEnabled()) {
                 logger.debug("Event class {} doesn't have a timestamp property. Consider adding one.", obj.getClass().getName());
             }
-            kieSessionContext.setClockAt(command.getTimestamp());
+            kieSessionContext.setClockAt(timestamp);
             fh = insertFact(command, obj);
         }
         return fh;
@@ -275,6 +303,12 @@ public class CommandHandler implements VisitorCommand {
         producer.produceSync(envConfig.getKieSessionInfosTopicName(), command.getId(), msg);
     }
 
+    @Override
+    public void visit(GetMetricsCommand command) {
+        MetricsMessage msg = new MetricsMessage(command.getId(), metrics.snapshot());
+        producer.produceSync(envConfig.getKieSessionInfosTopicName(), command.getId(), msg);
+    }
+
     public boolean isFiringUntilHalt() {
         return firingUntilHalt;
     }
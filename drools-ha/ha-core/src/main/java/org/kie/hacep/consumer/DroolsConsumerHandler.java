@@ -23,6 +23,7 @@ import org.kie.api.runtime.KieContainer;
 import org.kie.hacep.EnvConfig;
 import org.kie.hacep.core.GlobalStatus;
 import org.kie.hacep.core.KieSessionContext;
+import org.kie.hacep.core.PipelineMetrics;
 import org.kie.hacep.core.infra.SessionSnapshooter;
 import org.kie.hacep.core.infra.SnapshotInfos;
 import org.kie.hacep.core.infra.consumer.ConsumerHandler;
@@ -51,13 +52,15 @@ public class DroolsConsumerHandler implements ConsumerHandler {
     private CommandHandler commandHandler;
     private SnapshotInfos snapshotInfos;
     private boolean shutdown;
+    private final PipelineMetrics metrics = new PipelineMetrics();
 
     public DroolsConsumerHandler(Producer producer, EnvConfig envConfig, SessionSnapshooter snapShooter, ConsumerUtilsCore consumerUtilsCore) {
         this.envConfig = envConfig;
         this.sessionSnapShooter = snapShooter;
         initializeKieSessionContext();
         this.producer = producer;
-        this.commandHandler = new CommandHandler(this.kieSessionContext, this.envConfig, producer, this.sessionSnapShooter, consumerUtilsCore);
+        this.commandHandler = new CommandHandler(this.kieSessionContext, this.envConfig, producer, this.sessionSnapShooter, consumerUtilsCore, metrics);
+        metrics.pendingSideEffects(() -> DroolsExecutor.getInstance().getPendingSideEffects());
         if (this.envConfig.isUnderTest()) {
             loggerForTest = PrinterUtil.getKafkaLoggerForTest(envConfig);
         }
@@ -127,26 +130,70 @@ public class DroolsConsumerHandler implements ConsumerHandler {
             loggerForTest.warn("DroolsConsumerHandler.process Remote command on process:{} state:{}", command, state);
         }
         if (state.equals(State.LEADER)) {
-            processCommand(command, state);
-            Queue<Serializable> sideEffectsResults = DroolsExecutor.getInstance().getAndReset();
-            if (envConfig.isUnderTest()) {
-                loggerForTest.warn("DroolsConsumerHandler.process sideEffects:{}", sideEffectsResults);
-            }
-            ControlMessage newControlMessage = new ControlMessage(command.getId(), sideEffectsResults);
+            ControlMessage newControlMessage = processAsLeader(command, state);
+            long start = System.nanoTime();
+            producer.produceSync(envConfig.getControlTopicName(), command.getId(), newControlMessage);
+            metrics.controlProduced("sync", System.nanoTime() - start);
             if (envConfig.isUnderTest()) {
-                loggerForTest.warn("DroolsConsumerHandler.process new ControlMessage sent to control topic:{}", newControlMessage);
+                loggerForTest.warn("sideEffectOnLeader:{}", newControlMessage.getSideEffects());
             }
-            producer.produceSync(envConfig.getControlTopicName(), command.getId(), newControlMessage);
+        } else {
+            processCommand(command, state);
+        }
+    }
+
+    @Override
+    public void processBatched(ItemToProcess item, State state) {
+        RemoteCommand command = deserialize((byte[]) item.getObject());
+        processBatched(command, state);
+    }
+
+    @Override
+    public void processBatched(RemoteCommand command, State state) {
+        if (envConfig.isUnderTest()) {
+            loggerForTest.warn("DroolsConsumerHandler.processBatched Remote command on process:{} state:{}", command, state);
+        }
+        if (state.equals(State.LEADER)) {
+            ControlMessage newControlMessage = processAsLeader(command, state);
+            long start = System.nanoTime();
+            producer.produceAsync(envConfig.getControlTopicName(), command.getId(), newControlMessage);
+            metrics.controlProduced("async", System.nanoTime() - start);
             if (envConfig.isUnderTest()) {
-                loggerForTest.warn("sideEffectOnLeader:{}", sideEffectsResults);
+                loggerForTest.warn("sideEffectOnLeader:{}", newControlMessage.getSideEffects());
             }
         } else {
             processCommand(command, state);
         }
     }
 
+    @Override
+    public void flushControlMessages() {
+        long start = System.nanoTime();
+        producer.flush();
+        metrics.controlProduced("flush", System.nanoTime() - start);
+    }
+
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    private ControlMessage processAsLeader(RemoteCommand command, State state) {
+        processCommand(command, state);
+        Queue<Serializable> sideEffectsResults = DroolsExecutor.getInstance().getAndReset();
+        metrics.sideEffects("leader", sideEffectsResults.size());
+        if (envConfig.isUnderTest()) {
+            loggerForTest.warn("DroolsConsumerHandler.process sideEffects:{}", sideEffectsResults);
+        }
+        ControlMessage newControlMessage = new ControlMessage(command.getId(), sideEffectsResults);
+        if (envConfig.isUnderTest()) {
+            loggerForTest.warn("DroolsConsumerHandler.process new ControlMessage sent to control topic:{}", newControlMessage);
+        }
+        return newControlMessage;
+    }
+
     public void processSideEffectsOnReplica(Queue<Serializable> newSideEffects) {
         DroolsExecutor.getInstance().appendSideEffects(newSideEffects);
+        metrics.sideEffects("replica", newSideEffects.size());
         if (envConfig.isUnderTest()) {
             loggerForTest.warn("sideEffectOnReplica:{}", newSideEffects);
         }
@@ -166,6 +213,9 @@ public class DroolsConsumerHandler implements ConsumerHandler {
     @Override
     public void stop() {
         shutdown = true;
+        if (sessionSnapShooter != null) {
+            sessionSnapShooter.stop();
+        }
         if (this.kieSessionContext != null) {
             this.kieSessionContext.getKieSession().dispose();
         }
@@ -175,8 +225,10 @@ public class DroolsConsumerHandler implements ConsumerHandler {
         boolean execute = state.equals(State.LEADER) || command.isPermittedForReplicas();
         if (execute) {
             VisitableCommand visitable = (VisitableCommand) command;
+            long start = System.nanoTime();
             try {
                 visitable.accept(commandHandler);
+                metrics.commandProcessed(command.getClass(), System.nanoTime() - start);
             } catch (Exception e) {
                 GlobalStatus.setNodeLive(false);
                 throw new IllegalStateException(e.getMessage(), e.getCause());
@@ -24,8 +24,8 @@ import java.util.Set;
 import org.drools.core.common.InternalFactHandle;
 import org.kie.api.event.rule.DefaultRuleRuntimeEventListener;
 import org.kie.api.event.rule.ObjectDeletedEvent;
-import org.kie.api.runtime.ClassObjectFilter;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.EntryPoint;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.remote.RemoteFactHandle;
 
@@ -57,6 +57,10 @@ public class FactHandlesManager implements Serializable {
         fhIdMap.put(remoteFH, ifh.getId());
     }
 
+    /**
+     * Binds the remote fact handles to the fact handles of the given session, typically restored from a snapshot.
+     * The session is scanned once, afterwards each remote fact handle is resolved with a single lookup.
+     */
     public FactHandlesManager initFromKieSession(KieSession kieSession) {
         this.kieSession = kieSession;
         kieSession.addEventListener(new DefaultRuleRuntimeEventListener() {
@@ -65,24 +69,44 @@ public class FactHandlesManager implements Serializable {
                 fhMap.remove(fhIdMap.removeValue(((InternalFactHandle) objectDeletedEvent.getFactHandle()).getId()));
             }
         });
-        fhMap.clear();
+        fhMap = new HashMap<>(fhIdMap.size() * 4 / 3 + 1);
+        if (!fhIdMap.isEmpty()) {
+            for (EntryPoint entryPoint : kieSession.getEntryPoints()) {
+                for (FactHandle fh : entryPoint.getFactHandles()) {
+                    InternalFactHandle ifh = (InternalFactHandle) fh;
+                    RemoteFactHandle remoteFH = fhIdMap.getKey(ifh.getId());
+                    if (remoteFH != null) {
+                        fhMap.put(remoteFH, ifh);
+                    }
+                }
+            }
+        }
         return this;
     }
 
+    /**
+     * Returns a detached copy holding only the serializable state, so it can be published by another thread while
+     * this manager keeps changing.
+     */
+    public FactHandlesManager copy() {
+        FactHandlesManager copy = new FactHandlesManager();
+        for (Map.Entry<RemoteFactHandle, Long> entry : fhIdMap.entrySet()) {
+            copy.fhIdMap.put(entry.getKey(), entry.getValue());
+        }
+        return copy;
+    }
+
     public FactHandle mapRemoteFactHandle(RemoteFactHandle remoteFH) {
-        return fhMap.computeIfAbsent(remoteFH, this::getFactHandleById);
+        return getFactHandleById(remoteFH);
     }
 
     /*public for test*/
     InternalFactHandle getFactHandleById(RemoteFactHandle remoteFH) {
-        long id = fhIdMap.get(remoteFH);
-        for (FactHandle fh : kieSession.getFactHandles(new ClassObjectFilter(remoteFH.getObject().getClass()))) {
-            InternalFactHandle ifh = (InternalFactHandle) fh;
-            if (ifh.getId() == id) {
-                return ifh;
-            }
+        InternalFactHandle ifh = fhMap.get(remoteFH);
+        if (ifh == null) {
+            throw new IllegalArgumentException("Unknown fact handle " + remoteFH);
         }
-        throw new IllegalArgumentException();
+        return ifh;
     }
 
     @Override
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core;
+
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * Gauges and histograms of the pipeline of a node, from the records polled from Kafka to the control messages
+ * produced by the leader. The metrics are Prometheus collectors registered in a registry of their own, see
+ * {@link #getRegistry()}, and they can also be read as a map via {@link #snapshot()}.
+ */
+public class PipelineMetrics {
+
+    public static final String COMMAND_DURATION = "drools_ha_command_duration_seconds";
+    public static final String CONTROL_PRODUCE_DURATION = "drools_ha_control_produce_duration_seconds";
+    public static final String POLL_RECORDS = "drools_ha_poll_records";
+    public static final String SIDE_EFFECTS = "drools_ha_side_effects";
+    public static final String PENDING_SIDE_EFFECTS = "drools_ha_pending_side_effects";
+    public static final String PROCESSED_OFFSET = "drools_ha_processed_offset";
+    public static final String OFFSET_LAG = "drools_ha_offset_lag";
+
+    public static final String TOPIC_EVENTS = "events";
+    public static final String TOPIC_CONTROL = "control";
+
+    private static final double NANOS_TO_SECONDS = 1e-9;
+    private static final double[] DURATION_BUCKETS = {0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5};
+    private static final double[] SIZE_BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final CollectorRegistry registry = new CollectorRegistry();
+    private final Map<String, Collector> collectors = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> values = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Histogram.Child> commandDurations = new ConcurrentHashMap<>();
+
+    public void commandProcessed(Class<?> commandType, long nanos) {
+        commandDurations.computeIfAbsent(commandType,
+                                         type -> histogram(COMMAND_DURATION, "Time taken to process a command", DURATION_BUCKETS, "type", type.getSimpleName()))
+                .observe(nanos * NANOS_TO_SECONDS);
+    }
+
+    /**
+     * @param mode sync, async or flush
+     */
+    public void controlProduced(String mode, long nanos) {
+        histogram(CONTROL_PRODUCE_DURATION, "Time taken to produce control messages", DURATION_BUCKETS, "mode", mode).observe(nanos * NANOS_TO_SECONDS);
+    }
+
+    public void polled(String topic, int records) {
+        histogram(POLL_RECORDS, "Records returned by a poll", SIZE_BUCKETS, "topic", topic).observe(records);
+    }
+
+    /**
+     * @param role leader for the side effects sent in a control message, replica for the ones received
+     */
+    public void sideEffects(String role, int size) {
+        histogram(SIDE_EFFECTS, "Side effects of a control message", SIZE_BUCKETS, "role", role).observe(size);
+    }
+
+    public void pendingSideEffects(Supplier<? extends Number> pending) {
+        gauge(PENDING_SIDE_EFFECTS, "Side effects received by a replica and not consumed yet", pending);
+    }
+
+    /**
+     * @return the offset of the last record of the topic processed by this node, -1 before the first one
+     */
+    public AtomicLong processedOffset(String topic) {
+        return value(PROCESSED_OFFSET, "Offset of the last processed record", -1, "topic", topic);
+    }
+
+    public AtomicLong offsetLag(String topic) {
+        return value(OFFSET_LAG, "Records of the topic not processed yet", 0, "topic", topic);
+    }
+
+    /**
+     * @return the histogram of the given name and labels, the first labels given for a name define its label names
+     */
+    public Histogram.Child histogram(String name, String help, double[] buckets, String... labels) {
+        Histogram histogram = (Histogram) collectors.computeIfAbsent(name, k -> Histogram.build()
+                .name(name)
+                .help(help)
+                .labelNames(labelNames(labels))
+                .buckets(buckets)
+                .register(registry));
+        return histogram.labels(labelValues(labels));
+    }
+
+    public void gauge(String name, String help, Supplier<? extends Number> value, String... labels) {
+        Gauge gauge = (Gauge) collectors.computeIfAbsent(name, k -> Gauge.build()
+                .name(name)
+                .help(help)
+                .labelNames(labelNames(labels))
+                .register(registry));
+        gauge.setChild(new SuppliedGauge(value), labelValues(labels));
+    }
+
+    /**
+     * @return a gauge set by the caller, registered with the given initial value the first time it is asked for
+     */
+    public AtomicLong value(String name, String help, long initialValue, String... labels) {
+        return values.computeIfAbsent(key(name, Arrays.asList(labelNames(labels)), Arrays.asList(labelValues(labels))), key -> {
+            AtomicLong value = new AtomicLong(initialValue);
+            gauge(name, help, value::get, labels);
+            return value;
+        });
+    }
+
+    public CollectorRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return the current value of each metric, keyed by name and labels, e.g. <code>drools_ha_offset_lag{topic="events"}</code>.
+     * A histogram is exported as cumulative buckets with their upper bound in the <code>le</code> label, plus its
+     * count and sum.
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> snapshot = new TreeMap<>();
+        Enumeration<Collector.MetricFamilySamples> families = registry.metricFamilySamples();
+        while (families.hasMoreElements()) {
+            for (Collector.MetricFamilySamples.Sample sample : families.nextElement().samples) {
+                snapshot.put(key(sample.name, sample.labelNames, sample.labelValues), sample.value);
+            }
+        }
+        return snapshot;
+    }
+
+    private static String key(String name, List<String> labelNames, List<String> labelValues) {
+        if (labelNames.isEmpty()) {
+            return name;
+        }
+        StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < labelNames.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(labelNames.get(i)).append("=\"").append(labelValues.get(i)).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String[] labelNames(String... labels) {
+        return pairs(labels, 0);
+    }
+
+    private static String[] labelValues(String... labels) {
+        return pairs(labels, 1);
+    }
+
+    private static String[] pairs(String[] labels, int first) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be pairs of name and value: " + Arrays.toString(labels));
+        }
+        String[] elements = new String[labels.length / 2];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = labels[2 * i + first];
+        }
+        return elements;
+    }
+
+    /**
+     * A gauge reading its value when the metrics are collected.
+     */
+    private static class SuppliedGauge extends Gauge.Child {
+
+        private final Supplier<? extends Number> value;
+
+        private SuppliedGauge(Supplier<? extends Number> value) {
+            this.value = value;
+        }
+
+        @Override
+        public double get() {
+            return value.get().doubleValue();
+        }
+    }
+}
@@ -26,4 +26,6 @@ public interface SessionSnapshooter {
     SnapshotInfos deserialize();
 
     LocalDateTime getLastSnapshotTime();
+
+    void stop();
 }
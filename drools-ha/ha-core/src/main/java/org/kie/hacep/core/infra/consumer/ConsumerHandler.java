@@ -26,5 +26,15 @@ public interface ConsumerHandler {
 
     void processWithSnapshot(ItemToProcess item, State currentState);
 
+    /**
+     * Processes the item as part of a batch, the control message of a leader is sent asynchronously
+     * and is only guaranteed to be published after {@link #flushControlMessages()}.
+     */
+    void processBatched(ItemToProcess item, State currentState);
+
+    void processBatched(RemoteCommand command, State state);
+
+    void flushControlMessages();
+
     void stop();
 }
@@ -26,6 +26,8 @@ import org.slf4j.LoggerFactory;
 
 public class LocalConsumer implements EventConsumer {
 
+    // same as the default max.poll.records of the kafka consumer
+    private static final int MAX_BATCH_SIZE = 500;
     private final LocalMessageSystem queue = LocalMessageSystem.get();
     private final EnvConfig envConfig;
     private ConsumerHandler consumerHandler;
@@ -46,12 +48,25 @@ public class LocalConsumer implements EventConsumer {
         String topic = envConfig.getEventsTopicName();
         while (true) {
             RemoteCommand command = (RemoteCommand) queue.poll(topic, envConfig.getPollTimeout());
-            if (command != null) {
-                consumerHandler.process(command, currentState);
-            } else {
+            if (command == null) {
                 break;
             }
+            if (envConfig.isLeaderBatch()) {
+                processBatch(topic, command);
+            } else {
+                consumerHandler.process(command, currentState);
+            }
+        }
+    }
+
+    private void processBatch(String topic, RemoteCommand first) {
+        RemoteCommand command = first;
+        int size = 0;
+        while (command != null) {
+            consumerHandler.processBatched(command, currentState);
+            command = ++size < MAX_BATCH_SIZE ? (RemoteCommand) queue.poll(topic) : null;
         }
+        consumerHandler.flushControlMessages();
     }
 
     @Override
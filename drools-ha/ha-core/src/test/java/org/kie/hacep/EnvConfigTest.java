@@ -32,6 +32,21 @@ public class EnvConfigTest {
         assertEquals(PollUnit.MILLISECOND, config.getPollUnit());
         assertEquals(PollUnit.SECOND, config.getPollSnapshotUnit());
         assertTrue(1 == config.getPollSnapshotTimeout());
+        assertFalse(config.isLeaderBatch());
+        assertFalse(config.isAsyncSnapshot());
+        assertEquals(0, config.getSnapshotChunkSize());
+        assertFalse(config.isPartitioned());
+    }
+
+    @Test
+    public void partitionTopicsTest() {
+        EnvConfig config = EnvConfig.getDefaultEnvConfig().withPartition("2");
+        assertTrue(config.isPartitioned());
+        assertEquals(2, config.getPartition());
+        assertEquals("control-2", config.getControlTopicName());
+        assertEquals("events-2", config.getEventsTopicName());
+        assertEquals("snapshot-2", config.getSnapshotTopicName());
+        assertEquals("kiesessioninfos", config.getKieSessionInfosTopicName());
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -15,8 +15,12 @@
  */
 package org.kie.hacep.consumer;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Consumer;
@@ -28,8 +32,13 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.kie.api.KieServices;
 import org.kie.api.builder.ReleaseId;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.definition.type.Role;
+import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.api.runtime.rule.EntryPoint;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.QueryResults;
@@ -37,15 +46,18 @@ import org.kie.hacep.EnvConfig;
 import org.kie.hacep.core.KieSessionContext;
 import org.kie.hacep.core.infra.SessionSnapshooter;
 import org.kie.hacep.util.ConsumerUtilsCore;
+import org.kie.internal.utils.KieHelper;
 import org.kie.remote.CommonConfig;
 import org.kie.remote.DroolsExecutor;
 import org.kie.remote.RemoteFactHandle;
 import org.kie.remote.command.DeleteCommand;
+import org.kie.remote.command.EventInsertAllCommand;
 import org.kie.remote.command.EventInsertCommand;
 import org.kie.remote.command.FactCountCommand;
 import org.kie.remote.command.FireAllRulesCommand;
 import org.kie.remote.command.FireUntilHaltCommand;
 import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
 import org.kie.remote.command.GetObjectCommand;
 import org.kie.remote.command.HaltCommand;
 import org.kie.remote.command.InsertCommand;
@@ -64,6 +76,7 @@ import org.kie.remote.message.FireAllRuleMessage;
 import org.kie.remote.message.GetKJarGAVMessage;
 import org.kie.remote.message.GetObjectMessage;
 import org.kie.remote.message.ListKieSessionObjectMessage;
+import org.kie.remote.message.MetricsMessage;
 import org.kie.remote.message.ResultMessage;
 
 import org.kie.remote.message.UpdateKJarMessage;
@@ -233,6 +246,52 @@ public class CommandHandlerTest {
         logger.info("EventInsertCommand:{}", command.toString());
     }
 
+    @Test
+    public void visitEventInsertAllCommand() {
+        EventInsertAllCommand command = new EventInsertAllCommand(Arrays.asList(myObject, "otherObject"), myEntryPoint);
+        executeAndVerify(command,
+                         commandHandler::visit,
+                         () -> {
+                             verify(entryPointMock, times(1)).insert(eq(myObject));
+                             verify(entryPointMock, times(1)).insert(eq("otherObject"));
+                         });
+        logger.info("EventInsertAllCommand:{}", command.toString());
+    }
+
+    @Test
+    public void visitEventInsertAllCommandSlidingWindow() {
+        String drl = "import " + Tick.class.getCanonicalName() + ";\n" +
+                "global java.util.List counts;\n" +
+                "rule \"ticks in window\" when\n" +
+                "    accumulate( Tick() over window:time( 10s ); $count : count() )\n" +
+                "then\n" +
+                "    counts.add($count);\n" +
+                "end\n";
+        KieSessionConfiguration sessionConfiguration = KieServices.Factory.get().newKieSessionConfiguration();
+        sessionConfiguration.setOption(ClockTypeOption.get("pseudo"));
+        KieSession kieSession = new KieHelper().addContent(drl, ResourceType.DRL)
+                .build(EventProcessingOption.STREAM)
+                .newKieSession(sessionConfiguration, null);
+        List<Long> counts = new ArrayList<>();
+        kieSession.setGlobal("counts", counts);
+        KieSessionContext kieSessionContext = new KieSessionContext();
+        kieSessionContext.init(null, kieSession);
+        CommandHandler handler = new CommandHandler(kieSessionContext, envConfig, producerMock, sessionSnapshooterMock, null);
+        try {
+            handler.visit(new FireUntilHaltCommand());
+            // sent together but happened 6 seconds apart, so the first one leaves the window when the last one arrives
+            long start = 1_000_000L;
+            handler.visit(new EventInsertAllCommand(Arrays.asList(new Tick(), new Tick(), new Tick()),
+                                                    new long[]{start, start + 6_000, start + 12_000},
+                                                    "DEFAULT"));
+
+            assertEquals(start + 12_000, kieSession.getSessionClock().getCurrentTime());
+            assertEquals(Arrays.asList(1L, 2L, 2L), counts);
+        } finally {
+            kieSession.dispose();
+        }
+    }
+
     @Test
     public void visitDeleteCommand() {
         DeleteCommand command = new DeleteCommand(remoteFactHandle, myEntryPoint);
@@ -333,6 +392,16 @@ public class CommandHandlerTest {
         logger.info("GetKJarGAVCommand:{}", command.toString());
     }
 
+    @Test
+    public void visitGetMetricsCommand() {
+        GetMetricsCommand command = new GetMetricsCommand();
+        executeAndVerifyResponseMessage(command,
+                                        commandHandler::visit,
+                                        MetricsMessage.class,
+                                        result -> result instanceof Map);
+        logger.info("GetMetricsCommand:{}", command.toString());
+    }
+
     @Test
     public void visitUpdateKJarCommand() {
         envConfig.withUpdatableKJar("true");
@@ -408,4 +477,7 @@ public class CommandHandlerTest {
         }
     }
 
-}
\ No newline at end of file
+    @Role(Role.Type.EVENT)
+    public static class Tick implements Serializable {
+    }
+}
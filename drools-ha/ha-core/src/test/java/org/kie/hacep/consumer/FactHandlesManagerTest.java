@@ -15,6 +15,9 @@
  */
 package org.kie.hacep.consumer;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 import org.kie.api.KieServices;
 import org.kie.api.runtime.KieContainer;
@@ -23,6 +26,7 @@ import org.kie.api.runtime.rule.FactHandle;
 import org.kie.hacep.EnvConfig;
 import org.kie.remote.RemoteFactHandle;
 import org.kie.remote.impl.RemoteFactHandleImpl;
+import org.kie.remote.util.SerializationUtil;
 
 import static org.junit.Assert.*;
 
@@ -58,4 +62,55 @@ public class FactHandlesManagerTest {
         assertNotNull(manager.getFactHandleById(remoteFactHandle));
         assertNotNull(manager.toString());
     }
+
+    @Test
+    public void copyTest(){
+        KieServices ks = KieServices.get();
+        EnvConfig envConfig = EnvConfig.getDefaultEnvConfig();
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, ks);
+        KieSession kieSession = kieContainer.newKieSession();
+        FactHandlesManager manager = new FactHandlesManager(kieSession);
+        RemoteFactHandle remoteFactHandle = new RemoteFactHandleImpl("myObject");
+        manager.registerHandle(remoteFactHandle, kieSession.getEntryPoint("DEFAULT").insert("myObject"));
+        FactHandlesManager copy = manager.copy();
+        manager.registerHandle(new RemoteFactHandleImpl("otherObject"), kieSession.getEntryPoint("DEFAULT").insert("otherObject"));
+        assertEquals(1, copy.getFhMapKeys().size());
+        assertTrue(copy.getFhMapKeys().contains(remoteFactHandle));
+        assertEquals(2, manager.getFhMapKeys().size());
+    }
+
+    @Test
+    public void initFromKieSessionIndexesHandlesTest(){
+        KieServices ks = KieServices.get();
+        EnvConfig envConfig = EnvConfig.getDefaultEnvConfig();
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, ks);
+        KieSession kieSession = kieContainer.newKieSession();
+        FactHandlesManager manager = new FactHandlesManager(kieSession);
+        List<RemoteFactHandle> remoteFactHandles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            RemoteFactHandle remoteFactHandle = new RemoteFactHandleImpl("myObject" + i);
+            manager.registerHandle(remoteFactHandle, kieSession.getEntryPoint("DEFAULT").insert("myObject" + i));
+            remoteFactHandles.add(remoteFactHandle);
+        }
+        kieSession.insert(42);
+
+        /* as after a snapshot restore, only the remote handles and the ids are known */
+        FactHandlesManager restored = SerializationUtil.<FactHandlesManager>deserialize(SerializationUtil.serialize(manager)).initFromKieSession(kieSession);
+        for (RemoteFactHandle remoteFactHandle : remoteFactHandles) {
+            assertEquals(remoteFactHandle.getObject(), kieSession.getObject(restored.mapRemoteFactHandle(remoteFactHandle)));
+        }
+
+        kieSession.delete(restored.mapRemoteFactHandle(remoteFactHandles.get(0)));
+        assertFalse(restored.getFhMapKeys().contains(remoteFactHandles.get(0)));
+        assertEquals(9, restored.getFhMapKeys().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFactHandleTest(){
+        KieServices ks = KieServices.get();
+        EnvConfig envConfig = EnvConfig.getDefaultEnvConfig();
+        KieContainer kieContainer = KieContainerUtils.getKieContainer(envConfig, ks);
+        FactHandlesManager manager = new FactHandlesManager().initFromKieSession(kieContainer.newKieSession());
+        manager.mapRemoteFactHandle(new RemoteFactHandleImpl("myObject"));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.Test;
+import org.kie.remote.command.FireAllRulesCommand;
+
+import static org.junit.Assert.*;
+
+public class PipelineMetricsTest {
+
+    @Test
+    public void histogramTest() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.commandProcessed(FireAllRulesCommand.class, TimeUnit.MICROSECONDS.toNanos(50));
+        metrics.commandProcessed(FireAllRulesCommand.class, TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.commandProcessed(FireAllRulesCommand.class, TimeUnit.SECONDS.toNanos(10));
+
+        Map<String, Number> snapshot = metrics.snapshot();
+        String name = PipelineMetrics.COMMAND_DURATION;
+        assertEquals(1.0, snapshot.get(name + "_bucket{type=\"FireAllRulesCommand\",le=\"1.0E-4\"}"));
+        assertEquals(2.0, snapshot.get(name + "_bucket{type=\"FireAllRulesCommand\",le=\"0.005\"}"));
+        assertEquals(2.0, snapshot.get(name + "_bucket{type=\"FireAllRulesCommand\",le=\"5.0\"}"));
+        assertEquals(3.0, snapshot.get(name + "_bucket{type=\"FireAllRulesCommand\",le=\"+Inf\"}"));
+        assertEquals(3.0, snapshot.get(name + "_count{type=\"FireAllRulesCommand\"}"));
+        assertEquals(10.00305, snapshot.get(name + "_sum{type=\"FireAllRulesCommand\"}").doubleValue(), 1e-9);
+    }
+
+    @Test
+    public void gaugeTest() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        AtomicLong lag = metrics.offsetLag(PipelineMetrics.TOPIC_CONTROL);
+        assertSame(lag, metrics.offsetLag(PipelineMetrics.TOPIC_CONTROL));
+        lag.set(7);
+        metrics.pendingSideEffects(() -> 3);
+
+        Map<String, Number> snapshot = metrics.snapshot();
+        assertEquals(7.0, snapshot.get("drools_ha_offset_lag{topic=\"control\"}"));
+        assertEquals(3.0, snapshot.get("drools_ha_pending_side_effects"));
+    }
+
+    @Test
+    public void registryTest() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.polled(PipelineMetrics.TOPIC_EVENTS, 4);
+        metrics.processedOffset(PipelineMetrics.TOPIC_EVENTS);
+
+        CollectorRegistry registry = metrics.getRegistry();
+        String[] labels = {"topic", "le"};
+        assertEquals(0.0, registry.getSampleValue("drools_ha_poll_records_bucket", labels, new String[]{"events", "2.0"}), 0);
+        assertEquals(1.0, registry.getSampleValue("drools_ha_poll_records_bucket", labels, new String[]{"events", "5.0"}), 0);
+        assertEquals(4.0, registry.getSampleValue("drools_ha_poll_records_sum", new String[]{"topic"}, new String[]{"events"}), 0);
+        assertEquals(-1.0, registry.getSampleValue(PipelineMetrics.PROCESSED_OFFSET, new String[]{"topic"}, new String[]{"events"}), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unpairedLabelsTest() {
+        new PipelineMetrics().gauge(PipelineMetrics.PENDING_SIDE_EFFECTS, "Pending side effects", () -> 0, "topic");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.hacep.core.infra.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.kie.hacep.EnvConfig;
+import org.kie.hacep.consumer.DroolsConsumerHandler;
+import org.kie.hacep.core.infra.election.State;
+import org.kie.hacep.sample.kjar.StockTickEvent;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.impl.EntryPointUtil;
+import org.kie.remote.impl.producer.LocalProducer;
+import org.kie.remote.message.Message;
+import org.kie.remote.util.LocalMessageSystem;
+
+/**
+ * Compares the throughput of a leader publishing a control message per event synchronously with a leader processing
+ * whole batches (<code>leader.batch</code>) on the local transport. As the local transport has no network, every
+ * synchronous send and every flush waits for a simulated broker round trip.
+ * Not run as part of the test suite, start it via its main method, optionally passing the number of events per run
+ * and the round trip in microseconds (10000 and 500 by default).
+ */
+public class LeaderBatchBenchmark {
+
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(args.length > 1 ? Long.parseLong(args[1]) : 500);
+        System.out.printf("%d events per run, %d us simulated round trip%n", events, TimeUnit.NANOSECONDS.toMicros(roundTripNanos));
+
+        // first run of each mode warms up, order alternates so neither mode always runs on warmer caches
+        for (int i = 0; i <= ITERATIONS; i++) {
+            double sync;
+            double batch;
+            if (i % 2 == 0) {
+                sync = run(false, events, roundTripNanos);
+                batch = run(true, events, roundTripNanos);
+            } else {
+                batch = run(true, events, roundTripNanos);
+                sync = run(false, events, roundTripNanos);
+            }
+            System.out.printf("%-8s sync %10.0f events/s  batch %10.0f events/s%n", i == 0 ? "warm-up" : "run " + i, sync, batch);
+        }
+    }
+
+    private static double run(boolean batch, int events, long roundTripNanos) {
+        EnvConfig envConfig = EnvConfig.getDefaultEnvConfig().local(true).withPollTimeout("1").withLeaderBatch(Boolean.toString(batch));
+        LocalMessageSystem queue = LocalMessageSystem.get();
+        RoundTripProducer producer = new RoundTripProducer(roundTripNanos);
+        DroolsConsumerHandler handler = new DroolsConsumerHandler(producer, envConfig, null, null);
+        LocalConsumer consumer = new LocalConsumer(envConfig);
+        consumer.initConsumer(handler);
+        consumer.updateStatus(State.LEADER);
+        try {
+            for (int i = 0; i < events; i++) {
+                queue.put(envConfig.getEventsTopicName(), new EventInsertCommand(new StockTickEvent("RHT", i, i), EntryPointUtil.DEFAULT_ENTRY_POINT));
+            }
+
+            long start = System.nanoTime();
+            consumer.poll();
+            long duration = System.nanoTime() - start;
+
+            int published = 0;
+            while (queue.poll(envConfig.getControlTopicName()) != null) {
+                published++;
+            }
+            if (published != events) {
+                throw new IllegalStateException("Expected " + events + " control messages but were " + published);
+            }
+            return events * (double) TimeUnit.SECONDS.toNanos(1) / duration;
+        } finally {
+            handler.stop();
+        }
+    }
+
+    private static class RoundTripProducer extends LocalProducer {
+
+        private final long roundTripNanos;
+
+        RoundTripProducer(long roundTripNanos) {
+            this.roundTripNanos = roundTripNanos;
+        }
+
+        @Override
+        public void produceSync(String topicName, String key, Message object) {
+            super.produceSync(topicName, key, object);
+            LockSupport.parkNanos(roundTripNanos);
+        }
+
+        @Override
+        public void flush() {
+            LockSupport.parkNanos(roundTripNanos);
+        }
+    }
+}
@@ -35,6 +35,17 @@ public class CommonConfig {
     public static final String GROUP_ID_CONFIG = "group.id";
     public static final String LOCAL_MESSAGE_SYSTEM_CONF = "local.message.system";
     public static final String SKIP_LISTENER_AUTOSTART = "skip.listener.autostart";
+    public static final String MESSAGE_SERIALIZER = "message.serializer";
+    public static final String MAX_IN_FLIGHT_REQUESTS = "max.in.flight.requests";
+    public static final String DEFAULT_MAX_IN_FLIGHT_REQUESTS = "0";
+    public static final String REQUEST_TIMEOUT_MS = "request.timeout.ms";
+    public static final String DEFAULT_REQUEST_TIMEOUT_MS = "0";
+    public static final String INSERT_BATCH_SIZE = "insert.batch.size";
+    public static final String DEFAULT_INSERT_BATCH_SIZE = "100";
+    public static final String INSERT_LINGER_MS = "insert.linger.ms";
+    public static final String DEFAULT_INSERT_LINGER_MS = "5";
+    public static final String PARTITIONS = "partitions";
+    public static final String DEFAULT_PARTITIONS = "1";
     private static final Logger logger = LoggerFactory.getLogger(CommonConfig.class);
     private static final String PRODUCER_CONF = "producer.properties";
     private static Properties producerConf;
@@ -53,6 +53,13 @@ public abstract class DroolsExecutor {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * @return the side effects recorded by the leader and not yet sent, or received by a replica and not yet replayed
+     */
+    public int getPendingSideEffects() {
+        return executionResults.size();
+    }
+
     public static class Leader extends DroolsExecutor {
 
         private static final Leader INSTANCE = new Leader();
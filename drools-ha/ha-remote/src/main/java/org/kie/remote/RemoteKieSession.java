@@ -17,6 +17,7 @@
 package org.kie.remote;
 
 import java.io.Closeable;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface RemoteKieSession extends Closeable, RemoteEntryPoint, RemoteStatefulSession, UpdatableSession {
@@ -26,4 +27,10 @@ public interface RemoteKieSession extends Closeable, RemoteEntryPoint, RemoteSta
     CompletableFuture<String> getKJarGAV();
 
     CompletableFuture<Boolean> updateKJarGAV(String kjar);
+
+    /**
+     * @return the pipeline metrics of the leader serving this session, keyed by metric name and labels in the
+     * Prometheus notation, e.g. <code>drools_ha_offset_lag{topic="events"}</code>
+     */
+    CompletableFuture<Map<String, Number>> getMetrics();
 }
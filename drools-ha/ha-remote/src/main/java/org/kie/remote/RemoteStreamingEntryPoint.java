@@ -16,6 +16,8 @@
 package org.kie.remote;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 public interface RemoteStreamingEntryPoint extends RemoteWorkingMemory {
 
@@ -27,5 +29,30 @@ public interface RemoteStreamingEntryPoint extends RemoteWorkingMemory {
      * @return the fact handle created for the given fact
      */
     void insert(Serializable object);
+
+    /**
+     * Inserts a new fact into this entry point without waiting for it to be sent. The facts inserted this way are
+     * sent in batches, see {@link TopicsConfig#withInsertBatchSize(int)} and {@link TopicsConfig#withInsertLingerMs(long)}.
+     * Other commands sent before the batch is complete may reach the session first, unless {@link #flush()} is called.
+     *
+     * @param object the fact to be inserted
+     *
+     * @return a CompletableFuture completed once the fact is appended to the events topic
+     */
+    CompletableFuture<Void> insertAsync(Serializable object);
+
+    /**
+     * Inserts all the given facts into this entry point with a single command, without waiting for it to be sent
+     *
+     * @param objects the facts to be inserted, in order
+     *
+     * @return a CompletableFuture completed once the facts are appended to the events topic
+     */
+    CompletableFuture<Void> insertAll(Collection<? extends Serializable> objects);
+
+    /**
+     * Sends the facts inserted with {@link #insertAsync(Serializable)} still waiting for their batch to be complete
+     */
+    void flush();
 }
 
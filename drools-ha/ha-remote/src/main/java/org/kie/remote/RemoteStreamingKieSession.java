@@ -16,8 +16,16 @@
 package org.kie.remote;
 
 import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface RemoteStreamingKieSession extends Closeable, RemoteStreamingEntryPoint, RemoteStatefulSession, UpdatableSession {
 
     RemoteStreamingEntryPoint getEntryPoint(String name);
+
+    /**
+     * @return the pipeline metrics of the leader serving this session, keyed by metric name and labels in the
+     * Prometheus notation, e.g. <code>drools_ha_offset_lag{topic="events"}</code>
+     */
+    CompletableFuture<Map<String, Number>> getMetrics();
 }
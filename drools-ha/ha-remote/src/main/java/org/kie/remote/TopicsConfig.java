@@ -17,15 +17,30 @@ package org.kie.remote;
 
 import java.util.Optional;
 
+import org.kie.remote.util.JavaMessageSerializer;
+import org.kie.remote.util.PartitionUtil;
+
 public class TopicsConfig {
 
     private String eventsTopicName;
     private String kieSessionInfosTopicName;
+    private String messageSerializer;
+    private int maxInFlightRequests;
+    private long requestTimeoutMs;
+    private int insertBatchSize;
+    private long insertLingerMs;
+    private int partitions;
 
     public static TopicsConfig getDefaultTopicsConfig(){
         return anTopicsConfig().
                 withKieSessionInfosTopicName(Optional.ofNullable(System.getenv(CommonConfig.DEFAULT_KIE_SESSION_INFOS_TOPIC)).orElse(CommonConfig.DEFAULT_KIE_SESSION_INFOS_TOPIC)).
-                withEventsTopicName(Optional.ofNullable(System.getenv(CommonConfig.DEFAULT_EVENTS_TOPIC)).orElse(CommonConfig.DEFAULT_EVENTS_TOPIC)).build();
+                withEventsTopicName(Optional.ofNullable(System.getenv(CommonConfig.DEFAULT_EVENTS_TOPIC)).orElse(CommonConfig.DEFAULT_EVENTS_TOPIC)).
+                withMessageSerializer(Optional.ofNullable(System.getenv(CommonConfig.MESSAGE_SERIALIZER)).orElse(JavaMessageSerializer.NAME)).
+                withMaxInFlightRequests(Integer.parseInt(Optional.ofNullable(System.getenv(CommonConfig.MAX_IN_FLIGHT_REQUESTS)).orElse(CommonConfig.DEFAULT_MAX_IN_FLIGHT_REQUESTS))).
+                withRequestTimeoutMs(Long.parseLong(Optional.ofNullable(System.getenv(CommonConfig.REQUEST_TIMEOUT_MS)).orElse(CommonConfig.DEFAULT_REQUEST_TIMEOUT_MS))).
+                withInsertBatchSize(Integer.parseInt(Optional.ofNullable(System.getenv(CommonConfig.INSERT_BATCH_SIZE)).orElse(CommonConfig.DEFAULT_INSERT_BATCH_SIZE))).
+                withInsertLingerMs(Long.parseLong(Optional.ofNullable(System.getenv(CommonConfig.INSERT_LINGER_MS)).orElse(CommonConfig.DEFAULT_INSERT_LINGER_MS))).
+                withPartitions(Integer.parseInt(Optional.ofNullable(System.getenv(CommonConfig.PARTITIONS)).orElse(CommonConfig.DEFAULT_PARTITIONS))).build();
     }
 
     private TopicsConfig() { }
@@ -43,10 +58,77 @@ public class TopicsConfig {
         return this;
     }
 
+    public TopicsConfig withMessageSerializer(String messageSerializer) {
+        this.messageSerializer = messageSerializer;
+        return this;
+    }
+
+    /**
+     * Max number of requests waiting for their result, when reached a new request waits for another one to complete.
+     * 0 means unbounded. The bound is shared by the sessions using the same listener, so it is taken from the
+     * configuration the listener is created with.
+     */
+    public TopicsConfig withMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = maxInFlightRequests;
+        return this;
+    }
+
+    /**
+     * Time after which a request without result completes exceptionally with a TimeoutException, 0 means no timeout.
+     * It applies to the requests of the sessions created with this configuration.
+     */
+    public TopicsConfig withRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = requestTimeoutMs;
+        return this;
+    }
+
+    /**
+     * Max number of events inserted asynchronously that are sent together in a single command.
+     */
+    public TopicsConfig withInsertBatchSize(int insertBatchSize) {
+        this.insertBatchSize = insertBatchSize;
+        return this;
+    }
+
+    /**
+     * Time an event inserted asynchronously waits for other ones to fill its batch, 0 sends it immediately.
+     */
+    public TopicsConfig withInsertLingerMs(long insertLingerMs) {
+        this.insertLingerMs = insertLingerMs;
+        return this;
+    }
+
+    /**
+     * Number of partitions of a partitioned deployment, each one served by its own KieSession.
+     */
+    public TopicsConfig withPartitions(int partitions) {
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * @return a copy of this configuration addressing the events topic of the given partition
+     */
+    public TopicsConfig forPartition(int partition) {
+        if (partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("Partition " + partition + " out of " + partitions);
+        }
+        TopicsConfig topicsConfig = build();
+        topicsConfig.eventsTopicName = PartitionUtil.partitionName(eventsTopicName, partition);
+        topicsConfig.partitions = 1;
+        return topicsConfig;
+    }
+
     public TopicsConfig build() {
         TopicsConfig topicsConfig = new TopicsConfig();
         topicsConfig.eventsTopicName = this.eventsTopicName;
         topicsConfig.kieSessionInfosTopicName = this.kieSessionInfosTopicName;
+        topicsConfig.messageSerializer = this.messageSerializer;
+        topicsConfig.maxInFlightRequests = this.maxInFlightRequests;
+        topicsConfig.requestTimeoutMs = this.requestTimeoutMs;
+        topicsConfig.insertBatchSize = this.insertBatchSize;
+        topicsConfig.insertLingerMs = this.insertLingerMs;
+        topicsConfig.partitions = this.partitions;
         return topicsConfig;
     }
 
@@ -54,12 +136,30 @@ public class TopicsConfig {
 
     public String getKieSessionInfosTopicName() { return kieSessionInfosTopicName; }
 
+    public String getMessageSerializer() { return messageSerializer; }
+
+    public int getMaxInFlightRequests() { return maxInFlightRequests; }
+
+    public long getRequestTimeoutMs() { return requestTimeoutMs; }
+
+    public int getInsertBatchSize() { return insertBatchSize; }
+
+    public long getInsertLingerMs() { return insertLingerMs; }
+
+    public int getPartitions() { return partitions; }
+
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("TopicsConfig{");
         sb.append(", eventsTopicName='").append(eventsTopicName).append('\'');
         sb.append(", kieSessionInfosTopicName='").append(kieSessionInfosTopicName).append('\'');
+        sb.append(", messageSerializer='").append(messageSerializer).append('\'');
+        sb.append(", maxInFlightRequests=").append(maxInFlightRequests);
+        sb.append(", requestTimeoutMs=").append(requestTimeoutMs);
+        sb.append(", insertBatchSize=").append(insertBatchSize);
+        sb.append(", insertLingerMs=").append(insertLingerMs);
+        sb.append(", partitions=").append(partitions);
         sb.append('}');
         return sb.toString();
     }
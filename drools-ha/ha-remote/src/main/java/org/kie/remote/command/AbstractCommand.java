@@ -27,8 +27,12 @@ public abstract class AbstractCommand implements RemoteCommand, Serializable {
     protected AbstractCommand() {/*For serialization*/}
 
     protected AbstractCommand(String id) {
+        this(id, System.currentTimeMillis());
+    }
+
+    protected AbstractCommand(String id, long timestamp) {
         this.id = id;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
     }
 
     @Override
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.command;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Inserts many events into an entry point with a single command, so they are appended to the events topic and
+ * acknowledged by the leader as a whole. Each event may carry the time at which it happened, which the leader uses
+ * as for a single {@link EventInsertCommand} when the event has no timestamp of its own.
+ */
+public class EventInsertAllCommand extends WorkingMemoryActionCommand implements VisitableCommand, Serializable {
+
+    private List<Serializable> objects;
+    private long[] timestamps;
+
+    public EventInsertAllCommand() { /*For serialization*/}
+
+    public EventInsertAllCommand(Collection<? extends Serializable> objects, String entryPoint) {
+        super(null, entryPoint);
+        this.objects = new ArrayList<>(objects);
+    }
+
+    /**
+     * @param timestamps times at which the events happened, in the same order as the events
+     */
+    public EventInsertAllCommand(Collection<? extends Serializable> objects, long[] timestamps, String entryPoint) {
+        this(objects, entryPoint);
+        if (timestamps.length != this.objects.size()) {
+            throw new IllegalArgumentException(timestamps.length + " timestamps for " + this.objects.size() + " events");
+        }
+        this.timestamps = timestamps;
+    }
+
+    public List<Serializable> getObjects() {
+        return objects;
+    }
+
+    /**
+     * @return the time at which the event at the given index happened, the time of the command if not given
+     */
+    public long getTimestamp(int index) {
+        return timestamps != null ? timestamps[index] : getTimestamp();
+    }
+
+    @Override
+    public void accept(VisitorCommand visitor) {
+        visitor.visit(this);
+    }
+
+    @Override
+    public boolean isPermittedForReplicas() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Insert of " + objects.size() + " events into entry-point " + getEntryPoint();
+    }
+}
@@ -29,6 +29,14 @@ public class EventInsertCommand extends WorkingMemoryActionCommand implements Vi
         this.object = object;
     }
 
+    /**
+     * @param timestamp time at which the event happened, used by the leader for events without their own timestamp
+     */
+    public EventInsertCommand(Serializable object, String entryPoint, long timestamp) {
+        super(null, entryPoint, timestamp);
+        this.object = object;
+    }
+
     public Object getObject() {
         return object;
     }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.command;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+public class GetMetricsCommand extends AbstractCommand implements VisitableCommand, Serializable {
+
+    public GetMetricsCommand(){ super(UUID.randomUUID().toString());}
+
+    @Override
+    public boolean isPermittedForReplicas() {
+        // the reply is matched by the id of the command, so only the leader answers it; the metrics of every
+        // pod, replicas included, are served by its own metrics endpoint (see EnvConfig#withMetricsPort)
+        return false;
+    }
+
+    @Override
+    public void accept(VisitorCommand visitor) { visitor.visit(this); }
+
+    @Override
+    public String toString() {
+        return "GetMetricsCommand";
+    }
+}
@@ -27,6 +27,8 @@ public interface VisitorCommand {
 
     void visit(EventInsertCommand command);
 
+    void visit(EventInsertAllCommand command);
+
     void visit(DeleteCommand command);
 
     void visit(UpdateCommand command);
@@ -46,4 +48,6 @@ public interface VisitorCommand {
     void visit(UpdateKJarCommand command);
 
     void visit(GetKJarGAVCommand command);
+
+    void visit(GetMetricsCommand command);
 }
\ No newline at end of file
@@ -30,7 +30,11 @@ public abstract class WorkingMemoryActionCommand extends AbstractCommand {
     }
 
     public WorkingMemoryActionCommand( RemoteFactHandle factHandle, String entryPoint ) {
-        super( UUID.randomUUID().toString() );
+        this( factHandle, entryPoint, System.currentTimeMillis() );
+    }
+
+    public WorkingMemoryActionCommand( RemoteFactHandle factHandle, String entryPoint, long timestamp ) {
+        super( UUID.randomUUID().toString(), timestamp );
         this.factHandle = factHandle;
         this.entryPoint = entryPoint;
     }
@@ -18,7 +18,6 @@ package org.kie.remote.impl;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.RemoteFactHandle;
@@ -30,6 +29,7 @@ import org.kie.remote.command.GetObjectCommand;
 import org.kie.remote.command.ListObjectsCommand;
 import org.kie.remote.command.ListObjectsCommandClassType;
 import org.kie.remote.command.ListObjectsCommandNamedQuery;
+import org.kie.remote.impl.consumer.RequestsStore;
 import org.kie.remote.impl.producer.Sender;
 
 public abstract class AbstractRemoteEntryPoint implements RemoteWorkingMemory {
@@ -81,10 +81,16 @@ public abstract class AbstractRemoteEntryPoint implements RemoteWorkingMemory {
 
     protected <T> CompletableFuture<T> executeCommand(AbstractCommand command) {
         CompletableFuture callback = new CompletableFuture<>();
-        getRequestsStore().put(command.getId(), callback);
-        sender.sendCommand(command, topicsConfig.getEventsTopicName());
+        if (getRequestsStore().register(command.getId(), callback, topicsConfig.getRequestTimeoutMs())) {
+            try {
+                sender.sendCommand(command, topicsConfig.getEventsTopicName());
+            } catch (RuntimeException e) {
+                callback.completeExceptionally(e);
+                throw e;
+            }
+        }
         return callback;
     }
 
-    protected abstract Map<String, CompletableFuture<Object>> getRequestsStore();
+    protected abstract RequestsStore getRequestsStore();
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.kie.remote.command.EventInsertAllCommand;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.command.RemoteCommand;
+import org.kie.remote.impl.producer.Sender;
+
+/**
+ * Collects the events inserted asynchronously into an entry point and sends them as a single command once the batch
+ * is full or, at the latest, when the linger time of its first event expires. Each event keeps the time at which it
+ * was inserted, so batching doesn't change the clock seen by the rules.
+ */
+class EventBatcher {
+
+    private static ScheduledExecutorService lingerScheduler;
+
+    private final Sender sender;
+    private final String entryPoint;
+    private final String topicName;
+    private final int batchSize;
+    private final long lingerMs;
+
+    private List<Serializable> events;
+    private long[] timestamps;
+    private CompletableFuture<Void> batchAck;
+    private ScheduledFuture<?> linger;
+
+    EventBatcher(Sender sender, String entryPoint, String topicName, int batchSize, long lingerMs) {
+        this.sender = sender;
+        this.entryPoint = entryPoint;
+        this.topicName = topicName;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = lingerMs;
+    }
+
+    /**
+     * @return a future completed once the batch containing the event is appended to the topic
+     */
+    synchronized CompletableFuture<Void> add(Serializable event) {
+        if (events == null) {
+            events = new ArrayList<>(batchSize);
+            timestamps = new long[batchSize];
+            batchAck = new CompletableFuture<>();
+            if (batchSize > 1 && lingerMs > 0) {
+                linger = getLingerScheduler().schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        timestamps[events.size()] = System.currentTimeMillis();
+        events.add(event);
+        /* each caller gets its own future, completing it must not affect the other events of the batch */
+        CompletableFuture<Void> ack = batchAck.thenApply(Function.identity());
+        if (events.size() >= batchSize || lingerMs <= 0) {
+            send();
+        }
+        return ack;
+    }
+
+    /**
+     * Sends the pending events, if any, without waiting for their acknowledgement.
+     */
+    synchronized void flush() {
+        if (events != null) {
+            send();
+        }
+    }
+
+    private void send() {
+        List<Serializable> batch = events;
+        long[] batchTimestamps = timestamps.length == batch.size() ? timestamps : Arrays.copyOf(timestamps, batch.size());
+        CompletableFuture<Void> ack = batchAck;
+        events = null;
+        timestamps = null;
+        batchAck = null;
+        if (linger != null) {
+            linger.cancel(false);
+            linger = null;
+        }
+        RemoteCommand command = batch.size() == 1 ?
+                new EventInsertCommand(batch.get(0), entryPoint, batchTimestamps[0]) :
+                new EventInsertAllCommand(batch, batchTimestamps, entryPoint);
+        try {
+            sender.sendCommandAsync(command, topicName).whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    ack.completeExceptionally(throwable);
+                } else {
+                    ack.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            ack.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getLingerScheduler() {
+        if (lingerScheduler == null) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "drools-ha-insert-linger");
+                thread.setDaemon(true);
+                return thread;
+            });
+            /* full batches cancel their linger task, don't keep them in the queue */
+            scheduler.setRemoveOnCancelPolicy(true);
+            lingerScheduler = scheduler;
+        }
+        return lingerScheduler;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.kie.remote.RemoteEntryPoint;
+import org.kie.remote.RemoteFactHandle;
+import org.kie.remote.util.PartitionUtil;
+
+/**
+ * An entry point spread over the partitions of a partitioned deployment. Facts are routed to a partition by their
+ * key, queries are sent to all the partitions and their results merged.
+ */
+public class PartitionedRemoteEntryPoint implements RemoteEntryPoint {
+
+    protected final String entryPoint;
+    protected final Function<Object, ?> partitionKey;
+    private final List<? extends RemoteEntryPoint> partitions;
+
+    /**
+     * @param partitions the entry point of each partition, by partition index
+     * @param partitionKey extracts from a fact the key choosing its partition, it must not change when the fact is
+     * updated
+     */
+    public PartitionedRemoteEntryPoint(String entryPoint, List<? extends RemoteEntryPoint> partitions, Function<Object, ?> partitionKey) {
+        if (partitions.isEmpty()) {
+            throw new IllegalArgumentException("At least a partition is required");
+        }
+        this.entryPoint = entryPoint;
+        this.partitions = partitions;
+        this.partitionKey = partitionKey;
+    }
+
+    public int partitionOf(Object object) {
+        return PartitionUtil.partitionOf(partitionKey.apply(object), partitions.size());
+    }
+
+    private RemoteEntryPoint partitionFor(Object object) {
+        return partitions.get(partitionOf(object));
+    }
+
+    @Override
+    public String getEntryPointId() {
+        return entryPoint;
+    }
+
+    @Override
+    public <T> RemoteFactHandle<T> insert(T object) {
+        return partitionFor(object).insert(object);
+    }
+
+    @Override
+    public <T> void delete(RemoteFactHandle<T> handle) {
+        partitionFor(handle.getObject()).delete(handle);
+    }
+
+    @Override
+    public <T> void update(RemoteFactHandle<T> handle, T object) {
+        partitionFor(handle.getObject()).update(handle, object);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getObject(RemoteFactHandle<T> remoteFactHandle) {
+        return partitionFor(remoteFactHandle.getObject()).getObject(remoteFactHandle);
+    }
+
+    @Override
+    public CompletableFuture<Collection> getObjects() {
+        return merge(partitions, RemoteEntryPoint::getObjects);
+    }
+
+    @Override
+    public <T> CompletableFuture<Collection<T>> getObjects(Class<T> clazztype) {
+        return merge(partitions, partition -> partition.getObjects(clazztype));
+    }
+
+    @Override
+    public CompletableFuture<Collection> getObjects(String namedQuery, String objectName, Serializable... params) {
+        return merge(partitions, partition -> partition.getObjects(namedQuery, objectName, params));
+    }
+
+    @Override
+    public CompletableFuture<Long> getFactCount() {
+        return sum(partitions, RemoteEntryPoint::getFactCount);
+    }
+
+    /**
+     * Runs the query on every partition, the returned future completes with the results of all of them, in partition
+     * order, or exceptionally as soon as any of them fails.
+     */
+    protected static <P, R> CompletableFuture<List<R>> fanOut(List<? extends P> partitions, Function<P, CompletableFuture<R>> query) {
+        List<CompletableFuture<R>> results = new ArrayList<>(partitions.size());
+        for (P partition : partitions) {
+            results.add(query.apply(partition));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[results.size()])).thenApply(done -> {
+            List<R> values = new ArrayList<>(results.size());
+            for (CompletableFuture<R> result : results) {
+                values.add(result.join());
+            }
+            return values;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <P, C extends Collection> CompletableFuture<C> merge(List<? extends P> partitions, Function<P, CompletableFuture<C>> query) {
+        return fanOut(partitions, query).thenApply(results -> {
+            int size = 0;
+            for (Collection result : results) {
+                size += result.size();
+            }
+            List merged = new ArrayList(size);
+            for (Collection result : results) {
+                merged.addAll(result);
+            }
+            return (C) merged;
+        });
+    }
+
+    protected static <P> CompletableFuture<Long> sum(List<? extends P> partitions, Function<P, CompletableFuture<Long>> query) {
+        return fanOut(partitions, query).thenApply(results -> {
+            long sum = 0;
+            for (Long result : results) {
+                sum += result;
+            }
+            return sum;
+        });
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.kie.remote.RemoteEntryPoint;
+import org.kie.remote.RemoteKieSession;
+import org.kie.remote.TopicsConfig;
+import org.kie.remote.impl.consumer.Listener;
+import org.kie.remote.impl.producer.Producer;
+import org.kie.remote.impl.producer.Sender;
+import org.kie.remote.util.SerializationUtil;
+
+/**
+ * A {@link RemoteKieSession} over all the partitions of a partitioned deployment, see {@link TopicsConfig#withPartitions(int)}.
+ * Each partition is served by its own KieSession, so rules only match facts routed to the same partition.
+ * The commands to the partitions share a single producer and the results a single listener.
+ */
+public class PartitionedRemoteKieSession extends PartitionedRemoteEntryPoint implements RemoteKieSession {
+
+    private final Sender sender;
+    private final Listener listener;
+    private final List<RemoteKieSessionImpl> sessions;
+    private final Map<String, RemoteEntryPoint> entryPoints = new ConcurrentHashMap<>();
+
+    public PartitionedRemoteKieSession(Properties configuration, Listener listener, Producer producer, Function<Object, ?> partitionKey) {
+        this(configuration, TopicsConfig.getDefaultTopicsConfig(), listener, producer, partitionKey);
+    }
+
+    public PartitionedRemoteKieSession(Properties configuration, TopicsConfig topicsConfig, Listener listener, Producer producer, Function<Object, ?> partitionKey) {
+        this(new Sender(configuration, producer), topicsConfig, listener, partitionKey);
+    }
+
+    private PartitionedRemoteKieSession(Sender sender, TopicsConfig topicsConfig, Listener listener, Function<Object, ?> partitionKey) {
+        this(sender, createSessions(sender, topicsConfig, listener), listener, partitionKey);
+        sender.setSerializer(SerializationUtil.getSerializer(topicsConfig.getMessageSerializer()));
+        sender.start();
+    }
+
+    private PartitionedRemoteKieSession(Sender sender, List<RemoteKieSessionImpl> sessions, Listener listener, Function<Object, ?> partitionKey) {
+        super(EntryPointUtil.DEFAULT_ENTRY_POINT, sessions, partitionKey);
+        this.sender = sender;
+        this.sessions = sessions;
+        this.listener = listener;
+    }
+
+    private static List<RemoteKieSessionImpl> createSessions(Sender sender, TopicsConfig topicsConfig, Listener listener) {
+        List<RemoteKieSessionImpl> sessions = new ArrayList<>(topicsConfig.getPartitions());
+        for (int i = 0; i < topicsConfig.getPartitions(); i++) {
+            sessions.add(new RemoteKieSessionImpl(sender, topicsConfig.forPartition(i), listener));
+        }
+        return sessions;
+    }
+
+    @Override
+    public void close() {
+        sender.stop();
+        listener.stopConsumeEvents();
+    }
+
+    @Override
+    public RemoteEntryPoint getEntryPoint(String name) {
+        return entryPoints.computeIfAbsent(name, k -> {
+            List<RemoteEntryPoint> partitions = new ArrayList<>(sessions.size());
+            for (RemoteKieSessionImpl session : sessions) {
+                partitions.add(session.getEntryPoint(k));
+            }
+            return new PartitionedRemoteEntryPoint(k, partitions, partitionKey);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> fireAllRules() {
+        return sum(sessions, RemoteKieSessionImpl::fireAllRules);
+    }
+
+    @Override
+    public void fireUntilHalt() {
+        sessions.forEach(RemoteKieSessionImpl::fireUntilHalt);
+    }
+
+    @Override
+    public void halt() {
+        sessions.forEach(RemoteKieSessionImpl::halt);
+    }
+
+    /**
+     * @return the kjar used by the partitions, completed exceptionally if they don't use the same one
+     */
+    @Override
+    public CompletableFuture<String> getKJarGAV() {
+        return fanOut(sessions, RemoteKieSessionImpl::getKJarGAV).thenApply(results -> {
+            Set<String> gavs = new LinkedHashSet<>(results);
+            if (gavs.size() > 1) {
+                throw new IllegalStateException("The partitions use different kjars: " + gavs);
+            }
+            return results.get(0);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateKJarGAV(String kjar) {
+        return fanOut(sessions, session -> session.updateKJarGAV(kjar)).thenApply(results -> !results.contains(Boolean.FALSE));
+    }
+
+    /**
+     * @return the metrics of all the partitions, each one labelled with the partition it comes from
+     */
+    @Override
+    public CompletableFuture<Map<String, Number>> getMetrics() {
+        return fanOut(sessions, RemoteKieSessionImpl::getMetrics).thenApply(results -> {
+            Map<String, Number> metrics = new TreeMap<>();
+            for (int i = 0; i < results.size(); i++) {
+                for (Map.Entry<String, Number> metric : results.get(i).entrySet()) {
+                    metrics.put(withPartitionLabel(metric.getKey(), i), metric.getValue());
+                }
+            }
+            return metrics;
+        });
+    }
+
+    static String withPartitionLabel(String metric, int partition) {
+        String label = "partition=\"" + partition + "\"";
+        int labels = metric.indexOf('{');
+        if (labels < 0) {
+            return metric + "{" + label + "}";
+        }
+        return metric.substring(0, labels + 1) + label + "," + metric.substring(labels + 1);
+    }
+}
@@ -16,8 +16,6 @@
 package org.kie.remote.impl;
 
 import java.io.Serializable;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.RemoteEntryPoint;
 import org.kie.remote.RemoteFactHandle;
@@ -26,6 +24,7 @@ import org.kie.remote.command.DeleteCommand;
 import org.kie.remote.command.InsertCommand;
 import org.kie.remote.command.UpdateCommand;
 import org.kie.remote.impl.consumer.Listener;
+import org.kie.remote.impl.consumer.RequestsStore;
 import org.kie.remote.impl.producer.Sender;
 
 public class RemoteEntryPointImpl extends AbstractRemoteEntryPoint implements RemoteEntryPoint {
@@ -62,7 +61,7 @@ public class RemoteEntryPointImpl extends AbstractRemoteEntryPoint implements Re
         sender.sendCommand(command, topicsConfig.getEventsTopicName());
     }
 
-    protected Map<String, CompletableFuture<Object>> getRequestsStore() {
+    protected RequestsStore getRequestsStore() {
         return delegate.getRequestsStore();
     }
 }
\ No newline at end of file
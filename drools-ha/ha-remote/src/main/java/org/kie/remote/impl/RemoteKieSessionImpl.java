@@ -15,23 +15,25 @@
  */
 package org.kie.remote.impl;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.kie.remote.RemoteEntryPoint;
 import org.kie.remote.RemoteKieSession;
 import org.kie.remote.TopicsConfig;
 import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
 import org.kie.remote.command.UpdateKJarCommand;
 import org.kie.remote.impl.consumer.Listener;
 import org.kie.remote.impl.producer.Producer;
 import org.kie.remote.impl.producer.Sender;
+import org.kie.remote.util.SerializationUtil;
 
 public class RemoteKieSessionImpl extends RemoteEntryPointImpl implements RemoteKieSession {
 
-    private final Map<String, RemoteEntryPoint> entryPoints = new HashMap<>();
+    private final Map<String, RemoteEntryPoint> entryPoints = new ConcurrentHashMap<>();
 
     public RemoteKieSessionImpl(Properties configuration, Listener listener, Producer producer) {
         this(configuration, TopicsConfig.getDefaultTopicsConfig(), listener, producer);
@@ -39,9 +41,15 @@ public class RemoteKieSessionImpl extends RemoteEntryPointImpl implements Remote
 
     public RemoteKieSessionImpl(Properties configuration, TopicsConfig envConfig, Listener listener, Producer producer) {
         super(new Sender(configuration, producer), EntryPointUtil.DEFAULT_ENTRY_POINT, envConfig, listener);
+        sender.setSerializer(SerializationUtil.getSerializer(envConfig.getMessageSerializer()));
         sender.start();
     }
 
+    /* one of the partitions of a PartitionedRemoteKieSession, sharing its sender */
+    RemoteKieSessionImpl(Sender sender, TopicsConfig topicsConfig, Listener listener) {
+        super(sender, EntryPointUtil.DEFAULT_ENTRY_POINT, topicsConfig, listener);
+    }
+
     @Override
     public void close() {
         sender.stop();
@@ -83,4 +91,10 @@ public class RemoteKieSessionImpl extends RemoteEntryPointImpl implements Remote
         GetKJarGAVCommand command = new GetKJarGAVCommand(entryPoint);
         return executeCommand(command);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CompletableFuture<Map<String, Number>> getMetrics() {
+        GetMetricsCommand command = new GetMetricsCommand();
+        return executeCommand(command);
+    }
+}
@@ -16,7 +16,6 @@
 
 package org.kie.remote.impl;
 
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.RemoteStatefulSession;
@@ -25,6 +24,7 @@ import org.kie.remote.command.FireAllRulesCommand;
 import org.kie.remote.command.FireUntilHaltCommand;
 import org.kie.remote.command.HaltCommand;
 import org.kie.remote.impl.consumer.Listener;
+import org.kie.remote.impl.consumer.RequestsStore;
 import org.kie.remote.impl.producer.Sender;
 
 public class RemoteStatefulSessionImpl implements RemoteStatefulSession {
@@ -39,17 +39,22 @@ public class RemoteStatefulSessionImpl implements RemoteStatefulSession {
         this.topicsConfig = topicsConfig;
     }
 
-    @SuppressWarnings("unchecked conversion")
     @Override
     public CompletableFuture<Long> fireAllRules() {
         FireAllRulesCommand command = new FireAllRulesCommand();
         CompletableFuture<Long> callback = new CompletableFuture<>();
-        ((Map) getRequestsStore()).put( command.getId(), callback );
-        sender.sendCommand( command, topicsConfig.getEventsTopicName() );
+        if (getRequestsStore().register( command.getId(), callback, topicsConfig.getRequestTimeoutMs() )) {
+            try {
+                sender.sendCommand( command, topicsConfig.getEventsTopicName() );
+            } catch (RuntimeException e) {
+                callback.completeExceptionally( e );
+                throw e;
+            }
+        }
         return callback;
     }
 
-    public Map<String, CompletableFuture<Object>> getRequestsStore() {
+    public RequestsStore getRequestsStore() {
         return listener.getRequestsStore();
     }
 
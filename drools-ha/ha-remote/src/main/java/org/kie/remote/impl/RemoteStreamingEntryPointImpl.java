@@ -16,36 +16,65 @@
 package org.kie.remote.impl;
 
 import java.io.Serializable;
-import java.util.Map;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.RemoteStreamingEntryPoint;
 import org.kie.remote.TopicsConfig;
+import org.kie.remote.command.EventInsertAllCommand;
 import org.kie.remote.command.EventInsertCommand;
 import org.kie.remote.impl.consumer.Listener;
+import org.kie.remote.impl.consumer.RequestsStore;
 import org.kie.remote.impl.producer.Sender;
 
 public class RemoteStreamingEntryPointImpl extends AbstractRemoteEntryPoint implements RemoteStreamingEntryPoint {
 
     protected final RemoteStatefulSessionImpl delegate;
+    private final EventBatcher batcher;
 
     protected RemoteStreamingEntryPointImpl(Sender sender, String entryPoint, TopicsConfig topicsConfig, Listener listener) {
-        super(sender, entryPoint, topicsConfig);
-        delegate = new RemoteStatefulSessionImpl( sender, listener, topicsConfig );
+        this(sender, entryPoint, topicsConfig, new RemoteStatefulSessionImpl( sender, listener, topicsConfig ));
     }
 
     protected RemoteStreamingEntryPointImpl(Sender sender, String entryPoint, TopicsConfig topicsConfig, RemoteStatefulSessionImpl delegate) {
         super(sender, entryPoint, topicsConfig);
         this.delegate = delegate;
+        this.batcher = new EventBatcher(sender,
+                                        entryPoint,
+                                        topicsConfig.getEventsTopicName(),
+                                        topicsConfig.getInsertBatchSize(),
+                                        topicsConfig.getInsertLingerMs());
     }
 
     @Override
     public void insert(Serializable object) {
+        // the facts inserted asynchronously before this one must be sent first
+        batcher.flush();
         EventInsertCommand command = new EventInsertCommand(object, entryPoint);
         sender.sendCommand(command, topicsConfig.getEventsTopicName());
     }
 
-    protected Map<String, CompletableFuture<Object>> getRequestsStore() {
+    @Override
+    public CompletableFuture<Void> insertAsync(Serializable object) {
+        return batcher.add(object);
+    }
+
+    @Override
+    public CompletableFuture<Void> insertAll(Collection<? extends Serializable> objects) {
+        batcher.flush();
+        if (objects.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        EventInsertAllCommand command = new EventInsertAllCommand(objects, entryPoint);
+        return sender.sendCommandAsync(command, topicsConfig.getEventsTopicName());
+    }
+
+    @Override
+    public void flush() {
+        batcher.flush();
+    }
+
+    protected RequestsStore getRequestsStore() {
         return delegate.getRequestsStore();
     }
 }
\ No newline at end of file
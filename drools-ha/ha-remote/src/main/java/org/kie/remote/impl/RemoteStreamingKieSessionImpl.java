@@ -24,10 +24,12 @@ import org.kie.remote.RemoteStreamingEntryPoint;
 import org.kie.remote.RemoteStreamingKieSession;
 import org.kie.remote.TopicsConfig;
 import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
 import org.kie.remote.command.UpdateKJarCommand;
 import org.kie.remote.impl.consumer.Listener;
 import org.kie.remote.impl.producer.Producer;
 import org.kie.remote.impl.producer.Sender;
+import org.kie.remote.util.SerializationUtil;
 
 public class RemoteStreamingKieSessionImpl extends RemoteStreamingEntryPointImpl implements RemoteStreamingKieSession {
 
@@ -39,6 +41,7 @@ public class RemoteStreamingKieSessionImpl extends RemoteStreamingEntryPointImpl
 
     public RemoteStreamingKieSessionImpl(Properties configuration, TopicsConfig envConfig, Listener listener, Producer producer) {
         super(new Sender(configuration, producer), EntryPointUtil.DEFAULT_ENTRY_POINT, envConfig, listener);
+        sender.setSerializer(SerializationUtil.getSerializer(envConfig.getMessageSerializer()));
         sender.start();
         // a streaming session is fireUntilHalt by default
         fireUntilHalt();
@@ -46,6 +49,8 @@ public class RemoteStreamingKieSessionImpl extends RemoteStreamingEntryPointImpl
 
     @Override
     public void close() {
+        flush();
+        entryPoints.values().forEach(RemoteStreamingEntryPoint::flush);
         sender.stop();
         delegate.stop();
     }
@@ -85,4 +90,10 @@ public class RemoteStreamingKieSessionImpl extends RemoteStreamingEntryPointImpl
         GetKJarGAVCommand command = new GetKJarGAVCommand(entryPoint);
         return executeCommand(command);
     }
+
+    @Override
+    public CompletableFuture<Map<String, Number>> getMetrics() {
+        GetMetricsCommand command = new GetMetricsCommand();
+        return executeCommand(command);
+    }
 }
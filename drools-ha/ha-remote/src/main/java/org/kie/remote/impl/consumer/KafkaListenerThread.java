@@ -18,9 +18,7 @@ package org.kie.remote.impl.consumer;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.CompletableFuture;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -37,7 +35,7 @@ public class KafkaListenerThread implements ListenerThread {
 
     private static Logger logger = LoggerFactory.getLogger(KafkaListenerThread.class);
     private TopicsConfig topicsConfig;
-    private Map<String, CompletableFuture<Object>> requestsStore;
+    private RequestsStore requestsStore;
     private KafkaConsumer consumer;
 
     private volatile boolean running = true;
@@ -47,7 +45,7 @@ public class KafkaListenerThread implements ListenerThread {
         consumer = KafkaRemoteUtil.getConsumer(topicsConfig.getKieSessionInfosTopicName(), configuration);
     }
 
-    public void init(Map<String, CompletableFuture<Object>> requestsStore) {
+    public void init(RequestsStore requestsStore) {
         this.requestsStore = requestsStore;
     }
 
@@ -83,10 +81,8 @@ public class KafkaListenerThread implements ListenerThread {
         }
     }
 
-    public void complete(Map<String, CompletableFuture<Object>> requestsStore, ResultMessage message, Logger logger) {
-        CompletableFuture<Object> completableFuture = requestsStore.get(message.getId());
-        if (completableFuture != null) {
-            completableFuture.complete(message.getResult());
+    public void complete(RequestsStore requestsStore, ResultMessage message, Logger logger) {
+        if (requestsStore.complete(message.getId(), message.getResult())) {
             if (logger.isDebugEnabled()) {
                 logger.debug("completed msg with key {}", message.getId());
             }
@@ -15,11 +15,9 @@
  */
 package org.kie.remote.impl.consumer;
 
-import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 
+import org.kie.remote.TopicsConfig;
 import org.kie.remote.exceptions.StopConsumeException;
 
 import static org.kie.remote.CommonConfig.SKIP_LISTENER_AUTOSTART;
@@ -27,11 +25,16 @@ import static org.kie.remote.util.ConfigurationUtil.readBoolean;
 
 public class Listener {
 
-    private final Map<String, CompletableFuture<Object>> requestsStore = new ConcurrentHashMap<>();
+    private final RequestsStore requestsStore;
     private final ListenerThread listenerThread;
     private Thread t;
 
     public Listener(Properties configuration, ListenerThread listenerThread) {
+        this(configuration, listenerThread, TopicsConfig.getDefaultTopicsConfig());
+    }
+
+    public Listener(Properties configuration, ListenerThread listenerThread, TopicsConfig topicsConfig) {
+        this.requestsStore = new RequestsStore(topicsConfig);
         this.listenerThread = listenerThread;
         this.listenerThread.init(requestsStore);
         if (!readBoolean(configuration, SKIP_LISTENER_AUTOSTART)) {
@@ -46,7 +49,7 @@ public class Listener {
         return this;
     }
 
-    public Map<String, CompletableFuture<Object>> getRequestsStore() {
+    public RequestsStore getRequestsStore() {
         return requestsStore;
     }
 
@@ -16,12 +16,9 @@
 
 package org.kie.remote.impl.consumer;
 
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-
 public interface ListenerThread extends Runnable {
 
     void stop();
 
-    void init(Map<String, CompletableFuture<Object>> requestsStore);
+    void init(RequestsStore requestsStore);
 }
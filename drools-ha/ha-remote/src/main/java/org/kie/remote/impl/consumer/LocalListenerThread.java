@@ -16,8 +16,7 @@
 
 package org.kie.remote.impl.consumer;
 
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
 
 import org.kie.remote.TopicsConfig;
 import org.kie.remote.message.ResultMessage;
@@ -28,42 +27,51 @@ import org.slf4j.LoggerFactory;
 public class LocalListenerThread implements ListenerThread {
 
     private static Logger logger = LoggerFactory.getLogger(LocalListenerThread.class);
+    private static final int POLL_TIMEOUT_MILLIS = 100;
 
     private final LocalMessageSystem queue = LocalMessageSystem.get();
 
     private TopicsConfig topicsConfig;
-    private Map<String, CompletableFuture<Object>> requestsStore;
+    private RequestsStore requestsStore;
+    // each listener receives all the results, as with a Kafka consumer in its own group, starting from the latest
+    private final String group = UUID.randomUUID().toString();
 
     private volatile boolean running = true;
 
     public LocalListenerThread(TopicsConfig topicsConfig) {
         this.topicsConfig = topicsConfig;
+        String topic = topicsConfig.getKieSessionInfosTopicName();
+        queue.seek(topic, group, queue.endOffset(topic));
     }
 
     @Override
-    public void init(Map<String, CompletableFuture<Object>> requestsStore) {
+    public void init(RequestsStore requestsStore) {
         this.requestsStore = requestsStore;
     }
 
     @Override
     public void run() {
-        while (running) {
-            Object msg = queue.poll(topicsConfig.getKieSessionInfosTopicName());
-            if (msg instanceof ResultMessage) {
-                complete(requestsStore, (ResultMessage) msg, logger);
-            } else if (msg != null) {
-                throw new IllegalStateException("Wrong type of response message: found " +
-                                                        msg.getClass().getCanonicalName() +
-                                                        " instead of " +
-                                                        ResultMessage.class.getCanonicalName());
+        String topic = topicsConfig.getKieSessionInfosTopicName();
+        try {
+            while (running) {
+                Object msg = queue.poll(topic, group, POLL_TIMEOUT_MILLIS);
+                if (msg instanceof ResultMessage) {
+                    complete(requestsStore, (ResultMessage) msg, logger);
+                } else if (msg != null) {
+                    throw new IllegalStateException("Wrong type of response message: found " +
+                                                            msg.getClass().getCanonicalName() +
+                                                            " instead of " +
+                                                            ResultMessage.class.getCanonicalName());
+                }
             }
+        } finally {
+            // the producers of the results would otherwise wait for this listener once the topic is full
+            queue.removeGroup(topic, group);
         }
     }
 
-    private void complete(Map<String, CompletableFuture<Object>> requestsStore, ResultMessage message, Logger logger) {
-        CompletableFuture<Object> completableFuture = requestsStore.get(message.getId());
-        if (completableFuture != null) {
-            completableFuture.complete(message.getResult());
+    private void complete(RequestsStore requestsStore, ResultMessage message, Logger logger) {
+        if (requestsStore.complete(message.getId(), message.getResult())) {
             if (logger.isDebugEnabled()) {
                 logger.debug("completed msg with key {}", message.getId());
             }
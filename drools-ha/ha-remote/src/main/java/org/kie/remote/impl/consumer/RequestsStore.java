@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl.consumer;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.kie.remote.TopicsConfig;
+
+/**
+ * Requests waiting for their result. An entry is removed as soon as its future completes, either with the result,
+ * exceptionally on timeout, or because it has been cancelled.
+ * With a max number of requests in flight, registering a new one waits until another one completes (up to the
+ * request timeout, if any).
+ */
+public class RequestsStore {
+
+    private final Map<String, CompletableFuture<Object>> requests = new ConcurrentHashMap<>();
+    private final Semaphore inFlight;
+    private final long requestTimeoutMs;
+    private ScheduledThreadPoolExecutor timeouts;
+
+    public RequestsStore(TopicsConfig topicsConfig) {
+        this(topicsConfig.getMaxInFlightRequests(), topicsConfig.getRequestTimeoutMs());
+    }
+
+    /**
+     * @param maxInFlightRequests max number of requests waiting for their result, 0 means unbounded
+     * @param requestTimeoutMs default time to wait for a result, 0 means no timeout
+     */
+    public RequestsStore(int maxInFlightRequests, long requestTimeoutMs) {
+        this.inFlight = maxInFlightRequests > 0 ? new Semaphore(maxInFlightRequests) : null;
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    /**
+     * Registers a request with the default timeout. Returns false if it can't be sent, the future has been completed
+     * exceptionally as no other request completed within the timeout.
+     */
+    public boolean register(String id, CompletableFuture<?> future) {
+        return register(id, future, requestTimeoutMs);
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean register(String id, CompletableFuture<?> future, long timeoutMs) {
+        if (!acquire(future, timeoutMs)) {
+            return false;
+        }
+        CompletableFuture<Object> request = (CompletableFuture<Object>) future;
+        requests.put(id, request);
+        ScheduledFuture<?> timeout = timeoutMs > 0 ? scheduleTimeout(id, request, timeoutMs) : null;
+        request.whenComplete((result, throwable) -> {
+            requests.remove(id, request);
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (inFlight != null) {
+                inFlight.release();
+            }
+        });
+        return true;
+    }
+
+    private boolean acquire(CompletableFuture<?> future, long timeoutMs) {
+        if (inFlight == null) {
+            return true;
+        }
+        try {
+            if (timeoutMs > 0) {
+                if (!inFlight.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    future.completeExceptionally(new TimeoutException("Too many requests in flight for " + timeoutMs + " ms"));
+                    return false;
+                }
+            } else {
+                inFlight.acquire();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private ScheduledFuture<?> scheduleTimeout(String id, CompletableFuture<Object> request, long timeoutMs) {
+        return getTimeouts().schedule(() -> request.completeExceptionally(new TimeoutException("No result for request " + id + " within " + timeoutMs + " ms")),
+                                      timeoutMs,
+                                      TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getTimeouts() {
+        if (timeouts == null) {
+            timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "drools-ha-request-timeouts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            /* most requests complete before their timeout, don't keep the cancelled ones in the queue */
+            timeouts.setRemoveOnCancelPolicy(true);
+        }
+        return timeouts;
+    }
+
+    public boolean complete(String id, Object result) {
+        CompletableFuture<Object> request = requests.get(id);
+        return request != null && request.complete(result);
+    }
+
+    public CompletableFuture<Object> get(String id) {
+        return requests.get(id);
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Cancels the requests still waiting for their result.
+     */
+    public void clear() {
+        for (CompletableFuture<Object> request : requests.values()) {
+            request.cancel(false);
+        }
+        requests.clear();
+        synchronized (this) {
+            if (timeouts != null) {
+                timeouts.shutdownNow();
+                timeouts = null;
+            }
+        }
+    }
+}
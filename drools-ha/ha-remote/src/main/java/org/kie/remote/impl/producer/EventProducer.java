@@ -16,18 +16,30 @@
 package org.kie.remote.impl.producer;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.kie.remote.message.Message;
 import org.kie.remote.message.ResultMessage;
-
-import static org.kie.remote.util.SerializationUtil.serialize;
+import org.kie.remote.util.MessageSerializer;
+import org.kie.remote.util.SerializationUtil;
 
 public class EventProducer<T> implements Producer {
 
     protected org.apache.kafka.clients.producer.Producer<String, T> producer;
+    private final AtomicReference<Exception> asyncFailure = new AtomicReference<>();
+    private volatile MessageSerializer serializer;
+
+    public EventProducer() {
+        this(SerializationUtil.getDefaultSerializer());
+    }
+
+    public EventProducer(MessageSerializer serializer) {
+        this.serializer = serializer;
+    }
 
     @Override
     public void start(Properties properties) {
@@ -52,6 +64,38 @@ public class EventProducer<T> implements Producer {
         internalProduceSync(topicName, key, object);
     }
 
+    @Override
+    public CompletableFuture<Void> produceAsync(String topicName, String key, Message object) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        producer.send(getFreshProducerRecord(topicName, key, object), (metadata, exception) -> {
+            if (exception != null) {
+                asyncFailure.compareAndSet(null, exception);
+                ack.completeExceptionally(exception);
+            } else {
+                ack.complete(null);
+            }
+        });
+        return ack;
+    }
+
+    @Override
+    public void flush() {
+        producer.flush();
+        Exception failure = asyncFailure.getAndSet(null);
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    @Override
+    public void setSerializer(MessageSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public MessageSerializer getSerializer() {
+        return serializer;
+    }
+
     protected void internalProduceSync(String topicName, String key, Object object) {
        try {
             producer.send(getFreshProducerRecord(topicName, key, object)).get();
@@ -62,6 +106,6 @@ public class EventProducer<T> implements Producer {
     }
 
     private ProducerRecord<String, T> getFreshProducerRecord(String topicName, String key, Object object) {
-        return new ProducerRecord<>(topicName, key, (T) serialize(object));
+        return new ProducerRecord<>(topicName, key, (T) serializer.serialize(object));
     }
 }
@@ -17,6 +17,7 @@
 package org.kie.remote.impl.producer;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.message.Message;
 import org.kie.remote.message.ResultMessage;
@@ -41,4 +42,13 @@ public class LocalProducer implements Producer {
     public void produceSync(String topicName, String key, Message object) {
         queue.put(topicName, object);
     }
+
+    @Override
+    public CompletableFuture<Void> produceAsync(String topicName, String key, Message object) {
+        queue.put(topicName, object);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void flush() { /*do nothing*/}
 }
@@ -16,9 +16,11 @@
 package org.kie.remote.impl.producer;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.message.Message;
 import org.kie.remote.message.ResultMessage;
+import org.kie.remote.util.MessageSerializer;
 
 public interface Producer {
 
@@ -29,4 +31,23 @@ public interface Producer {
     <T> void produceSync(String topicName, String key, ResultMessage<T> object);
 
     void produceSync(String topicName, String key, Message object);
+
+    /**
+     * Sends the message without waiting for its acknowledgement, messages sent to the same topic keep their order.
+     * Delivery failures are reported by the returned future and by the next {@link #flush()}.
+     * @return a future completed once the message is acknowledged
+     */
+    CompletableFuture<Void> produceAsync(String topicName, String key, Message object);
+
+    /**
+     * Waits until all the messages sent asynchronously are acknowledged.
+     * @throws IllegalStateException if any of them could not be delivered
+     */
+    void flush();
+
+    /**
+     * Sets the serializer of the messages sent by this producer, producers that do not serialize their messages ignore it.
+     */
+    default void setSerializer(MessageSerializer serializer) {
+    }
 }
@@ -16,9 +16,11 @@
 package org.kie.remote.impl.producer;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import org.kie.remote.command.RemoteCommand;
 import org.kie.remote.impl.ClientUtils;
+import org.kie.remote.util.MessageSerializer;
 
 public class Sender {
 
@@ -32,6 +34,13 @@ public class Sender {
         this.producer = producer;
     }
 
+    /**
+     * Sets the serializer of the commands sent by this sender, it must be called before {@link #start()}.
+     */
+    public void setSerializer(MessageSerializer serializer) {
+        producer.setSerializer(serializer);
+    }
+
     public void start() {
         producer.start(configuration);
     }
@@ -43,4 +52,12 @@ public class Sender {
     public void sendCommand(RemoteCommand command, String topicName) {
         producer.produceSync(topicName, command.getId(), command);
     }
+
+    /**
+     * Sends the command without waiting for its acknowledgement, commands keep the order in which they are sent.
+     * @return a future completed once the command is appended to the topic
+     */
+    public CompletableFuture<Void> sendCommandAsync(RemoteCommand command, String topicName) {
+        return producer.produceAsync(topicName, command.getId(), command);
+    }
 }
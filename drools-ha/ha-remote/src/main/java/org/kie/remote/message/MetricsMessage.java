@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.message;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class MetricsMessage extends AbstractMessage implements Serializable, ResultMessage<Map<String, Number>> {
+
+    private Map<String, Number> metrics;
+
+    /* Empty constructor for serialization */
+    public MetricsMessage(){}
+
+    public MetricsMessage(String id, Map<String, Number> metrics) {
+        super(id);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Map<String, Number> getResult() {
+        return getMetrics();
+    }
+
+    public Map<String, Number> getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsMessage{" +
+                "metrics=" + metrics +
+                ", id='" + id + '\'' +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
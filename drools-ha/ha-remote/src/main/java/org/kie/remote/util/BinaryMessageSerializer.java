@@ -0,0 +1,608 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.kie.remote.DroolsExecutor;
+import org.kie.remote.command.DeleteCommand;
+import org.kie.remote.command.EventInsertAllCommand;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.command.FactCountCommand;
+import org.kie.remote.command.FireAllRulesCommand;
+import org.kie.remote.command.FireUntilHaltCommand;
+import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
+import org.kie.remote.command.GetObjectCommand;
+import org.kie.remote.command.HaltCommand;
+import org.kie.remote.command.InsertCommand;
+import org.kie.remote.command.ListObjectsCommand;
+import org.kie.remote.command.ListObjectsCommandClassType;
+import org.kie.remote.command.ListObjectsCommandNamedQuery;
+import org.kie.remote.command.SnapshotOnDemandCommand;
+import org.kie.remote.command.UpdateCommand;
+import org.kie.remote.command.UpdateKJarCommand;
+import org.kie.remote.impl.RemoteFactHandleImpl;
+import org.kie.remote.message.ControlMessage;
+import org.kie.remote.message.FactCountMessage;
+import org.kie.remote.message.FireAllRuleMessage;
+import org.kie.remote.message.GetKJarGAVMessage;
+import org.kie.remote.message.GetObjectMessage;
+import org.kie.remote.message.ListKieSessionObjectMessage;
+import org.kie.remote.message.MetricsMessage;
+import org.kie.remote.message.UpdateKJarMessage;
+
+/**
+ * Compact binary encoding of the commands and messages of <code>org.kie.remote.command</code> and
+ * <code>org.kie.remote.message</code>. The schema of a registered type is the list of its fields, written in a fixed
+ * order without names or class descriptors. Strings, boxed primitives, classes and the common collections have their own
+ * encoding, any other value (e.g. facts) is written with java serialization.
+ * <p>
+ * Types are identified by their position in {@link #TYPES}: new types must be appended, while adding or removing fields
+ * of a registered type requires a new {@link #VERSION}.
+ */
+public class BinaryMessageSerializer implements MessageSerializer {
+
+    public static final String NAME = "binary";
+
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    private static final List<Class<?>> TYPES = Arrays.asList(DeleteCommand.class,
+                                                              EventInsertCommand.class,
+                                                              FactCountCommand.class,
+                                                              FireAllRulesCommand.class,
+                                                              FireUntilHaltCommand.class,
+                                                              GetKJarGAVCommand.class,
+                                                              GetObjectCommand.class,
+                                                              HaltCommand.class,
+                                                              InsertCommand.class,
+                                                              ListObjectsCommand.class,
+                                                              ListObjectsCommandClassType.class,
+                                                              ListObjectsCommandNamedQuery.class,
+                                                              SnapshotOnDemandCommand.class,
+                                                              UpdateCommand.class,
+                                                              UpdateKJarCommand.class,
+                                                              ControlMessage.class,
+                                                              FactCountMessage.class,
+                                                              FireAllRuleMessage.class,
+                                                              GetKJarGAVMessage.class,
+                                                              GetObjectMessage.class,
+                                                              ListKieSessionObjectMessage.class,
+                                                              UpdateKJarMessage.class,
+                                                              RemoteFactHandleImpl.class,
+                                                              EventInsertAllCommand.class,
+                                                              GetMetricsCommand.class,
+                                                              MetricsMessage.class);
+
+    private static final byte NULL = 0;
+    private static final byte SCHEMA = 1;
+    private static final byte STRING = 2;
+    private static final byte UUID_STRING = 3;
+    private static final byte LONG = 4;
+    private static final byte INTEGER = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte TRUE = 7;
+    private static final byte FALSE = 8;
+    private static final byte CLASS = 9;
+    private static final byte BYTES = 10;
+    private static final byte ARRAY_LIST = 11;
+    private static final byte ARRAY_DEQUE = 12;
+    private static final byte HASH_SET = 13;
+    private static final byte SERIALIZABLE_ARRAY = 14;
+    private static final byte EMPTY_RESULT = 15;
+    private static final byte JAVA = 16;
+    private static final byte LONG_ARRAY = 17;
+
+    private final JavaMessageSerializer javaSerializer = new JavaMessageSerializer();
+    private final Schema[] schemas = new Schema[TYPES.size()];
+    private final Map<Class<?>, Schema> schemasByType = new HashMap<>();
+
+    public BinaryMessageSerializer() {
+        for (int i = 0; i < TYPES.size(); i++) {
+            Schema schema = new Schema(i, TYPES.get(i));
+            schemas[i] = schema;
+            schemasByType.put(schema.type, schema);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] serialize(Object obj) {
+        Output out = new Output(256);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeValue(out, obj);
+        return out.toByteArray();
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes) {
+        if (!accepts(bytes)) {
+            throw new IllegalArgumentException("Not a " + NAME + " message or unsupported version");
+        }
+        return (T) readValue(new Input(bytes, 2));
+    }
+
+    @Override
+    public boolean accepts(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == MAGIC && bytes[1] == VERSION;
+    }
+
+    private void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        Schema schema = schemasByType.get(type);
+        if (schema != null) {
+            out.writeByte(SCHEMA);
+            out.writeVarInt(schema.id);
+            schema.write(out, value);
+        } else if (type == String.class) {
+            writeString(out, (String) value);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeVarLong(zigZag((Long) value));
+        } else if (type == Integer.class) {
+            out.writeByte(INTEGER);
+            out.writeVarLong(zigZag((Integer) value));
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (type == Class.class) {
+            out.writeByte(CLASS);
+            writeUtf8(out, ((Class<?>) value).getName());
+        } else if (type == byte[].class) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (type == ArrayList.class) {
+            writeElements(out, ARRAY_LIST, (Collection<?>) value);
+        } else if (type == ArrayDeque.class) {
+            writeElements(out, ARRAY_DEQUE, (Collection<?>) value);
+        } else if (type == HashSet.class) {
+            writeElements(out, HASH_SET, (Collection<?>) value);
+        } else if (type == Serializable[].class) {
+            Serializable[] array = (Serializable[]) value;
+            out.writeByte(SERIALIZABLE_ARRAY);
+            out.writeVarInt(array.length);
+            for (Serializable element : array) {
+                writeValue(out, element);
+            }
+        } else if (type == long[].class) {
+            writeLongs(out, (long[]) value);
+        } else if (type == DroolsExecutor.EmptyResult.class) {
+            out.writeByte(EMPTY_RESULT);
+        } else {
+            out.writeByte(JAVA);
+            writeBytes(out, javaSerializer.serialize(value));
+        }
+    }
+
+    private Object readValue(Input in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case SCHEMA:
+                int id = in.readVarInt();
+                if (id < 0 || id >= schemas.length) {
+                    throw new IllegalArgumentException("Unknown type " + id);
+                }
+                return schemas[id].read(in);
+            case STRING:
+                return readUtf8(in);
+            case UUID_STRING:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case LONG:
+                return unZigZag(in.readVarLong());
+            case INTEGER:
+                return (int) unZigZag(in.readVarLong());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case CLASS:
+                return loadClass(readUtf8(in));
+            case BYTES:
+                return in.readBytes(in.readLength());
+            case ARRAY_LIST:
+                return readElements(in, new ArrayList<>());
+            case ARRAY_DEQUE:
+                return readElements(in, new ArrayDeque<>());
+            case HASH_SET:
+                return readElements(in, new HashSet<>());
+            case SERIALIZABLE_ARRAY:
+                Serializable[] array = new Serializable[in.readLength()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = (Serializable) readValue(in);
+                }
+                return array;
+            case LONG_ARRAY:
+                return readLongs(in);
+            case EMPTY_RESULT:
+                return DroolsExecutor.EmptyResult.INSTANCE;
+            case JAVA:
+                return javaSerializer.deserialize(in.readBytes(in.readLength()));
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    private void writeElements(Output out, byte tag, Collection<?> elements) {
+        out.writeByte(tag);
+        out.writeVarInt(elements.size());
+        for (Object element : elements) {
+            writeValue(out, element);
+        }
+    }
+
+    // timestamps of events sent together are close to each other, written as the difference from the previous one
+    private static void writeLongs(Output out, long[] values) {
+        out.writeByte(LONG_ARRAY);
+        out.writeVarInt(values.length);
+        long previous = 0;
+        for (long value : values) {
+            out.writeVarLong(zigZag(value - previous));
+            previous = value;
+        }
+    }
+
+    private static long[] readLongs(Input in) {
+        long[] values = new long[in.readLength()];
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            previous += unZigZag(in.readVarLong());
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private Collection<Object> readElements(Input in, Collection<Object> elements) {
+        int size = in.readLength();
+        for (int i = 0; i < size; i++) {
+            elements.add(readValue(in));
+        }
+        return elements;
+    }
+
+    // ids are random uuids, written as their 16 bytes instead of 36 characters
+    private static void writeString(Output out, String value) {
+        if (isUuid(value)) {
+            out.writeByte(UUID_STRING);
+            out.writeLong(parseHex(value, 0, 8) << 32 | parseHex(value, 9, 13) << 16 | parseHex(value, 14, 18));
+            out.writeLong(parseHex(value, 19, 23) << 48 | parseHex(value, 24, 36));
+        } else {
+            out.writeByte(STRING);
+            writeUtf8(out, value);
+        }
+    }
+
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean valid = i == 8 || i == 13 || i == 18 || i == 23 ? c == '-' : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseHex(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+        return result;
+    }
+
+    private static void writeUtf8(Output out, String value) {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readUtf8(Input in) {
+        int length = in.readLength();
+        in.skip(length);
+        return new String(in.buffer, in.position - length, length, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(Output out, byte[] bytes) {
+        out.writeVarInt(bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static Class<?> loadClass(String name) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            return Class.forName(name, false, classLoader != null ? classLoader : BinaryMessageSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            try {
+                return Class.forName(name, false, BinaryMessageSerializer.class.getClassLoader());
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalArgumentException(ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private final class Schema {
+
+        private static final byte OBJECT_FIELD = 0;
+        private static final byte LONG_FIELD = 1;
+        private static final byte INT_FIELD = 2;
+        private static final byte BOOLEAN_FIELD = 3;
+        private static final byte DOUBLE_FIELD = 4;
+
+        private final int id;
+        private final Class<?> type;
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+        private final byte[] kinds;
+
+        private Schema(int id, Class<?> type) {
+            this.id = id;
+            this.type = type;
+            try {
+                this.constructor = type.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(type.getName() + " must have a no-arg constructor", e);
+            }
+            List<Field> schemaFields = new ArrayList<>();
+            collectFields(type, schemaFields);
+            this.fields = schemaFields.toArray(new Field[0]);
+            this.kinds = new byte[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].setAccessible(true);
+                kinds[i] = kindOf(fields[i]);
+            }
+        }
+
+        // fields of superclasses first, by name within each class as the declaration order is not guaranteed
+        private void collectFields(Class<?> current, List<Field> schemaFields) {
+            if (current == Object.class) {
+                return;
+            }
+            collectFields(current.getSuperclass(), schemaFields);
+            List<Field> declared = new ArrayList<>();
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                    declared.add(field);
+                }
+            }
+            declared.sort(Comparator.comparing(Field::getName));
+            schemaFields.addAll(declared);
+        }
+
+        private byte kindOf(Field field) {
+            Class<?> fieldType = field.getType();
+            if (!fieldType.isPrimitive()) {
+                return OBJECT_FIELD;
+            } else if (fieldType == long.class) {
+                return LONG_FIELD;
+            } else if (fieldType == int.class) {
+                return INT_FIELD;
+            } else if (fieldType == boolean.class) {
+                return BOOLEAN_FIELD;
+            } else if (fieldType == double.class) {
+                return DOUBLE_FIELD;
+            }
+            throw new IllegalStateException("Unsupported field " + field);
+        }
+
+        private void write(Output out, Object value) {
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    switch (kinds[i]) {
+                        case LONG_FIELD:
+                            out.writeVarLong(zigZag(fields[i].getLong(value)));
+                            break;
+                        case INT_FIELD:
+                            out.writeVarLong(zigZag(fields[i].getInt(value)));
+                            break;
+                        case BOOLEAN_FIELD:
+                            out.writeByte(fields[i].getBoolean(value) ? 1 : 0);
+                            break;
+                        case DOUBLE_FIELD:
+                            out.writeLong(Double.doubleToLongBits(fields[i].getDouble(value)));
+                            break;
+                        default:
+                            writeValue(out, fields[i].get(value));
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+        private Object read(Input in) {
+            try {
+                Object value = constructor.newInstance();
+                for (int i = 0; i < fields.length; i++) {
+                    switch (kinds[i]) {
+                        case LONG_FIELD:
+                            fields[i].setLong(value, unZigZag(in.readVarLong()));
+                            break;
+                        case INT_FIELD:
+                            fields[i].setInt(value, (int) unZigZag(in.readVarLong()));
+                            break;
+                        case BOOLEAN_FIELD:
+                            fields[i].setBoolean(value, in.readByte() != 0);
+                            break;
+                        case DOUBLE_FIELD:
+                            fields[i].setDouble(value, Double.longBitsToDouble(in.readLong()));
+                            break;
+                        default:
+                            fields[i].set(value, readValue(in));
+                    }
+                }
+                return value;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to read " + type.getName(), e);
+            }
+        }
+    }
+
+    private static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        private Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        private void skip(int length) {
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Truncated message");
+            }
+            position += length;
+        }
+
+        private byte readByte() {
+            skip(1);
+            return buffer[position - 1];
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        /**
+         * Reads the length of a string or byte array, or the number of elements of a collection, which can't exceed
+         * the remaining bytes as every element takes at least one.
+         */
+        private int readLength() {
+            int length = readVarInt();
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed variable length number");
+        }
+
+        private long readLong() {
+            skip(8);
+            long value = 0;
+            for (int i = position - 8; i < position; i++) {
+                value = value << 8 | (buffer[i] & 0xFF);
+            }
+            return value;
+        }
+
+        private byte[] readBytes(int length) {
+            skip(length);
+            return Arrays.copyOfRange(buffer, position - length, position);
+        }
+    }
+}
@@ -24,7 +24,15 @@ public class KafkaRemoteUtil {
     private KafkaRemoteUtil(){}
 
     public static Listener getListener(Properties props, boolean isLocal){
-        return new Listener(props, getListenerThread(TopicsConfig.getDefaultTopicsConfig(), isLocal, props));
+        return getListener(props, isLocal, TopicsConfig.getDefaultTopicsConfig());
+    }
+
+    /**
+     * Returns a listener reading the results from the topic of the given configuration and bounding its requests
+     * in flight as configured there.
+     */
+    public static Listener getListener(Properties props, boolean isLocal, TopicsConfig topicsConfig) {
+        return new Listener(props, getListenerThread(topicsConfig, isLocal, props), topicsConfig);
     }
 
     public static ListenerThread getListenerThread(TopicsConfig topicsConfig,
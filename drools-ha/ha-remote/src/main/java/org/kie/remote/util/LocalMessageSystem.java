@@ -16,49 +16,159 @@
 
 package org.kie.remote.util;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * In-process replacement of Kafka for the local mode and for benchmarks.
+ * Each topic is a log backed by a ring buffer: every message gets an offset, increasing from 0, and the topic retains
+ * the last {@link #DEFAULT_CAPACITY} messages (or the capacity given to {@link #createTopic(String, int)}).
+ * Consumers belong to a group, each group has its own position on the topic and the consumers of the same group share
+ * it, so every message is received by one consumer per group. The methods without a group use {@link #DEFAULT_GROUP}.
+ * A group exists from its first use until {@link #removeGroup(String, String)}: no message is discarded before every
+ * existing group received it, a producer finding the topic full waits for the slowest group and fails if that doesn't
+ * catch up within the timeout. Only the messages put while no group was behind them can be discarded, a group
+ * created or moved later to an offset no longer retained restarts from the oldest message.
+ */
 public class LocalMessageSystem {
 
-    private Map<String, BlockingQueue<Object>> queues = new HashMap<>();
+    public static final String DEFAULT_GROUP = "default";
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int DEFAULT_PUT_TIMEOUT_MILLIS = 30000;
+
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
 
     private LocalMessageSystem() { }
 
-    private BlockingQueue<Object> queueForTopic(String topic) {
-        return queues.computeIfAbsent( topic, k -> new LinkedBlockingQueue<>() );
+    private Topic topic(String topic) {
+        Topic existing = topics.get(topic);
+        return existing != null ? existing : topics.computeIfAbsent(topic, k -> new Topic(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates the topic with a capacity rounded up to the next power of two.
+     * @throws IllegalStateException if the topic already exists
+     */
+    public void createTopic(String topic, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a topic must be positive: " + capacity);
+        }
+        if (topics.putIfAbsent(topic, new Topic(capacity)) != null) {
+            throw new IllegalStateException("Topic " + topic + " already exists");
+        }
+    }
+
+    /**
+     * @return the offset of the message
+     * @throws IllegalStateException if the topic stays full for {@link #DEFAULT_PUT_TIMEOUT_MILLIS}
+     */
+    public long put(String topic, Object message) {
+        return put(topic, message, DEFAULT_PUT_TIMEOUT_MILLIS);
     }
 
-    public void put(String topic, Object message) {
-        if (!queueForTopic(topic).offer(message)) {
-            throw new IllegalStateException("msg :"+message +" not added in the topic:" +topic);
+    /**
+     * Puts the message, waiting up to the given time for the slowest group to free a slot if the topic is full.
+     * @return the offset of the message
+     * @throws IllegalStateException if the topic is still full after the given time
+     */
+    public long put(String topic, Object message, int timeoutMillis) {
+        if (message == null) {
+            throw new IllegalArgumentException("msg :null not added in the topic:" + topic);
+        }
+        try {
+            long offset = topic(topic).put(message, TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+            if (offset < 0) {
+                throw new IllegalStateException("Topic " + topic + " is full, a group didn't consume its messages within " + timeoutMillis + " ms");
+            }
+            return offset;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e.getMessage(), e);
         }
     }
 
     public Object peek(String topic) {
-        return queueForTopic(topic).peek();
+        return peek(topic, DEFAULT_GROUP);
+    }
+
+    public Object peek(String topic, String group) {
+        return topic(topic).peek(group);
     }
 
     public Object poll(String topic) {
-        return queueForTopic(topic).poll();
+        return poll(topic, DEFAULT_GROUP);
     }
 
-    public static LocalMessageSystem get() {
-        return LazyHolder.get();
+    public Object poll(String topic, String group) {
+        return topic(topic).poll(group);
     }
 
     public Object poll(String topic, int durationMillis) {
+        return poll(topic, DEFAULT_GROUP, durationMillis);
+    }
+
+    /**
+     * @return the next message for the group, waiting up to the given time for it, or null if none arrived meanwhile
+     */
+    public Object poll(String topic, String group, int durationMillis) {
         try {
-            return queueForTopic(topic).poll(durationMillis, TimeUnit.MILLISECONDS);
+            return topic(topic).poll(group, TimeUnit.MILLISECONDS.toNanos(durationMillis));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException(e.getMessage(), e);
         }
     }
 
+    /**
+     * @return the offset of the next message the group will receive
+     */
+    public long position(String topic, String group) {
+        return topic(topic).position(group).get();
+    }
+
+    /**
+     * Moves the position of the group, the next message it receives is the one at the given offset, or the oldest
+     * retained one if the offset is no longer retained.
+     */
+    public void seek(String topic, String group, long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " for topic:" + topic);
+        }
+        Topic existing = topic(topic);
+        existing.position(group).set(offset);
+        existing.released();
+    }
+
+    /**
+     * Removes the group from the topic, so the producers no longer wait for it to receive the messages.
+     */
+    public void removeGroup(String topic, String group) {
+        Topic existing = topics.get(topic);
+        if (existing != null && existing.positions.remove(group) != null) {
+            existing.released();
+        }
+    }
+
+    /**
+     * @return the offset of the oldest retained message
+     */
+    public long beginningOffset(String topic) {
+        return topic(topic).beginning();
+    }
+
+    /**
+     * @return the offset the next message put in the topic will get
+     */
+    public long endOffset(String topic) {
+        return topic(topic).end;
+    }
+
+    public static LocalMessageSystem get() {
+        return LazyHolder.get();
+    }
+
     private static class LazyHolder {
 
         private static final LocalMessageSystem INSTANCE = new LocalMessageSystem();
@@ -67,4 +177,158 @@ public class LocalMessageSystem {
             return INSTANCE;
         }
     }
+
+    private static class Topic {
+
+        private final Record[] records;
+        private final int mask;
+        private final Map<String, AtomicLong> positions = new ConcurrentHashMap<>();
+        private volatile long end;
+        private volatile int waiting;
+        private volatile int waitingProducers;
+
+        private Topic(int capacity) {
+            int size = Integer.highestOneBit(capacity);
+            if (size < capacity) {
+                size <<= 1;
+            }
+            records = new Record[size];
+            mask = size - 1;
+        }
+
+        /*
+         * Producers are serialized so the records are published in the order of their offsets, the slot is written
+         * before the volatile end so a consumer reading the end also sees the records before it.
+         * A slot is reused only once every group moved past the record in it. The waiting producers are counted
+         * before checking the positions, so a consumer moving its position after the check sees them and wakes them.
+         * @return the offset of the message, or -1 if the topic is still full after the timeout
+         */
+        private synchronized long put(Object message, long timeoutNanos) throws InterruptedException {
+            if (isFull()) {
+                long deadline = System.nanoTime() + timeoutNanos;
+                waitingProducers++;
+                try {
+                    // other producers can put while this one waits, releasing the monitor
+                    while (isFull()) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return -1;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } finally {
+                    waitingProducers--;
+                }
+            }
+            long offset = end;
+            records[(int) (offset & mask)] = new Record(offset, message);
+            end = offset + 1;
+            if (waiting > 0) {
+                notifyAll();
+            }
+            return offset;
+        }
+
+        private boolean isFull() {
+            long offset = end;
+            long slowest = offset;
+            for (AtomicLong position : positions.values()) {
+                // a group behind the retention restarts from the oldest message, so it doesn't hold more slots
+                slowest = Math.min(slowest, Math.max(position.get(), offset - records.length));
+            }
+            return offset - slowest >= records.length;
+        }
+
+        private void released() {
+            if (waitingProducers > 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        private long beginning() {
+            return Math.max(0, end - records.length);
+        }
+
+        private AtomicLong position(String group) {
+            AtomicLong position = positions.get(group);
+            return position != null ? position : positions.computeIfAbsent(group, k -> new AtomicLong());
+        }
+
+        private Object peek(String group) {
+            return next(position(group), false);
+        }
+
+        private Object poll(String group) {
+            return next(position(group), true);
+        }
+
+        private Object poll(String group, long timeoutNanos) throws InterruptedException {
+            AtomicLong position = position(group);
+            Object message = next(position, true);
+            if (message != null || timeoutNanos <= 0) {
+                return message;
+            }
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                synchronized (this) {
+                    waiting++;
+                    try {
+                        long remaining;
+                        // end is only changed holding this monitor, so no put can be missed between the check and the wait
+                        while (position.get() >= end && (remaining = deadline - System.nanoTime()) > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        }
+                    } finally {
+                        waiting--;
+                    }
+                }
+                message = next(position, true);
+                if (message != null || deadline - System.nanoTime() <= 0) {
+                    return message;
+                }
+            }
+        }
+
+        /*
+         * Lock free: a consumer claims the record at the position of its group by moving the position forward,
+         * a record overwritten by a producer meanwhile is detected through its offset and skipped as not retained.
+         */
+        private Object next(AtomicLong position, boolean advance) {
+            while (true) {
+                long offset = position.get();
+                if (offset >= end) {
+                    return null;
+                }
+                long beginning = beginning();
+                if (offset < beginning) {
+                    position.compareAndSet(offset, beginning);
+                    continue;
+                }
+                Record record = records[(int) (offset & mask)];
+                if (record == null || record.offset != offset) {
+                    continue;
+                }
+                if (!advance) {
+                    return record.message;
+                }
+                if (position.compareAndSet(offset, offset + 1)) {
+                    released();
+                    return record.message;
+                }
+            }
+        }
+    }
+
+    private static class Record {
+
+        private final long offset;
+        private final Object message;
+
+        private Record(long offset, Object message) {
+            this.offset = offset;
+            this.message = message;
+        }
+    }
 }
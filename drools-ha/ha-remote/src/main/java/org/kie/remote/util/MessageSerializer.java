@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+/**
+ * Serializes the commands and messages exchanged through the topics. Implementations are looked up by name via
+ * {@link java.util.ServiceLoader}, the payloads they produce must start with a header allowing
+ * {@link SerializationUtil#deserialize(byte[])} to recognize them, so messages written by other serializers can still be read.
+ */
+public interface MessageSerializer {
+
+    String getName();
+
+    byte[] serialize(Object obj);
+
+    <T> T deserialize(byte[] bytes);
+
+    /**
+     * @return true if the given payload has been written by this serializer
+     */
+    boolean accepts(byte[] bytes);
+}
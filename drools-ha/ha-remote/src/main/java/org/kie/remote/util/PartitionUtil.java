@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+import java.util.Objects;
+
+/**
+ * Naming and routing shared by the clients and the pods of a partitioned HA-CEP deployment. Each partition is an
+ * independent HA-CEP cluster with its own events, control and snapshot topics and its own leader election, the
+ * topic with the results of the requests is shared by all of them.
+ */
+public class PartitionUtil {
+
+    private PartitionUtil(){}
+
+    /**
+     * @return the name of the topic, or of any other per partition resource, of the given partition
+     */
+    public static String partitionName(String name, int partition) {
+        return name + "-" + partition;
+    }
+
+    /**
+     * Routes a key to one of the partitions, the hashCode of the key must not depend on the JVM (like the one of a
+     * String or of a boxed primitive) so every client chooses the same partition.
+     */
+    public static int partitionOf(Object key, int partitions) {
+        int hash = Objects.hashCode(key);
+        // spreads the bits of poor hash codes, as HashMap does
+        return Math.floorMod(hash ^ (hash >>> 16), partitions);
+    }
+}
@@ -16,34 +16,78 @@
 
 package org.kie.remote.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInput;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
 
+/**
+ * Gives access to the {@link MessageSerializer}s of the messages sent to the topics, java serialization by default.
+ * The serializer is chosen by each producer, while deserialization recognizes the serializer from the payload among
+ * all the registered ones, so consumers read the messages of producers configured with different serializers.
+ */
 public class SerializationUtil {
 
+    private static final JavaMessageSerializer JAVA = new JavaMessageSerializer();
+    private static final BinaryMessageSerializer BINARY = new BinaryMessageSerializer();
+
+    private static volatile List<MessageSerializer> serializers;
+
     private SerializationUtil() {}
 
+    /**
+     * Serializes the object with the default serializer, java serialization.
+     */
     public static byte[] serialize(Object obj) {
-        try (ByteArrayOutputStream b = new ByteArrayOutputStream()) {
-            try (ObjectOutputStream o = new ObjectOutputStream(b)) {
-                o.writeObject(obj);
+        return JAVA.serialize(obj);
+    }
+
+    public static <T> T deserialize(byte[] bytez) {
+        for (MessageSerializer serializer : getSerializers()) {
+            if (serializer.accepts(bytez)) {
+                return serializer.deserialize(bytez);
             }
-            return b.toByteArray();
-        } catch (IOException io) {
-            throw new IllegalArgumentException(io.getMessage(), io);
         }
+        throw new IllegalArgumentException("Unknown serialization format");
     }
 
-    public static <T> T deserialize(byte[] bytez) {
-        try {
-            ObjectInput in = new ObjectInputStream(new ByteArrayInputStream(bytez));
-            return (T) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            throw new IllegalArgumentException(e.getMessage(), e);
+    public static MessageSerializer getDefaultSerializer() {
+        return JAVA;
+    }
+
+    /**
+     * @param name name of a built-in serializer ({@value JavaMessageSerializer#NAME} or {@value BinaryMessageSerializer#NAME})
+     * or of a {@link MessageSerializer} registered as a service, java serialization is used if null
+     */
+    public static MessageSerializer getSerializer(String name) {
+        if (name == null) {
+            return JAVA;
+        }
+        for (MessageSerializer candidate : getSerializers()) {
+            if (name.equals(candidate.getName())) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown message serializer: " + name);
+    }
+
+    /**
+     * Returns the built-in serializers followed by the ones registered as a service, which are loaded only once.
+     */
+    static List<MessageSerializer> getSerializers() {
+        List<MessageSerializer> result = serializers;
+        if (result == null) {
+            result = new ArrayList<>();
+            result.add(BINARY);
+            result.add(JAVA);
+            for (MessageSerializer candidate : ServiceLoader.load(MessageSerializer.class)) {
+                if (!JavaMessageSerializer.NAME.equals(candidate.getName()) && !BinaryMessageSerializer.NAME.equals(candidate.getName())) {
+                    result.add(candidate);
+                }
+            }
+            result = Collections.unmodifiableList(result);
+            serializers = result;
         }
+        return result;
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.kie.remote.command.EventInsertAllCommand;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.command.RemoteCommand;
+import org.kie.remote.impl.producer.LocalProducer;
+import org.kie.remote.impl.producer.Producer;
+import org.kie.remote.impl.producer.Sender;
+import org.kie.remote.message.Message;
+import org.kie.remote.util.LocalMessageSystem;
+
+public class EventBatcherTest {
+
+    private final LocalMessageSystem queue = LocalMessageSystem.get();
+
+    @Test
+    public void testFullBatchIsSentAsSingleCommand() throws Exception {
+        String topic = "testFullBatchIsSentAsSingleCommand";
+        queue.poll(topic);
+        EventBatcher batcher = new EventBatcher(new Sender(null, new LocalProducer()), "DEFAULT", topic, 3, 60000);
+
+        CompletableFuture<Void> first = batcher.add("event1");
+        batcher.add("event2");
+        Assertions.assertThat(queue.peek(topic)).isNull();
+        Assertions.assertThat(first).isNotDone();
+
+        CompletableFuture<Void> last = batcher.add("event3");
+        EventInsertAllCommand command = (EventInsertAllCommand) queue.poll(topic);
+        Assertions.assertThat(command.getObjects()).containsExactly("event1", "event2", "event3");
+        Assertions.assertThat(command.getEntryPoint()).isEqualTo("DEFAULT");
+        Assertions.assertThat(first.get(1, TimeUnit.SECONDS)).isNull();
+        Assertions.assertThat(last).isCompleted();
+        Assertions.assertThat(queue.peek(topic)).isNull();
+    }
+
+    @Test
+    public void testEventsKeepTheirInsertTime() throws Exception {
+        String topic = "testEventsKeepTheirInsertTime";
+        queue.poll(topic);
+        EventBatcher batcher = new EventBatcher(new Sender(null, new LocalProducer()), "DEFAULT", topic, 2, 60000);
+
+        long before = System.currentTimeMillis();
+        batcher.add("event1");
+        Thread.sleep(20);
+        long between = System.currentTimeMillis();
+        batcher.add("event2");
+
+        EventInsertAllCommand command = (EventInsertAllCommand) queue.poll(topic);
+        Assertions.assertThat(command.getTimestamp(0)).isBetween(before, between);
+        Assertions.assertThat(command.getTimestamp(1)).isGreaterThanOrEqualTo(between).isLessThanOrEqualTo(command.getTimestamp());
+    }
+
+    @Test
+    public void testLingerSendsPartialBatch() {
+        String topic = "testLingerSendsPartialBatch";
+        queue.poll(topic);
+        EventBatcher batcher = new EventBatcher(new Sender(null, new LocalProducer()), "DEFAULT", topic, 100, 10);
+
+        batcher.add("event1");
+        batcher.add("event2");
+
+        RemoteCommand command = (RemoteCommand) queue.poll(topic, 5000);
+        Assertions.assertThat(command).isInstanceOf(EventInsertAllCommand.class);
+        Assertions.assertThat(((EventInsertAllCommand) command).getObjects()).containsExactly("event1", "event2");
+    }
+
+    @Test
+    public void testFlushAndNoLinger() {
+        String topic = "testFlushAndNoLinger";
+        queue.poll(topic);
+        EventBatcher batcher = new EventBatcher(new Sender(null, new LocalProducer()), "DEFAULT", topic, 100, 0);
+
+        batcher.add("event1");
+        Assertions.assertThat(((EventInsertCommand) queue.poll(topic)).getObject()).isEqualTo("event1");
+
+        batcher.flush();
+        Assertions.assertThat(queue.peek(topic)).isNull();
+    }
+
+    @Test
+    public void testFailedSendCompletesEventsExceptionally() {
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("not delivered"));
+        Producer producer = new LocalProducer() {
+            @Override
+            public CompletableFuture<Void> produceAsync(String topicName, String key, Message object) {
+                return failure;
+            }
+        };
+        EventBatcher batcher = new EventBatcher(new Sender(null, producer), "DEFAULT", "testFailedSend", 2, 60000);
+
+        CompletableFuture<Void> first = batcher.add("event1");
+        CompletableFuture<Void> second = batcher.add("event2");
+
+        Assertions.assertThatThrownBy(first::get).isInstanceOf(ExecutionException.class).hasRootCauseInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(second).isCompletedExceptionally();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.remote.CommonConfig;
+import org.kie.remote.RemoteFactHandle;
+import org.kie.remote.TopicsConfig;
+import org.kie.remote.command.AbstractCommand;
+import org.kie.remote.command.FactCountCommand;
+import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
+import org.kie.remote.command.InsertCommand;
+import org.kie.remote.command.ListObjectsCommand;
+import org.kie.remote.impl.consumer.Listener;
+import org.kie.remote.impl.consumer.ListenerThread;
+import org.kie.remote.impl.consumer.RequestsStore;
+import org.kie.remote.impl.producer.LocalProducer;
+import org.kie.remote.util.LocalMessageSystem;
+import org.kie.remote.util.PartitionUtil;
+
+public class PartitionedRemoteKieSessionTest {
+
+    private static final String EVENTS_TOPIC = "partitionedEvents";
+
+    private final LocalMessageSystem queue = LocalMessageSystem.get();
+    private Listener listener;
+    private PartitionedRemoteKieSession session;
+
+    @Before
+    public void init() {
+        Properties configuration = new Properties();
+        configuration.put(CommonConfig.SKIP_LISTENER_AUTOSTART, true);
+        TopicsConfig topicsConfig = TopicsConfig.getDefaultTopicsConfig().withEventsTopicName(EVENTS_TOPIC).withPartitions(2).build();
+        listener = new Listener(configuration, new NoOpListenerThread(), topicsConfig);
+        session = new PartitionedRemoteKieSession(configuration, topicsConfig, listener, new LocalProducer(), fact -> fact);
+        queue.poll(topicOf(0));
+        queue.poll(topicOf(1));
+    }
+
+    @After
+    public void cleanup() {
+        session.close();
+    }
+
+    @Test
+    public void testFactsRoutedByKey() {
+        for (String fact : Arrays.asList("a", "b", "c", "d")) {
+            RemoteFactHandle<String> handle = session.insert(fact);
+            InsertCommand command = (InsertCommand) queue.poll(topicOf(PartitionUtil.partitionOf(fact, 2)));
+            Assertions.assertThat(command.getFactHandle()).isEqualTo(handle);
+        }
+        Assertions.assertThat(queue.peek(topicOf(0))).isNull();
+        Assertions.assertThat(queue.peek(topicOf(1))).isNull();
+    }
+
+    @Test
+    public void testQueriesFanOut() throws Exception {
+        CompletableFuture<Long> factCount = session.getFactCount();
+        complete(queue.poll(topicOf(0)), 2L);
+        Assertions.assertThat(factCount).isNotDone();
+        complete(queue.poll(topicOf(1)), 3L);
+        Assertions.assertThat(factCount.get()).isEqualTo(5L);
+
+        CompletableFuture<Collection> objects = session.getEntryPoint("other").getObjects();
+        ListObjectsCommand command = (ListObjectsCommand) queue.poll(topicOf(0));
+        Assertions.assertThat(command.getEntryPoint()).isEqualTo("other");
+        complete(command, Arrays.asList("a", "b"));
+        complete(queue.poll(topicOf(1)), Arrays.asList("c"));
+        Assertions.assertThat(objects.get()).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    public void testDifferentKJarsAreReported() {
+        CompletableFuture<String> gav = session.getKJarGAV();
+        complete(queue.poll(topicOf(0)), "org.kie:kjar:1.0");
+        complete(queue.poll(topicOf(1)), "org.kie:kjar:2.0");
+
+        Assertions.assertThatThrownBy(gav::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testMetricsLabelledByPartition() throws Exception {
+        CompletableFuture<Map<String, Number>> metrics = session.getMetrics();
+        complete(queue.poll(topicOf(0)), Collections.singletonMap("drools_ha_offset_lag{topic=\"events\"}", 2L));
+        complete(queue.poll(topicOf(1)), Collections.singletonMap("drools_ha_pending_side_effects", 1));
+
+        Assertions.assertThat(metrics.get()).containsOnlyKeys("drools_ha_offset_lag{partition=\"0\",topic=\"events\"}",
+                                                              "drools_ha_pending_side_effects{partition=\"1\"}");
+    }
+
+    @Test
+    public void testForPartition() {
+        TopicsConfig topicsConfig = TopicsConfig.getDefaultTopicsConfig().withPartitions(3).build();
+        Assertions.assertThat(topicsConfig.forPartition(2).getEventsTopicName()).isEqualTo(CommonConfig.DEFAULT_EVENTS_TOPIC + "-2");
+        Assertions.assertThat(topicsConfig.forPartition(2).getKieSessionInfosTopicName()).isEqualTo(topicsConfig.getKieSessionInfosTopicName());
+        Assertions.assertThatThrownBy(() -> topicsConfig.forPartition(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void complete(Object command, Object result) {
+        Assertions.assertThat(command).isInstanceOfAny(FactCountCommand.class, ListObjectsCommand.class, GetKJarGAVCommand.class, GetMetricsCommand.class);
+        Assertions.assertThat(listener.getRequestsStore().complete(((AbstractCommand) command).getId(), result)).isTrue();
+    }
+
+    private static String topicOf(int partition) {
+        return PartitionUtil.partitionName(EVENTS_TOPIC, partition);
+    }
+
+    private static class NoOpListenerThread implements ListenerThread {
+
+        @Override
+        public void init(RequestsStore requestsStore) { /*results are completed by the test*/ }
+
+        @Override
+        public void run() { /*do nothing*/ }
+
+        @Override
+        public void stop() { /*do nothing*/ }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.impl.consumer;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.kie.remote.CommonConfig;
+import org.kie.remote.TopicsConfig;
+import org.kie.remote.impl.RemoteKieSessionImpl;
+import org.kie.remote.impl.producer.LocalProducer;
+import org.kie.remote.util.JavaMessageSerializer;
+import org.kie.remote.util.KafkaRemoteUtil;
+import org.kie.remote.util.LocalMessageSystem;
+
+public class RequestsStoreTest {
+
+    private RequestsStore store;
+
+    @After
+    public void cleanup() {
+        if (store != null) {
+            store.clear();
+        }
+    }
+
+    @Test
+    public void testCompletedRequestIsRemoved() throws Exception {
+        store = new RequestsStore(0, 0);
+        CompletableFuture<Long> future = new CompletableFuture<>();
+
+        Assertions.assertThat(store.register("id", future)).isTrue();
+        Assertions.assertThat(store.size()).isEqualTo(1);
+
+        Assertions.assertThat(store.complete("id", 5L)).isTrue();
+        Assertions.assertThat(future.get()).isEqualTo(5L);
+        Assertions.assertThat(store.size()).isZero();
+        Assertions.assertThat(store.complete("id", 6L)).isFalse();
+    }
+
+    @Test
+    public void testRequestTimeout() throws Exception {
+        store = new RequestsStore(0, 50);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        store.register("id", future);
+
+        Assertions.assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        Assertions.assertThat(store.size()).isZero();
+        Assertions.assertThat(store.complete("id", "late")).isFalse();
+    }
+
+    @Test
+    public void testMaxInFlightRequests() throws Exception {
+        store = new RequestsStore(1, 0);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        store.register("first", first);
+
+        CompletableFuture<Object> second = new CompletableFuture<>();
+        Assertions.assertThat(store.register("second", second, 50)).isFalse();
+        Assertions.assertThat(second).isCompletedExceptionally();
+        Assertions.assertThat(store.get("second")).isNull();
+
+        store.complete("first", "result");
+        CompletableFuture<Object> third = new CompletableFuture<>();
+        Assertions.assertThat(store.register("third", third, 50)).isTrue();
+        Assertions.assertThat(store.get("third")).isSameAs(third);
+    }
+
+    @Test
+    public void testClearCancelsPendingRequests() {
+        store = new RequestsStore(2, 0);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        store.register("id", future);
+
+        store.clear();
+
+        Assertions.assertThat(future).isCancelled();
+        Assertions.assertThat(store.size()).isZero();
+        Assertions.assertThat(store.register("other", new CompletableFuture<>(), 50)).isTrue();
+    }
+
+    @Test
+    public void testListenerBoundFromTopicsConfig() {
+        TopicsConfig topicsConfig = TopicsConfig.anTopicsConfig()
+                .withKieSessionInfosTopicName("boundedInfos")
+                .withMaxInFlightRequests(1)
+                .build();
+        Listener listener = KafkaRemoteUtil.getListener(skipAutostart(), true, topicsConfig);
+        store = listener.getRequestsStore();
+
+        Assertions.assertThat(store.register("first", new CompletableFuture<>())).isTrue();
+        Assertions.assertThat(store.register("second", new CompletableFuture<>(), 50)).isFalse();
+    }
+
+    @Test
+    public void testSessionRequestTimeoutFromTopicsConfig() {
+        TopicsConfig topicsConfig = TopicsConfig.anTopicsConfig()
+                .withEventsTopicName("timeoutEvents")
+                .withKieSessionInfosTopicName("timeoutInfos")
+                .withMessageSerializer(JavaMessageSerializer.NAME)
+                .withRequestTimeoutMs(50)
+                .build();
+        // a listener shared with sessions of other configurations, without timeout
+        Listener listener = KafkaRemoteUtil.getListener(skipAutostart(), true, TopicsConfig.getDefaultTopicsConfig());
+        store = listener.getRequestsStore();
+        RemoteKieSessionImpl session = new RemoteKieSessionImpl(skipAutostart(), topicsConfig, listener, new LocalProducer());
+        try {
+            CompletableFuture<Long> factCount = session.getFactCount();
+
+            Assertions.assertThatThrownBy(() -> factCount.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+            Assertions.assertThat(store.size()).isZero();
+        } finally {
+            session.close();
+            LocalMessageSystem.get().poll("timeoutEvents");
+        }
+    }
+
+    @Test
+    public void testDefaultsFromTopicsConfig() {
+        TopicsConfig topicsConfig = TopicsConfig.getDefaultTopicsConfig();
+        Assertions.assertThat(topicsConfig.getMaxInFlightRequests()).isZero();
+        Assertions.assertThat(topicsConfig.getRequestTimeoutMs()).isZero();
+    }
+
+    private static Properties skipAutostart() {
+        Properties configuration = new Properties();
+        configuration.put(CommonConfig.SKIP_LISTENER_AUTOSTART, true);
+        return configuration;
+    }
+}
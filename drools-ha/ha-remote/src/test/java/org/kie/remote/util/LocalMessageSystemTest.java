@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LocalMessageSystemTest {
+
+    private final LocalMessageSystem system = LocalMessageSystem.get();
+
+    @Test
+    public void testOffsets() {
+        String topic = "testOffsets";
+        Assertions.assertThat(system.put(topic, "a")).isZero();
+        Assertions.assertThat(system.put(topic, "b")).isEqualTo(1);
+        Assertions.assertThat(system.endOffset(topic)).isEqualTo(2);
+
+        Assertions.assertThat(system.peek(topic)).isEqualTo("a");
+        Assertions.assertThat(system.poll(topic)).isEqualTo("a");
+        Assertions.assertThat(system.position(topic, LocalMessageSystem.DEFAULT_GROUP)).isEqualTo(1);
+
+        system.seek(topic, LocalMessageSystem.DEFAULT_GROUP, 0);
+        Assertions.assertThat(system.poll(topic)).isEqualTo("a");
+        Assertions.assertThat(system.poll(topic)).isEqualTo("b");
+        Assertions.assertThat(system.poll(topic)).isNull();
+    }
+
+    @Test
+    public void testGroupsReceiveAllMessages() {
+        String topic = "testGroupsReceiveAllMessages";
+        system.put(topic, "a");
+        system.put(topic, "b");
+
+        Assertions.assertThat(system.poll(topic, "first")).isEqualTo("a");
+        Assertions.assertThat(system.poll(topic, "second")).isEqualTo("a");
+        Assertions.assertThat(system.poll(topic, "first")).isEqualTo("b");
+        Assertions.assertThat(system.poll(topic, "first")).isNull();
+        Assertions.assertThat(system.poll(topic, "second")).isEqualTo("b");
+    }
+
+    @Test
+    public void testRetention() {
+        String topic = "testRetention";
+        system.createTopic(topic, 3);
+        for (int i = 0; i < 10; i++) {
+            system.put(topic, i);
+        }
+
+        // the capacity is rounded up to 4, without groups the messages aren't kept for anyone and are discarded,
+        // a consumer behind the retention restarts from the oldest message
+        Assertions.assertThat(system.beginningOffset(topic)).isEqualTo(6);
+        Assertions.assertThat(system.poll(topic)).isEqualTo(6);
+        Assertions.assertThatThrownBy(() -> system.createTopic(topic, 8)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test(timeout = 10000)
+    public void testProducerWaitsForSlowestGroup() throws Exception {
+        String topic = "testProducerWaitsForSlowestGroup";
+        system.createTopic(topic, 2);
+        system.position(topic, "fast");
+        system.position(topic, "slow");
+        system.put(topic, "a");
+        system.put(topic, "b");
+        Assertions.assertThat(system.poll(topic, "fast")).isEqualTo("a");
+        Assertions.assertThat(system.poll(topic, "fast")).isEqualTo("b");
+
+        // the topic is full until the slow group receives "a"
+        CompletableFuture<Long> put = CompletableFuture.supplyAsync(() -> system.put(topic, "c"));
+        Thread.sleep(50);
+        Assertions.assertThat(put).isNotDone();
+        Assertions.assertThat(system.poll(topic, "slow")).isEqualTo("a");
+        Assertions.assertThat(put.get()).isEqualTo(2);
+
+        Assertions.assertThat(system.poll(topic, "slow")).isEqualTo("b");
+        Assertions.assertThat(system.poll(topic, "slow")).isEqualTo("c");
+        Assertions.assertThat(system.poll(topic, "fast")).isEqualTo("c");
+    }
+
+    @Test(timeout = 10000)
+    public void testPutTimesOutUntilGroupRemoved() {
+        String topic = "testPutTimesOutUntilGroupRemoved";
+        system.createTopic(topic, 1);
+        system.position(topic, "stopped");
+        system.put(topic, "a");
+
+        Assertions.assertThatThrownBy(() -> system.put(topic, "b", 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("is full");
+
+        system.removeGroup(topic, "stopped");
+        Assertions.assertThat(system.put(topic, "b", 10)).isEqualTo(1);
+    }
+
+    @Test(timeout = 10000)
+    public void testPollWaitsForMessage() throws Exception {
+        String topic = "testPollWaitsForMessage";
+        Assertions.assertThat(system.poll(topic, 10)).isNull();
+
+        CompletableFuture<Object> polled = CompletableFuture.supplyAsync(() -> system.poll(topic, 5000));
+        Thread.sleep(50);
+        system.put(topic, "a");
+        Assertions.assertThat(polled.get()).isEqualTo("a");
+    }
+
+    @Test(timeout = 30000)
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        String topic = "testConcurrentProducersAndConsumers";
+        int producers = 4;
+        int consumers = 4;
+        int messages = 100000;
+        // far fewer slots than messages: the producers wait for the consumers, that must not lose any
+        system.createTopic(topic, 1024);
+        system.position(topic, LocalMessageSystem.DEFAULT_GROUP);
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            ConcurrentLinkedQueue<Object> received = new ConcurrentLinkedQueue<>();
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < messages; i++) {
+                        system.put(topic, producer * messages + i);
+                    }
+                }, executor));
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    Object message;
+                    while ((message = system.poll(topic, 500)) != null) {
+                        received.add(message);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()])).get(20, TimeUnit.SECONDS);
+
+            Assertions.assertThat(system.endOffset(topic)).isEqualTo((long) producers * messages);
+            Assertions.assertThat(received).hasSize(producers * messages).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
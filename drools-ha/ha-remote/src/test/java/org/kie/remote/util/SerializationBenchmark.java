@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.remote.DroolsExecutor;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.command.FireAllRulesCommand;
+import org.kie.remote.command.InsertCommand;
+import org.kie.remote.impl.RemoteFactHandleImpl;
+import org.kie.remote.message.ControlMessage;
+import org.kie.remote.message.FactCountMessage;
+import org.kie.remote.message.ListKieSessionObjectMessage;
+
+/**
+ * Measures the encode and decode time and the size of the most common commands and messages with each built-in
+ * {@link MessageSerializer}. Facts are not part of the schema of the binary serializer, so commands carrying one are
+ * measured both with a fact and with a String as payload.
+ * Not run as part of the test suite, start it via its main method, optionally passing the number of operations per
+ * measurement (200000 by default).
+ */
+public class SerializationBenchmark {
+
+    private static final int ITERATIONS = 3;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        List<MessageSerializer> serializers = Arrays.asList(new JavaMessageSerializer(), new BinaryMessageSerializer());
+        Map<String, Object> messages = messages();
+
+        System.out.printf("%-26s %-8s %8s %12s %12s%n", "message", "codec", "bytes", "encode ns/op", "decode ns/op");
+        for (Map.Entry<String, Object> message : messages.entrySet()) {
+            for (MessageSerializer serializer : serializers) {
+                byte[] bytes = serializer.serialize(message.getValue());
+                double encode = Double.MAX_VALUE;
+                double decode = Double.MAX_VALUE;
+                // first iteration warms up, the best of the others is reported
+                for (int i = 0; i <= ITERATIONS; i++) {
+                    double encodeRun = encode(serializer, message.getValue(), operations);
+                    double decodeRun = decode(serializer, bytes, operations);
+                    if (i > 0) {
+                        encode = Math.min(encode, encodeRun);
+                        decode = Math.min(decode, decodeRun);
+                    }
+                }
+                System.out.printf("%-26s %-8s %8d %12.0f %12.0f%n", message.getKey(), serializer.getName(), bytes.length, encode, decode);
+            }
+        }
+    }
+
+    private static double encode(MessageSerializer serializer, Object message, int operations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink = serializer.serialize(message);
+        }
+        return (System.nanoTime() - start) / (double) operations;
+    }
+
+    private static double decode(MessageSerializer serializer, byte[] bytes, int operations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink = serializer.deserialize(bytes);
+        }
+        return (System.nanoTime() - start) / (double) operations;
+    }
+
+    private static Map<String, Object> messages() {
+        StockTick tick = new StockTick("RHT", 123.45, System.currentTimeMillis());
+        ControlMessage controlMessage = new ControlMessage(new FireAllRulesCommand().getId(),
+                                                           new ArrayDeque<>(Arrays.asList(DroolsExecutor.EmptyResult.INSTANCE, 3L)));
+        controlMessage.setOffset(1234567L);
+        List<Serializable> objects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objects.add("object-" + i);
+        }
+
+        Map<String, Object> messages = new LinkedHashMap<>();
+        messages.put("EventInsertCommand(fact)", new EventInsertCommand(tick, "DEFAULT"));
+        messages.put("EventInsertCommand(str)", new EventInsertCommand("RHT 123.45", "DEFAULT"));
+        messages.put("InsertCommand(str)", new InsertCommand(new RemoteFactHandleImpl("RHT 123.45"), "DEFAULT"));
+        messages.put("FireAllRulesCommand", new FireAllRulesCommand());
+        messages.put("ControlMessage", controlMessage);
+        messages.put("FactCountMessage", new FactCountMessage(new FireAllRulesCommand().getId(), 42));
+        messages.put("ListKieSessionObjects", new ListKieSessionObjectMessage(new FireAllRulesCommand().getId(), objects));
+        return messages;
+    }
+
+    private static class StockTick implements Serializable {
+
+        private final String company;
+        private final double price;
+        private final long timestamp;
+
+        private StockTick(String company, double price, long timestamp) {
+            this.company = company;
+            this.price = price;
+            this.timestamp = timestamp;
+        }
+    }
+}
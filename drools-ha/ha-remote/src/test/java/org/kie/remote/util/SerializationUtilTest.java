@@ -0,0 +1,225 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.remote.util;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.kie.remote.DroolsExecutor;
+import org.kie.remote.command.DeleteCommand;
+import org.kie.remote.command.EventInsertAllCommand;
+import org.kie.remote.command.EventInsertCommand;
+import org.kie.remote.command.FactCountCommand;
+import org.kie.remote.command.FireAllRulesCommand;
+import org.kie.remote.command.FireUntilHaltCommand;
+import org.kie.remote.command.GetKJarGAVCommand;
+import org.kie.remote.command.GetMetricsCommand;
+import org.kie.remote.command.GetObjectCommand;
+import org.kie.remote.command.HaltCommand;
+import org.kie.remote.command.InsertCommand;
+import org.kie.remote.command.ListObjectsCommand;
+import org.kie.remote.command.ListObjectsCommandClassType;
+import org.kie.remote.command.ListObjectsCommandNamedQuery;
+import org.kie.remote.command.SnapshotOnDemandCommand;
+import org.kie.remote.command.UpdateCommand;
+import org.kie.remote.command.UpdateKJarCommand;
+import org.kie.remote.impl.RemoteFactHandleImpl;
+import org.kie.remote.impl.producer.EventProducer;
+import org.kie.remote.message.ControlMessage;
+import org.kie.remote.message.FactCountMessage;
+import org.kie.remote.message.FireAllRuleMessage;
+import org.kie.remote.message.GetKJarGAVMessage;
+import org.kie.remote.message.GetObjectMessage;
+import org.kie.remote.message.ListKieSessionObjectMessage;
+import org.kie.remote.message.MetricsMessage;
+import org.kie.remote.message.UpdateKJarMessage;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class SerializationUtilTest {
+
+    private final BinaryMessageSerializer binary = new BinaryMessageSerializer();
+    private final JavaMessageSerializer java = new JavaMessageSerializer();
+
+    @Test
+    public void testBinaryRoundTrip() {
+        for (Object message : messages()) {
+            byte[] bytes = binary.serialize(message);
+            Object copy = binary.deserialize(bytes);
+
+            Assertions.assertThat(copy).isExactlyInstanceOf(message.getClass());
+            Assertions.assertThat(copy).usingRecursiveComparison().isEqualTo(message);
+            Assertions.assertThat(bytes.length).as(message.getClass().getSimpleName()).isLessThan(java.serialize(message).length);
+        }
+    }
+
+    @Test
+    public void testSideEffectsKeepEmptyResultInstance() {
+        Queue<Serializable> sideEffects = new ArrayDeque<>(Arrays.asList(DroolsExecutor.EmptyResult.INSTANCE, 3L));
+        ControlMessage copy = binary.deserialize(binary.serialize(new ControlMessage("id", sideEffects)));
+
+        Assertions.assertThat(copy.getSideEffects()).isInstanceOf(ArrayDeque.class).containsExactly(DroolsExecutor.EmptyResult.INSTANCE, 3L);
+    }
+
+    @Test
+    public void testDeserializeRecognizesFormat() {
+        FactCountMessage message = new FactCountMessage("id", 5);
+        byte[] javaBytes = SerializationUtil.serialize(message);
+        byte[] binaryBytes = SerializationUtil.getSerializer(BinaryMessageSerializer.NAME).serialize(message);
+
+        Assertions.assertThat(binary.accepts(binaryBytes)).isTrue();
+        Assertions.assertThat(java.accepts(javaBytes)).isTrue();
+        Assertions.assertThat(SerializationUtil.<FactCountMessage>deserialize(javaBytes).getFactCount()).isEqualTo(5);
+        Assertions.assertThat(SerializationUtil.<FactCountMessage>deserialize(binaryBytes).getFactCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void testProducersKeepTheirSerializer() {
+        org.apache.kafka.clients.producer.Producer<String, byte[]> kafkaProducer = mock(org.apache.kafka.clients.producer.Producer.class);
+        EventProducer<byte[]> binaryProducer = new EventProducer<byte[]>(SerializationUtil.getSerializer(BinaryMessageSerializer.NAME)) {{
+            producer = kafkaProducer;
+        }};
+        EventProducer<byte[]> javaProducer = new EventProducer<byte[]>() {{
+            producer = kafkaProducer;
+        }};
+
+        binaryProducer.produceAsync("events", "binary", new FactCountCommand("DEFAULT"));
+        javaProducer.produceAsync("events", "java", new FactCountCommand("DEFAULT"));
+
+        ArgumentCaptor<ProducerRecord> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaProducer, times(2)).send(records.capture(), any(Callback.class));
+        byte[] binaryBytes = (byte[]) records.getAllValues().get(0).value();
+        byte[] javaBytes = (byte[]) records.getAllValues().get(1).value();
+        Assertions.assertThat(binary.accepts(binaryBytes)).isTrue();
+        Assertions.assertThat(java.accepts(javaBytes)).isTrue();
+        Assertions.assertThat(SerializationUtil.<FactCountCommand>deserialize(binaryBytes)).isInstanceOf(FactCountCommand.class);
+        Assertions.assertThat(SerializationUtil.<FactCountCommand>deserialize(javaBytes)).isInstanceOf(FactCountCommand.class);
+    }
+
+    @Test
+    public void testNull() {
+        Assertions.assertThat((Object) binary.deserialize(binary.serialize(null))).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSerializer() {
+        SerializationUtil.getSerializer("unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFormat() {
+        SerializationUtil.deserialize(new byte[]{1, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedMessage() {
+        byte[] bytes = binary.serialize(new FactCountMessage("id", 5));
+        binary.deserialize(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStringLongerThanMessage() {
+        byte[] bytes = binary.serialize("abc");
+        // the length of the string follows the header and the tag
+        bytes[3] = 0x7F;
+        binary.deserialize(bytes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLength() {
+        byte[] bytes = binary.serialize("abc");
+        byte[] negative = {bytes[0], bytes[1], bytes[2], (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 'a'};
+        binary.deserialize(negative);
+    }
+
+    static List<Object> messages() {
+        Fact fact = new Fact("fact", 42);
+        RemoteFactHandleImpl factHandle = new RemoteFactHandleImpl(fact);
+        List<Serializable> objects = new ArrayList<>(Arrays.asList("a", 1, 2L, 3.5d, true, fact));
+        ControlMessage controlMessage = new ControlMessage("control", new ArrayDeque<>(Arrays.asList(DroolsExecutor.EmptyResult.INSTANCE, 10L)));
+        controlMessage.setOffset(12345L);
+        controlMessage.setTimestamp(System.currentTimeMillis());
+        return Arrays.asList(new InsertCommand(factHandle, "DEFAULT"),
+                             new EventInsertCommand(fact, "DEFAULT"),
+                             new EventInsertAllCommand(Arrays.asList(fact, "event"), "DEFAULT"),
+                             new EventInsertAllCommand(Arrays.asList(fact, "event"), new long[]{1589000000000L, 1588999999990L}, "DEFAULT"),
+                             new DeleteCommand(factHandle, "DEFAULT"),
+                             new UpdateCommand(factHandle, new Fact("fact", 43), "DEFAULT"),
+                             new FactCountCommand("DEFAULT"),
+                             new FireAllRulesCommand(),
+                             new FireUntilHaltCommand(),
+                             new HaltCommand(),
+                             new GetKJarGAVCommand("DEFAULT"),
+                             new GetObjectCommand(factHandle),
+                             new ListObjectsCommand("DEFAULT"),
+                             new ListObjectsCommandClassType("DEFAULT", Fact.class),
+                             new ListObjectsCommandNamedQuery("DEFAULT", "query", "object", "param", 1),
+                             new SnapshotOnDemandCommand(),
+                             new UpdateKJarCommand("org.kie:kjar:1.0"),
+                             new GetMetricsCommand(),
+                             controlMessage,
+                             new FactCountMessage("count", 4),
+                             new FireAllRuleMessage("fire", 2),
+                             new GetKJarGAVMessage("gav", "org.kie:kjar:1.0"),
+                             new GetObjectMessage("object", fact),
+                             new ListKieSessionObjectMessage("list", objects),
+                             new UpdateKJarMessage("update", true),
+                             new MetricsMessage("metrics", new TreeMap<>(Collections.singletonMap("drools_ha_offset_lag{topic=\"events\"}", 3L))));
+    }
+
+    static class Fact implements Serializable {
+
+        private final String name;
+        private final int value;
+
+        Fact(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Fact fact = (Fact) o;
+            return value == fact.value && name.equals(fact.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, value);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.perf.scenario.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.impl.InternalKieContainer;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.scenario.IPerfTest;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.prometheus.PrometheusMetrics;
+import org.kie.server.services.prometheus.PrometheusMetricsDroolsListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Measures the cost of the Prometheus rule firing metrics: every execution fires the same rules on a session with a no-op
+ * agenda listener and on a session with the Prometheus Drools listener and compares the total time spent, so the cost of
+ * the engine creating the match events is not accounted to metrics. On close the median overhead is logged and checked against
+ * <code>metrics.overhead.max</code> (0.02 by default, that is 2%).
+ * <p>
+ * Each execution inserts <code>metrics.overhead.facts</code> facts (10000 by default), each of them fired by up to
+ * <code>metrics.overhead.rules</code> rules (10 by default). Sampling of the listener is configured as in kie server,
+ * via <code>org.kie.prometheus.server.ext.sampling.rate</code>, e.g. run with <code>-Dsuite=LoadSuite
+ * -Dscenario=RuleFiringMetricsOverhead -Dorg.kie.perf.suite.test-package=org.kie.perf.scenario.load
+ * -DrunType=ITERATION -Diterations=200 -Dorg.kie.prometheus.server.ext.sampling.rate=100</code>.
+ */
+public class RuleFiringMetricsOverhead implements IPerfTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleFiringMetricsOverhead.class);
+
+    private static final String CONTAINER_ID = "metrics-overhead";
+    private static final String KSESSION = "ksession";
+
+    private final int facts = Integer.getInteger("metrics.overhead.facts", 10000);
+    private final int rules = Integer.getInteger("metrics.overhead.rules", 10);
+    private final double maxOverhead = Double.parseDouble(System.getProperty("metrics.overhead.max", "0.02"));
+
+    private KieContainer kieContainer;
+    private KieContainerInstanceImpl containerInstance;
+    private PrometheusMetrics prometheusMetrics;
+
+    private Timer plainDuration;
+    private Timer metricsDuration;
+
+    private long plainNanos = 0;
+    private long metricsNanos = 0;
+    private long executions = 0;
+    // overhead of each execution, the median is checked as totals are skewed by gc pauses
+    private final List<Double> overheads = new ArrayList<>();
+
+    @Override
+    public void init() {
+        if (kieContainer != null) {
+            return;
+        }
+        StringBuilder drl = new StringBuilder("package org.kie.perf.scenario.load;\n");
+        for (int i = 0; i < rules; i++) {
+            drl.append("rule \"rule").append(i).append("\" when $i : Integer( intValue % ").append(rules + 1).append(" >= ").append(i)
+                    .append(" ) then end\n");
+        }
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie.perf", CONTAINER_ID, "1.0.0");
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        kfs.write("src/main/resources/org/kie/perf/scenario/load/rules.drl", drl.toString());
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            throw new IllegalStateException("Unable to build rules: " + kieBuilder.getResults());
+        }
+        kieContainer = ks.newKieContainer(releaseId);
+        containerInstance = new KieContainerInstanceImpl(CONTAINER_ID, KieContainerStatus.STARTED, (InternalKieContainer) kieContainer,
+                                                         new org.kie.server.api.model.ReleaseId(releaseId), null);
+        prometheusMetrics = new PrometheusMetrics();
+    }
+
+    @Override
+    public void initMetrics() {
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        plainDuration = metrics.timer(MetricRegistry.name(RuleFiringMetricsOverhead.class, "scenario.fire.plain.duration"));
+        metricsDuration = metrics.timer(MetricRegistry.name(RuleFiringMetricsOverhead.class, "scenario.fire.metrics.duration"));
+    }
+
+    @Override
+    public void execute() {
+        // alternate the order so neither session systematically runs on a warmer cache
+        boolean metricsFirst = executions++ % 2 == 0;
+        long withMetrics;
+        long plain;
+        if (metricsFirst) {
+            withMetrics = fire(true, metricsDuration);
+            plain = fire(false, plainDuration);
+        } else {
+            plain = fire(false, plainDuration);
+            withMetrics = fire(true, metricsDuration);
+        }
+        metricsNanos += withMetrics;
+        plainNanos += plain;
+        overheads.add((double) (withMetrics - plain) / plain);
+    }
+
+    private long fire(boolean withMetrics, Timer timer) {
+        KieSession session = kieContainer.newKieSession();
+        try {
+            session.addEventListener(withMetrics ? new PrometheusMetricsDroolsListener(prometheusMetrics, KSESSION, containerInstance)
+                                                 : new DefaultAgendaEventListener());
+            for (int i = 0; i < facts; i++) {
+                // distinct values, boxed integers of small values are shared instances
+                session.insert(i);
+            }
+            long start = System.nanoTime();
+            int fired = session.fireAllRules();
+            long duration = System.nanoTime() - start;
+            if (fired == 0) {
+                throw new IllegalStateException("No rule fired");
+            }
+            timer.update(duration, TimeUnit.NANOSECONDS);
+            return duration;
+        } finally {
+            session.dispose();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executions == 0) {
+            return;
+        }
+        Collections.sort(overheads);
+        double overhead = overheads.get(overheads.size() / 2);
+        log.info("Executions: {}, firing time without metrics: {} ms, with metrics: {} ms, median overhead: {}%",
+                 executions, TimeUnit.NANOSECONDS.toMillis(plainNanos), TimeUnit.NANOSECONDS.toMillis(metricsNanos), overhead * 100);
+        if (overhead > maxOverhead) {
+            throw new IllegalStateException("Rule firing metrics overhead " + overhead * 100 + "% exceeds " + maxOverhead * 100 + "%");
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.perf.scenario.soak;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.impl.InternalKieContainer;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.runtime.KieContainer;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.perf.SharedMetricRegistry;
+import org.kie.perf.scenario.IPerfTest;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.api.model.dmn.DMNResultKS;
+import org.kie.server.services.dmn.ModelEvaluatorServiceBase;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerRegistryImpl;
+import org.kie.server.services.prometheus.PrometheusKieServerExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Evaluates a small DMN model through the kie server DMN service with the Prometheus extension enabled, checking
+ * that neither the number of listeners on the DMN runtime nor the evaluation latency grows with the number of
+ * evaluations.
+ * <p>
+ * Every execution evaluates the model <code>soak.dmn.evaluationsPerExecution</code> times (1000 by default), e.g.
+ * run with <code>-Dsuite=SoakSuite -Dscenario=DMNEvaluationSoak -Dorg.kie.perf.suite.test-package=org.kie.perf.scenario.soak
+ * -DrunType=ITERATION -Diterations=10000</code> for 10 million evaluations. Mean latency is compared per window of
+ * <code>soak.dmn.windowSize</code> evaluations (1 million by default), the last window may not be slower than the first
+ * one by more than <code>soak.dmn.latencyTolerance</code> (0.5 by default, that is 50%).
+ */
+public class DMNEvaluationSoak implements IPerfTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DMNEvaluationSoak.class);
+
+    private static final String CONTAINER_ID = "dmn-soak";
+    private static final String NAMESPACE = "https://kiegroup.org/dmn/soak";
+    private static final String MODEL_NAME = "soak";
+
+    private static final String MODEL = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<definitions xmlns=\"http://www.omg.org/spec/DMN/20180521/MODEL/\" id=\"soak\" name=\"" + MODEL_NAME + "\"\n" +
+            "             namespace=\"" + NAMESPACE + "\">\n" +
+            "  <inputData id=\"_age\" name=\"age\">\n" +
+            "    <variable name=\"age\" typeRef=\"number\"/>\n" +
+            "  </inputData>\n" +
+            "  <decision id=\"_adult\" name=\"adult\">\n" +
+            "    <variable name=\"adult\" typeRef=\"boolean\"/>\n" +
+            "    <informationRequirement>\n" +
+            "      <requiredInput href=\"#_age\"/>\n" +
+            "    </informationRequirement>\n" +
+            "    <literalExpression>\n" +
+            "      <text>age &gt;= 18</text>\n" +
+            "    </literalExpression>\n" +
+            "  </decision>\n" +
+            "</definitions>";
+
+    private static final String PAYLOAD = "{\"model-namespace\":\"" + NAMESPACE + "\",\"model-name\":\"" + MODEL_NAME + "\"," +
+            "\"dmn-context\":{\"age\":42}}";
+
+    private final int evaluationsPerExecution = Integer.getInteger("soak.dmn.evaluationsPerExecution", 1000);
+    private final long windowSize = Long.getLong("soak.dmn.windowSize", 1000000L);
+    private final double latencyTolerance = Double.parseDouble(System.getProperty("soak.dmn.latencyTolerance", "0.5"));
+
+    private boolean initialized = false;
+    private ModelEvaluatorServiceBase evaluator;
+    private DMNRuntime dmnRuntime;
+
+    private Timer evaluationDuration;
+
+    private int initialListeners = -1;
+    private long evaluations = 0;
+    private long windowNanos = 0;
+    private long windowEvaluations = 0;
+    private double firstWindowMean = -1;
+    private double lastWindowMean = -1;
+
+    @Override
+    public void init() {
+        // soak suite initializes the scenario before every execution, container is built only once
+        if (initialized) {
+            return;
+        }
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie.perf", CONTAINER_ID, "1.0.0");
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        kfs.write("src/main/resources/soak.dmn", MODEL);
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            throw new IllegalStateException("Unable to build DMN model: " + kieBuilder.getResults());
+        }
+        KieContainer kieContainer = ks.newKieContainer(releaseId);
+
+        KieServerRegistryImpl registry = new KieServerRegistryImpl();
+        registry.registerContainer(CONTAINER_ID, new KieContainerInstanceImpl(CONTAINER_ID, KieContainerStatus.STARTED,
+                (InternalKieContainer) kieContainer, new org.kie.server.api.model.ReleaseId(releaseId), null));
+        PrometheusKieServerExtension extension = new PrometheusKieServerExtension();
+        extension.init(null, registry);
+        registry.registerServerExtension(extension);
+
+        evaluator = new ModelEvaluatorServiceBase(registry);
+        dmnRuntime = evaluator.getDMNRuntime(registry.getContainer(CONTAINER_ID));
+        initialized = true;
+    }
+
+    @Override
+    public void initMetrics() {
+        MetricRegistry metrics = SharedMetricRegistry.getInstance();
+        evaluationDuration = metrics.timer(MetricRegistry.name(DMNEvaluationSoak.class, "scenario.evaluation.duration"));
+        String listenersGauge = MetricRegistry.name(DMNEvaluationSoak.class, "scenario.runtime.listeners");
+        if (!metrics.getGauges().containsKey(listenersGauge)) {
+            metrics.register(listenersGauge, (Gauge<Integer>) () -> dmnRuntime.getListeners().size());
+        }
+    }
+
+    @Override
+    public void execute() {
+        for (int i = 0; i < evaluationsPerExecution; i++) {
+            long start = System.nanoTime();
+            ServiceResponse<DMNResultKS> response = evaluator.evaluateDecisions(CONTAINER_ID, PAYLOAD, MarshallingFormat.JSON.getType());
+            long duration = System.nanoTime() - start;
+            if (response.getType() != ServiceResponse.ResponseType.SUCCESS) {
+                throw new IllegalStateException("DMN evaluation failed: " + response.getMsg());
+            }
+            evaluationDuration.update(duration, TimeUnit.NANOSECONDS);
+            record(duration);
+        }
+    }
+
+    private void record(long duration) {
+        evaluations++;
+        windowNanos += duration;
+        windowEvaluations++;
+        if (initialListeners < 0) {
+            initialListeners = dmnRuntime.getListeners().size();
+        }
+        if (windowEvaluations == windowSize) {
+            lastWindowMean = (double) windowNanos / windowEvaluations;
+            if (firstWindowMean < 0) {
+                firstWindowMean = lastWindowMean;
+            }
+            log.info("Evaluations: {}, mean latency of last {}: {} us, runtime listeners: {}",
+                     evaluations, windowEvaluations, lastWindowMean / 1000, dmnRuntime.getListeners().size());
+            windowNanos = 0;
+            windowEvaluations = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!initialized) {
+            return;
+        }
+        int listeners = dmnRuntime.getListeners().size();
+        log.info("Evaluations: {}, runtime listeners: {} (initially {}), mean latency of first window: {} us, last window: {} us",
+                 evaluations, listeners, initialListeners, firstWindowMean / 1000, lastWindowMean / 1000);
+        if (listeners != initialListeners) {
+            throw new IllegalStateException("DMN runtime listeners grew from " + initialListeners + " to " + listeners
+                                                    + " after " + evaluations + " evaluations");
+        }
+        if (firstWindowMean > 0 && lastWindowMean > firstWindowMean * (1 + latencyTolerance)) {
+            throw new IllegalStateException("DMN evaluation latency grew from " + firstWindowMean / 1000 + " us to "
+                                                    + lastWindowMean / 1000 + " us after " + evaluations + " evaluations");
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ public class KieServerConstants {
     public static final String CLASS_TYPE_HEADER = "X-KIE-ClassType";
     public static final String KIE_CONTENT_TYPE_HEADER = "X-KIE-ContentType";
     public static final String KIE_CONVERSATION_ID_TYPE_HEADER = "X-KIE-ConversationId";
+    public static final String KIE_LOOKUP_HEADER = "X-KIE-Lookup";
 
     // extensions control parameters
     public static final String KIE_DROOLS_SERVER_EXT_DISABLED = "org.drools.server.ext.disabled";
@@ -33,6 +34,7 @@ public class KieServerConstants {
     public static final String KIE_DMN_SERVER_EXT_DISABLED = "org.kie.dmn.server.ext.disabled";
     public static final String KIE_SWAGGER_SERVER_EXT_DISABLED = "org.kie.swagger.server.ext.disabled";
     public static final String KIE_PROMETHEUS_SERVER_EXT_DISABLED = "org.kie.prometheus.server.ext.disabled";
+    public static final String KIE_PROMETHEUS_SERVER_EXT_SAMPLING_RATE = "org.kie.prometheus.server.ext.sampling.rate";
     public static final String KIE_SCENARIO_SIMULATION_SERVER_EXT_DISABLED = "org.kie.scenariosimulation.server.ext.disabled";
     public static final String KIE_TASK_ASSIGNING_PLANNING_EXT_DISABLED = "org.kie.server.taskAssigning.planning.ext.disabled";
     public static final String KIE_TASK_ASSIGNING_RUNTIME_EXT_DISABLED = "org.kie.server.taskAssigning.runtime.ext.disabled";
@@ -52,9 +54,12 @@ public class KieServerConstants {
     public static final String KIE_SERVER_STATE_IMMUTABLE_INIT = "org.kie.server.state.immutable.init";
     public static final String KIE_SERVER_CONTAINER_DEPLOYMENT = "org.kie.server.container.deployment";
     public static final String KIE_SERVER_CONTAINER_LOCATOR = "org.kie.server.container.locator";
+    public static final String KIE_SERVER_CONTAINER_LOCATOR_CACHE_SIZE = "org.kie.server.container.locator.cache.size";
     public static final String KIE_SERVER_ACTIVATE_POLICIES = "org.kie.server.policy.activate";
     public static final String KIE_SERVER_MGMT_API_DISABLED = "org.kie.server.mgmt.api.disabled";
     public static final String KIE_SERVER_STARTUP_STRATEGY = "org.kie.server.startup.strategy";
+    public static final String KIE_SERVER_STARTUP_PARALLEL_INSTALL = "org.kie.server.startup.parallel.install";
+    public static final String KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS = "org.kie.server.startup.parallel.install.threads";
     public static final String KIE_SERVER_MODE = "org.kie.server.mode";
     public static final String KIE_SERVER_INCLUDE_STACKTRACE = "org.kie.server.stacktrace.included";
     public static final String KIE_SERVER_STRICT_ID_FORMAT = "org.kie.server.strict.id.format";
@@ -127,6 +132,13 @@ public class KieServerConstants {
     public static final String PCFG_KIE_SESSION = "KSession";
     public static final String PCFG_MERGE_MODE = "MergeMode";
 
+    // RuleConfig configuration item constants
+    public static final String RCFG_KIE_SESSION_POOL = "KSessionPool";
+    public static final String RCFG_KIE_SESSION_POOL_MIN_SIZE = "KSessionPoolMinSize";
+    public static final String RCFG_KIE_SESSION_POOL_MAX_SIZE = "KSessionPoolMaxSize";
+    public static final String RCFG_KIE_SESSION_POOL_RESET_ON_RETURN = "KSessionPoolResetOnReturn";
+    public static final String RCFG_KIE_SESSION_POOL_TIMEOUT = "KSessionPoolTimeout";
+
     public static final String CAPABILITY_BRM = "BRM"; // Business Rules Management
     public static final String CAPABILITY_BPM = "BPM"; // Business Process Management
     public static final String CAPABILITY_BPM_UI = "BPM-UI"; // Business Process Management UI
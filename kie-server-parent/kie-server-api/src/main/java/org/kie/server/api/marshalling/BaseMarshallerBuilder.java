@@ -20,6 +20,7 @@ import java.util.Set;
 
 import org.kie.server.api.marshalling.jaxb.JaxbMarshaller;
 import org.kie.server.api.marshalling.json.JSONMarshaller;
+import org.kie.server.api.marshalling.json.SmileMarshaller;
 import org.kie.server.api.marshalling.xstream.XStreamMarshaller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,9 @@ public class BaseMarshallerBuilder implements MarshallerBuilder {
             case JSON:
                 logger.debug("About to build default instance of JSON marshaller with classes {} and class loader {}", classes, classLoader);
                 return new JSONMarshaller(classes, classLoader);
+            case SMILE:
+                logger.debug("About to build default instance of Smile marshaller with classes {} and class loader {}", classes, classLoader);
+                return new SmileMarshaller(classes, classLoader);
             default:
                 logger.error("Unsupported marshalling format: " + format);
         }
@@ -16,6 +16,13 @@
 
 package org.kie.server.api.marshalling;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -33,6 +40,68 @@ public interface Marshaller {
 
     public <T> T unmarshall(String input, Class<T> type);
 
+    /**
+     * Marshalls given input directly into the output stream (UTF-8 encoded) without building
+     * intermediate String representation. Output stream is flushed but not closed.
+     * Default implementation delegates to {@link #marshall(Object, Map)}, implementations should
+     * override it to write directly to the stream.
+     * @param input object to be marshalled
+     * @param parameters marshaller parameters
+     * @param output target stream
+     */
+    public default void marshall(Object input, Map<String, Object> parameters, OutputStream output) {
+        String marshalled = marshall(input, parameters);
+        if (marshalled == null) {
+            return;
+        }
+        try {
+            output.write(marshalled.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        } catch (IOException e) {
+            throw new MarshallingException("Error writing marshalled content to output stream", e);
+        }
+    }
+
+    public default void marshall(Object input, OutputStream output) {
+        marshall(input, Collections.emptyMap(), output);
+    }
+
+    public default byte[] marshallToBytes(Object input, Map<String, Object> parameters) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshall(input, parameters, output);
+        return output.toByteArray();
+    }
+
+    public default byte[] marshallToBytes(Object input) {
+        return marshallToBytes(input, Collections.emptyMap());
+    }
+
+    /**
+     * Unmarshalls content of given (UTF-8 encoded) input stream without building intermediate
+     * String representation. Default implementation reads the stream fully and delegates to
+     * {@link #unmarshall(String, Class)}, implementations should override it to read directly from the stream.
+     * @param input source stream
+     * @param type expected type
+     * @return unmarshalled object
+     */
+    public default <T> T unmarshall(InputStream input, Class<T> type) {
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return unmarshall(new String(content.toByteArray(), StandardCharsets.UTF_8), type);
+        } catch (IOException e) {
+            throw new MarshallingException("Error reading content from input stream", e);
+        }
+    }
+
+    public default <T> T unmarshall(byte[] input, Class<T> type) {
+        return unmarshall(new ByteArrayInputStream(input), type);
+    }
+
     public void dispose();
 
     public MarshallingFormat getFormat();
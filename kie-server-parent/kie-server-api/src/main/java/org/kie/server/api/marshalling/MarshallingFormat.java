@@ -26,7 +26,16 @@ import static org.apache.commons.lang3.StringUtils.upperCase;
 public enum MarshallingFormat {
     XSTREAM(0, "xstream"),
     JAXB(1, "xml"),
-    JSON(2, "json");
+    JSON(2, "json"),
+    SMILE(3, "smile");
+
+    /**
+     * Media type of {@link #SMILE} content. Over REST it is accepted by the rules command, command script and DMN
+     * evaluation endpoints and produced by the server and container info endpoints; other endpoints only exchange
+     * the textual formats. Over JMS any command script can be sent as SMILE, though payloads nested in its
+     * commands (e.g. the one of a call container command) keep their Base64 form.
+     */
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
 
     private final int id;
     private final String type;
@@ -44,6 +53,14 @@ public enum MarshallingFormat {
         return type;
     }
 
+    /**
+     * Returns true for formats that do not produce textual content and thus must be transported as raw bytes
+     * (e.g. <code>BytesMessage</code> for JMS or <code>byte[]</code> entity for REST).
+     */
+    public boolean isBinary() {
+        return this == SMILE;
+    }
+
     public static MarshallingFormat fromId(int id) {
         switch (id) {
             case 0:
@@ -52,6 +69,8 @@ public enum MarshallingFormat {
                 return JAXB;
             case 2:
                 return JSON;
+            case 3:
+                return SMILE;
             default:
                 return null;
         }
@@ -78,6 +97,8 @@ public enum MarshallingFormat {
             return JAXB;
         } else if (startsWithIgnoreCase(type, "json") || startsWithIgnoreCase(type, "application/json")) {
             return JSON;
+        } else if (startsWithIgnoreCase(type, "smile") || startsWithIgnoreCase(type, SMILE_MEDIA_TYPE)) {
+            return SMILE;
         } else {
             try {
                 return MarshallingFormat.valueOf(upperCase(type));
@@ -16,11 +16,14 @@
 
 package org.kie.server.api.marshalling.jaxb;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import javax.xml.bind.JAXBContext;
@@ -473,6 +476,33 @@ public class JaxbMarshaller implements Marshaller {
         }
     }
 
+    @Override
+    public void marshall(Object input, Map<String, Object> parameters, OutputStream output) {
+        marshall(input, output);
+    }
+
+    @Override
+    public void marshall(Object input, OutputStream output) {
+        if (input == null) {
+            return;
+        }
+
+        try {
+            getMarshaller().marshal(ModelWrapper.wrap(input), output);
+        } catch (JAXBException e) {
+            throw new MarshallingException("Can't marshall input object: " + input, e);
+        }
+    }
+
+    @Override
+    public <T> T unmarshall(InputStream input, Class<T> type) {
+        try {
+            return (T) unwrap(getUnmarshaller().unmarshal(input));
+        } catch (JAXBException e) {
+            throw new MarshallingException("Can't unmarshall input stream", e);
+        }
+    }
+
     protected Object unwrap(Object data) {
         if (data instanceof Wrapped) {
             return ((Wrapped) data).unwrap();
@@ -16,17 +16,23 @@
 
 package org.kie.server.api.marshalling.json;
 
+import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.Member;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -42,6 +48,8 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapters;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -322,6 +330,53 @@ public class JSONMarshaller implements Marshaller {
         }
     }
 
+    @Override
+    public void marshall(Object input, Map<String, Object> parameters, OutputStream output) {
+        try {
+            if (parameters.containsKey(MARSHALLER_PARAMETER_STRICT)) {
+                jsonContext.get().setWrap((boolean) parameters.get(MARSHALLER_PARAMETER_STRICT));
+            }
+            marshall(input, output);
+        } finally {
+            jsonContext.get().reset();
+        }
+    }
+
+    @Override
+    public void marshall(Object objectInput, OutputStream output) {
+        // do not close the generator's target, the stream is owned by the caller
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            objectMapper.writeValue(generator, wrap(objectInput));
+        } catch (IOException e) {
+            throw new MarshallingException("Error marshalling input", e);
+        }
+    }
+
+    @Override
+    public <T> T unmarshall(InputStream input, Class<T> type) {
+        try {
+            Class actualType = classesSet.contains(type) ? Object.class : type;
+            return (T) unwrap(deserializeObjectMapper.readValue(input, actualType));
+        } catch (IOException e) {
+            throw new MarshallingException("Error unmarshalling input", e);
+        } finally {
+            jsonContext.get().reset();
+        }
+    }
+
+    @Override
+    public <T> T unmarshall(byte[] input, Class<T> type) {
+        try {
+            Class actualType = classesSet.contains(type) ? Object.class : type;
+            return (T) unwrap(deserializeObjectMapper.readValue(input, actualType));
+        } catch (IOException e) {
+            throw new MarshallingException("Error unmarshalling input", e);
+        } finally {
+            jsonContext.get().reset();
+        }
+    }
+
     @Override
     public <T> T unmarshall(String serializedInput, Class<T> type) {
 
@@ -542,9 +597,17 @@ public class JSONMarshaller implements Marshaller {
 
         @Override
         public void serialize(Object value, JsonGenerator jgen, SerializerProvider provider) throws IOException, JsonProcessingException {
-
-            String json = customObjectMapper.writeValueAsString(value);
-            jgen.writeRawValue(json);
+            if (jgen.canWriteBinaryNatively()) {
+                JsonBuffer json = JsonBuffer.acquire();
+                try {
+                    customObjectMapper.writeValue(json, value);
+                    json.copyTo(jgen);
+                } finally {
+                    json.release();
+                }
+                return;
+            }
+            customObjectMapper.writeValue(new RawValueWriter(jgen), value);
         }
     }
 
@@ -558,124 +621,255 @@ public class JSONMarshaller implements Marshaller {
 
         @Override
         public void serialize(Object value, JsonGenerator jgen, SerializerProvider provider) throws IOException, JsonProcessingException {
-            String className = value.getClass().getName();
-
-            if (value instanceof Collection) {
-                String collectionJson = writeCollection((Collection) value, customObjectMapper);
-                jgen.writeRawValue(collectionJson);
-            } else if (value instanceof Map) {
-                String mapJson = writeMap((Map) value, customObjectMapper);
-                jgen.writeRawValue(mapJson);
-            } else if (value instanceof Object[] || value.getClass().isArray()) {
-                String arrayJson = writeArray((Object[]) value, customObjectMapper);
-                jgen.writeRawValue(arrayJson);
-            } else {
-
-                String json = customObjectMapper.writeValueAsString(value);
-
-                // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
-                if (!className.startsWith("java.") && !className.startsWith("javax.") && !json.contains(className)) {
-                    json = "{\"" + className + "\":" + json + "}";
+            // elements are rendered one at a time as their content decides whether they get wrapped, the enclosing
+            // structure and the elements are written straight to the generator as a single raw value
+            JsonBuffer element = JsonBuffer.acquire();
+            JsonBuffer buffered = jgen.canWriteBinaryNatively() ? JsonBuffer.acquire() : null;
+            try {
+                Writer output = buffered != null ? buffered : new RawValueWriter(jgen);
+                if (value instanceof Collection) {
+                    writeCollection((Collection) value, output, element);
+                } else if (value instanceof Map) {
+                    writeMap((Map) value, output, element);
+                } else if (value instanceof Object[] || value.getClass().isArray()) {
+                    writeArray((Object[]) value, output, element);
+                } else {
+                    writeElement(value, output, element);
+                }
+                if (buffered != null) {
+                    buffered.copyTo(jgen);
+                }
+            } finally {
+                if (buffered != null) {
+                    buffered.release();
                 }
-                jgen.writeRawValue(json);
+                element.release();
             }
         }
 
-        private String writeArray(Object[] value, ObjectMapper customObjectMapper) throws IOException {
-            StringBuilder builder = new StringBuilder();
-            builder.append("[");
+        private void writeArray(Object[] value, Writer output, JsonBuffer element) throws IOException {
+            output.write('[');
 
             int size = Array.getLength(value);
 
-            for (Object element : value) {
+            for (Object item : value) {
                 size--;
-                String elementClassName = element.getClass().getName();
-                String json = customObjectMapper.writeValueAsString(element);
-
-                // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
-                if (!elementClassName.startsWith("java.") && !elementClassName.startsWith("javax.") && !json.contains(elementClassName)) {
-                    json = "{\"" + elementClassName + "\":" + json + "}";
-                }
-
-                builder.append(json);
+                writeElement(item, output, element);
 
                 if (size > 0) {
-                    builder.append(",");
+                    output.write(',');
                 }
             }
-            builder.append("]");
-
-            return builder.toString();
+            output.write(']');
         }
 
-        private String writeMap(Map value, ObjectMapper customObjectMapper) throws IOException {
-            StringBuilder builder = new StringBuilder();
-            builder.append("{");
+        private void writeMap(Map value, Writer output, JsonBuffer element) throws IOException {
+            output.write('{');
 
             int size = ((Map<?, ?>) value).size();
 
             for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
                 size--;
+                Object mValue = entry.getValue();
+                String mValueClassName = mValue.getClass().getName();
+
                 // handle map key
-                Object key = entry.getKey();
-                String keyClassName = key.getClass().getName();
-                String json = customObjectMapper.writeValueAsString(key);
+                String keyClassName = entry.getKey().getClass().getName();
+                element.reset();
+                customObjectMapper.writeValue(element, entry.getKey());
+                boolean wrapKey = isWrapped(keyClassName, element);
+                // double wrapping is detected on the written key, including its wrapper (kept as it always was)
+                boolean keyContainsValueClass = element.contains(mValueClassName, 0) || (wrapKey && keyClassName.contains(mValueClassName));
+                append(keyClassName, wrapKey, output, element);
 
-                // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
-                if (!keyClassName.startsWith("java.") && !keyClassName.startsWith("javax.") && !json.contains(keyClassName)) {
-                    json = "{\"" + keyClassName + "\":" + json + "}";
-                }
                 // handle map value
-                Object mValue = entry.getValue();
-                String mValueClassName = mValue.getClass().getName();
-                String jsonValue = customObjectMapper.writeValueAsString(mValue);
+                element.reset();
+                customObjectMapper.writeValue(element, mValue);
 
                 // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
-                if (!mValueClassName.startsWith("java.") && !mValueClassName.startsWith("javax.") && !json.contains(mValueClassName)) {
-                    jsonValue = "{\"" + mValueClassName + "\":" + jsonValue + "}";
-                }
+                boolean wrap = !mValueClassName.startsWith("java.") && !mValueClassName.startsWith("javax.") && !keyContainsValueClass;
 
                 // add as JSON map
-                builder.append(json);
-                builder.append(" : ");
-                builder.append(jsonValue);
+                output.write(" : ");
+                append(mValueClassName, wrap, output, element);
 
                 if (size > 0) {
-                    builder.append(",");
+                    output.write(',');
                 }
             }
 
-            builder.append("}");
-            return builder.toString();
+            output.write('}');
         }
 
-        private String writeCollection(Collection collection, ObjectMapper customObjectMapper) throws IOException {
-
-            StringBuilder builder = new StringBuilder();
-            builder.append("[");
+        private void writeCollection(Collection collection, Writer output, JsonBuffer element) throws IOException {
+            output.write('[');
 
             int size = collection.size();
             Iterator it = collection.iterator();
             while (it.hasNext()) {
                 size--;
-                Object element = it.next();
-                String elementClassName = element.getClass().getName();
-                String json = customObjectMapper.writeValueAsString(element);
+                writeElement(it.next(), output, element);
 
-                // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
-                if (!elementClassName.startsWith("java.") && !elementClassName.startsWith("javax.") && !json.contains(elementClassName)) {
-                    json = "{\"" + elementClassName + "\":" + json + "}";
+                if (size > 0) {
+                    output.write(',');
                 }
+            }
+            output.write(']');
+        }
 
-                builder.append(json);
+        private void writeElement(Object value, Writer output, JsonBuffer element) throws IOException {
+            String className = value.getClass().getName();
+            element.reset();
+            customObjectMapper.writeValue(element, value);
 
-                if (size > 0) {
-                    builder.append(",");
+            append(className, isWrapped(className, element), output, element);
+        }
+
+        private boolean isWrapped(String className, JsonBuffer element) {
+            // don't wrap java and javax classes as they are always available, in addition avoid double wrapping
+            return !className.startsWith("java.") && !className.startsWith("javax.") && !element.contains(className, 0);
+        }
+
+        private void append(String className, boolean wrap, Writer output, JsonBuffer element) throws IOException {
+            if (wrap) {
+                output.write("{\"");
+                output.write(className);
+                output.write("\":");
+                element.writeTo(output);
+                output.write('}');
+            } else {
+                element.writeTo(output);
+            }
+        }
+    }
+
+    /**
+     * Writes the characters of a single value straight to the buffer of the enclosing text generator, the first
+     * characters start the value so the generator adds separators and keeps its context as for any other value.
+     */
+    static class RawValueWriter extends Writer {
+
+        private final JsonGenerator jgen;
+        private boolean started;
+
+        RawValueWriter(JsonGenerator jgen) {
+            this.jgen = jgen;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (started) {
+                jgen.writeRaw(cbuf, off, len);
+            } else {
+                started = true;
+                jgen.writeRawValue(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (started) {
+                jgen.writeRaw(str, off, len);
+            } else {
+                started = true;
+                jgen.writeRawValue(str, off, len);
+            }
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (started) {
+                jgen.writeRaw((char) c);
+            } else {
+                started = true;
+                jgen.writeRawValue(String.valueOf((char) c));
+            }
+        }
+
+        @Override
+        public void flush() {
+            // the enclosing generator flushes its own buffer
+        }
+
+        @Override
+        public void close() {
+            // the enclosing generator is owned by the caller
+        }
+    }
+
+    /**
+     * Reusable character buffer used by the wrapping serializer to render an element with the custom object mapper
+     * before it is decided whether it gets wrapped, and for binary generators which don't accept raw values.
+     * Buffers are pooled per thread and kept on a stack as serializers can be invoked recursively. Only a few small
+     * buffers are kept per thread, deeper nesting levels and buffers grown by large values are left to the garbage
+     * collector once released.
+     */
+    static class JsonBuffer extends CharArrayWriter {
+
+        private static final int INITIAL_SIZE = 1024;
+        static final int MAX_RETAINED_SIZE = 16 * 1024;
+        static final int MAX_POOLED = 4;
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private static final ThreadLocal<Deque<JsonBuffer>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+        private JsonBuffer() {
+            super(INITIAL_SIZE);
+        }
+
+        static JsonBuffer acquire() {
+            JsonBuffer buffer = POOL.get().poll();
+            if (buffer == null) {
+                buffer = new JsonBuffer();
+            }
+            return buffer;
+        }
+
+        void release() {
+            Deque<JsonBuffer> pool = POOL.get();
+            if (buf.length <= MAX_RETAINED_SIZE && pool.size() < MAX_POOLED) {
+                reset();
+                pool.push(this);
+            }
+        }
+
+        static int pooled() {
+            return POOL.get().size();
+        }
+
+        boolean contains(String text, int fromIndex) {
+            int length = text.length();
+            int last = count - length;
+            for (int i = fromIndex; i <= last; i++) {
+                int j = 0;
+                while (j < length && buf[i + j] == text.charAt(j)) {
+                    j++;
+                }
+                if (j == length) {
+                    return true;
                 }
             }
-            builder.append("]");
+            return false;
+        }
+
+        void copyTo(JsonGenerator jgen) throws IOException {
+            // binary generators (e.g. smile) do not support raw values so copy the rendered tokens instead
+            try (JsonParser parser = JSON_FACTORY.createParser(buf, 0, count)) {
+                parser.nextToken();
+                jgen.copyCurrentStructure(parser);
+            }
+        }
 
-            return builder.toString();
+        @Override
+        public void close() {
+            // buffer is reused so ignore close requests issued by the object mapper
         }
     }
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.api.marshalling.json;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.kie.server.api.marshalling.MarshallingException;
+import org.kie.server.api.marshalling.MarshallingFormat;
+
+/**
+ * Binary variant of the {@link JSONMarshaller} that encodes the very same data model with the Smile format
+ * (binary JSON). It shares all type handling of the JSON marshaller but produces considerably smaller payloads
+ * that are also cheaper to parse.
+ *
+ * Smile content is binary and thus should be exchanged via the stream and <code>byte[]</code> based methods.
+ * The <code>String</code> based methods are still supported and use Base64 representation of the binary content
+ * so it can safely travel through text only channels.
+ */
+public class SmileMarshaller extends JSONMarshaller {
+
+    public SmileMarshaller(Set<Class<?>> classes, ClassLoader classLoader) {
+        super(classes, classLoader);
+    }
+
+    @Override
+    protected void buildMarshaller(Set<Class<?>> classes, ClassLoader classLoader) {
+        objectMapper = new ObjectMapper(new SmileFactory());
+        deserializeObjectMapper = new ObjectMapper(new SmileFactory());
+    }
+
+    @Override
+    public String marshall(Object objectInput) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshall(objectInput, output);
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+    @Override
+    public <T> T unmarshall(String serializedInput, Class<T> type) {
+        byte[] content;
+        try {
+            content = Base64.getDecoder().decode(serializedInput);
+        } catch (IllegalArgumentException e) {
+            throw new MarshallingException("Error unmarshalling input, content is not Base64 encoded smile", e);
+        }
+        return unmarshall(content, type);
+    }
+
+    @Override
+    public MarshallingFormat getFormat() {
+        return MarshallingFormat.SMILE;
+    }
+}
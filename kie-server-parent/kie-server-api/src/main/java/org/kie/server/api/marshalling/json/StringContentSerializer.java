@@ -18,7 +18,9 @@ package org.kie.server.api.marshalling.json;
 
 import java.io.IOException;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
@@ -26,6 +28,8 @@ public class StringContentSerializer extends StdSerializer<StringContent> {
 
     private static final long serialVersionUID = 6139683510592452430L;
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     public StringContentSerializer() {
         this(null);
     }
@@ -37,6 +41,14 @@ public class StringContentSerializer extends StdSerializer<StringContent> {
     @Override
     public void serialize(StringContent value, JsonGenerator gen, SerializerProvider provider) throws IOException {
 
+        if (gen.canWriteBinaryNatively()) {
+            // binary formats cannot take raw json so re-encode it token by token
+            try (JsonParser parser = JSON_FACTORY.createParser(value.getContent())) {
+                parser.nextToken();
+                gen.copyCurrentStructure(parser);
+            }
+            return;
+        }
         gen.writeRaw(value.getContent());
     }
 }
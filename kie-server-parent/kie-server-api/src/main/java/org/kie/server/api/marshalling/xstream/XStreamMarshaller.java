@@ -16,6 +16,13 @@
 
 package org.kie.server.api.marshalling.xstream;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -50,6 +57,7 @@ import org.kie.server.api.commands.optaplanner.IsEveryProblemFactChangeProcessed
 import org.kie.server.api.commands.optaplanner.SolvePlanningProblemCommand;
 import org.kie.server.api.commands.optaplanner.TerminateSolverEarlyCommand;
 import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingException;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.api.model.KieContainerResourceFilter;
@@ -223,6 +231,28 @@ public class XStreamMarshaller implements Marshaller {
         return (T) xstream.fromXML(input);
     }
 
+    @Override
+    public void marshall(Object input, Map<String, Object> parameters, OutputStream output) {
+        marshall(input, output);
+    }
+
+    @Override
+    public void marshall(Object objectInput, OutputStream output) {
+        try {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            xstream.toXML(objectInput, writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new MarshallingException("Error marshalling input", e);
+        }
+    }
+
+    @Override
+    public <T> T unmarshall(InputStream input,
+                            Class<T> type) {
+        return (T) xstream.fromXML(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
     @Override
     public void dispose() {
         // nothing to do
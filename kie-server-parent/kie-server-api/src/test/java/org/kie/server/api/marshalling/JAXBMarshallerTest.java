@@ -16,6 +16,9 @@
 
 package org.kie.server.api.marshalling;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -29,6 +32,7 @@ import org.junit.Test;
 import org.kie.server.api.marshalling.objects.DateObject;
 import org.kie.server.api.model.definition.QueryParam;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -94,4 +98,31 @@ public class JAXBMarshallerTest {
         QueryParam param2 = marshaller.unmarshall(converted, QueryParam.class);
         assertTrue(param2.getValue().get(0) instanceof QueryParam);
     }
+
+    @Test
+    public void testStreamMarshallDateObject() {
+        Set<Class<?>> extraClasses = new HashSet<Class<?>>();
+        extraClasses.add(DateObject.class);
+        Marshaller marshaller = MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.JAXB, getClass().getClassLoader());
+
+        DateObject dateObject = new DateObject();
+        dateObject.setLocalDate(LocalDate.of(2017, 1, 1));
+        dateObject.setLocalDateTime(LocalDateTime.of(2017, 1, 1, 10, 10, 10));
+        dateObject.setLocalTime(LocalTime.of(10, 10, 10));
+        dateObject.setOffsetDateTime(OffsetDateTime.of(LocalDateTime.of(2017, 1, 1, 10, 10, 10), ZoneOffset.ofHours(1)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshaller.marshall(dateObject, output);
+        assertEquals(marshaller.marshall(dateObject), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        assertArrayEquals(output.toByteArray(), marshaller.marshallToBytes(dateObject));
+
+        DateObject fromStream = marshaller.unmarshall(new ByteArrayInputStream(output.toByteArray()), DateObject.class);
+        assertEquals(dateObject.getLocalDate(), fromStream.getLocalDate());
+        assertEquals(dateObject.getLocalDateTime(), fromStream.getLocalDateTime());
+        assertEquals(dateObject.getLocalTime(), fromStream.getLocalTime());
+        assertEquals(dateObject.getOffsetDateTime(), fromStream.getOffsetDateTime());
+
+        DateObject fromBytes = marshaller.unmarshall(output.toByteArray(), DateObject.class);
+        assertEquals(dateObject.getLocalDateTime(), fromBytes.getLocalDateTime());
+    }
 }
@@ -16,8 +16,11 @@
 
 package org.kie.server.api.marshalling;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
@@ -47,6 +50,7 @@ import org.kie.server.api.model.definition.QueryParam;
 import static org.hamcrest.CoreMatchers.everyItem;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -231,4 +235,28 @@ public class JSONMarshallerTest {
         assertThat(Arrays.asList(params), everyItem(instanceOf(QueryParam.class)));
     }
 
+    @Test
+    public void testStreamMarshallDateObject() {
+        Marshaller marshaller = MarshallerFactory.getMarshaller(MarshallingFormat.JSON, getClass().getClassLoader());
+
+        DateObject dateObject = new DateObject();
+        dateObject.setLocalDate(LocalDate.of(2017, 1, 1));
+        dateObject.setLocalDateTime(LocalDateTime.of(2017, 1, 1, 10, 10, 10));
+        dateObject.setLocalTime(LocalTime.of(10, 10, 10));
+        dateObject.setOffsetDateTime(OffsetDateTime.of(LocalDateTime.of(2017, 1, 1, 10, 10, 10), ZoneOffset.ofHours(1)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshaller.marshall(dateObject, output);
+        assertEquals(marshaller.marshall(dateObject), new String(output.toByteArray(), StandardCharsets.UTF_8));
+        assertArrayEquals(output.toByteArray(), marshaller.marshallToBytes(dateObject));
+
+        DateObject fromStream = marshaller.unmarshall(new ByteArrayInputStream(output.toByteArray()), DateObject.class);
+        assertEquals(dateObject.getLocalDate(), fromStream.getLocalDate());
+        assertEquals(dateObject.getLocalDateTime(), fromStream.getLocalDateTime());
+        assertEquals(dateObject.getLocalTime(), fromStream.getLocalTime());
+        assertEquals(dateObject.getOffsetDateTime(), fromStream.getOffsetDateTime());
+
+        DateObject fromBytes = marshaller.unmarshall(output.toByteArray(), DateObject.class);
+        assertEquals(dateObject.getLocalDateTime(), fromBytes.getLocalDateTime());
+    }
 }
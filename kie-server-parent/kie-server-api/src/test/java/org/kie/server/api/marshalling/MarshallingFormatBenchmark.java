@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.api.marshalling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.command.runtime.BatchExecutionCommandImpl;
+import org.kie.api.KieServices;
+import org.kie.api.command.Command;
+import org.kie.api.command.KieCommands;
+import org.kie.server.api.marshalling.objects.Pojo1;
+import org.kie.server.api.marshalling.objects.Pojo2;
+import org.kie.server.api.marshalling.objects.Pojo3;
+import org.kie.server.api.model.dmn.DMNContextKS;
+
+/**
+ * Compares payload size and marshall/unmarshall round trip latency of the text JSON format
+ * against the binary SMILE format. Not run as part of the test suite, start it via its main method.
+ */
+public class MarshallingFormatBenchmark {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 1000;
+
+    public static void main(String[] args) {
+        Set<Class<?>> extraClasses = new HashSet<>();
+        extraClasses.add(Pojo1.class);
+        extraClasses.add(Pojo2.class);
+        extraClasses.add(Pojo3.class);
+        ClassLoader classLoader = MarshallingFormatBenchmark.class.getClassLoader();
+
+        BatchExecutionCommandImpl batch = createBatch(100);
+        DMNContextKS dmnContext = createDMNContext(100);
+
+        for (MarshallingFormat format : new MarshallingFormat[]{MarshallingFormat.JSON, MarshallingFormat.SMILE}) {
+            Marshaller marshaller = MarshallerFactory.getMarshaller(extraClasses, format, classLoader);
+            run(marshaller, "BatchExecutionCommand", batch, BatchExecutionCommandImpl.class);
+            run(marshaller, "DMNContextKS", dmnContext, DMNContextKS.class);
+            marshaller.dispose();
+        }
+    }
+
+    private static <T> void run(Marshaller marshaller, String name, T payload, Class<T> type) {
+        int size = marshaller.marshallToBytes(payload).length;
+        for (int i = 0; i < WARMUP; i++) {
+            marshaller.unmarshall(marshaller.marshallToBytes(payload), type);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            marshaller.unmarshall(marshaller.marshallToBytes(payload), type);
+        }
+        long average = (System.nanoTime() - start) / ITERATIONS;
+        System.out.printf("%-6s %-22s %8d bytes %10.1f us/round trip%n", marshaller.getFormat(), name, size, average / 1000.0);
+    }
+
+    private static BatchExecutionCommandImpl createBatch(int size) {
+        KieCommands commands = KieServices.Factory.get().getCommands();
+        List<Command<?>> inserts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            inserts.add(commands.newInsert(new Pojo1("fact-" + i, new Pojo2("fact-" + i + "-2", true, new Pojo3("fact-" + i + "-3"))), "fact-" + i));
+        }
+        return (BatchExecutionCommandImpl) commands.newBatchExecution(inserts, "ksession1");
+    }
+
+    private static DMNContextKS createDMNContext(int size) {
+        Map<String, Object> context = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> applicant = new HashMap<>();
+            applicant.put("name", "applicant-" + i);
+            applicant.put("age", 20 + i % 50);
+            applicant.put("income", 1000.5 * i);
+            applicant.put("approved", i % 2 == 0);
+            context.put("applicant-" + i, applicant);
+        }
+        return new DMNContextKS("https://www.drools.org/kie-dmn/loan", "loan-approval", context);
+    }
+}
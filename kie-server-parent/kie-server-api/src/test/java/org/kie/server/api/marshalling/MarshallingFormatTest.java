@@ -52,10 +52,12 @@ public class MarshallingFormatTest {
         assertEquals(MarshallingFormat.JSON, MarshallingFormat.fromType("json"));
         assertEquals(MarshallingFormat.JAXB, MarshallingFormat.fromType("xml"));
         assertEquals(MarshallingFormat.XSTREAM, MarshallingFormat.fromType("xstream"));
+        assertEquals(MarshallingFormat.SMILE, MarshallingFormat.fromType("smile"));
 
         assertEquals(MarshallingFormat.JSON, MarshallingFormat.fromType("application/json"));
         assertEquals(MarshallingFormat.JAXB, MarshallingFormat.fromType("application/xml"));
         assertEquals(MarshallingFormat.XSTREAM, MarshallingFormat.fromType("application/xstream"));
+        assertEquals(MarshallingFormat.SMILE, MarshallingFormat.fromType("application/x-jackson-smile"));
     }
 
     @Test
@@ -79,6 +81,15 @@ public class MarshallingFormatTest {
         assertEquals(MarshallingFormat.JAXB, MarshallingFormat.fromType("JAXB"));
     }
 
+    @Test
+    public void testBinaryFormats() {
+        assertTrue(MarshallingFormat.SMILE.isBinary());
+        assertFalse(MarshallingFormat.JSON.isBinary());
+        assertFalse(MarshallingFormat.JAXB.isBinary());
+        assertFalse(MarshallingFormat.XSTREAM.isBinary());
+        assertEquals(MarshallingFormat.SMILE, MarshallingFormat.fromId(MarshallingFormat.SMILE.getId()));
+    }
+
     @Test
     public void testStricttype() {
         assertTrue(MarshallingFormat.isStrictType("application/json; strict=true"));
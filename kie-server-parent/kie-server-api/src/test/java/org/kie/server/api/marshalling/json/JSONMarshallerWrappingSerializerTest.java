@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.api.marshalling.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+
+import org.drools.core.xml.jaxb.util.JaxbUnknownAdapter;
+import org.junit.Test;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.marshalling.objects.Pojo1;
+import org.kie.server.api.marshalling.objects.Pojo2;
+import org.kie.server.api.marshalling.objects.Pojo3;
+import org.kie.server.api.model.dmn.DMNContextKS;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies that values serialized through JSONMarshaller's wrapping and custom object serializers
+ * keep exactly the same wire format.
+ */
+public class JSONMarshallerWrappingSerializerTest {
+
+    public static class Holder {
+
+        @XmlJavaTypeAdapter(JaxbUnknownAdapter.class)
+        private Object value;
+
+        public Holder() {
+        }
+
+        public Holder(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public void setValue(Object value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void testCustomObject() throws Exception {
+        assertWireFormat("custom-object.json", customClassesMarshaller(), pojo("first"));
+    }
+
+    @Test
+    public void testWrappedMapWithCustomClasses() throws Exception {
+        assertWireFormat("map-custom-classes.json", customClassesMarshaller(), new DMNContextKS(context()));
+    }
+
+    @Test
+    public void testWrappedMapWithoutCustomClasses() throws Exception {
+        assertWireFormat("map-no-custom-classes.json", defaultMarshaller(), new DMNContextKS(context()));
+    }
+
+    @Test
+    public void testWrappedCollectionWithCustomClasses() throws Exception {
+        Holder holder = new Holder(Arrays.asList(pojo("first"), "text", 10, new Pojo3("third"), Arrays.asList(pojo("nested"))));
+        assertWireFormat("collection-custom-classes.json", customClassesMarshaller(), holder);
+    }
+
+    @Test
+    public void testWrappedCollectionWithoutCustomClasses() throws Exception {
+        Holder holder = new Holder(Arrays.asList(pojo("first"), "text", 10, new Pojo3("third")));
+        assertWireFormat("collection-no-custom-classes.json", defaultMarshaller(), holder);
+    }
+
+    @Test
+    public void testWrappedArrayWithCustomClasses() throws Exception {
+        Holder holder = new Holder(new Object[]{pojo("first"), "text", new Pojo3("third")});
+        assertWireFormat("array-custom-classes.json", customClassesMarshaller(), holder);
+    }
+
+    @Test
+    public void testWrappedSingleValue() throws Exception {
+        Marshaller marshaller = customClassesMarshaller();
+        assertWireFormat("single-custom-value.json", marshaller, new Holder(pojo("single")));
+        assertWireFormat("single-java-value.json", marshaller, new Holder("just a string"));
+    }
+
+    @Test
+    public void testPooledBuffersBounded() {
+        List<Object> pojos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pojos.add(pojo("large-" + i));
+        }
+        Object nested = pojos;
+        for (int i = 0; i < 2 * JSONMarshaller.JsonBuffer.MAX_POOLED; i++) {
+            nested = Arrays.asList(nested, pojo("level-" + i));
+        }
+        Marshaller marshaller = customClassesMarshaller();
+        String json = marshaller.marshall(new Holder(nested));
+
+        assertTrue(json.length() > JSONMarshaller.JsonBuffer.MAX_RETAINED_SIZE);
+        assertTrue(json.contains("large-999"));
+        assertTrue(JSONMarshaller.JsonBuffer.pooled() <= JSONMarshaller.JsonBuffer.MAX_POOLED);
+    }
+
+    private Map<String, Object> context() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("inner", new Pojo3("inner"));
+        nested.put("values", Arrays.asList("a", 1, true));
+
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("name", "John");
+        context.put("age", 42);
+        context.put("pojo", pojo("first"));
+        context.put("pojos", Arrays.asList(pojo("second"), pojo("third")));
+        context.put("nested", nested);
+        context.put("org.kie.server.api.marshalling.objects.Pojo3", new Pojo3("key contains class name"));
+        return context;
+    }
+
+    private Pojo1 pojo(String desc) {
+        return new Pojo1(desc, new Pojo2(desc + "-2", true, new Pojo3(desc + "-3")));
+    }
+
+    private Marshaller customClassesMarshaller() {
+        Set<Class<?>> extraClasses = new HashSet<>();
+        extraClasses.add(Pojo1.class);
+        extraClasses.add(Pojo2.class);
+        extraClasses.add(Pojo3.class);
+        extraClasses.add(Holder.class);
+        return MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.JSON, getClass().getClassLoader());
+    }
+
+    private Marshaller defaultMarshaller() {
+        return MarshallerFactory.getMarshaller(new HashSet<>(), MarshallingFormat.JSON, getClass().getClassLoader());
+    }
+
+    private void assertWireFormat(String expectedResource, Marshaller marshaller, Object input) throws IOException {
+        String expected = readResource(expectedResource);
+
+        assertEquals(expected, normalize(marshaller.marshall(input)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        marshaller.marshall(input, output);
+        assertEquals(expected, normalize(new String(output.toByteArray(), StandardCharsets.UTF_8)));
+    }
+
+    private String normalize(String json) {
+        return json.replace(System.lineSeparator(), "\n");
+    }
+
+    private String readResource(String name) throws IOException {
+        try (InputStream input = getClass().getResourceAsStream("/json-wrapping/" + name)) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
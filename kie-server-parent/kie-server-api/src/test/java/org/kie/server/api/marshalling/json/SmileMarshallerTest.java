@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.api.marshalling.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.drools.core.command.runtime.BatchExecutionCommandImpl;
+import org.drools.core.command.runtime.rule.InsertObjectCommand;
+import org.drools.core.runtime.impl.ExecutionResultImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.command.Command;
+import org.kie.api.command.KieCommands;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.marshalling.objects.Pojo1;
+import org.kie.server.api.marshalling.objects.Pojo2;
+import org.kie.server.api.marshalling.objects.Pojo3;
+import org.kie.server.api.model.ServiceResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SmileMarshallerTest {
+
+    private Set<Class<?>> extraClasses;
+    private Marshaller smileMarshaller;
+    private Marshaller jsonMarshaller;
+
+    @Before
+    public void setup() {
+        extraClasses = new HashSet<>();
+        extraClasses.add(Pojo1.class);
+        extraClasses.add(Pojo2.class);
+        extraClasses.add(Pojo3.class);
+
+        smileMarshaller = MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.SMILE, getClass().getClassLoader());
+        jsonMarshaller = MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.JSON, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testSmileMarshallerIsBuilt() {
+        assertThat(smileMarshaller).isInstanceOf(SmileMarshaller.class);
+        assertThat(smileMarshaller.getFormat()).isEqualTo(MarshallingFormat.SMILE);
+        assertThat(smileMarshaller.getFormat().isBinary()).isTrue();
+    }
+
+    @Test
+    public void testBatchExecutionCommandRoundTrip() {
+        BatchExecutionCommandImpl batch = createBatch(10);
+
+        byte[] content = smileMarshaller.marshallToBytes(batch);
+        BatchExecutionCommandImpl result = smileMarshaller.unmarshall(content, BatchExecutionCommandImpl.class);
+
+        assertThat(result.getLookup()).isEqualTo("ksession1");
+        assertThat(result.getCommands()).hasSize(10);
+        InsertObjectCommand insert = (InsertObjectCommand) result.getCommands().get(0);
+        assertThat(insert.getObject()).isEqualTo(pojo("fact-0"));
+        assertThat(insert.getOutIdentifier()).isEqualTo("fact-0");
+    }
+
+    @Test
+    public void testBinaryPayloadIsSmallerThanJson() {
+        BatchExecutionCommandImpl batch = createBatch(100);
+
+        byte[] smile = smileMarshaller.marshallToBytes(batch);
+        byte[] json = jsonMarshaller.marshallToBytes(batch);
+
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    public void testServiceResponseWithCustomResultsRoundTrip() {
+        ExecutionResultImpl results = new ExecutionResultImpl();
+        results.getResults().put("pojo", pojo("result"));
+        results.getResults().put("count", 5);
+        ServiceResponse<ExecutionResultImpl> response = new ServiceResponse<>(ServiceResponse.ResponseType.SUCCESS, "done", results);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        smileMarshaller.marshall(response, output);
+        ServiceResponse<?> result = smileMarshaller.unmarshall(new ByteArrayInputStream(output.toByteArray()), ServiceResponse.class);
+
+        assertThat(result.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+        assertThat(result.getMsg()).isEqualTo("done");
+        ExecutionResultImpl resultValue = (ExecutionResultImpl) result.getResult();
+        assertThat(resultValue.getValue("pojo")).isEqualTo(pojo("result"));
+        assertThat(resultValue.getValue("count")).isEqualTo(5);
+    }
+
+    @Test
+    public void testStringRepresentationIsBase64() {
+        Pojo1 pojo = pojo("text");
+
+        String content = smileMarshaller.marshall(pojo);
+
+        assertThat(Base64.getDecoder().decode(content)).isEqualTo(smileMarshaller.marshallToBytes(pojo));
+        assertThat(smileMarshaller.unmarshall(content, Pojo1.class)).isEqualTo(pojo);
+    }
+
+    private BatchExecutionCommandImpl createBatch(int size) {
+        KieCommands commands = KieServices.Factory.get().getCommands();
+        List<Command<?>> inserts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            inserts.add(commands.newInsert(pojo("fact-" + i), "fact-" + i));
+        }
+        return (BatchExecutionCommandImpl) commands.newBatchExecution(inserts, "ksession1");
+    }
+
+    private Pojo1 pojo(String desc) {
+        return new Pojo1(desc, new Pojo2(desc + "-2", true, new Pojo3(desc + "-3")));
+    }
+}
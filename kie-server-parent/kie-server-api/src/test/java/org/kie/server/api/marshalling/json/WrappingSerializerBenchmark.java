@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.api.marshalling.json;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.marshalling.objects.Pojo1;
+import org.kie.server.api.marshalling.objects.Pojo2;
+import org.kie.server.api.marshalling.objects.Pojo3;
+import org.kie.server.api.model.dmn.DMNContextKS;
+
+/**
+ * Measures the time and memory needed to marshall values going through the wrapping serializer of the JSON
+ * marshaller: a list of custom objects and a map of them, as process variables or DMN contexts holding domain
+ * objects. Not run as part of the test suite, start it via its main method, optionally passing the number of
+ * objects per value (1000 by default).
+ */
+public class WrappingSerializerBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        Set<Class<?>> extraClasses = new HashSet<>();
+        extraClasses.add(Pojo1.class);
+        extraClasses.add(Pojo2.class);
+        extraClasses.add(Pojo3.class);
+        extraClasses.add(JSONMarshallerWrappingSerializerTest.Holder.class);
+        Marshaller marshaller = MarshallerFactory.getMarshaller(extraClasses, MarshallingFormat.JSON, WrappingSerializerBenchmark.class.getClassLoader());
+
+        List<Object> pojos = new ArrayList<>();
+        Map<String, Object> context = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Pojo1 pojo = new Pojo1("fact-" + i, new Pojo2("fact-" + i + "-2", true, new Pojo3("fact-" + i + "-3")));
+            pojos.add(pojo);
+            context.put("fact-" + i, pojo);
+        }
+
+        System.out.printf("%d objects per value%n", size);
+        System.out.printf("%-12s %10s %12s %14s%n", "value", "bytes", "us/op", "allocated/op");
+        run(marshaller, "collection", new JSONMarshallerWrappingSerializerTest.Holder(pojos));
+        run(marshaller, "map", new DMNContextKS(context));
+        marshaller.dispose();
+    }
+
+    private static void run(Marshaller marshaller, String name, Object value) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int i = 0; i < WARMUP; i++) {
+            output.reset();
+            marshaller.marshall(value, output);
+        }
+        long bytes = allocatedBytes(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            output.reset();
+            marshaller.marshall(value, output);
+        }
+        long elapsed = System.nanoTime() - start;
+        bytes = allocatedBytes(threads) - bytes;
+        System.out.printf("%-12s %10d %12.1f %14d%n", name, output.size(), elapsed / 1000.0 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -161,6 +161,7 @@ public class KieServerHttpRequest {
         String charset;
 
         StringBuilder body;
+        byte[] bodyBytes;
         MediaType bodyContentType;
 
         public URL getRequestUrl() {
@@ -227,6 +228,7 @@ public class KieServerHttpRequest {
             RequestInfo clone = new RequestInfo();
             clone.baseUrl = baseUrl;
             clone.body = body;
+            clone.bodyBytes = bodyBytes;
             clone.bodyContentType = bodyContentType;
             clone.charset = charset;
             clone.form = form;
@@ -891,8 +893,12 @@ public class KieServerHttpRequest {
             // various
             RequestInfo requestInfo = getRequestInfo();
             int contentLength = 0;
-            if( requestInfo.body != null ) {
-                contentLength = requestInfo.body.toString().getBytes(Charset.forName("UTF-8")).length;
+            if( requestInfo.body != null || requestInfo.bodyBytes != null ) {
+                if( requestInfo.bodyBytes != null ) {
+                    contentLength = requestInfo.bodyBytes.length;
+                } else {
+                    contentLength = requestInfo.body.toString().getBytes(Charset.forName("UTF-8")).length;
+                }
                 connection.setFixedLengthStreamingMode(contentLength);
                 List<String> contentTypeList = requestInfo.getHeader(ACCEPT);
                 if( contentTypeList != null && ! contentTypeList.isEmpty() ) {
@@ -919,7 +925,14 @@ public class KieServerHttpRequest {
 
             // output: form parameters, body
             addFormParametersToConnection();
-            if( requestInfo.body != null ) {
+            if( requestInfo.bodyBytes != null ) {
+                try {
+                    openOutput();
+                    output.write(requestInfo.bodyBytes);
+                } catch( IOException ioe ) {
+                    throw new KieServerHttpRequestException("Unable to add bytes to request body", ioe);
+                }
+            } else if( requestInfo.body != null ) {
                 try {
                     openOutput();
                     output.write(requestInfo.body.toString());
@@ -1160,6 +1173,17 @@ public class KieServerHttpRequest {
         return this;
     }
 
+    /**
+     * Set the request body to the given bytes, used for binary content that must not go through character encoding
+     *
+     * @param value
+     * @return this request
+     */
+    public KieServerHttpRequest body(final byte[] value ) throws KieServerHttpRequestException {
+        getRequestInfo().bodyBytes = value;
+        return this;
+    }
+
     public OutputStreamWriter writer() throws KieServerHttpRequestException {
         try {
             openOutput();
@@ -40,7 +40,8 @@ public class RestEasy960Util {
     public static List<Variant> variants 
             = Variant.mediaTypes(MediaType.APPLICATION_XML_TYPE,
                                  new MediaType("application", "json", Collections.singletonMap("strict", "true")),
-                                 MediaType.APPLICATION_JSON_TYPE)
+                                 MediaType.APPLICATION_JSON_TYPE,
+                                 new MediaType("application", "x-jackson-smile"))
                      .add().build();
     public static Variant defaultVariant 
         = Variant.mediaTypes(MediaType.APPLICATION_XML_TYPE).add().build().get(0);
@@ -22,18 +22,20 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.Session;
-import javax.jms.TextMessage;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -184,7 +186,7 @@ public abstract class AbstractKieServicesClientImpl {
 
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             checkResultType( serviceResponse, resultType );
             return serviceResponse;
         } else {
@@ -204,7 +206,7 @@ public abstract class AbstractKieServicesClientImpl {
 
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            return deserialize(response.body(), resultType);
+            return deserialize(response, resultType);
         } else {
             throw createExceptionForUnexpectedResponseCode( request, response );
         }
@@ -255,26 +257,30 @@ public abstract class AbstractKieServicesClientImpl {
     protected <T> ServiceResponse<T> makeHttpPostRequestAndCreateServiceResponse(
             String uri, Object bodyObject,
             Class<T> resultType) {
-        return makeHttpPostRequestAndCreateServiceResponse( uri, serialize( bodyObject ), resultType );
+        return postAndCreateServiceResponse( uri, serializeBody( bodyObject ), resultType, new HashMap<String, String>() );
     }
 
     protected <T> ServiceResponse<T> makeHttpPostRequestAndCreateServiceResponse(
             String uri, Object bodyObject,
             Class<T> resultType, Map<String, String> headers) {
-        return makeHttpPostRequestAndCreateServiceResponse( uri, serialize( bodyObject ), resultType, headers );
+        return postAndCreateServiceResponse( uri, serializeBody( bodyObject ), resultType, headers );
     }
 
     protected <T> ServiceResponse<T> makeHttpPostRequestAndCreateServiceResponse(String uri, String body, Class<T> resultType) {
         return  makeHttpPostRequestAndCreateServiceResponse( uri, body, resultType, new HashMap<String, String>() );
     }
 
-    @SuppressWarnings("unchecked")
     protected <T> ServiceResponse<T> makeHttpPostRequestAndCreateServiceResponse(String uri, String body, Class<T> resultType, Map<String, String> headers) {
-        logger.debug("About to send POST request to '{}' with payload '{}'", uri, body);
+        return postAndCreateServiceResponse(uri, body, resultType, headers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ServiceResponse<T> postAndCreateServiceResponse(String uri, Object body, Class<T> resultType, Map<String, String> headers) {
+        logger.debug("About to send POST request to '{}' with payload '{}'", uri, describe(body));
         KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
             @Override
             public KieServerHttpRequest doOperation(String url) {
-                return newRequest( uri ).headers(headers).body(body).post();
+                return withBody(newRequest( uri ).headers(headers), body).post();
             }
         });
 
@@ -283,7 +289,7 @@ public abstract class AbstractKieServicesClientImpl {
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
 
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             checkResultType( serviceResponse, resultType );
             return serviceResponse;
         } else {
@@ -293,19 +299,23 @@ public abstract class AbstractKieServicesClientImpl {
 
 
     protected <T> T makeHttpPostRequestAndCreateCustomResponse(String uri, Object bodyObject, Class<T> resultType, Map<String, String> headers) {
-        return makeHttpPostRequestAndCreateCustomResponse(uri, serialize(bodyObject), resultType, headers);
+        return postAndCreateCustomResponse(uri, serializeBody(bodyObject), resultType, headers);
     }
 
     protected <T> T makeHttpPostRequestAndCreateCustomResponse(String uri, Object bodyObject, Class<T> resultType) {
-        return makeHttpPostRequestAndCreateCustomResponse(uri, serialize(bodyObject), resultType, new HashMap<String, String>() );
+        return postAndCreateCustomResponse(uri, serializeBody(bodyObject), resultType, new HashMap<String, String>() );
     }
 
     protected <T> T makeHttpPostRequestAndCreateCustomResponse(String uri, String body, Class<T> resultType, Map<String, String> headers) {
-        logger.debug("About to send POST request to '{}' with payload '{}'", uri, body);
+        return postAndCreateCustomResponse(uri, body, resultType, headers);
+    }
+
+    private <T> T postAndCreateCustomResponse(String uri, Object body, Class<T> resultType, Map<String, String> headers) {
+        logger.debug("About to send POST request to '{}' with payload '{}'", uri, describe(body));
         KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
             @Override
             public KieServerHttpRequest doOperation(String url) {
-                return newRequest(uri ).headers(headers).body(body).post();
+                return withBody(newRequest(uri ).headers(headers), body).post();
             }
         });
 
@@ -315,7 +325,7 @@ public abstract class AbstractKieServicesClientImpl {
 
         if ( response.code() == Response.Status.OK.getStatusCode()
                 || response.code() == Response.Status.CREATED.getStatusCode()) {
-            return deserialize( response.body(), resultType );
+            return deserialize(response, resultType);
         } else {
             throw createExceptionForUnexpectedResponseCode( request, response );
         }
@@ -324,16 +334,20 @@ public abstract class AbstractKieServicesClientImpl {
     protected <T> ServiceResponse<T> makeHttpPutRequestAndCreateServiceResponse(
             String uri, Object bodyObject,
             Class<T> resultType) {
-        return makeHttpPutRequestAndCreateServiceResponse( uri, serialize( bodyObject ), resultType );
+        return putAndCreateServiceResponse( uri, serializeBody( bodyObject ), resultType );
     }
 
-    @SuppressWarnings("unchecked")
     protected <T> ServiceResponse<T> makeHttpPutRequestAndCreateServiceResponse(String uri, String body, Class<T> resultType) {
-        logger.debug("About to send PUT request to '{}' with payload '{}'", uri, body);
+        return putAndCreateServiceResponse(uri, body, resultType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ServiceResponse<T> putAndCreateServiceResponse(String uri, Object body, Class<T> resultType) {
+        logger.debug("About to send PUT request to '{}' with payload '{}'", uri, describe(body));
         KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
             @Override
             public KieServerHttpRequest doOperation(String url) {
-                return newRequest(uri).body(body).put();
+                return withBody(newRequest(uri), body).put();
             }
         });
 
@@ -343,7 +357,7 @@ public abstract class AbstractKieServicesClientImpl {
 
         if ( response.code() == Response.Status.CREATED.getStatusCode() ||
                 response.code() == Response.Status.BAD_REQUEST.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             checkResultType( serviceResponse, resultType );
             return serviceResponse;
         } else {
@@ -354,16 +368,20 @@ public abstract class AbstractKieServicesClientImpl {
     protected <T> T makeHttpPutRequestAndCreateCustomResponse(
             String uri, Object bodyObject,
             Class<T> resultType, Map<String, String> headers) {
-        return makeHttpPutRequestAndCreateCustomResponse(uri, serialize(bodyObject), resultType, headers);
+        return putAndCreateCustomResponse(uri, serializeBody(bodyObject), resultType, headers);
     }
 
-    @SuppressWarnings("unchecked")
     protected <T> T makeHttpPutRequestAndCreateCustomResponse(String uri, String body, Class<T> resultType, Map<String, String> headers) {
-        logger.debug("About to send PUT request to '{}' with payload '{}'", uri, body);
+        return putAndCreateCustomResponse(uri, body, resultType, headers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T putAndCreateCustomResponse(String uri, Object body, Class<T> resultType, Map<String, String> headers) {
+        logger.debug("About to send PUT request to '{}' with payload '{}'", uri, describe(body));
         KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
             @Override
             public KieServerHttpRequest doOperation(String url) {
-                return newRequest( uri ).headers(headers).body(body).put();
+                return withBody(newRequest( uri ).headers(headers), body).put();
             }
         });
 
@@ -372,7 +390,7 @@ public abstract class AbstractKieServicesClientImpl {
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
 
         if ( response.code() == Response.Status.CREATED.getStatusCode() ) {
-            T serviceResponse = deserialize( response.body(), resultType );
+            T serviceResponse = deserialize(response, resultType);
 
             return serviceResponse;
         } else {
@@ -395,7 +413,7 @@ public abstract class AbstractKieServicesClientImpl {
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
 
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             checkResultType( serviceResponse, resultType );
             return serviceResponse;
         } else {
@@ -423,7 +441,7 @@ public abstract class AbstractKieServicesClientImpl {
                 return null;
             }
 
-            return deserialize( response.body(), resultType );
+            return deserialize(response, resultType);
         } else {
             throw createExceptionForUnexpectedResponseCode( request, response );
         }
@@ -504,47 +522,53 @@ public abstract class AbstractKieServicesClientImpl {
             }
 
             // Create msg
-            TextMessage textMsg;
+            Message requestMsg;
             try {
 
                 // serialize request
-                String xmlStr = marshaller.marshall( command );
-                logger.debug("Message content to be sent '{}'", xmlStr);
-                textMsg = session.createTextMessage(xmlStr);
+                if (config.getMarshallingFormat().isBinary()) {
+                    BytesMessage bytesMsg = session.createBytesMessage();
+                    bytesMsg.writeBytes(marshaller.marshallToBytes( command ));
+                    requestMsg = bytesMsg;
+                } else {
+                    String xmlStr = marshaller.marshall( command );
+                    logger.debug("Message content to be sent '{}'", xmlStr);
+                    requestMsg = session.createTextMessage(xmlStr);
+                }
 
                 // set properties
                 // 1. corr id
-                textMsg.setJMSCorrelationID(corrId);
+                requestMsg.setJMSCorrelationID(corrId);
                 // 2. serialization info
-                textMsg.setIntProperty( JMSConstants.SERIALIZATION_FORMAT_PROPERTY_NAME, config.getMarshallingFormat().getId() );
-                textMsg.setIntProperty( JMSConstants.INTERACTION_PATTERN_PROPERTY_NAME, responseHandler.getInteractionPattern() );
+                requestMsg.setIntProperty( JMSConstants.SERIALIZATION_FORMAT_PROPERTY_NAME, config.getMarshallingFormat().getId() );
+                requestMsg.setIntProperty( JMSConstants.INTERACTION_PATTERN_PROPERTY_NAME, responseHandler.getInteractionPattern() );
                 if (classType != null) {
-                    textMsg.setStringProperty(JMSConstants.CLASS_TYPE_PROPERTY_NAME, classType);
+                    requestMsg.setStringProperty(JMSConstants.CLASS_TYPE_PROPERTY_NAME, classType);
                 }
 
                 if (targetCapability != null) {
-                    textMsg.setStringProperty(JMSConstants.TARGET_CAPABILITY_PROPERTY_NAME, targetCapability);
+                    requestMsg.setStringProperty(JMSConstants.TARGET_CAPABILITY_PROPERTY_NAME, targetCapability);
                 }
-                textMsg.setStringProperty(JMSConstants.USER_PROPERTY_NAME, config.getUserName());
-                textMsg.setStringProperty(JMSConstants.PASSWRD_PROPERTY_NAME, config.getPassword());
+                requestMsg.setStringProperty(JMSConstants.USER_PROPERTY_NAME, config.getUserName());
+                requestMsg.setStringProperty(JMSConstants.PASSWRD_PROPERTY_NAME, config.getPassword());
 
                 if (containerId != null) {
-                    textMsg.setStringProperty(JMSConstants.CONTAINER_ID_PROPERTY_NAME, containerId);
+                    requestMsg.setStringProperty(JMSConstants.CONTAINER_ID_PROPERTY_NAME, containerId);
                 }
 
                 if (owner.getConversationId() != null) {
-                    textMsg.setStringProperty(JMSConstants.CONVERSATION_ID_PROPERTY_NAME, owner.getConversationId());
+                    requestMsg.setStringProperty(JMSConstants.CONVERSATION_ID_PROPERTY_NAME, owner.getConversationId());
                 }
 
                 if (config.getHeaders() != null) {
                     for (Map.Entry<String, String> header : config.getHeaders().entrySet()) {
                         logger.debug("Adding additional property {} value {}", header.getKey(), header.getValue());
-                        textMsg.setStringProperty(header.getKey(), header.getValue());
+                        requestMsg.setStringProperty(header.getKey(), header.getValue());
                     }
                 }
 
                 // send
-                producer.send(textMsg);
+                producer.send(requestMsg);
             } catch( JMSException jmse ) {
                 throw new KieServicesException("Unable to send a JMS message.", jmse);
             } finally {
@@ -571,10 +595,48 @@ public abstract class AbstractKieServicesClientImpl {
         switch ( format ) {
             case JAXB: return MediaType.APPLICATION_XML;
             case JSON: return MediaType.APPLICATION_JSON;
+            case SMILE: return MarshallingFormat.SMILE_MEDIA_TYPE;
             default: return MediaType.APPLICATION_XML;
         }
     }
 
+    /**
+     * Sets the request body. A binary format given in its <code>String</code> form (Base64) is decoded
+     * to send the raw bytes over the wire, bodies serialized by the client are already raw bytes.
+     */
+    protected KieServerHttpRequest withBody(KieServerHttpRequest request, String body) {
+        if (body != null && marshaller.getFormat().isBinary()) {
+            return request.body(Base64.getDecoder().decode(body));
+        }
+        return request.body(body);
+    }
+
+    private KieServerHttpRequest withBody(KieServerHttpRequest request, Object body) {
+        if (body instanceof byte[]) {
+            return request.body((byte[]) body);
+        }
+        return withBody(request, (String) body);
+    }
+
+    /**
+     * Serializes a request body, as raw bytes for binary formats and as text for the others.
+     */
+    protected Object serializeBody(Object object) {
+        if (object == null || !marshaller.getFormat().isBinary()) {
+            return serialize(object);
+        }
+
+        try {
+            return marshaller.marshallToBytes( object );
+        } catch ( MarshallingException e ) {
+            throw new KieServicesException( "Error while serializing request data!", e );
+        }
+    }
+
+    private static Object describe(Object body) {
+        return body instanceof byte[] ? ((byte[]) body).length + " bytes" : body;
+    }
+
     protected String serialize(Object object) {
         if (object == null) {
             return "";
@@ -587,6 +649,22 @@ public abstract class AbstractKieServicesClientImpl {
         }
     }
 
+    protected <T> T deserialize(KieServerHttpResponse response, Class<T> type) {
+        if (!marshaller.getFormat().isBinary()) {
+            return deserialize(response.body(), type);
+        }
+        byte[] content = response.bytes();
+        logger.debug("About to deserialize {} bytes of binary content into type: '{}'", content == null ? 0 : content.length, type);
+        if (content == null || content.length == 0) {
+            return null;
+        }
+        try {
+            return marshaller.unmarshall(content, type);
+        } catch ( MarshallingException e ) {
+            throw new KieServicesException( "Error while deserializing data received from server!", e );
+        }
+    }
+
     protected <T> T deserialize(String content, Class<T> type) {
         logger.debug("About to deserialize content: \n '{}' \n into type: '{}'", content, type);
         if (content == null || content.isEmpty()) {
@@ -765,13 +843,13 @@ public abstract class AbstractKieServicesClientImpl {
  */
     protected <T> ServiceResponse<T> makeBackwardCompatibleHttpPostRequestAndCreateServiceResponse(String uri, Object body, Class<T> resultType, Map<String, String> headers) {
         logger.debug("About to send POST request to '{}' with payload '{}'", uri, body);
-        KieServerHttpRequest request = newRequest( uri ).headers(headers).body(serialize( body )).post();
+        KieServerHttpRequest request = withBody(newRequest( uri ).headers(headers), serializeBody( body )).post();
         KieServerHttpResponse response = request.response();
 
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
 
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             // serialize it back to string to make it backward compatible
             serviceResponse.setResult(serialize(serviceResponse.getResult()));
             checkResultType(serviceResponse, resultType);
@@ -783,13 +861,13 @@ public abstract class AbstractKieServicesClientImpl {
 
     protected <T> ServiceResponse<T> makeBackwardCompatibleHttpPostRequestAndCreateServiceResponse(String uri, String body, Class<T> resultType) {
         logger.debug("About to send POST request to '{}' with payload '{}'", uri, body);
-        KieServerHttpRequest request = newRequest( uri ).body( body ).post();
+        KieServerHttpRequest request = withBody(newRequest( uri ), body).post();
         KieServerHttpResponse response = request.response();
 
         owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
 
         if ( response.code() == Response.Status.OK.getStatusCode() ) {
-            ServiceResponse serviceResponse = deserialize( response.body(), ServiceResponse.class );
+            ServiceResponse serviceResponse = deserialize(response, ServiceResponse.class);
             // serialize it back to string to make it backward compatible
             serviceResponse.setResult(serialize(serviceResponse.getResult()));
             checkResultType(serviceResponse, resultType);
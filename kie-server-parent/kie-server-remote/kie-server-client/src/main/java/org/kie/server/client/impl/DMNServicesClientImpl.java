@@ -151,7 +151,7 @@ public class DMNServicesClientImpl extends AbstractKieServicesClientImpl impleme
             // coerce numbers to BigDecimal as per DMN spec.
             // alternative to the below will require instructing special config of kie-server JSONMarshaller
             // to manage scalar values when deserializing from JSON always as a BigDecimal instead of default Jackson NumberDeserializers
-            if ( config.getMarshallingFormat() == MarshallingFormat.JSON ) {
+            if ( config.getMarshallingFormat() == MarshallingFormat.JSON || config.getMarshallingFormat() == MarshallingFormat.SMILE ) {
                 recurseAndModifyByCoercingNumbers(result2.getResult().getContext());
                 for ( DMNDecisionResult dr : result2.getResult().getDecisionResults() ) {
                     DMNDecisionResultKS drKS = (DMNDecisionResultKS) dr;
@@ -18,6 +18,7 @@ package org.kie.server.client.jms;
 import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.JMSException;
 import javax.jms.Message;
@@ -112,10 +113,20 @@ public class AsyncResponseHandler implements ResponseHandler {
             try {
                 ((KieServicesClientImpl) owner).setConversationId(message.getStringProperty(JMSConstants.CONVERSATION_ID_PROPERTY_NAME));
 
-                String responseStr = ((TextMessage) message).getText();
-                logger.debug("Received response from server '{}'", responseStr);
+                ServiceResponsesList cmdResponse;
+                if (message instanceof BytesMessage) {
+                    BytesMessage bytesMessage = (BytesMessage) message;
+                    byte[] responseContent = new byte[(int) bytesMessage.getBodyLength()];
+                    bytesMessage.readBytes(responseContent);
+                    logger.debug("Received binary response from server with {} bytes", responseContent.length);
 
-                ServiceResponsesList cmdResponse = marshaller.unmarshall(responseStr, ServiceResponsesList.class);
+                    cmdResponse = marshaller.unmarshall(responseContent, ServiceResponsesList.class);
+                } else {
+                    String responseStr = ((TextMessage) message).getText();
+                    logger.debug("Received response from server '{}'", responseStr);
+
+                    cmdResponse = marshaller.unmarshall(responseStr, ServiceResponsesList.class);
+                }
                 logger.debug("Unmarshalled response from async delivery {} calling callback {}", cmdResponse, callback);
 
                 callback.onResponse(selector, cmdResponse);
@@ -17,6 +17,7 @@ package org.kie.server.client.jms;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.JMSException;
 import javax.jms.Message;
@@ -64,9 +65,18 @@ public class RequestReplyResponseHandler implements ResponseHandler {
 
             ((KieServicesClientImpl)owner).setConversationId(response.getStringProperty(JMSConstants.CONVERSATION_ID_PROPERTY_NAME));
 
-            String responseStr = ((TextMessage) response).getText();
-            logger.debug("Received response from server '{}'", responseStr);
-            ServiceResponsesList cmdResponse = marshaller.unmarshall(responseStr, ServiceResponsesList.class);
+            ServiceResponsesList cmdResponse;
+            if (response instanceof BytesMessage) {
+                BytesMessage bytesResponse = (BytesMessage) response;
+                byte[] responseContent = new byte[(int) bytesResponse.getBodyLength()];
+                bytesResponse.readBytes(responseContent);
+                logger.debug("Received binary response from server with {} bytes", responseContent.length);
+                cmdResponse = marshaller.unmarshall(responseContent, ServiceResponsesList.class);
+            } else {
+                String responseStr = ((TextMessage) response).getText();
+                logger.debug("Received response from server '{}'", responseStr);
+                cmdResponse = marshaller.unmarshall(responseStr, ServiceResponsesList.class);
+            }
             return cmdResponse;
         } catch( JMSException jmse ) {
             throw new KieServicesException("Unable to retrieve JMS response from queue " + responseQueue + " with selector " + selector, jmse);
@@ -17,11 +17,20 @@ package org.kie.server.client;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.RejectedExecutionException;
 
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 import org.assertj.core.api.Assertions;
+import org.drools.core.runtime.impl.ExecutionResultImpl;
 import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.api.model.KieContainerResourceList;
@@ -182,6 +191,56 @@ public class KieServicesClientTest extends BaseKieServicesClientTest {
         assertEquals("Server version", "1.2.3", response.getResult().getVersion());
     }
 
+    @Test
+    public void testGetServerInfoWithSmile() {
+        KieServerInfo info = new KieServerInfo("my-server", "1.2.3");
+        byte[] content = MarshallerFactory.getMarshaller(MarshallingFormat.SMILE, getClass().getClassLoader())
+                .marshallToBytes(new ServiceResponse<>(ServiceResponse.ResponseType.SUCCESS, "Kie Server info", info));
+        stubFor(get(urlEqualTo("/"))
+                .withHeader("Accept", equalTo(MarshallingFormat.SMILE_MEDIA_TYPE))
+                .withHeader(KieServerConstants.KIE_CONTENT_TYPE_HEADER, equalTo("SMILE"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", MarshallingFormat.SMILE_MEDIA_TYPE)
+                        .withBody(content)));
+
+        config.setMarshallingFormat(MarshallingFormat.SMILE);
+        KieServicesClient client = KieServicesFactory.newKieServicesClient(config);
+        ServiceResponse<KieServerInfo> response = client.getServerInfo();
+        assertSuccess(response);
+        assertEquals("Server version", "1.2.3", response.getResult().getVersion());
+    }
+
+    @Test
+    public void testExecuteCommandsWithSmile() {
+        Marshaller marshaller = MarshallerFactory.getMarshaller(MarshallingFormat.SMILE, getClass().getClassLoader());
+        ExecutionResultImpl results = new ExecutionResultImpl();
+        results.getResults().put("message", "Hello");
+        byte[] content = marshaller.marshallToBytes(new ServiceResponse<>(ServiceResponse.ResponseType.SUCCESS, "Container successfully called", results));
+        stubFor(post(urlEqualTo("/containers/instances/" + CONTAINER_ID))
+                .withHeader("Content-Type", equalTo(MarshallingFormat.SMILE_MEDIA_TYPE))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", MarshallingFormat.SMILE_MEDIA_TYPE)
+                        .withBody(content)));
+
+        config.setMarshallingFormat(MarshallingFormat.SMILE);
+        config.setCapabilities(Collections.singletonList(KieServerConstants.CAPABILITY_BRM));
+        KieServicesClient client = KieServicesFactory.newKieServicesClient(config);
+        RuleServicesClient rulesClient = client.getServicesClient(RuleServicesClient.class);
+
+        BatchExecutionCommand batch = KieServices.Factory.get().getCommands().newBatchExecution(
+                Collections.singletonList(KieServices.Factory.get().getCommands().newInsert("Hello", "message")), "ksession1");
+        ServiceResponse<ExecutionResults> response = rulesClient.executeCommandsWithResults(CONTAINER_ID, batch);
+        assertSuccess(response);
+        assertEquals("Hello", response.getResult().getValue("message"));
+
+        // request must have been sent as raw smile content (starting with smile header), not as its Base64 representation
+        List<LoggedRequest> requests = findAll(postRequestedFor(urlEqualTo("/containers/instances/" + CONTAINER_ID)));
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).getBodyAsString().startsWith(":)\n"));
+    }
+
     @Test
     public void testGetServerInfoBasicAuth() {
         stubFor(get(urlEqualTo("/"))
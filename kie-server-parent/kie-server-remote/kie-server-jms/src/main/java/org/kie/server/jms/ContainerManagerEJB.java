@@ -16,11 +16,14 @@
 package org.kie.server.jms;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import javax.annotation.Resource;
 import javax.ejb.Asynchronous;
 import javax.ejb.Singleton;
 import javax.ejb.TransactionManagement;
 import javax.ejb.TransactionManagementType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.controller.api.model.KieServerSetup;
@@ -32,9 +35,28 @@ import org.kie.server.services.impl.storage.KieServerState;
 @TransactionManagement(TransactionManagementType.BEAN)
 public class ContainerManagerEJB extends ContainerManager {
 
+    @Resource
+    private ManagedExecutorService executorService;
+
     @Asynchronous
     @Override
     public void installContainers(KieServerImpl kieServer, Set<KieContainerResource> containers, KieServerState currentState, KieServerSetup kieServerSetup) {
         super.installContainers(kieServer, containers, currentState, kieServerSetup);
     }
+
+    @Override
+    protected ExecutorService getInstallExecutor(int threads) {
+        if (executorService == null) {
+            return super.getInstallExecutor(threads);
+        }
+        return executorService;
+    }
+
+    @Override
+    protected void releaseInstallExecutor(ExecutorService executor) {
+        // lifecycle of the managed executor belongs to the application server
+        if (executor != executorService) {
+            super.releaseInstallExecutor(executor);
+        }
+    }
 }
@@ -25,6 +25,7 @@ import javax.ejb.ActivationConfigProperty;
 import javax.ejb.MessageDriven;
 import javax.ejb.TransactionManagement;
 import javax.ejb.TransactionManagementType;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
@@ -98,6 +99,7 @@ public class KieServerMDB
         marshallers.put( MarshallingFormat.XSTREAM, MarshallerFactory.getMarshaller( MarshallingFormat.XSTREAM, classLoader ) );
         marshallers.put( MarshallingFormat.JAXB, MarshallerFactory.getMarshaller( MarshallingFormat.JAXB, classLoader ) );
         marshallers.put( MarshallingFormat.JSON, MarshallerFactory.getMarshaller( MarshallingFormat.JSON, classLoader ) );
+        marshallers.put( MarshallingFormat.SMILE, MarshallerFactory.getMarshaller( MarshallingFormat.SMILE, classLoader ) );
     }
 
     /**
@@ -282,7 +284,7 @@ public class KieServerMDB
                 connect = startConnectionAndSession();
                 logger.debug("Response message is about to be sent according to selected interaction pattern {}", interactionPattern);
                 // 5. serialize response
-                Message msg = marshallResponse(connect.getSession(), msgCorrId, format, marshaller, response);
+                Message msg = marshallResponse(connect.getSession(), msgCorrId, format, marshaller, response, message instanceof BytesMessage);
                 // set conversation id for routing
                 if (containerId != null && (conversationId == null || conversationId.trim().isEmpty())) {
                     try {
@@ -332,9 +334,18 @@ public class KieServerMDB
     private static CommandScript unmarshallRequest(Message message, String msgId, Marshaller serializationProvider, MarshallingFormat format) {
         CommandScript cmdMsg = null;
         try {
-            String msgStrContent = ((TextMessage) message).getText();
-            logger.debug("About to unmarshal content '{}'", msgStrContent);
-            cmdMsg = serializationProvider.unmarshall( msgStrContent, CommandScript.class );
+            if (message instanceof BytesMessage) {
+                // binary request - unmarshal directly from the message body without intermediate String
+                BytesMessage bytesMessage = (BytesMessage) message;
+                byte[] msgContent = new byte[(int) bytesMessage.getBodyLength()];
+                bytesMessage.readBytes(msgContent);
+                logger.debug("About to unmarshal binary content of {} bytes", msgContent.length);
+                cmdMsg = serializationProvider.unmarshall( msgContent, CommandScript.class );
+            } else {
+                String msgStrContent = ((TextMessage) message).getText();
+                logger.debug("About to unmarshal content '{}'", msgStrContent);
+                cmdMsg = serializationProvider.unmarshall( msgStrContent, CommandScript.class );
+            }
         } catch (JMSException jmse) {
             String errMsg = "Unable to read information from message " + msgId + ".";
             throw new JMSRuntimeException(errMsg, jmse);
@@ -345,12 +356,19 @@ public class KieServerMDB
         return cmdMsg;
     }
 
-    private static Message marshallResponse(Session session, String msgId, MarshallingFormat format, Marshaller marshaller, ServiceResponsesList response ) {
-        TextMessage textMsg = null;
+    private static Message marshallResponse(Session session, String msgId, MarshallingFormat format, Marshaller marshaller, ServiceResponsesList response, boolean binary) {
+        Message msg = null;
         try {
-            String msgStr = marshaller.marshall( response );
-            textMsg = session.createTextMessage(msgStr);
-            textMsg.setIntProperty( SERIALIZATION_FORMAT_PROPERTY_NAME, format.getId());
+            if (binary) {
+                // respond with the same message type as the request, marshalled directly into bytes
+                BytesMessage bytesMsg = session.createBytesMessage();
+                bytesMsg.writeBytes(marshaller.marshallToBytes( response ));
+                msg = bytesMsg;
+            } else {
+                String msgStr = marshaller.marshall( response );
+                msg = session.createTextMessage(msgStr);
+            }
+            msg.setIntProperty( SERIALIZATION_FORMAT_PROPERTY_NAME, format.getId());
         } catch (JMSException jmse) {
             String errMsg = "Unable to create response message or write to it [msg id: " + msgId + "].";
             throw new JMSRuntimeException(errMsg, jmse);
@@ -358,7 +376,7 @@ public class KieServerMDB
             String errMsg = "Unable to serialize " + response.getClass().getSimpleName() + " to a String.";
             throw new JMSRuntimeException(errMsg, e);
         }
-        return textMsg;
+        return msg;
     }
 
     private void sendResponse(Session session, String msgCorrId, MarshallingFormat format, Message msg) {
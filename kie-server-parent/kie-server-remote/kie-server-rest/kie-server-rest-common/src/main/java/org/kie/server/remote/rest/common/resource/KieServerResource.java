@@ -20,6 +20,8 @@ import static org.kie.server.remote.rest.common.docs.ParameterSamples.EXECUTE_CM
 import static org.kie.server.remote.rest.common.docs.ParameterSamples.EXECUTE_CMD_RESPONSE_JSON;
 import static org.kie.server.remote.rest.common.util.RestUtils.*;
 
+import java.io.InputStream;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
@@ -30,6 +32,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.services.api.KieContainerCommandService;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
@@ -63,11 +66,11 @@ public class KieServerResource {
             @ApiResponse(code = 200, message = "Successfull response", examples=@Example(value= {
                     @ExampleProperty(mediaType=JSON, value=EXECUTE_CMD_RESPONSE_JSON)})) })
     @POST
-    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response executeCommands(@Context HttpHeaders headers, 
             @ApiParam(value = "command script payload", required = true, examples=@Example(value= {
-                    @ExampleProperty(mediaType=JSON, value=EXECUTE_CMD_JSON)})) String commandScriptPayload ) {
+                    @ExampleProperty(mediaType=JSON, value=EXECUTE_CMD_JSON)})) InputStream commandScriptPayload ) {
 
         String contentType = getContentType(headers);
 
@@ -75,7 +78,7 @@ public class KieServerResource {
 
         ServiceResponsesList result = delegate.executeScript(command, MarshallerHelper.getFormat(contentType), null);
 
-        return createCorrectVariant(result, headers);
+        return createCorrectBinaryVariant(result, headers);
     }
 
 }
@@ -40,6 +40,7 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Example;
 import io.swagger.annotations.ExampleProperty;
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.api.model.KieContainerResourceFilter;
 import org.kie.server.api.model.KieContainerStatusFilter;
@@ -65,6 +66,7 @@ import static org.kie.server.remote.rest.common.docs.ParameterSamples.UPDATE_SCA
 import static org.kie.server.remote.rest.common.docs.ParameterSamples.XML;
 import static org.kie.server.remote.rest.common.docs.ParameterSamples.*;
 import static org.kie.server.remote.rest.common.util.RestUtils.buildConversationIdHeader;
+import static org.kie.server.remote.rest.common.util.RestUtils.createCorrectBinaryVariant;
 import static org.kie.server.remote.rest.common.util.RestUtils.createCorrectVariant;
 import static org.kie.server.remote.rest.common.util.RestUtils.getContentType;
 import static org.kie.server.remote.rest.common.util.RestUtils.serviceUnavailable;
@@ -102,9 +104,9 @@ public class KieServerRestImpl {
             @ApiResponse(code = 200, message = "Successfull response", examples=@Example(value= {
                     @ExampleProperty(mediaType=JSON, value=GET_SERVER_INF_RESPONSE_JSON)})) })
     @GET
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getInfo(@Context HttpHeaders headers) { 
-        return createCorrectVariant(server.getInfo(), headers);
+        return createCorrectBinaryVariant(server.getInfo(), headers);
     }
 
     @ApiOperation(value="Returns a list of KIE containers on the KIE Server.",
@@ -114,7 +116,7 @@ public class KieServerRestImpl {
                     @ExampleProperty(mediaType=JSON, value=GET_CONTAINERS_RESPONSE_JSON)})) })
     @GET
     @Path("containers")
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response listContainers(@Context HttpHeaders headers,
             @ApiParam(value = "optional groupId to filter containers by", required = false) @QueryParam("groupId") String groupId,
             @ApiParam(value = "optional artifactId to filter containers by", required = false) @QueryParam("artifactId") String artifactId,
@@ -128,7 +130,7 @@ public class KieServerRestImpl {
 
         KieContainerStatusFilter statusFilter = KieContainerStatusFilter.parseFromNullableString(status);
         KieContainerResourceFilter containerFilter = new KieContainerResourceFilter(releaseIdFilter, statusFilter);
-        return createCorrectVariant(server.listContainers(containerFilter), headers);
+        return createCorrectBinaryVariant(server.listContainers(containerFilter), headers);
     }
 
     @ApiOperation(value="Creates a new KIE container in the KIE Server with a specified KIE container ID",
@@ -222,11 +224,11 @@ public class KieServerRestImpl {
                     @ExampleProperty(mediaType=JSON, value=GET_CONTAINER_RESPONSE_JSON)})) })
     @GET
     @Path("containers/{" + CONTAINER_ID + "}")
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getContainerInfo( @Context HttpHeaders headers, 
             @ApiParam(value = "Container id to be retrieved", required = true, example = "evaluation_1.0.0-SNAPSHOT") @PathParam(CONTAINER_ID) String id ) {
         Header conversationIdHeader = buildConversationIdHeader(id, server.getServerRegistry(), headers);
-        return createCorrectVariant(server.getContainerInfo(id), headers, conversationIdHeader);
+        return createCorrectBinaryVariant(server.getContainerInfo(id), headers, conversationIdHeader);
     }
 
     @ApiOperation(value="Disposes a specified KIE container.",
@@ -255,11 +257,11 @@ public class KieServerRestImpl {
                     @ExampleProperty(mediaType=JSON, value=GET_SCANNER_RESPONSE_JSON)})) })
     @GET
     @Path("containers/{" + CONTAINER_ID + "}/scanner")
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getScannerInfo( @Context HttpHeaders headers, 
             @ApiParam(value = "Container id for scanner to be loaded", required = true, example = "evaluation_1.0.0-SNAPSHOT") @PathParam(CONTAINER_ID) String id ) {
         Header conversationIdHeader = buildConversationIdHeader(id, server.getServerRegistry(), headers);
-        return createCorrectVariant(server.getScannerInfo(id), headers, conversationIdHeader);
+        return createCorrectBinaryVariant(server.getScannerInfo(id), headers, conversationIdHeader);
     }
     
     @ApiOperation(value="Starts or stops a KIE scanner that controls polling for updated KIE container deployments, if applicable.",
@@ -296,11 +298,11 @@ public class KieServerRestImpl {
                     @ExampleProperty(mediaType=JSON, value=GET_RELEASE_ID_RESPONSE_JSON)})) })
     @GET
     @Path("containers/{" + CONTAINER_ID + "}/release-id")
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getReleaseId( @Context HttpHeaders headers, 
             @ApiParam(value = "Container id that release id should be loaded from", required = true, example = "evaluation_1.0.0-SNAPSHOT") @PathParam(CONTAINER_ID) String id) {
         Header conversationIdHeader = buildConversationIdHeader(id, server.getServerRegistry(), headers);
-        return createCorrectVariant(server.getContainerReleaseId(id), headers, conversationIdHeader);
+        return createCorrectBinaryVariant(server.getContainerReleaseId(id), headers, conversationIdHeader);
     }
 
     @ApiOperation(value="Updates release ID information (group ID, artifact ID, version) for a specified KIE container.",
@@ -339,9 +341,9 @@ public class KieServerRestImpl {
                     @ExampleProperty(mediaType=JSON, value=GET_SERVER_STATE_RESPONSE_JSON)})) })
     @GET
     @Path("state")
-    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getServerState(@Context HttpHeaders headers) {
-        return createCorrectVariant(server.getServerState(), headers);
+        return createCorrectBinaryVariant(server.getServerState(), headers);
     }
     
     
@@ -17,6 +17,8 @@ package org.kie.server.remote.rest.common.util;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.Collections;
 import java.util.List;
@@ -43,6 +45,7 @@ import org.kie.server.services.impl.marshal.MarshallerHelper;
 public class RestUtils {
 
     private static MarshallerHelper marshallerHelper = new MarshallerHelper(null);
+    private static final MediaType SMILE_TYPE = new MediaType("application", "x-jackson-smile");
     private static Variant ERROR_VARIANT = new Variant(MediaType.TEXT_PLAIN_TYPE, (Locale) null, null);
     private static final String UNEXPECTED_ERROR = "Unexpected error during processing: {0}";
     private static final boolean INCLUDE_STACKTRACE = Boolean.parseBoolean(System.getProperty(KieServerConstants.KIE_SERVER_INCLUDE_STACKTRACE, "false"));
@@ -56,22 +59,47 @@ public class RestUtils {
         Variant v = getVariant(headers, responseObj);
         String contentType = getContentType(headers);
 
+        Object marshalledResponse;
+        if (isBinary(contentType)) {
+            marshalledResponse = marshallerHelper.marshalToBytes(contentType, responseObj);
+        } else {
+            marshalledResponse = marshallerHelper.marshal(contentType, responseObj);
+        }
         if( status != null ) {
-            responseBuilder = Response.status(status).entity(marshallerHelper.marshal(contentType, responseObj)).variant(v);
+            responseBuilder = Response.status(status).entity(marshalledResponse).variant(v);
         } else {
-            responseBuilder = Response.ok(marshallerHelper.marshal(contentType, responseObj), v);
+            responseBuilder = Response.ok(marshalledResponse, v);
         }
         applyCustomHeaders(responseBuilder, customHeaders);
         return responseBuilder.build();
     }
 
+    /**
+     * Same as {@link #createCorrectVariant(Object, HttpHeaders, Header...)} but marshals the response directly
+     * into bytes so no intermediate String representation of the (potentially large) payload is created.
+     */
+    public static Response createCorrectBinaryVariant(Object responseObj, HttpHeaders headers, Header... customHeaders) {
+        Variant v = getVariant(headers, responseObj);
+        String contentType = getContentType(headers);
+
+        Response.ResponseBuilder responseBuilder = Response.ok(marshallerHelper.marshalToBytes(contentType, responseObj), v);
+        applyCustomHeaders(responseBuilder, customHeaders);
+        return responseBuilder.build();
+    }
+
     public static Response createCorrectVariant(MarshallerHelper marshallerHelper, String containerId, Object responseObj, HttpHeaders headers, javax.ws.rs.core.Response.Status status, Header... customHeaders) {
         Response.ResponseBuilder responseBuilder = null;
         Variant v = getVariant(headers, responseObj);
         String contentType = getContentType(headers);
 
-        String marshalledResponse;
-        if (marshallerHelper.getRegistry().getContainer(containerId) == null) {
+        Object marshalledResponse;
+        if (isBinary(contentType)) {
+            if (marshallerHelper.getRegistry().getContainer(containerId) == null) {
+                marshalledResponse = marshallerHelper.marshalToBytes(contentType, responseObj);
+            } else {
+                marshalledResponse = marshallerHelper.marshalToBytes(containerId, contentType, responseObj);
+            }
+        } else if (marshallerHelper.getRegistry().getContainer(containerId) == null) {
             marshalledResponse = marshallerHelper.marshal(contentType, responseObj);
         } else {
             marshalledResponse = marshallerHelper.marshal(containerId, contentType, responseObj);
@@ -140,6 +168,17 @@ public class RestUtils {
         return classType;
     }
 
+    public static String getLookup(HttpHeaders headers) {
+        String lookup = null;
+
+        List<String> header = headers.getRequestHeader(KieServerConstants.KIE_LOOKUP_HEADER);
+        if (header != null && !header.isEmpty()) {
+            lookup = header.get(0);
+        }
+
+        return lookup;
+    }
+
     public static String getContentType(HttpHeaders headers) {
         // default to application/xml
         String contentType = MediaType.APPLICATION_XML_TYPE.toString();
@@ -178,12 +217,62 @@ public class RestUtils {
                 case JSON:
                     return MediaType.APPLICATION_JSON_TYPE;
 
+                case SMILE:
+                    return SMILE_TYPE;
+
                 default:
                     return MediaType.APPLICATION_XML_TYPE;
             }
         }
     }
 
+    /**
+     * Returns true when given content type resolves to a binary marshalling format whose content
+     * must be sent as raw bytes rather than as text.
+     */
+    public static boolean isBinary(String contentType) {
+        try {
+            return MarshallerHelper.getFormat(contentType).isBinary();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the charset declared in the Content-Type header of the request, UTF-8 when none is declared
+     * or the declared one isn't supported.
+     */
+    public static Charset getCharset(HttpHeaders headers) {
+        List<String> contentTypeHeader = headers.getRequestHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentTypeHeader != null && !contentTypeHeader.isEmpty() && contentTypeHeader.get(0) != null) {
+            for (String parameter : contentTypeHeader.get(0).split(";")) {
+                String[] nameValue = parameter.split("=", 2);
+                if (nameValue.length == 2 && nameValue[0].trim().equalsIgnoreCase("charset")) {
+                    String charset = nameValue[1].trim().replace("\"", "");
+                    try {
+                        return Charset.forName(charset);
+                    } catch (IllegalArgumentException e) {
+                        // covers illegal and unsupported charset names
+                        return StandardCharsets.UTF_8;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Returns the textual request body encoded in UTF-8, as the marshallers read raw bodies, decoding it with
+     * the charset declared by the request.
+     */
+    public static byte[] toUTF8(byte[] payload, HttpHeaders headers) {
+        Charset charset = getCharset(headers);
+        if (payload == null || StandardCharsets.UTF_8.equals(charset)) {
+            return payload;
+        }
+        return new String(payload, charset).getBytes(StandardCharsets.UTF_8);
+    }
+
     public static Response permissionDenied(String message, Variant v, Header... customHeaders) {
         return createResponse(message, v, Response.Status.UNAUTHORIZED, customHeaders);
     }
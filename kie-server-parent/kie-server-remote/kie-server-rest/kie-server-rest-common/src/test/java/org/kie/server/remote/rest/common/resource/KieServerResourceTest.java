@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.remote.rest.common.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.server.api.commands.CommandScript;
+import org.kie.server.api.commands.GetServerInfoCommand;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.ServiceResponsesList;
+import org.kie.server.services.api.KieContainerCommandService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KieServerResourceTest {
+
+    @Mock
+    private HttpHeaders headers;
+
+    @Mock
+    private KieContainerCommandService delegate;
+
+    private KieServerResource resource;
+
+    @Before
+    public void setup() {
+        MultivaluedHashMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.add(HttpHeaders.ACCEPT, "application/json");
+        requestHeaders.add(HttpHeaders.CONTENT_TYPE, "application/json");
+        when(headers.getRequestHeaders()).thenReturn(requestHeaders);
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList("application/json"));
+        when(delegate.executeScript(any(CommandScript.class), any(MarshallingFormat.class), any(String.class))).thenReturn(new ServiceResponsesList());
+
+        resource = new KieServerResource(delegate);
+    }
+
+    @Test
+    public void testExecuteCommandsWithEmptyBody() {
+        Response response = resource.executeCommands(headers, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        ArgumentCaptor<CommandScript> command = ArgumentCaptor.forClass(CommandScript.class);
+        verify(delegate).executeScript(command.capture(), eq(MarshallingFormat.JSON), (String) eq(null));
+        assertNull(command.getValue());
+    }
+
+    @Test
+    public void testExecuteCommands() {
+        String payload = "{\"commands\":[{\"get-server-info\":{}}]}";
+        Response response = resource.executeCommands(headers, new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        ArgumentCaptor<CommandScript> command = ArgumentCaptor.forClass(CommandScript.class);
+        verify(delegate).executeScript(command.capture(), eq(MarshallingFormat.JSON), (String) eq(null));
+        assertEquals(1, command.getValue().getCommands().size());
+        assertEquals(GetServerInfoCommand.class, command.getValue().getCommands().get(0).getClass());
+    }
+}
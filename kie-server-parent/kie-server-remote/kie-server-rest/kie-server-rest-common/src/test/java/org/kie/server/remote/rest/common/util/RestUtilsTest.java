@@ -15,21 +15,29 @@
 
 package org.kie.server.remote.rest.common.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.KieServerEnvironment;
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerStatus;
 import org.kie.server.api.model.ReleaseId;
 import org.kie.server.remote.rest.common.Header;
@@ -112,4 +120,71 @@ public class RestUtilsTest {
 
         assertNull(conversationIdHeader);
     }
+
+    @Test
+    public void negotiateSmileFromAcceptHeader() {
+        MultivaluedHashMap<String, String> requestHeaders = new MultivaluedHashMap<>();
+        requestHeaders.add(HttpHeaders.ACCEPT, MarshallingFormat.SMILE_MEDIA_TYPE);
+        when(headers.getRequestHeaders()).thenReturn(requestHeaders);
+
+        String contentType = RestUtils.getContentType(headers);
+
+        assertEquals(MarshallingFormat.SMILE_MEDIA_TYPE, contentType);
+        assertEquals(MarshallingFormat.SMILE, MarshallingFormat.fromType(contentType));
+        assertTrue(RestUtils.isBinary(contentType));
+    }
+
+    @Test
+    public void smileMediaTypeFromKieContentTypeHeader() {
+        when(headers.getRequestHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(headers.getRequestHeader(KieServerConstants.KIE_CONTENT_TYPE_HEADER)).thenReturn(Collections.singletonList("SMILE"));
+
+        MediaType mediaType = RestUtils.getMediaType(headers);
+
+        assertEquals(MediaType.valueOf(MarshallingFormat.SMILE_MEDIA_TYPE), mediaType);
+        assertTrue(RestUtils.isBinary(RestUtils.getContentType(headers)));
+    }
+
+    @Test
+    public void textFormatsAreNotBinary() {
+        assertFalse(RestUtils.isBinary(MediaType.APPLICATION_JSON));
+        assertFalse(RestUtils.isBinary(MediaType.APPLICATION_XML));
+        assertFalse(RestUtils.isBinary("XSTREAM"));
+        assertFalse(RestUtils.isBinary("unknown"));
+    }
+
+    @Test
+    public void charsetFromContentTypeHeader() {
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList("application/xml; charset=\"ISO-8859-1\""));
+
+        assertEquals(StandardCharsets.ISO_8859_1, RestUtils.getCharset(headers));
+    }
+
+    @Test
+    public void charsetDefaultsToUTF8() {
+        assertEquals(StandardCharsets.UTF_8, RestUtils.getCharset(headers));
+
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList(MediaType.APPLICATION_JSON));
+        assertEquals(StandardCharsets.UTF_8, RestUtils.getCharset(headers));
+
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList("application/json;charset=unknown-charset"));
+        assertEquals(StandardCharsets.UTF_8, RestUtils.getCharset(headers));
+    }
+
+    @Test
+    public void payloadReencodedInUTF8() {
+        String content = "{\"name\" : \"Jos\u00e9\"}";
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList("application/json;charset=ISO-8859-1"));
+
+        assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), RestUtils.toUTF8(content.getBytes(StandardCharsets.ISO_8859_1), headers));
+        assertNull(RestUtils.toUTF8(null, headers));
+    }
+
+    @Test
+    public void utf8PayloadKept() {
+        byte[] payload = "{\"name\" : \"Jos\u00e9\"}".getBytes(StandardCharsets.UTF_8);
+        when(headers.getRequestHeader(HttpHeaders.CONTENT_TYPE)).thenReturn(Collections.singletonList("application/json;charset=UTF-8"));
+
+        assertSame(payload, RestUtils.toUTF8(payload, headers));
+    }
 }
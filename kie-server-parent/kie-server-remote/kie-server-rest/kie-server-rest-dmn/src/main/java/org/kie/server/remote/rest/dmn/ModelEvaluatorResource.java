@@ -22,6 +22,7 @@ import static org.kie.server.remote.rest.common.util.RestUtils.getContentType;
 import static org.kie.server.remote.rest.common.util.RestUtils.getVariant;
 import static org.kie.server.remote.rest.common.util.RestUtils.internalServerError;
 
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 
 import javax.ws.rs.Consumes;
@@ -35,6 +36,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Variant;
 
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ServiceResponse;
 import org.kie.server.api.model.dmn.DMNModelInfoList;
 import org.kie.server.api.model.dmn.DMNResultKS;
@@ -72,7 +74,7 @@ public class ModelEvaluatorResource {
             response=ServiceResponse.class, code=200)
     @ApiResponses(value = { @ApiResponse(code = 500, message = "Unexpected error"), @ApiResponse(code = 404, message = "Models or container not found") })
     @GET
-    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response getModels(@javax.ws.rs.core.Context HttpHeaders headers, 
             @ApiParam(value = "Container id that modesl should be loaded from", required = true) @PathParam( CONTAINER_ID ) String containerId ) {
         Variant v = getVariant( headers );
@@ -93,19 +95,26 @@ public class ModelEvaluatorResource {
             response=ServiceResponse.class, code=200)
     @ApiResponses(value = { @ApiResponse(code = 500, message = "Unexpected error"), @ApiResponse(code = 404, message = "Container not found") })
     @POST
-    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, MarshallingFormat.SMILE_MEDIA_TYPE})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response evaluateDecisions(@javax.ws.rs.core.Context HttpHeaders headers, 
             @ApiParam(value = "Container id to be used to evaluate decisions on", required = true) @PathParam(CONTAINER_ID) String containerId, 
-            @ApiParam(value = "DMN context to be used while evaluation decisions as DMNContextKS type", required = true) String payload) {
+            @ApiParam(value = "DMN context to be used while evaluation decisions as DMNContextKS type", required = true) byte[] payload) {
         LOG.debug( "About to evaluateDecisions() on container {}", containerId );
         Variant v = getVariant( headers );
         Header conversationIdHeader = buildConversationIdHeader(containerId, modelEvaluatorService.getKieServerRegistry(), headers);
         try {
             String contentType = getContentType( headers );
-            
-            LOG.debug( "Payload received: {}", payload);
-            ServiceResponse<DMNResultKS> result = modelEvaluatorService.evaluateDecisions(containerId, payload, contentType);
+
+            ServiceResponse<DMNResultKS> result;
+            if (MarshallerHelper.getFormat(contentType).isBinary()) {
+                // binary content is read as it is, without going through its text form
+                result = modelEvaluatorService.evaluateDecisions(containerId, payload, contentType);
+            } else {
+                String content = new String(payload, StandardCharsets.UTF_8);
+                LOG.debug( "Payload received: {}", content);
+                result = modelEvaluatorService.evaluateDecisions(containerId, content, contentType);
+            }
             if( result.getType() == ServiceResponse.ResponseType.SUCCESS ) {
                 return createCorrectVariant(marshallerHelper, containerId, result, headers, Response.Status.OK, conversationIdHeader );
             }
@@ -19,13 +19,18 @@ import static org.kie.server.remote.rest.common.util.RestUtils.buildConversation
 import static org.kie.server.remote.rest.common.util.RestUtils.createResponse;
 import static org.kie.server.remote.rest.common.util.RestUtils.getClassType;
 import static org.kie.server.remote.rest.common.util.RestUtils.getContentType;
+import static org.kie.server.remote.rest.common.util.RestUtils.getLookup;
 import static org.kie.server.remote.rest.common.util.RestUtils.getVariant;
+import static org.kie.server.remote.rest.common.util.RestUtils.toUTF8;
+
+import java.nio.charset.StandardCharsets;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -73,35 +78,48 @@ public class CommandResource {
             response=ServiceResponse.class, code=200)
     @ApiResponses(value = { @ApiResponse(code = 500, message = "Unexpected error") })
     @POST
-    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, MarshallingFormat.SMILE_MEDIA_TYPE})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON, MarshallingFormat.SMILE_MEDIA_TYPE})
     public Response manageContainer(@Context HttpHeaders headers, 
             @ApiParam(value = "Container id where rules should be evaluated on", required = true) @PathParam(RestURI.CONTAINER_ID) String id, 
-            @ApiParam(value = "Commands to be executed on rule engine given as BatchExecutionCommand type", required = true) String cmdPayload) {
+            @ApiParam(value = "optional name of the KIE session to execute commands on, takes precedence over the lookup given in the commands, can also be given as X-KIE-Lookup header", required = false) @QueryParam("lookup") String lookup,
+            @ApiParam(value = "Commands to be executed on rule engine given as BatchExecutionCommand type", required = true) byte[] cmdPayload) {
 
         Variant v = getVariant(headers);
         String contentType = getContentType(headers);
 
         String classType = getClassType(headers);
+        if (lookup == null) {
+            lookup = getLookup(headers);
+        }
         MarshallingFormat format = MarshallingFormat.fromType(contentType);
         if (format == null) {
             format = MarshallingFormat.valueOf(contentType);
         }
-        logger.debug("Received request with content '{}'", cmdPayload);
-        Object result = delegate.callContainer(id, cmdPayload, format, classType);
+        if (!format.isBinary()) {
+            cmdPayload = toUTF8(cmdPayload, headers);
+        }
+        logPayload("Received request with content '{}'", cmdPayload, format);
+        Object result = delegate.callContainer(id, cmdPayload, format, classType, lookup);
         Header conversationIdHeader = buildConversationIdHeader(id, registry, headers);
         try {
-            String response = marshallerHelper.marshal(id, format.getType(), result, ContainerLocatorProvider.get().getLocator());
-            logger.debug("Returning OK response with content '{}'", response);
+            byte[] response = marshallerHelper.marshalToBytes(id, format.getType(), result, ContainerLocatorProvider.get().getLocator());
+            logPayload("Returning OK response with content '{}'", response, format);
 
             return createResponse(response, v, Response.Status.OK, conversationIdHeader);
         } catch (IllegalArgumentException e) {
             // in case marshalling failed return the call container response to keep backward compatibility
-            String response = marshallerHelper.marshal(format.getType(), result);
-            logger.debug("Returning OK response with content '{}'", response);
+            byte[] response = marshallerHelper.marshalToBytes(format.getType(), result);
+            logPayload("Returning OK response with content '{}'", response, format);
             return createResponse(response, v, Response.Status.OK, conversationIdHeader);
         }
 
     }
 
+    private void logPayload(String message, byte[] payload, MarshallingFormat format) {
+        if (logger.isDebugEnabled() && payload != null) {
+            logger.debug(message, format.isBinary() ? payload.length + " bytes of " + format : new String(payload, StandardCharsets.UTF_8));
+        }
+    }
+
 }
@@ -66,6 +66,7 @@ import org.kie.server.router.handlers.KieServerInfoHandler;
 import org.kie.server.router.handlers.OptionsHttpHandler;
 import org.kie.server.router.handlers.QueriesDataHttpHandler;
 import org.kie.server.router.handlers.QueriesHttpHandler;
+import org.kie.server.router.handlers.ResponseCacheInvalidationHandler;
 import org.kie.server.router.identity.IdentityService;
 import org.kie.server.router.proxy.KieServerProxyClient;
 import org.kie.server.router.repository.FileRepository;
@@ -76,6 +77,7 @@ import org.kie.server.router.utils.SSLContextBuilder;
 import static org.kie.server.router.KieServerRouterConstants.KIE_CONTROLLER;
 import static org.kie.server.router.KieServerRouterConstants.KIE_ROUTER_MANAGEMENT_SECURED;
 import static org.kie.server.router.KieServerRouterConstants.KIE_SERVER_CONTROLLER_ATTEMPT_INTERVAL;
+import static org.kie.server.router.KieServerRouterConstants.KIE_SERVER_HEALTH_PROBE_INTERVAL;
 import static org.kie.server.router.KieServerRouterConstants.ROUTER_HOST;
 import static org.kie.server.router.KieServerRouterConstants.ROUTER_KEYSTORE;
 import static org.kie.server.router.KieServerRouterConstants.ROUTER_KEYSTORE_KEYALIAS;
@@ -98,6 +100,7 @@ public class KieServerRouter {
     private static final String KEYSTORE_KEYALIAS = System.getProperty(ROUTER_KEYSTORE_KEYALIAS);
     private static final boolean TLS_ENABLED = KEYSTORE_PATH != null && !KEYSTORE_PATH.isEmpty();
     private int failedAttemptsInterval = Integer.parseInt(System.getProperty(KIE_SERVER_CONTROLLER_ATTEMPT_INTERVAL, "10"));
+    private int healthProbeInterval = Integer.parseInt(System.getProperty(KIE_SERVER_HEALTH_PROBE_INTERVAL, "10"));
 
     private static boolean MANAGEMENT_SECURED = isManagementSecured();
     private static String IDENTITY_PROVIDER = getIdentityProvider();
@@ -124,6 +127,8 @@ public class KieServerRouter {
     private ConfigRepository repository = new FileRepository();
 
     private ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    // health checks wait for the servers, they don't delay the controller and reconnect attempts
+    private ScheduledExecutorService healthProbeService = Executors.newSingleThreadScheduledExecutor();
     private ScheduledFuture<?> controllerConnectionAttempts;
     private boolean isSecured;
     private String identityServiceName;
@@ -214,6 +219,13 @@ public class KieServerRouter {
                                                              executorService);
         final KieServerProxyClient proxyClient = new KieServerProxyClient(configuration,
                                                                           adminHandler);
+        adminHandler.setProxyClient(proxyClient);
+        if (healthProbeInterval > 0) {
+            healthProbeService.scheduleWithFixedDelay(proxyClient::probeHosts,
+                                                      healthProbeInterval,
+                                                      healthProbeInterval,
+                                                      TimeUnit.SECONDS);
+        }
         Map<String, List<String>> perContainer = configuration.getHostsPerContainer();
 
         for (Map.Entry<String, List<String>> entry : perContainer.entrySet()) {
@@ -268,7 +280,7 @@ public class KieServerRouter {
         pathHandler.addExactPath("/",
                                  new KieServerInfoHandler());
 
-        HttpHandler blockingHandler = new BlockingHandler(pathHandler);
+        HttpHandler blockingHandler = new BlockingHandler(new ResponseCacheInvalidationHandler(pathHandler, adminHandler.getResponseCache()));
 
         // main server configuration
         Undertow.Builder undertowBuilder = Undertow.builder()
@@ -314,6 +326,7 @@ public class KieServerRouter {
 
     public void stop(boolean clean) {
         executorService.shutdownNow();
+        healthProbeService.shutdownNow();
         disconnectToController();
         if (server != null) {
             server.stop();
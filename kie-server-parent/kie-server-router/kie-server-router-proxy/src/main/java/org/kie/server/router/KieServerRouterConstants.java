@@ -40,6 +40,14 @@ public class KieServerRouterConstants {
     public static final String CONFIG_FILE_WATCHER_INTERVAL = "org.kie.server.router.config.watcher.interval";
     public static final String KIE_SERVER_CONTROLLER_ATTEMPT_INTERVAL = "org.kie.server.controller.retry.interval";
     public static final String KIE_SERVER_RECOVERY_ATTEMPT_LIMIT = "org.kie.server.recovery.retry.limit";
+    public static final String KIE_SERVER_REQUEST_TIMEOUT = "org.kie.server.router.request.timeout";
+    public static final String KIE_SERVER_IDLE_CONNECTIONS = "org.kie.server.router.idle.connections";
+    public static final String KIE_SERVER_RESPONSE_CACHE_SIZE = "org.kie.server.router.response.cache.size";
+    public static final String KIE_SERVER_RESPONSE_CACHE_TTL = "org.kie.server.router.response.cache.ttl";
+    public static final String KIE_SERVER_CONNECTIONS_PER_THREAD = "org.kie.server.router.connections.per.thread";
+    public static final String KIE_SERVER_CONNECTIONS_QUEUE_SIZE = "org.kie.server.router.connections.queue.size";
+    public static final String KIE_SERVER_HEALTH_PROBE_INTERVAL = "org.kie.server.router.health.probe.interval";
+    public static final String KIE_SERVER_HEALTH_PROBE_TIMEOUT = "org.kie.server.router.health.probe.timeout";
 
     public static final String KIE_ROUTER_MANAGEMENT_SECURED = "org.kie.server.router.management.password";
     public static final String KIE_ROUTER_IDENTITY_PROVIDER = "org.kie.router.identity.provider";
@@ -15,19 +15,20 @@
 
 package org.kie.server.router.handlers;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.IOException;
 import java.net.SocketException;
-import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -37,7 +38,12 @@ import io.undertow.server.handlers.ResponseCodeHandler;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
 import org.jboss.logging.Logger;
+import org.kie.server.router.proxy.aggragate.PageSource;
+import org.kie.server.router.proxy.aggragate.PagedResponseMerger;
 import org.kie.server.router.proxy.aggragate.ResponseAggregator;
 import org.kie.server.router.utils.MediaTypeUtil;
 
@@ -71,6 +77,19 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
             httpHandler.handleRequest(exchange);
             return;
         }
+        ResponseCache cache = adminHandler.getResponseCache();
+        final String cacheKey = cache.isEnabled() && isCacheable(exchange) ? cacheKey(exchange) : null;
+        if (cacheKey != null) {
+            ResponseCache.CachedResponse cached = cache.get(cacheKey);
+            if (cached != null) {
+                log.debugf("Responding to '%s' with cached response", exchange.getRequestPath());
+                sendResponse(exchange, cached.getHeaders(), cached.getBody(), cached.getETag());
+                return;
+            }
+        }
+        // taken before the servers are asked, so that a response outdated by a deployment meanwhile isn't cached
+        final long generation = cache.generation();
+
         Map<String, Deque<String>> queryParams = exchange.getQueryParameters();
         // collect and alter paging
         Integer page = 0;
@@ -85,10 +104,6 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
             pageSize = Integer.parseInt(originalPageSize.getFirst());
 
         }
-        final String routerPage = "0";
-        // need to add 1 to page for proper size of page
-        final String routerPageSize = String.valueOf((1 + page) * pageSize);
-
         // collect sorting
         String sortBy = null;
         boolean sortOder = true;
@@ -102,26 +117,37 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
         }
 
 
-        final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
-        List<String> returnResponses = getServerHosts().parallelStream().map(url -> {
-            String response = null;
-            try {
-                response = sendRequest(url, exchange, responseHeaders, routerPage, routerPageSize);
-            } catch (Exception e) {
-                log.error("Error when forwarding request to server", e);
+        Set<String> hosts = getServerHosts();
+        // servers are paged further only if the request is paged, otherwise they return their default page
+        boolean merge = supportAdvancedAggregate() && pageSize > 0 && isPaged(exchange.getQueryString());
+        // need to add 1 to page for proper size of page when the pages are not merged
+        final int routerPageSize = merge ? PagedResponseMerger.fetchSize(page, pageSize, hosts.size()) : (1 + page) * pageSize;
 
-                removeHostOnException(url, e);
+        final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
+        CompletableFuture<List<ServerPages>> firstPages = fetchFirstPages(exchange, hosts, routerPageSize,
+                                                                          (url, routerPage, size) -> sendRequest(url, exchange, responseHeaders, routerPage, size));
+
+        final String sort = sortBy;
+        final boolean ascending = sortOder;
+        final int requestedPage = page;
+        final int requestedPageSize = pageSize;
+        respond(exchange, firstPages, servers -> {
+            if (servers.isEmpty()) {
+                ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
+                return;
+            }
+            String response = aggregate(exchange, servers, responseHeaders, sort, ascending, requestedPage, requestedPageSize, merge, routerPageSize);
+            if (cacheKey != null) {
+                ResponseCache.CachedResponse cached = cache.put(cacheKey, generation, responseHeaders, response);
+                sendResponse(exchange, cached.getHeaders(), cached.getBody(), cached.getETag());
+            } else {
+                sendResponse(exchange, responseHeaders, response, null);
             }
+        });
+    }
 
-            return response;
-        })
-                .filter(msg -> msg != null && !msg.trim().isEmpty())
-                .collect(Collectors.toList());
-
-        if (returnResponses.isEmpty()) {
-            ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
-            return;
-        }
+    private String aggregate(HttpServerExchange exchange, List<ServerPages> servers, Map<String, List<String>> responseHeaders,
+                             String sortBy, boolean sortOder, int page, int pageSize, boolean merge, int routerPageSize) throws Exception {
 
         HeaderValues accept = exchange.getRequestHeaders().get(Headers.ACCEPT);
         HeaderValues kieContentType = exchange.getRequestHeaders().get("X-KIE-ContentType");
@@ -134,26 +160,50 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
         // if the media type comes from the server we just get one of them (the first)
         boolean aggregatable = isAggregatable(responseHeaders);
         if (!aggregatable) {
-            returnResponses = Collections.singletonList(returnResponses.get(0));
+            servers = Collections.singletonList(servers.get(0));
         }
 
-        responseHeaders.forEach((name, value) -> {
-            exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
-        });
-
         String response = null;
-        if (supportAdvancedAggregate()) {
-            response = responseAggregator.aggregate(returnResponses, sortBy, sortOder, page, pageSize);
+        if (merge) {
+            response = responseAggregator.aggregate(servers, sortBy, sortOder, page, pageSize, routerPageSize);
+        } else if (supportAdvancedAggregate()) {
+            response = responseAggregator.aggregate(firstPages(servers), sortBy, sortOder, page, pageSize);
         } else {
-            response = responseAggregator.aggregate(returnResponses);
+            response = responseAggregator.aggregate(firstPages(servers));
         }
+        return response;
+    }
 
-
+    /**
+     * Sends the aggregated response with the headers of the servers, the entity tag is given only to responses which
+     * are cached and lets clients which have the response already skip it.
+     */
+    protected void sendResponse(HttpServerExchange exchange, Map<String, List<String>> headers, String response, String eTag) throws Exception {
+        headers.forEach((name, value) -> {
+            exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+        });
+        if (eTag != null) {
+            exchange.getResponseHeaders().put(Headers.ETAG, eTag);
+            if (ResponseCache.matches(exchange.getRequestHeaders().getFirst(Headers.IF_NONE_MATCH), eTag)) {
+                exchange.getResponseHeaders().remove(Headers.CONTENT_LENGTH);
+                exchange.setStatusCode(StatusCodes.NOT_MODIFIED);
+                exchange.endExchange();
+                return;
+            }
+        }
 
         exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, response.getBytes("UTF-8").length);
         exchange.getResponseSender().send(response);
     }
 
+    protected String cacheKey(HttpServerExchange exchange) {
+        return ResponseCache.key(exchange.getRequestPath(),
+                                 exchange.getQueryString(),
+                                 exchange.getRequestHeaders().getFirst(Headers.ACCEPT),
+                                 exchange.getRequestHeaders().getFirst("X-KIE-ContentType"),
+                                 exchange.getRequestHeaders().getFirst(Headers.AUTHORIZATION));
+    }
+
     private boolean isAggregatable(Map<String, List<String>> responseHeaders) {
         List<String> type = responseHeaders.get(Headers.CONTENT_TYPE_STRING);
 
@@ -171,74 +221,99 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
         return true;
     }
 
-    protected String sendRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders, String page, String pageSize) throws Exception {
-
-        URL obj = new URL(url + exchange.getRequestPath() + "?" + exchange.getQueryString().replaceAll(REPLACE_PAGE, "page=" + page).replaceAll(REPLACE_PAGE_SIZE, "pageSize="+pageSize));
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("GET");
+    /**
+     * Responds once the responses of the servers are in, without holding the thread handling the request meanwhile.
+     * The handler runs on a worker thread, where it may block, and the exchange ends when it returns, with status 500
+     * if it failed before responding.
+     */
+    protected <T> void respond(HttpServerExchange exchange, CompletableFuture<T> responses, ResponseHandler<T> handler) {
+        exchange.dispatch(SameThreadExecutor.INSTANCE, () -> responses.whenCompleteAsync((result, error) -> {
+            try {
+                if (error != null) {
+                    throw error;
+                }
+                handler.handle(result);
+            } catch (Throwable e) {
+                log.error("Error when aggregating responses of servers", e);
+                if (!exchange.isResponseStarted()) {
+                    exchange.setStatusCode(StatusCodes.INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                exchange.endExchange();
+            }
+        }, worker(exchange)));
+    }
 
-        //add request headers
-        exchange.getRequestHeaders().forEach(h -> {
-            con.setRequestProperty(h.getHeaderName().toString(), h.getFirst());
-        });
+    /**
+     * Fetches the first page of every server at once, leaving out the servers that failed or returned nothing.
+     */
+    protected CompletableFuture<List<ServerPages>> fetchFirstPages(HttpServerExchange exchange, Set<String> hosts, int pageSize, PageRequest request) {
+        List<ServerPages> servers = hosts.stream().map(url -> new ServerPages(exchange, url, request, pageSize)).collect(Collectors.toList());
+        CompletableFuture<?>[] firstPages = servers.stream().map(ServerPages::fetchFirstPage).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(firstPages)
+                .thenApply(done -> servers.stream().filter(ServerPages::hasFirstPage).collect(Collectors.toList()));
+    }
 
-        log.debugf("Sending 'GET' request to URL : %s", obj);
-        int responseCode = con.getResponseCode();
-        log.debugf("Response Code : %s", responseCode);
+    /**
+     * @return the responses of the servers which didn't fail
+     */
+    protected CompletableFuture<List<String>> allResponses(List<CompletableFuture<String>> responses) {
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture[responses.size()]))
+                .thenApply(done -> responses.stream().map(CompletableFuture::join).filter(Objects::nonNull).collect(Collectors.toList()));
+    }
 
-        Map<String, List<String>> headers = con.getHeaderFields();
-        headers.forEach((k, v) -> {
-            if (k != null) {
-                responseHeaders.put(k, v);
-            }
-        });
+    /**
+     * Logs the failure of a request to a server, removing the server if it's unavailable, the response is null then.
+     * The failure is handled on a worker thread, as removing the server persists the configuration.
+     */
+    protected CompletableFuture<String> recover(HttpServerExchange exchange, String url, CompletableFuture<String> response) {
+        return response.handleAsync((result, e) -> e != null ? failed(url, e) : result, worker(exchange));
+    }
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
+    private String failed(String url, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("Error when forwarding request to server", cause);
 
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
+        removeHostOnException(url, cause);
+        return null;
+    }
 
-        }
-        in.close();
+    protected static Executor worker(HttpServerExchange exchange) {
+        return exchange.getConnection().getWorker();
+    }
 
-        return response.toString();
+    protected List<String> firstPages(List<ServerPages> servers) {
+        return servers.stream().map(ServerPages::getFirstPage).collect(Collectors.toList());
     }
-    
-    protected String sendOptionsRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) throws Exception {
 
-        URL obj = new URL(url + exchange.getRequestPath() + "?" + exchange.getQueryString());
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("OPTIONS");
+    protected boolean isPaged(String queryString) {
+        return queryString != null && queryString.matches("(.*&)?" + REPLACE_PAGE + "(&.*)?") && queryString.matches("(.*&)?" + REPLACE_PAGE_SIZE + "(&.*)?");
+    }
 
-        //add request headers
-        exchange.getRequestHeaders().forEach(h -> {
-            con.setRequestProperty(h.getHeaderName().toString(), h.getFirst());
-        });
+    protected CompletableFuture<String> sendRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders, String page, String pageSize) {
+        String target = url + exchange.getRequestPath() + "?" + exchange.getQueryString().replaceAll(REPLACE_PAGE, "page=" + page).replaceAll(REPLACE_PAGE_SIZE, "pageSize="+pageSize);
+        return send(target, Methods.GET, null, exchange, responseHeaders);
+    }
 
-        log.debugf("Sending 'OPTIONS' request to URL : %s", obj);
-        int responseCode = con.getResponseCode();
-        log.debugf("Response Code : %s", responseCode);
+    protected CompletableFuture<String> sendOptionsRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) {
+        return send(url + exchange.getRequestPath() + "?" + exchange.getQueryString(), Methods.OPTIONS, null, exchange, responseHeaders);
+    }
 
-        Map<String, List<String>> headers = con.getHeaderFields();
-        headers.forEach((k, v) -> {
-            if (k != null) {
-                responseHeaders.put(k, v);
+    /**
+     * Sends the request with the headers of the exchange to a server, collecting the headers of its response.
+     * An error status fails the request. The returned future completes on an IO thread, so the stages depending
+     * on it must not block: they go through {@link #recover} or {@link #respond}, which move to a worker thread.
+     */
+    protected CompletableFuture<String> send(String url, HttpString method, String body, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) {
+        log.debugf("Sending '%s' request to URL : %s", method, url);
+        return adminHandler.getHttpClient().send(exchange, url, method, body).thenApply(response -> {
+            log.debugf("Response Code : %s", response.getStatusCode());
+            responseHeaders.putAll(response.getHeaders());
+            if (response.getStatusCode() >= 400) {
+                throw new CompletionException(new IOException("Server returned HTTP response code: " + response.getStatusCode() + " for URL: " + url));
             }
+            return response.getBody();
         });
-
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
-
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-
-        }
-        in.close();
-
-        return response.toString();
     }
 
     protected Set<String> getServerHosts() {
@@ -250,7 +325,7 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
          .collect(Collectors.toSet());
     }
 
-    protected void removeHostOnException(String url, Exception e) {
+    protected void removeHostOnException(String url, Throwable e) {
         if (e instanceof SocketException || e instanceof UnknownHostException) {
             adminHandler.removeUnavailableServer(url);
             log.warn("Removed host '" + url + "' due to its unavailability (cause " + e.getMessage() + ")");
@@ -261,6 +336,83 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
         return true;
     }
 
+    /**
+     * @return true if the response to the GET request only changes when containers are deployed, so it may be cached
+     */
+    protected boolean isCacheable(HttpServerExchange exchange) {
+        return false;
+    }
+
+    @FunctionalInterface
+    protected interface PageRequest {
+
+        CompletableFuture<String> send(String url, String page, String pageSize);
+    }
+
+    @FunctionalInterface
+    protected interface ResponseHandler<T> {
+
+        void handle(T responses) throws Exception;
+    }
+
+    /**
+     * Pages of a single server, keeping the first one which is fetched upfront to find the available servers.
+     */
+    protected class ServerPages implements PageSource {
+
+        private final HttpServerExchange exchange;
+        private final String url;
+        private final PageRequest request;
+        private final int firstPageSize;
+        private String firstPage;
+
+        ServerPages(HttpServerExchange exchange, String url, PageRequest request, int firstPageSize) {
+            this.exchange = exchange;
+            this.url = url;
+            this.request = request;
+            this.firstPageSize = firstPageSize;
+        }
+
+        CompletableFuture<String> fetchFirstPage() {
+            return recover(exchange, url, send(0, firstPageSize)).thenApply(response -> firstPage = response);
+        }
+
+        boolean hasFirstPage() {
+            return firstPage != null && !firstPage.trim().isEmpty();
+        }
+
+        public String getFirstPage() {
+            return firstPage;
+        }
+
+        /**
+         * Further pages are needed only when the entries are unevenly spread across the servers. They are fetched
+         * while merging, blocking the worker thread running the merge until the server responds. The wait doesn't
+         * depend on other worker threads, as the response completes on an IO thread, and the request timeout of the
+         * client bounds it.
+         */
+        @Override
+        public String fetch(int page, int pageSize) {
+            if (page == 0 && pageSize == firstPageSize && firstPage != null) {
+                return firstPage;
+            }
+            try {
+                return send(page, pageSize).join();
+            } catch (CompletionException e) {
+                return failed(url, e);
+            }
+        }
+
+        private CompletableFuture<String> send(int page, int pageSize) {
+            return request.send(url, String.valueOf(page), String.valueOf(pageSize));
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+    }
+
     static class RoundRobinHostSelector {
 
         private final AtomicInteger currentHost = new AtomicInteger(0);
@@ -278,33 +430,23 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
     
     protected void handleOptions(HttpServerExchange exchange) throws Exception {
         final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
-        String returnResponse = getServerHosts().stream().findFirst().map(url -> {
-            String response = null;
-            try {
-                response = sendOptionsRequest(url, exchange, responseHeaders);
-            } catch (Exception e) {
-                log.error("Error when forwarding request to server", e);
-
-                removeHostOnException(url, e);
+        CompletableFuture<String> options = getServerHosts().stream().findFirst()
+                .map(url -> recover(exchange, url, sendOptionsRequest(url, exchange, responseHeaders)))
+                .orElse(CompletableFuture.completedFuture(null));
+
+        respond(exchange, options, returnResponse -> {
+            if (returnResponse == null || returnResponse.trim().isEmpty()) {
+                ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
+                return;
             }
-
-            return response;
-        })
-                .filter(msg -> msg != null && !msg.trim().isEmpty())
-                .orElse(null);
-
-        if (returnResponse == null) {
-            ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
-            return;
-        }
-        responseHeaders.forEach((name, value) -> {
-            exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+            responseHeaders.forEach((name, value) -> {
+                exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+            });
+
+            exchange.getResponseHeaders().put(Headers.ALLOW, returnResponse);
+            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, returnResponse.getBytes("UTF-8").length);
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain;charset=UTF-8");
+            exchange.getResponseSender().send(returnResponse);
         });
-
-        exchange.getResponseHeaders().put(Headers.ALLOW, returnResponse);
-        exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, returnResponse.getBytes("UTF-8").length);
-        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain;charset=UTF-8");
-        exchange.getResponseSender().send(returnResponse);
     }
 }
-
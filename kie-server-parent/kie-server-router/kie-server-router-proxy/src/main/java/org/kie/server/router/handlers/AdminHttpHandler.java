@@ -31,12 +31,14 @@ import org.jboss.logging.Logger;
 import org.json.JSONObject;
 import org.kie.server.router.Configuration;
 import org.kie.server.router.ContainerInfo;
+import org.kie.server.router.proxy.KieServerProxyClient;
 import org.kie.server.router.proxy.aggragate.JSONResponseAggregator;
 import org.kie.server.router.proxy.aggragate.JaxbXMLResponseAggregator;
 import org.kie.server.router.proxy.aggragate.ResponseAggregator;
 import org.kie.server.router.proxy.aggragate.XstreamXMLResponseAggregator;
 import org.kie.server.router.repository.ConfigurationMarshaller;
 import org.kie.server.router.spi.ConfigRepository;
+import org.kie.server.router.utils.AsyncHttpClient;
 import org.kie.server.router.utils.FailedHostInfo;
 import org.kie.server.router.utils.HttpUtils;
 
@@ -55,9 +57,13 @@ public class AdminHttpHandler implements HttpHandler {
     private int interval = Integer.parseInt(System.getProperty(KIE_SERVER_CONTROLLER_ATTEMPT_INTERVAL, "5"));
     private int attemptsLimit = Integer.parseInt(System.getProperty(KIE_SERVER_RECOVERY_ATTEMPT_LIMIT, "100"));
     
-//    private KieServerProxyClient proxyClient;
+    private KieServerProxyClient proxyClient;
     private Configuration configuration = new Configuration();
     private List<ResponseAggregator> aggregators = new ArrayList<>();
+    private AsyncHttpClient httpClient = new AsyncHttpClient(Long.parseLong(System.getProperty(KIE_SERVER_REQUEST_TIMEOUT, "60000")),
+                                                             Integer.parseInt(System.getProperty(KIE_SERVER_IDLE_CONNECTIONS, "20")));
+    private ResponseCache responseCache = new ResponseCache(Integer.parseInt(System.getProperty(KIE_SERVER_RESPONSE_CACHE_SIZE, "100")),
+                                                            Long.parseLong(System.getProperty(KIE_SERVER_RESPONSE_CACHE_TTL, "10000")));
     
     private ConfigRepository repository = null;
     private ConfigurationMarshaller marshaller = new ConfigurationMarshaller();
@@ -94,6 +100,7 @@ public class AdminHttpHandler implements HttpHandler {
         this.configuration = configuration;
         this.repository = repository;
         this.executorService = executorService;
+        this.configuration.addListener(responseCache);
 
         this.aggregators.add(new JSONResponseAggregator());
         this.aggregators.add(new XstreamXMLResponseAggregator());
@@ -113,6 +120,16 @@ public class AdminHttpHandler implements HttpHandler {
             
             return;
         } 
+
+        if (path.startsWith("/metrics") && proxyClient != null) {
+
+            String metrics = proxyClient.getMetrics();
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/plain; version=0.0.4");
+            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, metrics.getBytes("UTF-8").length);
+            exchange.getResponseSender().send(metrics);
+
+            return;
+        }
         
         exchange.getRequestReceiver().receiveFullString((ex, data) -> {
             try {
@@ -183,6 +200,18 @@ public class AdminHttpHandler implements HttpHandler {
         return Collections.unmodifiableList(aggregators);
     }
 
+    public AsyncHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public void setProxyClient(KieServerProxyClient proxyClient) {
+        this.proxyClient = proxyClient;
+    }
+
     public void addControllerContainers(List<String> containers) {
         this.controllerContainers.addAll(containers);
     }
@@ -206,27 +235,20 @@ public class AdminHttpHandler implements HttpHandler {
                 Iterator<FailedHostInfo> it = failedHosts.iterator();
                 while (it.hasNext()) {
                     FailedHostInfo fHost = (FailedHostInfo) it.next();
-                    if (attemptsLimit == fHost.getAttempts()) {
-                        it.remove();
-                        log.info("Host " + fHost.getServerUrl() + " has reached reconnect attempts limit " + attemptsLimit + " quiting");
+                    // the host stays failed so the health checks keep probing it past the limit
+                    if (fHost.getAttempts() >= attemptsLimit) {
                         continue;
                     }
                     try {
                         HttpUtils.getHttpCall(fHost.getServerUrl());
-                        log.info("Server at " + fHost.getServerUrl() + " is back online");
                         failedHostsReconnects.cancel(false);
                         
-                        synchronized (configuration) {
-                            configuration.reloadFromRepository(repository);
-                            for (String containerId : fHost.getContainers()) {
-                                configuration.addContainerHost(containerId, fHost.getServerUrl());
-                            }
-                            configuration.addServerHost(fHost.getServerId(), fHost.getServerUrl());
-
-                            repository.persist(configuration);
-                        }                        
+                        restoreFailedHost(fHost);
                     } catch (Exception e) {
                         log.debug("Host " + fHost.getServerUrl() + " is still not available, attempting to reconnect in " + interval + " seconds, error " + e.getMessage());
+                        if (fHost.getAttempts() + 1 == attemptsLimit) {
+                            log.info("Host " + fHost.getServerUrl() + " has reached reconnect attempts limit " + attemptsLimit + " quiting");
+                        }
                     } finally {
                         fHost.attempted();
                     }
@@ -236,6 +258,35 @@ public class AdminHttpHandler implements HttpHandler {
         }
     }
     
+    /**
+     * @return the servers removed as unavailable which weren't added back yet
+     */
+    public List<FailedHostInfo> getFailedHosts() {
+        return Collections.unmodifiableList(failedHosts);
+    }
+
+    /**
+     * Adds a server removed as unavailable back with its containers, once.
+     *
+     * @return true if the server was added back, false if it was already
+     */
+    public boolean restoreFailedHost(FailedHostInfo failedHost) {
+        synchronized (configuration) {
+            if (!failedHosts.remove(failedHost)) {
+                return false;
+            }
+            log.info("Server at " + failedHost.getServerUrl() + " is back online");
+            configuration.reloadFromRepository(repository);
+            for (String containerId : failedHost.getContainers()) {
+                configuration.addContainerHost(containerId, failedHost.getServerUrl());
+            }
+            configuration.addServerHost(failedHost.getServerId(), failedHost.getServerUrl());
+
+            repository.persist(configuration);
+            return true;
+        }
+    }
+    
     protected void pushToController(String releaseId, String containerId, String alias) throws Exception {
         String[] gav = releaseId.split(":");
         String jsonPayload = CONTAINER_SPEC_JSON
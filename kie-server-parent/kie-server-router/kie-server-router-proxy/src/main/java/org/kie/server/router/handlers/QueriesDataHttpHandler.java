@@ -15,13 +15,11 @@
 
 package org.kie.server.router.handlers;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -32,6 +30,8 @@ import io.undertow.server.handlers.proxy.ProxyHandler;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import org.kie.server.router.proxy.aggragate.PagedResponseMerger;
 import org.kie.server.router.proxy.aggragate.ResponseAggregator;
 
 public class QueriesDataHttpHandler extends AbstractAggregateHttpHandler {
@@ -65,10 +65,6 @@ public class QueriesDataHttpHandler extends AbstractAggregateHttpHandler {
             }
             boolean useAdvanced = pageSize.intValue() != -1;
 
-            final String routerPage = "0";
-            // need to add 1 to page for proper size of page
-            final String routerPageSize = String.valueOf((1 + page) * pageSize);
-
             // collect sorting
             String sortBy = null;
             boolean sortOder = true;
@@ -90,47 +86,25 @@ public class QueriesDataHttpHandler extends AbstractAggregateHttpHandler {
 
             final String body = requestBody.toString();
 
-            final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
-            List<String> returnResponses = getServerHosts().parallelStream().map(url -> {
-                String response = null;
-                try {
-                    response = sendPostRequest(url, body, exchange, responseHeaders, routerPage, routerPageSize);
-                } catch (Exception e) {
-                    log.error("Error when forwarding request to server", e);
-                    removeHostOnException(url, e);
-                }
-
-                return response;
-            })
-            .filter(msg -> msg != null && !msg.trim().isEmpty())
-            .collect(Collectors.toList());
-
-            HeaderValues accept = exchange.getRequestHeaders().get(Headers.ACCEPT);
-            HeaderValues kieContentType = exchange.getRequestHeaders().get("X-KIE-ContentType");
-
-            String response = "";
-
-            if (returnResponses.size() > 0) {
-                ResponseAggregator responseAggregator = adminHandler.getAggregators().stream().filter(a -> a.supports(kieContentType, accept, DEFAULT_ACCEPT)).findFirst().orElseThrow(() ->
-                                new RuntimeException("not possible to find response aggregator for " + responseHeaders.get(Headers.ACCEPT))
-                );
-
-                if (supportAdvancedAggregate() && useAdvanced) {
-                    response = responseAggregator.aggregate(returnResponses, sortBy, sortOder, page, pageSize);
-                } else {
-                    response = responseAggregator.aggregate(returnResponses);
-                }
-            }
-            responseHeaders.forEach((name, value) -> {
-                exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
-            });
+            Set<String> hosts = getServerHosts();
+            boolean merge = supportAdvancedAggregate() && useAdvanced && pageSize > 0 && isPaged(exchange.getQueryString());
+            // need to add 1 to page for proper size of page when the pages are not merged
+            final int routerPageSize = merge ? PagedResponseMerger.fetchSize(page, pageSize, hosts.size()) : (1 + page) * pageSize;
 
-            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, response.getBytes("UTF-8").length);
-            exchange.getResponseSender().send(response);
+            final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
+            CompletableFuture<List<ServerPages>> firstPages = fetchFirstPages(exchange, hosts, routerPageSize,
+                                                                              (url, routerPage, size) -> sendPostRequest(url, body, exchange, responseHeaders, routerPage, size));
 
+            final String sort = sortBy;
+            final boolean ascending = sortOder;
+            final int requestedPage = page;
+            final int requestedPageSize = pageSize;
+            respond(exchange, firstPages, servers -> aggregate(exchange, servers, responseHeaders, sort, ascending, requestedPage, requestedPageSize,
+                                                               useAdvanced, merge, routerPageSize));
 
         } else if (exchange.getRequestMethod().equals(HttpString.tryFromString("PUT"))) {
 
+
             StringBuilder requestBody = new StringBuilder();
             // collect body of the request
             exchange.getRequestReceiver().receiveFullString((ex, data) -> {
@@ -140,174 +114,91 @@ public class QueriesDataHttpHandler extends AbstractAggregateHttpHandler {
             final String body = requestBody.toString();
 
             final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
-            List<String> returnResponses = getServerHosts().parallelStream().map(url -> {
-                String response = null;
-                try {
-                    response = sendPutRequest(url, body, exchange, responseHeaders);
-                } catch (Exception e) {
-                    log.error("Error when forwarding request to server", e);
-                    removeHostOnException(url, e);
-                }
-
-                return response;
-            })
-                    .filter(msg -> msg != null)
+            List<CompletableFuture<String>> responses = getServerHosts().stream()
+                    .map(url -> recover(exchange, url, sendPutRequest(url, body, exchange, responseHeaders)))
                     .collect(Collectors.toList());
 
-            responseHeaders.forEach((name, value) -> {
-                exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
-            });
-
-            if (returnResponses.size() == 0) {
-                ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
-                return;
-            }
-            new ResponseCodeHandler(201).handleRequest(exchange);
+            respond(exchange, allResponses(responses), returnResponses -> {
+                adminHandler.getResponseCache().invalidate();
+                responseHeaders.forEach((name, value) -> {
+                    exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+                });
 
+                if (returnResponses.size() == 0) {
+                    ResponseCodeHandler.HANDLE_404.handleRequest(exchange);
+                    return;
+                }
+                new ResponseCodeHandler(201).handleRequest(exchange);
+            });
 
         }  else if (exchange.getRequestMethod().equals(HttpString.tryFromString("DELETE"))) {
 
             final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
-            getServerHosts().parallelStream().forEach(url -> {
-
-                try {
-                    sendDeleteRequest(url, exchange, responseHeaders);
-                } catch (Exception e) {
-                    log.error("Error when forwarding request to server", e);
-                    removeHostOnException(url, e);
-                }
-
+            List<CompletableFuture<String>> responses = getServerHosts().stream()
+                    .map(url -> recover(exchange, url, sendDeleteRequest(url, exchange, responseHeaders)))
+                    .collect(Collectors.toList());
 
-            });
+            respond(exchange, allResponses(responses), returnResponses -> {
+                adminHandler.getResponseCache().invalidate();
+                responseHeaders.forEach((name, value) -> {
+                    exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+                });
 
-            responseHeaders.forEach((name, value) -> {
-                exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
+                new ResponseCodeHandler(204).handleRequest(exchange);
             });
 
-            new ResponseCodeHandler(204).handleRequest(exchange);
-            return;
-
-
-
         } else {
 
             super.handleRequest(exchange);
         }
     }
 
-    protected String sendPostRequest(String url, String body, HttpServerExchange exchange, Map<String,List<String>> responseHeaders, String page, String pageSize) throws Exception {
-
-        URL obj = new URL(url + exchange.getRequestPath() + "?" + exchange.getQueryString().replaceAll(REPLACE_PAGE, "page=" + page).replaceAll(REPLACE_PAGE_SIZE, "pageSize=" + pageSize));
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("POST");
-
-        //add request headers
-        exchange.getRequestHeaders().forEach(h -> {
-            con.setRequestProperty(h.getHeaderName().toString(), h.getFirst());
-        });
+    private void aggregate(HttpServerExchange exchange, List<ServerPages> servers, Map<String, List<String>> responseHeaders,
+                           String sortBy, boolean sortOder, int page, int pageSize, boolean useAdvanced, boolean merge, int routerPageSize) throws Exception {
+        HeaderValues accept = exchange.getRequestHeaders().get(Headers.ACCEPT);
+        HeaderValues kieContentType = exchange.getRequestHeaders().get("X-KIE-ContentType");
 
-        con.setDoOutput(true);
-        if (body != null) {
-            con.getOutputStream().write(body.getBytes("UTF-8"));
-        }
+        String response = "";
 
-        log.debugf("Sending 'POST' request to URL : %s", obj);
-        int responseCode = con.getResponseCode();
-        log.debugf("Response Code : %s", responseCode);
+        if (servers.size() > 0) {
+            ResponseAggregator responseAggregator = adminHandler.getAggregators().stream().filter(a -> a.supports(kieContentType, accept, DEFAULT_ACCEPT)).findFirst().orElseThrow(() ->
+                            new RuntimeException("not possible to find response aggregator for " + responseHeaders.get(Headers.ACCEPT))
+            );
 
-        Map<String, List<String>> headers = con.getHeaderFields();
-        headers.forEach((k, v) -> {
-            if (k != null) {
-                responseHeaders.put(k, v);
+            if (merge) {
+                response = responseAggregator.aggregate(servers, sortBy, sortOder, page, pageSize, routerPageSize);
+            } else if (supportAdvancedAggregate() && useAdvanced) {
+                response = responseAggregator.aggregate(firstPages(servers), sortBy, sortOder, page, pageSize);
+            } else {
+                response = responseAggregator.aggregate(firstPages(servers));
             }
-        });
-
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-
-        }
-        in.close();
-
-        return response.toString();
-    }
-
-    protected String sendPutRequest(String url, String body, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) throws Exception {
-
-        URL obj = new URL(url + exchange.getRequestPath() + "?" + exchange.getQueryString());
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("PUT");
-
-        //add request headers
-        exchange.getRequestHeaders().forEach(h -> {
-            con.setRequestProperty(h.getHeaderName().toString(), h.getFirst());
-        });
-
-        con.setDoOutput(true);
-        if (body != null) {
-            con.getOutputStream().write(body.getBytes("UTF-8"));
         }
-
-        log.debugf("Sending 'PUT' request to URL : %s", obj);
-        int responseCode = con.getResponseCode();
-        log.debugf("Response Code : %s", responseCode);
-
-        Map<String, List<String>> headers = con.getHeaderFields();
-        headers.forEach((k, v) -> {
-            if (k != null) {
-                responseHeaders.put(k, v);
-            }
+        responseHeaders.forEach((name, value) -> {
+            exchange.getResponseHeaders().putAll(HttpString.tryFromString(name), value);
         });
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
-
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-
-        }
-        in.close();
-        return response.toString();
+        exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, response.getBytes("UTF-8").length);
+        exchange.getResponseSender().send(response);
     }
 
-    protected String sendDeleteRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) throws Exception {
-
-        URL obj = new URL(url + exchange.getRequestPath() + "?" + exchange.getQueryString());
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
-        con.setRequestMethod("DELETE");
-
-        //add request headers
-        exchange.getRequestHeaders().forEach(h -> {
-            con.setRequestProperty(h.getHeaderName().toString(), h.getFirst());
-        });
-
-        con.setDoOutput(true);
-
-        log.debugf("Sending 'DELETE' request to URL : %s", obj);
-        int responseCode = con.getResponseCode();
-        log.debugf("Response Code : %s", responseCode);
-
-        Map<String, List<String>> headers = con.getHeaderFields();
-        headers.forEach((k, v) -> {
-            if (k != null) {
-                responseHeaders.put(k, v);
-            }
-        });
-
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
+    @Override
+    protected boolean isCacheable(HttpServerExchange exchange) {
+        // the query definitions, not the data they query
+        String path = exchange.getRelativePath();
+        return path.isEmpty() || path.equals("/");
+    }
 
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
+    protected CompletableFuture<String> sendPostRequest(String url, String body, HttpServerExchange exchange, Map<String,List<String>> responseHeaders, String page, String pageSize) {
+        String target = url + exchange.getRequestPath() + "?" + exchange.getQueryString().replaceAll(REPLACE_PAGE, "page=" + page).replaceAll(REPLACE_PAGE_SIZE, "pageSize=" + pageSize);
+        return send(target, Methods.POST, body == null ? "" : body, exchange, responseHeaders);
+    }
 
-        }
-        in.close();
+    protected CompletableFuture<String> sendPutRequest(String url, String body, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) {
+        return send(url + exchange.getRequestPath() + "?" + exchange.getQueryString(), Methods.PUT, body == null ? "" : body, exchange, responseHeaders);
+    }
 
-        return response.toString();
+    protected CompletableFuture<String> sendDeleteRequest(String url, HttpServerExchange exchange, Map<String,List<String>> responseHeaders) {
+        return send(url + exchange.getRequestPath() + "?" + exchange.getQueryString(), Methods.DELETE, null, exchange, responseHeaders);
     }
 
 }
@@ -16,6 +16,7 @@
 package org.kie.server.router.handlers;
 
 import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
 
 public class QueriesHttpHandler extends AbstractAggregateHttpHandler {
 
@@ -23,4 +24,9 @@ public class QueriesHttpHandler extends AbstractAggregateHttpHandler {
         super(httpHandler, adminHandler);
     }
 
+    @Override
+    protected boolean isCacheable(HttpServerExchange exchange) {
+        return "/processes/definitions".equals(exchange.getRelativePath());
+    }
+
 }
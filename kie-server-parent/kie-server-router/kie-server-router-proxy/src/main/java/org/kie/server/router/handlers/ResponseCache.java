@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.handlers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.jboss.logging.Logger;
+import org.kie.server.router.ConfigurationListener;
+
+/**
+ * Aggregated responses of the endpoints which only change when containers are deployed, such as the list of
+ * containers or of process definitions. Any change of the configuration and any change requested through the router
+ * to the containers drops all of them, and each response expires after a time to live, which bounds how long changes
+ * made directly on the servers go unnoticed.
+ * Responses are kept per credentials of the request, so a request is only answered from the cache if the same
+ * credentials were accepted by the servers before. Requests without credentials aren't cached.
+ */
+public class ResponseCache implements ConfigurationListener {
+
+    private static final Logger log = Logger.getLogger(ResponseCache.class);
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, CachedResponse> responses;
+    // responses aggregated before an invalidation aren't cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param maxEntries number of responses kept, the least recently used ones are dropped first, 0 disables caching
+     * @param ttlMillis time in milliseconds a response is kept, 0 disables caching
+     */
+    public ResponseCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    ResponseCache(int maxEntries, long ttlMillis, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.nanoClock = nanoClock;
+        this.responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * @return the key of the response to the request, null if the request has no credentials: the servers may then
+     * tell callers apart by other means, so their responses can't be shared
+     */
+    public static String key(String path, String query, String accept, String kieContentType, String authorization) {
+        if (authorization == null || authorization.isEmpty()) {
+            return null;
+        }
+        return path + "?" + (query == null ? "" : query) + "\n" + accept + "\n" + kieContentType + "\n" + hash(authorization);
+    }
+
+    /**
+     * @return the generation to give back when caching the response of a request started now
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @return the cached response, null if there is none or it expired
+     */
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = responses.get(key);
+        if (response != null && nanoClock.getAsLong() - response.expiresAt >= 0) {
+            responses.remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    /**
+     * Caches the response unless the configuration changed since the given generation.
+     *
+     * @return the response with its entity tag, even if it wasn't cached
+     */
+    public CachedResponse put(String key, long generation, Map<String, List<String>> headers, String body) {
+        CachedResponse response = new CachedResponse(new HashMap<>(headers), body, "\"" + hash(body) + "\"", nanoClock.getAsLong() + ttlNanos);
+        if (isEnabled()) {
+            synchronized (this) {
+                if (generation == this.generation.get()) {
+                    responses.put(key, response);
+                }
+            }
+        }
+        return response;
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        if (!responses.isEmpty()) {
+            log.debugf("Dropping %s cached responses", responses.size());
+            responses.clear();
+        }
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    /**
+     * @param ifNoneMatch value of the If-None-Match header of a request
+     * @return true if the tag is one of the given ones, comparing weakly as conditional GETs do
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || opaqueTag(tag).equals(opaqueTag(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onContainerAdded(String container, String serverUrl) {
+        invalidate();
+    }
+
+    @Override
+    public void onContainerRemoved(String container, String serverUrl) {
+        invalidate();
+    }
+
+    @Override
+    public void onServerAdded(String serverId, String serverUrl) {
+        invalidate();
+    }
+
+    @Override
+    public void onServerRemoved(String serverId, String serverUrl) {
+        invalidate();
+    }
+
+    @Override
+    public void onConfigurationReloaded() {
+        invalidate();
+    }
+
+    public static class CachedResponse {
+
+        private final Map<String, List<String>> headers;
+        private final String body;
+        private final String eTag;
+        private final long expiresAt;
+
+        CachedResponse(Map<String, List<String>> headers, String body, String eTag, long expiresAt) {
+            this.headers = Collections.unmodifiableMap(headers);
+            this.body = body;
+            this.eTag = eTag;
+            this.expiresAt = expiresAt;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.router.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+
+/**
+ * Drops the cached responses when a request may change the containers, as proxied requests such as deploying or
+ * updating a container don't change the configuration of the router.
+ * The cache is dropped before the request is passed on and again once it completed, so responses aggregated while
+ * the change was applied aren't kept either.
+ */
+public class ResponseCacheInvalidationHandler implements HttpHandler {
+
+    private static final String CONTAINERS_PATH = "/containers";
+
+    private final HttpHandler next;
+    private final ResponseCache cache;
+
+    public ResponseCacheInvalidationHandler(HttpHandler next, ResponseCache cache) {
+        this.next = next;
+        this.cache = cache;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (isChange(exchange)) {
+            cache.invalidate();
+            exchange.addExchangeCompleteListener((completed, nextListener) -> {
+                cache.invalidate();
+                nextListener.proceed();
+            });
+        }
+        next.handleRequest(exchange);
+    }
+
+    static boolean isChange(HttpServerExchange exchange) {
+        HttpString method = exchange.getRequestMethod();
+        if (Methods.GET.equals(method) || Methods.HEAD.equals(method) || Methods.OPTIONS.equals(method)) {
+            return false;
+        }
+        String path = exchange.getRelativePath();
+        return path.equals(CONTAINERS_PATH) || path.startsWith(CONTAINERS_PATH + "/");
+    }
+}
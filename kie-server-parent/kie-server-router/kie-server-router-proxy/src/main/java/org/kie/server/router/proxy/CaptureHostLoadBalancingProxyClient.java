@@ -15,27 +15,53 @@
 
 package org.kie.server.router.proxy;
 
+import io.undertow.client.UndertowClient;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.util.AttachmentKey;
 
 public class CaptureHostLoadBalancingProxyClient extends LoadBalancingProxyClient {
-    private String uri = null;
+
+    private static final AttachmentKey<HostStatistics.Request> SELECTED_HOST = AttachmentKey.create(HostStatistics.Request.class);
+
+    private final LatencyAwareHostSelector hostSelector;
+
+    public CaptureHostLoadBalancingProxyClient() {
+        this(new LatencyAwareHostSelector());
+    }
+
+    public CaptureHostLoadBalancingProxyClient(LatencyAwareHostSelector hostSelector) {
+        super(UndertowClient.getInstance(), null, hostSelector);
+        this.hostSelector = hostSelector;
+    }
+
     @Override
     protected Host selectHost(HttpServerExchange exchange) {
         Host host = super.selectHost(exchange);
 
         if (host != null) {
-            uri = host.getUri().toString();
+            // the request is counted against the host until it ends, a host selected before for the exchange failed
+            HostStatistics.Request request = exchange.putAttachment(SELECTED_HOST, hostSelector.statistics(host.getUri().toString()).start());
+            if (request != null) {
+                request.end(false);
+            }
         }
 
         return host;
     }
 
-    public String getUri() {
-        return uri;
+    /**
+     * @return the request sent to the host selected for the exchange, null if none was
+     */
+    public HostStatistics.Request getRequest(HttpServerExchange exchange) {
+        return exchange.getAttachment(SELECTED_HOST);
     }
 
-    public void clear() {
-       uri = null;
+    /**
+     * @return the host selected for the exchange, null if none was
+     */
+    public String getUri(HttpServerExchange exchange) {
+        HostStatistics.Request request = getRequest(exchange);
+        return request == null ? null : request.getHost().getUrl();
     }
 }
@@ -18,9 +18,6 @@ package org.kie.server.router.proxy;
 import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.kie.server.router.ContainerInfo;
 import org.kie.server.router.spi.ContainerResolver;
@@ -29,26 +26,14 @@ import io.undertow.server.HttpServerExchange;
 
 public class DefaultContainerResolver implements ContainerResolver {
 
-    private Pattern p = Pattern.compile(".*/containers/([^/]+).*");
-    private Pattern p2 = Pattern.compile(".*/containers/instances/([^/]+).*");
+    private static final String CONTAINERS = "containers";
+    private static final String INSTANCES = "instances";
 
     @Override
     public String resolveContainerId(HttpServerExchange exchange, Map<String, List<ContainerInfo>> containerInfoPerContainer) {
-        String relativePath = exchange.getRelativePath();
-        Matcher matcher = p.matcher(relativePath);
-
-        Set<String> knownContainers = containerInfoPerContainer.keySet();
-
-        if (matcher.find()) {
-            String containerId = matcher.group(1);
-            if (knownContainers.contains(containerId)) {
-                return containerId;
-            }
-        }
-        matcher = p2.matcher(relativePath);
-
-        if (matcher.find()) {
-            return matcher.group(1);
+        String containerId = resolveContainerId(exchange.getRelativePath(), containerInfoPerContainer);
+        if (containerId != null) {
+            return containerId;
         }
         
         Deque<String> containerIdQueryParam = exchange.getQueryParameters().get("containerId");
@@ -58,6 +43,63 @@ public class DefaultContainerResolver implements ContainerResolver {
         return NOT_FOUND;
     }
 
+    /**
+     * Finds the container in the path, the segment after the last <code>/containers/</code> if it's a known container
+     * id or alias, otherwise the segment after the last <code>/containers/instances/</code>.
+     * Walks the path once without splitting it, only the container id found is copied out of it.
+     * @return the container id, null if the path doesn't name one
+     */
+    static String resolveContainerId(String path, Map<String, ?> knownContainers) {
+        int containerStart = -1;
+        int containerEnd = -1;
+        int instanceStart = -1;
+        int instanceEnd = -1;
+
+        int length = path.length();
+        int start = 0;
+        // bounds of the previous two segments, to recognize /containers/{id} and /containers/instances/{id}
+        int previousStart = -1;
+        int previousEnd = -1;
+        int beforePreviousStart = -1;
+        int beforePreviousEnd = -1;
+        while (start <= length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                if (isSegment(path, previousStart, previousEnd, CONTAINERS)) {
+                    containerStart = start;
+                    containerEnd = end;
+                } else if (isSegment(path, previousStart, previousEnd, INSTANCES) && isSegment(path, beforePreviousStart, beforePreviousEnd, CONTAINERS)) {
+                    instanceStart = start;
+                    instanceEnd = end;
+                }
+            }
+            beforePreviousStart = previousStart;
+            beforePreviousEnd = previousEnd;
+            // the first segment isn't preceded by a slash
+            previousStart = start > 0 ? start : -1;
+            previousEnd = end;
+            start = end + 1;
+        }
+
+        if (containerStart >= 0) {
+            String containerId = path.substring(containerStart, containerEnd);
+            if (knownContainers.containsKey(containerId)) {
+                return containerId;
+            }
+        }
+        if (instanceStart >= 0) {
+            return path.substring(instanceStart, instanceEnd);
+        }
+        return null;
+    }
+
+    private static boolean isSegment(String path, int start, int end, String segment) {
+        return start >= 0 && end - start == segment.length() && path.startsWith(segment, start);
+    }
+
     @Override
     public String toString() {
         return "Default container resolver";
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load of a kie server as seen by the router: the requests it's handling and how long it took to respond lately.
+ * The latency is a peak sensitive moving average, it follows a slower response at once and decays back over
+ * {@link #DECAY_TIME} once the server is fast again, so a server slowing down gets less requests before it fails.
+ * While the server gets no requests its latency decays towards the one of the other servers too, so a server which
+ * was slow once gets requests again after a while instead of being avoided until it responds to one, without
+ * becoming faster than the others and taking every request when nothing is known about it anymore.
+ */
+public class HostStatistics {
+
+    static final long DECAY_TIME = TimeUnit.SECONDS.toNanos(10);
+
+    private final String url;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean healthy = true;
+
+    private double latency;
+    private long lastUpdate;
+    private boolean sampled;
+
+    public HostStatistics(String url) {
+        this.url = url;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Counts a request sent to the server until the returned request ends.
+     */
+    public Request start() {
+        outstanding.incrementAndGet();
+        requests.incrementAndGet();
+        return new Request(System.nanoTime());
+    }
+
+    synchronized void record(long latency, long now) {
+        if (!sampled || latency > this.latency) {
+            this.latency = latency;
+            sampled = true;
+        } else {
+            double weight = weight(now);
+            this.latency = this.latency * weight + latency * (1 - weight);
+        }
+        lastUpdate = now;
+    }
+
+    /**
+     * @return the moving average of the latency in nanoseconds as of the last response, -1 if no request completed yet
+     */
+    public synchronized double getLatency() {
+        return sampled ? latency : -1;
+    }
+
+    /**
+     * @return the latency decayed until the given time towards the given one, -1 if no request completed yet
+     */
+    synchronized double getLatency(long now, double target) {
+        return sampled ? target + (latency - target) * weight(now) : -1;
+    }
+
+    private double weight(long now) {
+        return Math.exp(-(double) Math.max(0, now - lastUpdate) / DECAY_TIME);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * @return true if the health of the server changed
+     */
+    public boolean setHealthy(boolean healthy) {
+        boolean changed = this.healthy != healthy;
+        this.healthy = healthy;
+        return changed;
+    }
+
+    @Override
+    public String toString() {
+        return "HostStatistics [url=" + url + ", outstanding=" + outstanding + ", latency=" + getLatency() + ", healthy=" + healthy + "]";
+    }
+
+    public class Request {
+
+        private final long start;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Request(long start) {
+            this.start = start;
+        }
+
+        public HostStatistics getHost() {
+            return HostStatistics.this;
+        }
+
+        /**
+         * Ends the request once, a failed request doesn't count towards the latency.
+         */
+        public void end(boolean success) {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            outstanding.decrementAndGet();
+            if (success) {
+                long now = System.nanoTime();
+                record(now - start, now);
+            } else {
+                failures.incrementAndGet();
+            }
+        }
+    }
+}
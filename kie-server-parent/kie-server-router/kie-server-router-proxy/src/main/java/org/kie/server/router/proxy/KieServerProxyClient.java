@@ -21,12 +21,15 @@ import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
 import io.undertow.server.handlers.proxy.ProxyCallback;
 import io.undertow.server.handlers.proxy.ProxyClient;
 import io.undertow.server.handlers.proxy.ProxyConnection;
+import io.undertow.util.AttachmentKey;
 import org.jboss.logging.Logger;
 import org.kie.server.router.Configuration;
 import org.kie.server.router.ConfigurationListener;
 import org.kie.server.router.handlers.AdminHttpHandler;
 import org.kie.server.router.spi.ContainerResolver;
 import org.kie.server.router.spi.RestrictionPolicy;
+import org.kie.server.router.utils.FailedHostInfo;
+import org.kie.server.router.utils.HttpUtils;
 import org.kie.server.router.utils.SSLContextBuilder;
 import org.xnio.ssl.XnioSsl;
 
@@ -36,16 +39,27 @@ import java.net.URI;
 import java.net.UnknownHostException;
 import java.nio.channels.UnresolvedAddressException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static org.kie.server.router.KieServerRouterConstants.*;
+
 public class KieServerProxyClient implements ProxyClient, ConfigurationListener {
 
     private static final Logger log = Logger.getLogger(KieServerProxyClient.class);
 
+    private static final AttachmentKey<String> CONTAINER_ID = AttachmentKey.create(String.class);
+
     private ServiceLoader<ContainerResolver> containerResolverServiceLoader = ServiceLoader.load(ContainerResolver.class);
     private ServiceLoader<RestrictionPolicy> restrictionPolicyServiceLoader = ServiceLoader.load(RestrictionPolicy.class);
 
@@ -53,6 +67,16 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
     private RestrictionPolicy restrictionPolicy = new DefaultRestrictionPolicy();
 
     private Map<String, CaptureHostLoadBalancingProxyClient> containerClients = new ConcurrentHashMap<>();
+    private LatencyAwareHostSelector hostSelector = new LatencyAwareHostSelector();
+
+    private int connectionsPerThread = Integer.parseInt(System.getProperty(KIE_SERVER_CONNECTIONS_PER_THREAD, "10"));
+    private int connectionsQueueSize = Integer.parseInt(System.getProperty(KIE_SERVER_CONNECTIONS_QUEUE_SIZE, "0"));
+    private int probeTimeout = Integer.parseInt(System.getProperty(KIE_SERVER_HEALTH_PROBE_TIMEOUT, "2000"));
+    private ExecutorService probeExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "kie-router-health-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private Configuration configuration;
     private AdminHttpHandler adminHandler;
@@ -87,7 +111,9 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
 
         CaptureHostLoadBalancingProxyClient client = containerClients.get(containerId);
         if (client == null) {
-            client = new CaptureHostLoadBalancingProxyClient();
+            client = new CaptureHostLoadBalancingProxyClient(hostSelector);
+            client.setConnectionsPerThread(connectionsPerThread);
+            client.setMaxQueueSize(connectionsQueueSize);
             containerClients.put(containerId, client);
         }
 
@@ -118,7 +144,7 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
     @Override
     public ProxyTarget findTarget(HttpServerExchange exchange) {
 
-        String containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+        String containerId = resolveContainerId(exchange);
         if (restrictionPolicy.restrictedEndpoint(exchange, containerId)) {
             log.debugf("URL %s is restricted according to policy %s", exchange.getRelativePath(), restrictionPolicy.toString());
             return null;
@@ -134,32 +160,40 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
 
     @Override
     public void getConnection(ProxyTarget target, HttpServerExchange exchange, final ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
-        String containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+        String containerId = resolveContainerId(exchange);
         CaptureHostLoadBalancingProxyClient client = containerClients.get(containerId);
         try {
             client.getConnection(target, exchange, new ProxyCallback<ProxyConnection>() {
                 @Override
                 public void completed(HttpServerExchange exchange, ProxyConnection result) {
+                    HostStatistics.Request request = client.getRequest(exchange);
+                    if (request != null) {
+                        exchange.addExchangeCompleteListener((completed, next) -> {
+                            request.end(completed.getStatusCode() < 500);
+                            next.proceed();
+                        });
+                    }
                     callback.completed(exchange, result);
                 }
 
                 @Override
                 public void failed(HttpServerExchange httpServerExchange) {
                     try {
-                        adminHandler.removeUnavailableServer(client.getUri());
+                        unavailable(client, exchange);
                     } finally {
                         callback.failed(exchange);
-                        client.clear();
                     }
                 }
 
                 @Override
                 public void couldNotResolveBackend(HttpServerExchange exchange) {
+                    end(client, exchange);
                     callback.couldNotResolveBackend(exchange);
                 }
 
                 @Override
                 public void queuedRequestFailed(HttpServerExchange exchange) {
+                    end(client, exchange);
                     callback.queuedRequestFailed(exchange);
                 }
             }, timeout, timeUnit);
@@ -169,13 +203,137 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
                     || e instanceof UnresolvedAddressException
                     // xnio throws IllegalArgumentException for unresolvable host
                     || e instanceof IllegalArgumentException) {
-                adminHandler.removeUnavailableServer(client.getUri());
+                unavailable(client, exchange);
+            } else {
+                end(client, exchange);
             }
 
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Resolves the container of the exchange once, the proxy asks for it to find the target and again to connect.
+     */
+    protected String resolveContainerId(HttpServerExchange exchange) {
+        String containerId = exchange.getAttachment(CONTAINER_ID);
+        if (containerId == null) {
+            containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+            exchange.putAttachment(CONTAINER_ID, containerId);
+        }
+        return containerId;
+    }
+
+    private void end(CaptureHostLoadBalancingProxyClient client, HttpServerExchange exchange) {
+        HostStatistics.Request request = client.getRequest(exchange);
+        if (request != null) {
+            request.end(false);
+        }
+    }
+
+    private void unavailable(CaptureHostLoadBalancingProxyClient client, HttpServerExchange exchange) {
+        HostStatistics.Request request = client.getRequest(exchange);
+        if (request == null) {
+            return;
+        }
+        request.end(false);
+        // until the health check finds it back, in case it's added back by the configuration meanwhile
+        request.getHost().setHealthy(false);
+        adminHandler.removeUnavailableServer(request.getHost().getUrl());
+    }
+
+    /**
+     * Checks whether every server responds, requests are sent to the servers which don't only when there is no other
+     * server for the container, until they respond again. Servers removed as unavailable are checked as well and
+     * added back once they respond.
+     * The servers are checked in parallel, so the round takes as long as the slowest server, at most the probe timeout.
+     */
+    public void probeHosts() {
+        Set<String> urls = new LinkedHashSet<>();
+        configuration.getHostsPerServer().values().forEach(urls::addAll);
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (String url : urls) {
+            probes.add(CompletableFuture.runAsync(() -> probeHost(url), probeExecutor));
+        }
+        for (FailedHostInfo failedHost : adminHandler.getFailedHosts()) {
+            if (!urls.contains(failedHost.getServerUrl())) {
+                probes.add(CompletableFuture.runAsync(() -> {
+                    if (probeHost(failedHost.getServerUrl())) {
+                        adminHandler.restoreFailedHost(failedHost);
+                    }
+                }, probeExecutor));
+            }
+        }
+        try {
+            CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            // the next round checks again, the schedule must not stop
+            log.warnf("Health check of servers failed: %s", e.getCause());
+        }
+    }
+
+    private boolean probeHost(String url) {
+        HostStatistics statistics = hostSelector.statistics(url);
+        boolean healthy;
+        try {
+            long start = System.nanoTime();
+            healthy = HttpUtils.probeHttpCall(url, probeTimeout) < 500;
+            long now = System.nanoTime();
+            // requests in progress tell the latency of a busy server, the probe keeps the one of an idle server current
+            if (healthy && statistics.getOutstanding() == 0) {
+                statistics.record(now - start, now);
+            }
+        } catch (Exception e) {
+            log.debugf("Health check of server at %s failed: %s", url, e.getMessage());
+            healthy = false;
+        }
+        if (statistics.setHealthy(healthy)) {
+            if (healthy) {
+                log.infof("Server at %s passed health check, sending requests to it again", url);
+            } else {
+                log.warnf("Server at %s failed health check, sending requests to other servers", url);
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * @return the statistics of the servers and the size of the connection pools in the Prometheus text format
+     */
+    public String getMetrics() {
+        StringBuilder metrics = new StringBuilder();
+        metric(metrics, "kie_router_connections_per_thread", "gauge");
+        metrics.append("kie_router_connections_per_thread ").append(connectionsPerThread).append('\n');
+        metric(metrics, "kie_router_connections_queue_size", "gauge");
+        metrics.append("kie_router_connections_queue_size ").append(connectionsQueueSize).append('\n');
+
+        List<HostStatistics> hosts = new ArrayList<>(hostSelector.getStatistics());
+        hosts.sort(Comparator.comparing(HostStatistics::getUrl));
+        metric(metrics, "kie_router_server_outstanding_requests", "gauge");
+        hosts.forEach(host -> sample(metrics, "kie_router_server_outstanding_requests", host, host.getOutstanding()));
+        metric(metrics, "kie_router_server_requests_total", "counter");
+        hosts.forEach(host -> sample(metrics, "kie_router_server_requests_total", host, host.getRequests()));
+        metric(metrics, "kie_router_server_failures_total", "counter");
+        hosts.forEach(host -> sample(metrics, "kie_router_server_failures_total", host, host.getFailures()));
+        metric(metrics, "kie_router_server_latency_seconds", "gauge");
+        hosts.forEach(host -> sample(metrics, "kie_router_server_latency_seconds", host, host.getLatency() < 0 ? 0 : host.getLatency() / 1_000_000_000d));
+        metric(metrics, "kie_router_server_healthy", "gauge");
+        hosts.forEach(host -> sample(metrics, "kie_router_server_healthy", host, host.isHealthy() ? 1 : 0));
+        return metrics.toString();
+    }
+
+    private static void metric(StringBuilder metrics, String name, String type) {
+        metrics.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder metrics, String name, HostStatistics host, Number value) {
+        metrics.append(name).append("{server=\"").append(host.getUrl().replace("\\", "\\\\").replace("\"", "\\\"")).append("\"} ").append(value).append('\n');
+    }
+
+    public LatencyAwareHostSelector getHostSelector() {
+        return hostSelector;
+    }
+
     @Override
     public void onContainerAdded(String container, String serverUrl) {
         addContainer(container, URI.create(serverUrl));
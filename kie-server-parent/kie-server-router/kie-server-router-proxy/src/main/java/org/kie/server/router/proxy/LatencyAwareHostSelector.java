@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+
+/**
+ * Selects the server expected to respond first, the one with the least requests in progress weighted by its latency.
+ * The latency of a server idle for a while decays towards the mean latency of the other servers, so it's tried again
+ * rather than left aside after a slow response, and then shares the requests with them instead of taking them all.
+ * Servers which failed their health check are only selected when there is no other one. Servers with the same cost
+ * are selected in turns.
+ * The statistics are kept per server so they are shared by the clients of all containers deployed on it.
+ */
+public class LatencyAwareHostSelector implements LoadBalancingProxyClient.HostSelector {
+
+    private final Map<String, HostStatistics> statistics = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public int selectHost(LoadBalancingProxyClient.Host[] availableHosts) {
+        List<HostStatistics> hosts = new ArrayList<>(availableHosts.length);
+        for (LoadBalancingProxyClient.Host host : availableHosts) {
+            hosts.add(statistics(host.getUri().toString()));
+        }
+        return select(hosts, System.nanoTime());
+    }
+
+    int select(List<HostStatistics> hosts, long now) {
+        int size = hosts.size();
+        if (size == 1) {
+            return 0;
+        }
+        boolean anyHealthy = false;
+        double[] lastLatencies = new double[size];
+        double lastLatenciesSum = 0;
+        int sampled = 0;
+        for (int i = 0; i < size; i++) {
+            HostStatistics host = hosts.get(i);
+            anyHealthy |= host.isHealthy();
+            lastLatencies[i] = host.getLatency();
+            if (lastLatencies[i] >= 0) {
+                lastLatenciesSum += lastLatencies[i];
+                sampled++;
+            }
+        }
+        double[] hostLatencies = new double[size];
+        double latencies = 0;
+        for (int i = 0; i < size; i++) {
+            if (lastLatencies[i] >= 0) {
+                // the mean of the other servers, the idle one would otherwise keep the mean above the others
+                double target = sampled > 1 ? (lastLatenciesSum - lastLatencies[i]) / (sampled - 1) : lastLatencies[i];
+                hostLatencies[i] = hosts.get(i).getLatency(now, target);
+                latencies += hostLatencies[i];
+            } else {
+                hostLatencies[i] = -1;
+            }
+        }
+        // servers without a response yet are presumed as fast as the others, not infinitely fast
+        double defaultLatency = sampled > 0 ? latencies / sampled : 1;
+
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        int selected = -1;
+        double lowestCost = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            HostStatistics host = hosts.get(index);
+            if (anyHealthy && !host.isHealthy()) {
+                continue;
+            }
+            double latency = hostLatencies[index] >= 0 ? hostLatencies[index] : defaultLatency;
+            double cost = (host.getOutstanding() + 1) * latency;
+            if (cost < lowestCost) {
+                lowestCost = cost;
+                selected = index;
+            }
+        }
+        return selected;
+    }
+
+    public HostStatistics statistics(String url) {
+        return statistics.computeIfAbsent(url, HostStatistics::new);
+    }
+
+    public Collection<HostStatistics> getStatistics() {
+        return Collections.unmodifiableCollection(statistics.values());
+    }
+}
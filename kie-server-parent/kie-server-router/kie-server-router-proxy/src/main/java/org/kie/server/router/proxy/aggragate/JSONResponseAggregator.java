@@ -18,6 +18,7 @@ package org.kie.server.router.proxy.aggragate;
 import static org.kie.server.router.utils.Helper.readProperties;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -70,6 +71,47 @@ public class JSONResponseAggregator implements ResponseAggregator {
 
     }
 
+    @Override
+    public String aggregate(List<? extends PageSource> sources, String sortBy, boolean ascending, int page, int pageSize, int fetchSize) {
+        PagedResponseMerger.Page<JSONPage, Object> merged = new PagedResponseMerger<>(this::newJsonPage, JSONPage::getEntries, comparator(sortBy, ascending))
+                .merge(sources, page, pageSize, fetchSize);
+        if (merged == null) {
+            return ResponseAggregator.super.aggregate(sources, sortBy, ascending, page, pageSize, fetchSize);
+        }
+        if (merged.getTemplate() == null) {
+            return null;
+        }
+        return merged.getTemplate().write(merged.getEntries());
+    }
+
+    /**
+     * @return the list in the response, either the response itself or its only array, null if there is none
+     */
+    protected JSONPage newJsonPage(String data) {
+        try {
+            if (data.trim().startsWith("[")) {
+                return new JSONPage(null, null, new JSONArray(data));
+            }
+            JSONObject json = new JSONObject(data);
+            String[] names = JSONObject.getNames(json);
+            JSONPage page = null;
+            if (names != null) {
+                for (String name : names) {
+                    Object value = json.get(name);
+                    if (value instanceof JSONArray) {
+                        if (page != null) {
+                            return null;
+                        }
+                        page = new JSONPage(json, name, (JSONArray) value);
+                    }
+                }
+            }
+            return page;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
     protected String sort(String fieldName, boolean ascending, Integer page, Integer pageSize, JSONObject source) {
         try {
             for (String key: JSONObject.getNames(source)) {
@@ -182,32 +224,7 @@ public class JSONResponseAggregator implements ResponseAggregator {
         List<?> jsonList = (List<?>) f.get(array);
 
         if (fieldName != null && !fieldName.isEmpty()) {
-            String sortBy = sortByMapping.getProperty(fieldName, fieldName);
-
-
-            Collections.sort(jsonList, new Comparator<Object>() {
-
-                @SuppressWarnings({"rawtypes", "unchecked"})
-                @Override
-                public int compare(Object o1, Object o2) {
-                    if (o1 instanceof JSONObject && o2 instanceof JSONObject) {
-                        try {
-                            Comparable v1 = (Comparable<?>)((JSONObject) o1).get(sortBy);
-                            Comparable v2 = (Comparable<?>)((JSONObject) o2).get(sortBy);
-                            if (ascending) {
-                                return v1.compareTo(v2);
-                            } else {
-                                return v2.compareTo(v1);
-                            }
-                        } catch (Exception e) {
-
-                        }
-
-
-                    }
-                    return 0;
-                }
-            });
+            Collections.sort(jsonList, comparator(fieldName, ascending));
         }
         // calculate paging
         int start = page * pageSize;
@@ -225,5 +242,75 @@ public class JSONResponseAggregator implements ResponseAggregator {
         }
     }
 
-}
+    protected Comparator<Object> comparator(String fieldName, boolean ascending) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            return (o1, o2) -> 0;
+        }
+        String sortBy = sortByMapping.getProperty(fieldName, fieldName);
+
+        return new Comparator<Object>() {
+
+            @SuppressWarnings({"rawtypes", "unchecked"})
+            @Override
+            public int compare(Object o1, Object o2) {
+                if (o1 instanceof JSONObject && o2 instanceof JSONObject) {
+                    try {
+                        Comparable v1 = (Comparable<?>)((JSONObject) o1).get(sortBy);
+                        Comparable v2 = (Comparable<?>)((JSONObject) o2).get(sortBy);
+                        if (ascending) {
+                            return v1.compareTo(v2);
+                        } else {
+                            return v2.compareTo(v1);
+                        }
+                    } catch (Exception e) {
+
+                    }
+
+
+                }
+                return 0;
+            }
+        };
+    }
+
+    protected static class JSONPage {
+
+        private final JSONObject json;
+        private final String name;
+        private final JSONArray array;
 
+        JSONPage(JSONObject json, String name, JSONArray array) {
+            this.json = json;
+            this.name = name;
+            this.array = array;
+        }
+
+        List<Object> getEntries() {
+            List<Object> entries = new ArrayList<>(array.length());
+            try {
+                for (int i = 0, size = array.length(); i < size; i++) {
+                    entries.add(array.get(i));
+                }
+            } catch (JSONException e) {
+                throw new RuntimeException("Error while reading entries of json", e);
+            }
+            return entries;
+        }
+
+        String write(List<Object> entries) {
+            try {
+                JSONArray page = new JSONArray();
+                for (Object entry : entries) {
+                    page.put(entry);
+                }
+                if (json == null) {
+                    return page.toString(2);
+                }
+                json.put(name, page);
+                return json.toString(2);
+            } catch (JSONException e) {
+                throw new RuntimeException("Error while paging of json", e);
+            }
+        }
+    }
+}
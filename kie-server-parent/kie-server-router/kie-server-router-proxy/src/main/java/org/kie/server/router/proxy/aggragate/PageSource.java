@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy.aggragate;
+
+/**
+ * Pages of the response of a single server to a paged query.
+ */
+@FunctionalInterface
+public interface PageSource {
+
+    /**
+     * @param page index of the page, starting from 0
+     * @return the response of the server, null or empty if it has none
+     */
+    String fetch(int page, int pageSize);
+}
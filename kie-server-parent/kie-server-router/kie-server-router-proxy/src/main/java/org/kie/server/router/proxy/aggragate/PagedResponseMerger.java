@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy.aggragate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * K-way merge of the paged responses of several servers, each of them sorted the same way, into a single page.
+ * The pages of a server are only fetched when the merge reaches them and are dropped once merged, so a deep page
+ * costs the entries up to its end across all servers instead of that many entries from every server.
+ * Entries that compare equal are taken in the order of the sources, so unsorted responses are concatenated.
+ *
+ * @param <D> parsed response
+ * @param <T> entry of a response
+ */
+public class PagedResponseMerger<D, T> {
+
+    private final Function<String, D> parser;
+    private final Function<D, List<T>> entries;
+    private final Comparator<T> order;
+
+    /**
+     * @param parser parses a response, returning null if it isn't a list that can be paged
+     * @param entries the entries of a parsed response
+     */
+    public PagedResponseMerger(Function<String, D> parser, Function<D, List<T>> entries, Comparator<T> order) {
+        this.parser = parser;
+        this.entries = entries;
+        this.order = order;
+    }
+
+    /**
+     * @param fetchSize size of the pages fetched from each source
+     * @return the requested page, or null if a response can't be paged
+     */
+    public Page<D, T> merge(List<? extends PageSource> sources, int page, int pageSize, int fetchSize) {
+        List<Cursor> cursors = new ArrayList<>(sources.size());
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, sources.size()), (c1, c2) -> {
+            int result = order.compare(c1.head(), c2.head());
+            return result != 0 ? result : Integer.compare(c1.index, c2.index);
+        });
+        for (PageSource source : sources) {
+            Cursor cursor = new Cursor(cursors.size(), source, fetchSize);
+            cursors.add(cursor);
+            if (!cursor.fill()) {
+                if (cursor.unpageable) {
+                    return null;
+                }
+                continue;
+            }
+            heads.add(cursor);
+        }
+
+        long skip = (long) page * pageSize;
+        List<T> window = new ArrayList<>(Math.max(0, pageSize));
+        while (window.size() < pageSize && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            T entry = cursor.next();
+            if (skip > 0) {
+                skip--;
+            } else {
+                window.add(entry);
+            }
+            if (window.size() < pageSize) {
+                if (cursor.fill()) {
+                    heads.add(cursor);
+                } else if (cursor.unpageable) {
+                    return null;
+                }
+            }
+        }
+        return new Page<>(template(cursors), window);
+    }
+
+    /**
+     * Size of the pages to fetch from each source to merge the requested page. Sorted entries spread evenly across the
+     * sources are merged out of a single page per source, twice their share leaves room for uneven spreads before
+     * further pages are needed. It never exceeds the size the whole requested page would need from a single source.
+     */
+    public static int fetchSize(int page, int pageSize, int sources) {
+        long required = (1L + page) * pageSize;
+        long share = (required + Math.max(1, sources) - 1) / Math.max(1, sources);
+        return (int) Math.min(required, Math.max(pageSize, 2 * share));
+    }
+
+    /* the first response with entries, so the output keeps the shape of a non-empty response */
+    private D template(List<Cursor> cursors) {
+        D template = null;
+        for (Cursor cursor : cursors) {
+            if (cursor.first != null) {
+                if (!entries.apply(cursor.first).isEmpty()) {
+                    return cursor.first;
+                }
+                if (template == null) {
+                    template = cursor.first;
+                }
+            }
+        }
+        return template;
+    }
+
+    public static class Page<D, T> {
+
+        private final D template;
+        private final List<T> entries;
+
+        Page(D template, List<T> entries) {
+            this.template = template;
+            this.entries = entries;
+        }
+
+        /**
+         * @return one of the parsed responses, null if no source returned any
+         */
+        public D getTemplate() {
+            return template;
+        }
+
+        public List<T> getEntries() {
+            return entries;
+        }
+    }
+
+    private class Cursor {
+
+        private final int index;
+        private final PageSource source;
+        private final int fetchSize;
+        private int nextPage;
+        private boolean last;
+        private boolean unpageable;
+        private D first;
+        private List<T> buffer = Collections.emptyList();
+        private int position;
+
+        private Cursor(int index, PageSource source, int fetchSize) {
+            this.index = index;
+            this.source = source;
+            this.fetchSize = fetchSize;
+        }
+
+        private T head() {
+            return buffer.get(position);
+        }
+
+        private T next() {
+            return buffer.get(position++);
+        }
+
+        /**
+         * @return true if there is an entry to merge, fetching the next page if the current one is consumed
+         */
+        private boolean fill() {
+            while (position >= buffer.size()) {
+                if (last) {
+                    return false;
+                }
+                String response = source.fetch(nextPage++, fetchSize);
+                if (response == null || response.trim().isEmpty()) {
+                    last = true;
+                    return false;
+                }
+                D parsed = parser.apply(response);
+                if (parsed == null) {
+                    unpageable = true;
+                    last = true;
+                    return false;
+                }
+                if (first == null) {
+                    first = parsed;
+                }
+                buffer = entries.apply(parsed);
+                position = 0;
+                last = buffer.isEmpty() || buffer.size() < fetchSize;
+            }
+            return true;
+        }
+    }
+}
@@ -15,6 +15,7 @@
 
 package org.kie.server.router.proxy.aggragate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface ResponseAggregator {
@@ -24,4 +25,21 @@ public interface ResponseAggregator {
     String aggregate(List<String> data);
 
     String aggregate(List<String> data, String sortBy, boolean ascending, Integer page, Integer pageSize);
+
+    /**
+     * Aggregates the requested page out of the paged responses of several servers, each of them sorted by the given
+     * field. By default the entries up to the end of the requested page are fetched from every server at once.
+     *
+     * @param fetchSize size of the pages fetched from the sources, the pages of that size already fetched are reused
+     */
+    default String aggregate(List<? extends PageSource> sources, String sortBy, boolean ascending, int page, int pageSize, int fetchSize) {
+        List<String> data = new ArrayList<>(sources.size());
+        for (PageSource source : sources) {
+            String response = source.fetch(0, (1 + page) * pageSize);
+            if (response != null && !response.trim().isEmpty()) {
+                data.add(response);
+            }
+        }
+        return data.isEmpty() ? null : aggregate(data, sortBy, ascending, page, pageSize);
+    }
 }
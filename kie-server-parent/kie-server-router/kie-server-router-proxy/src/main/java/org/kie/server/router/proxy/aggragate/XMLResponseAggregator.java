@@ -20,9 +20,12 @@ import static org.kie.server.router.utils.Helper.read;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
@@ -34,6 +37,7 @@ import javax.xml.transform.stream.StreamSource;
 
 import org.jboss.logging.Logger;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -136,6 +140,119 @@ public abstract class XMLResponseAggregator implements ResponseAggregator {
         }
     }
 
+    @Override
+    public String aggregate(List<? extends PageSource> sources, String sortBy, boolean ascending, int page, int pageSize, int fetchSize) {
+        try {
+            String fieldName = sortBy != null && !sortBy.trim().isEmpty() ? sortBy(sortBy) : null;
+            PagedResponseMerger.Page<Document, Element> merged = new PagedResponseMerger<>(this::newDoc, this::entries, comparator(fieldName, ascending))
+                    .merge(sources, page, pageSize, fetchSize);
+            if (merged == null) {
+                return ResponseAggregator.super.aggregate(sources, sortBy, ascending, page, pageSize, fetchSize);
+            }
+            Document document = merged.getTemplate();
+            if (document == null) {
+                return null;
+            }
+            replaceEntries(document, merged.getEntries());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(document), new StreamResult(out));
+
+            return new String(out.toByteArray());
+        } catch (Exception e) {
+            log.errorf("Failed to aggregate xml responses of %s", sources, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the elements at the level sorted and paged by the stylesheets, in document order
+     */
+    protected List<Element> entries(Document document) {
+        int level = Integer.parseInt(getElementLevel(document.getDocumentElement().getNodeName()));
+        List<Element> entries = new ArrayList<>();
+        collectEntries(document.getDocumentElement(), level, entries);
+        return entries;
+    }
+
+    private void collectEntries(Element parent, int level, List<Element> entries) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                if (level == 1) {
+                    entries.add((Element) child);
+                } else {
+                    collectEntries((Element) child, level - 1, entries);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the entries of the document with the given ones, which are put where the first entry of the document
+     * was.
+     */
+    protected void replaceEntries(Document document, List<Element> entries) {
+        List<Element> existing = entries(document);
+        Node container = existing.isEmpty() ? null : existing.get(0).getParentNode();
+        for (Element entry : existing) {
+            entry.getParentNode().removeChild(entry);
+        }
+        if (container == null) {
+            container = document.getDocumentElement();
+            if ("2".equals(getElementLevel(container.getNodeName()))) {
+                Node first = container.getFirstChild();
+                while (first != null && !(first instanceof Element)) {
+                    first = first.getNextSibling();
+                }
+                if (first == null) {
+                    first = container.appendChild(document.createElement("items"));
+                }
+                container = first;
+            }
+        }
+        for (Element entry : entries) {
+            container.appendChild(document.importNode(entry, true));
+        }
+        // the output is indented again
+        removeWhitespace(document.getDocumentElement());
+    }
+
+    private void removeWhitespace(Node node) {
+        Node child = node.getFirstChild();
+        while (child != null) {
+            Node next = child.getNextSibling();
+            if (child.getNodeType() == Node.TEXT_NODE && child.getTextContent().trim().isEmpty()) {
+                node.removeChild(child);
+            } else {
+                removeWhitespace(child);
+            }
+            child = next;
+        }
+    }
+
+    /**
+     * Same order as the sort stylesheet: the text of the child element with the given name.
+     */
+    protected Comparator<Element> comparator(String fieldName, boolean ascending) {
+        if (fieldName == null) {
+            return (e1, e2) -> 0;
+        }
+        Comparator<Element> comparator = Comparator.comparing(e -> sortKey(e, fieldName));
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    private static String sortKey(Element entry, String fieldName) {
+        for (Node child = entry.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element && fieldName.equals(child.getNodeName())) {
+                return child.getTextContent();
+            }
+        }
+        return "";
+    }
+
     protected Transformer sort(String root, String level, String fieldName, boolean ascending, Document source) throws Exception {
         String order = "ascending";
         if (!ascending) {
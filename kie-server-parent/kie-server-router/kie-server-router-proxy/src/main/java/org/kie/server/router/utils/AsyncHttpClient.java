@@ -0,0 +1,334 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.utils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+
+import io.undertow.client.ClientCallback;
+import io.undertow.client.ClientConnection;
+import io.undertow.client.ClientExchange;
+import io.undertow.client.ClientRequest;
+import io.undertow.client.ClientResponse;
+import io.undertow.client.UndertowClient;
+import io.undertow.protocols.ssl.UndertowXnioSsl;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.StringReadChannelListener;
+import io.undertow.util.StringWriteChannelListener;
+import org.jboss.logging.Logger;
+import org.xnio.IoUtils;
+import org.xnio.OptionMap;
+import org.xnio.XnioExecutor;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+import org.xnio.ssl.XnioSsl;
+
+/**
+ * Non blocking client used to send the requests of an exchange to the kie servers. Requests run on the IO threads of
+ * the router and reuse the connections kept alive by the servers. The returned futures complete on an IO thread:
+ * callers move to a worker thread before doing any blocking or long work with the responses, and may wait for a
+ * response from a worker thread, which doesn't need another worker thread to complete it.
+ */
+public class AsyncHttpClient {
+
+    private static final Logger log = Logger.getLogger(AsyncHttpClient.class);
+
+    // describe the connection to the router rather than the request, the same headers HttpURLConnection refused to set
+    private static final Set<HttpString> CONNECTION_HEADERS = new HashSet<>(Arrays.asList(Headers.CONNECTION,
+                                                                                          Headers.CONTENT_LENGTH,
+                                                                                          Headers.HOST,
+                                                                                          Headers.KEEP_ALIVE,
+                                                                                          Headers.TE,
+                                                                                          Headers.TRAILER,
+                                                                                          Headers.TRANSFER_ENCODING,
+                                                                                          Headers.UPGRADE,
+                                                                                          // responses are parsed by the router
+                                                                                          Headers.ACCEPT_ENCODING));
+
+    private final UndertowClient client = UndertowClient.getInstance();
+    private final Map<String, Deque<ClientConnection>> idleConnections = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> idleCounts = new ConcurrentHashMap<>();
+
+    private final long timeout;
+    private final int maxIdleConnections;
+
+    private String userProvidedTruststore = System.getProperty("javax.net.ssl.trustStore", "");
+    private String userProvidedTruststorePassword = System.getProperty("javax.net.ssl.trustStorePassword", "");
+    private volatile XnioSsl ssl;
+
+    /**
+     * @param timeout time in milliseconds given to each server to respond, including connecting to it, 0 for no limit
+     * @param maxIdleConnections connections kept open per server once their request is done
+     */
+    public AsyncHttpClient(long timeout, int maxIdleConnections) {
+        this.timeout = timeout;
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    /**
+     * Sends the request with the headers of the given exchange.
+     * The future fails with a {@link SocketTimeoutException} when the server didn't respond in time and with a
+     * {@link SocketException} when it couldn't be connected.
+     */
+    public CompletableFuture<Response> send(HttpServerExchange exchange, String url, HttpString method, String body) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        try {
+            Request request = new Request(exchange, new URL(url), method, body, result);
+            if (timeout > 0) {
+                XnioExecutor.Key timer = exchange.getIoThread().executeAfter(request::timeout, timeout, TimeUnit.MILLISECONDS);
+                result.whenComplete((response, e) -> timer.remove());
+            }
+            request.send(true);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private ClientConnection pollIdle(String server) {
+        Deque<ClientConnection> connections = idleConnections.get(server);
+        ClientConnection connection;
+        while (connections != null && (connection = connections.pollFirst()) != null) {
+            idleCounts.get(server).decrementAndGet();
+            if (connection.isOpen()) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    private void release(String server, ClientConnection connection, ClientResponse response) {
+        String close = response.getResponseHeaders().getFirst(Headers.CONNECTION);
+        if (!connection.isOpen() || "close".equalsIgnoreCase(close)) {
+            IoUtils.safeClose(connection);
+            return;
+        }
+        AtomicInteger count = idleCounts.computeIfAbsent(server, s -> new AtomicInteger());
+        if (count.incrementAndGet() > maxIdleConnections) {
+            count.decrementAndGet();
+            IoUtils.safeClose(connection);
+            return;
+        }
+        idleConnections.computeIfAbsent(server, s -> new ConcurrentLinkedDeque<>()).offerFirst(connection);
+    }
+
+    private XnioSsl ssl(XnioWorker worker) throws Exception {
+        if (ssl == null) {
+            synchronized (this) {
+                if (ssl == null) {
+                    SSLContext context;
+                    if (!userProvidedTruststore.isEmpty() && !userProvidedTruststorePassword.isEmpty()) {
+                        context = SSLContextBuilder.builder().setKeyStorePath(userProvidedTruststore)
+                                .setKeyStorePassword(userProvidedTruststorePassword).buildTrustore();
+                    } else {
+                        context = SSLContext.getDefault();
+                    }
+                    ssl = new UndertowXnioSsl(worker.getXnio(), OptionMap.EMPTY, context);
+                }
+            }
+        }
+        return ssl;
+    }
+
+    public static class Response {
+
+        private final int statusCode;
+        private final Map<String, List<String>> headers;
+        private final String body;
+
+        Response(int statusCode, Map<String, List<String>> headers, String body) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    private class Request {
+
+        private final HttpServerExchange exchange;
+        private final URL url;
+        private final String server;
+        private final HttpString method;
+        private final String body;
+        private final CompletableFuture<Response> result;
+        private final AtomicReference<ClientConnection> connection = new AtomicReference<>();
+
+        private Request(HttpServerExchange exchange, URL url, HttpString method, String body, CompletableFuture<Response> result) {
+            this.exchange = exchange;
+            this.url = url;
+            this.server = url.getProtocol() + "://" + url.getAuthority();
+            this.method = method;
+            this.body = body;
+            this.result = result;
+        }
+
+        private void send(boolean reuse) throws Exception {
+            ClientConnection idle = reuse ? pollIdle(server) : null;
+            if (idle != null) {
+                idle.getIoThread().execute(() -> send(idle, true));
+                return;
+            }
+            URI uri = new URI(url.getProtocol(), null, url.getHost(), url.getPort(), null, null, null);
+            XnioIoThread ioThread = exchange.getIoThread();
+            XnioSsl xnioSsl = "https".equalsIgnoreCase(url.getProtocol()) ? ssl(exchange.getConnection().getWorker()) : null;
+            client.connect(new ClientCallback<ClientConnection>() {
+                @Override
+                public void completed(ClientConnection connection) {
+                    send(connection, false);
+                }
+
+                @Override
+                public void failed(IOException e) {
+                    if (e instanceof SocketException || e instanceof UnknownHostException) {
+                        result.completeExceptionally(e);
+                    } else {
+                        ConnectException connectException = new ConnectException("Unable to connect to " + server + ": " + e.getMessage());
+                        connectException.initCause(e);
+                        result.completeExceptionally(connectException);
+                    }
+                }
+            }, uri, ioThread, xnioSsl, exchange.getConnection().getByteBufferPool(), OptionMap.EMPTY);
+        }
+
+        private void send(ClientConnection clientConnection, boolean reused) {
+            connection.set(clientConnection);
+            if (result.isDone()) {
+                IoUtils.safeClose(clientConnection);
+                return;
+            }
+            ClientRequest request = new ClientRequest().setMethod(method).setPath(url.getFile());
+            exchange.getRequestHeaders().forEach(header -> {
+                if (!CONNECTION_HEADERS.contains(header.getHeaderName())) {
+                    request.getRequestHeaders().put(header.getHeaderName(), header.getFirst());
+                }
+            });
+            request.getRequestHeaders().put(Headers.HOST, url.getAuthority());
+            if (body != null) {
+                request.getRequestHeaders().put(Headers.CONTENT_LENGTH, body.getBytes(StandardCharsets.UTF_8).length);
+            }
+
+            clientConnection.sendRequest(request, new ClientCallback<ClientExchange>() {
+                @Override
+                public void completed(ClientExchange clientExchange) {
+                    clientExchange.setResponseListener(new ClientCallback<ClientExchange>() {
+                        @Override
+                        public void completed(ClientExchange clientExchange) {
+                            ClientResponse response = clientExchange.getResponse();
+                            new StringReadChannelListener(clientConnection.getBufferPool()) {
+                                @Override
+                                protected void stringDone(String string) {
+                                    if (result.complete(new Response(response.getResponseCode(), headers(response), string))) {
+                                        release(server, clientConnection, response);
+                                    } else {
+                                        IoUtils.safeClose(clientConnection);
+                                    }
+                                }
+
+                                @Override
+                                protected void error(IOException e) {
+                                    IoUtils.safeClose(clientConnection);
+                                    result.completeExceptionally(e);
+                                }
+                            }.setup(clientExchange.getResponseChannel());
+                        }
+
+                        @Override
+                        public void failed(IOException e) {
+                            retryOrFail(clientConnection, reused, e);
+                        }
+                    });
+                    if (body != null) {
+                        new StringWriteChannelListener(body, StandardCharsets.UTF_8).setup(clientExchange.getRequestChannel());
+                    }
+                }
+
+                @Override
+                public void failed(IOException e) {
+                    retryOrFail(clientConnection, reused, e);
+                }
+            });
+        }
+
+        /* a kept alive connection may have been closed by the server meanwhile, the request is sent once more */
+        private void retryOrFail(ClientConnection clientConnection, boolean reused, IOException e) {
+            IoUtils.safeClose(clientConnection);
+            if (reused && !result.isDone()) {
+                log.debugf("Kept alive connection to %s failed (%s), sending request on a new one", server, e.getMessage());
+                try {
+                    send(false);
+                    return;
+                } catch (Exception retry) {
+                    e.addSuppressed(retry);
+                }
+            }
+            result.completeExceptionally(e);
+        }
+
+        private void timeout() {
+            if (result.completeExceptionally(new SocketTimeoutException("No response from " + url + " within " + timeout + " ms"))) {
+                ClientConnection clientConnection = connection.get();
+                if (clientConnection != null) {
+                    IoUtils.safeClose(clientConnection);
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<String>> headers(ClientResponse response) {
+        Map<String, List<String>> headers = new ConcurrentHashMap<>();
+        for (HeaderValues values : response.getResponseHeaders()) {
+            headers.put(values.getHeaderName().toString(), Collections.unmodifiableList(new ArrayList<>(values)));
+        }
+        return headers;
+    }
+}
@@ -76,6 +76,30 @@ public class HttpUtils {
 
     }
 
+    /**
+     * @return the status of a GET request to the url, which must respond within the given time in milliseconds
+     */
+    public static int probeHttpCall(String url, int timeout) throws Exception {
+
+        URL serverURL = new URL(url);
+        HttpURLConnection con = (HttpURLConnection) serverURL.openConnection();
+        con.setRequestMethod("GET");
+        con.setConnectTimeout(timeout);
+        con.setReadTimeout(timeout);
+
+        con.setRequestProperty(Headers.ACCEPT_STRING, "application/json");
+        con.setRequestProperty(Headers.AUTHORIZATION_STRING, getAuthorization());
+
+        try {
+            log.debugf("Sending 'GET' request to URL : %s", serverURL);
+            int responseCode = con.getResponseCode();
+            log.debugf("Response Code : %s", responseCode);
+            return responseCode;
+        } finally {
+            con.disconnect();
+        }
+    }
+
     public static String putHttpCall(String url, String body) throws Exception {
 
         URL controllerURL = new URL(url);
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.router.handlers;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import io.undertow.Handlers;
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.BlockingHandler;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.Headers;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.router.Configuration;
+import org.kie.server.router.spi.ConfigRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class AggregateHttpHandlerTest {
+
+    private static final String PATH = "/queries/processes/definitions";
+
+    private final List<Undertow> servers = new ArrayList<>();
+    private final List<String> serverRequests = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executorService;
+    private String routerUrl;
+
+    @Before
+    public void startServers() {
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        Configuration configuration = new Configuration();
+        // the even process ids are on the first server, the odd ones on the second
+        configuration.addServerHost("server-1", startKieServer(0));
+        configuration.addServerHost("server-2", startKieServer(1));
+        AdminHttpHandler adminHandler = new AdminHttpHandler(configuration, mock(ConfigRepository.class), executorService);
+
+        Undertow router = start(new BlockingHandler(Handlers.path(ResponseCodeHandler.HANDLE_404)
+                .addPrefixPath("/queries", new QueriesHttpHandler(ResponseCodeHandler.HANDLE_404, adminHandler))));
+        routerUrl = url(router);
+    }
+
+    @After
+    public void stopServers() {
+        servers.forEach(Undertow::stop);
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testMergedPage() throws Exception {
+        JSONArray processes = get(PATH + "?page=2&pageSize=4&sort=ProcessId&sortOrder=true").getJSONArray("processes");
+
+        assertEquals(Arrays.asList("08", "09", "10", "11"), ids(processes));
+        // each server is asked once for the entries it may contribute up to the requested page
+        assertEquals(Collections.nCopies(2, "page=0&pageSize=12"), serverRequests);
+    }
+
+    @Test
+    public void testMergedPageDescending() throws Exception {
+        JSONArray processes = get(PATH + "?page=1&pageSize=3&sort=ProcessId&sortOrder=false").getJSONArray("processes");
+
+        assertEquals(Arrays.asList("16", "15", "14"), ids(processes));
+    }
+
+    @Test
+    public void testMergedLastPage() throws Exception {
+        JSONArray processes = get(PATH + "?page=6&pageSize=3&sort=ProcessId&sortOrder=true").getJSONArray("processes");
+
+        // 20 process definitions in total, so the 7th page of 3 has the last two
+        assertEquals(Arrays.asList("18", "19"), ids(processes));
+    }
+
+    private String startKieServer(int first) {
+        Undertow server = start(exchange -> {
+            int page = Integer.parseInt(exchange.getQueryParameters().get("page").getFirst());
+            int pageSize = Integer.parseInt(exchange.getQueryParameters().get("pageSize").getFirst());
+            boolean ascending = Boolean.parseBoolean(exchange.getQueryParameters().get("sortOrder").getFirst());
+            serverRequests.add("page=" + page + "&pageSize=" + pageSize);
+
+            List<String> ids = new ArrayList<>();
+            for (int id = first; id < 20; id += 2) {
+                ids.add(String.format("%02d", id));
+            }
+            if (!ascending) {
+                Collections.reverse(ids);
+            }
+            JSONArray processes = new JSONArray();
+            for (String id : ids.subList(Math.min(ids.size(), page * pageSize), Math.min(ids.size(), (page + 1) * pageSize))) {
+                processes.put(new JSONObject().put("process-id", id).put("container-id", "container"));
+            }
+            send(exchange, new JSONObject().put("processes", processes).toString());
+        });
+        return url(server);
+    }
+
+    private static void send(HttpServerExchange exchange, String body) {
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json");
+        exchange.getResponseSender().send(body);
+    }
+
+    private Undertow start(HttpHandler handler) {
+        Undertow server = Undertow.builder().addHttpListener(0, "localhost").setHandler(handler).build();
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static String url(Undertow server) {
+        return "http://localhost:" + ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    private JSONObject get(String path) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(routerUrl + path).openConnection();
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setReadTimeout(10000);
+        assertEquals(200, connection.getResponseCode());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            return new JSONObject(reader.lines().collect(Collectors.joining("\n")));
+        }
+    }
+
+    private static List<String> ids(JSONArray processes) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < processes.length(); i++) {
+            ids.add(processes.getJSONObject(i).getString("process-id"));
+        }
+        return ids;
+    }
+}
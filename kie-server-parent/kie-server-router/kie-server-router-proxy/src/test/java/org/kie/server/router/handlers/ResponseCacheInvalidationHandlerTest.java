@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.router.handlers;
+
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.Undertow;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheInvalidationHandlerTest {
+
+    private static final Map<String, List<String>> HEADERS = Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+
+    private final ResponseCache cache = new ResponseCache(10, 10000);
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private Undertow server;
+    private String url;
+
+    @Before
+    public void startServer() {
+        // the proxied request caches a response while it is handled, as an aggregation running meanwhile would
+        server = Undertow.builder().addHttpListener(0, "localhost").setHandler(new ResponseCacheInvalidationHandler(exchange -> {
+            exchange.addExchangeCompleteListener((e, next) -> {
+                next.proceed();
+                completed.countDown();
+            });
+            cache.put("containers", cache.generation(), HEADERS, "{}");
+            exchange.getResponseSender().send("");
+        }, cache)).build();
+        server.start();
+        url = "http://localhost:" + ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testChangeOfContainerInvalidates() throws Exception {
+        assertEquals(200, request("PUT", "/containers/container1"));
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertNull(cache.get("containers"));
+    }
+
+    @Test
+    public void testChangeOfContainersInvalidates() throws Exception {
+        assertEquals(200, request("POST", "/containers"));
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertNull(cache.get("containers"));
+    }
+
+    @Test
+    public void testReadDoesNotInvalidate() throws Exception {
+        assertEquals(200, request("GET", "/containers/container1"));
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertNotNull(cache.get("containers"));
+    }
+
+    @Test
+    public void testOtherPathDoesNotInvalidate() throws Exception {
+        assertEquals(200, request("POST", "/containersx"));
+
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+        assertNotNull(cache.get("containers"));
+    }
+
+    private int request(String method, String path) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setReadTimeout(10000);
+        return connection.getResponseCode();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.kie.server.router.Configuration;
+
+public class ResponseCacheTest {
+
+    private static final Map<String, List<String>> HEADERS = Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+
+    @Test
+    public void testCachedResponse() {
+        ResponseCache cache = new ResponseCache(10, 10000);
+        String key = ResponseCache.key("/containers", null, "application/json", null, "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh");
+
+        ResponseCache.CachedResponse response = cache.put(key, cache.generation(), HEADERS, "{\"containers\": []}");
+        assertEquals(response, cache.get(key));
+        assertEquals("{\"containers\": []}", response.getBody());
+        assertEquals(HEADERS, response.getHeaders());
+        assertEquals(response.getETag(), cache.put(key, cache.generation(), HEADERS, "{\"containers\": []}").getETag());
+        assertNotEquals(response.getETag(), cache.put(key, cache.generation(), HEADERS, "{\"containers\": [{}]}").getETag());
+    }
+
+    @Test
+    public void testKeyDependsOnRequest() {
+        String key = ResponseCache.key("/containers", null, "application/json", null, "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh");
+
+        assertEquals(key, ResponseCache.key("/containers", "", "application/json", null, "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh"));
+        assertNotEquals(key, ResponseCache.key("/containers", "page=1", "application/json", null, "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh"));
+        assertNotEquals(key, ResponseCache.key("/containers", null, "application/xml", null, "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh"));
+        assertNotEquals(key, ResponseCache.key("/containers", null, "application/json", "xstream", "Basic a2llc2VydmVyOmtpZXNlcnZlcjEh"));
+        assertFalse(key.contains("a2llc2VydmVyOmtpZXNlcnZlcjEh"));
+    }
+
+    @Test
+    public void testNotCachedWithoutAuthorization() {
+        assertNull(ResponseCache.key("/containers", null, "application/json", null, null));
+        assertNull(ResponseCache.key("/containers", null, "application/json", null, ""));
+    }
+
+    @Test
+    public void testExpired() {
+        AtomicLong nanoTime = new AtomicLong();
+        ResponseCache cache = new ResponseCache(10, 1000, nanoTime::get);
+
+        cache.put("containers", cache.generation(), HEADERS, "{}");
+        nanoTime.set(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("{}", cache.get("containers").getBody());
+
+        nanoTime.set(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNull(cache.get("containers"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConfigurationChangeInvalidates() {
+        ResponseCache cache = new ResponseCache(10, 10000);
+        Configuration configuration = new Configuration();
+        configuration.addListener(cache);
+
+        cache.put("containers", cache.generation(), HEADERS, "{}");
+        configuration.addContainerHost("container1", "http://localhost:8080/kie-server/services/rest/server");
+        assertNull(cache.get("containers"));
+
+        cache.put("containers", cache.generation(), HEADERS, "{}");
+        configuration.removeContainerHost("container1", "http://localhost:8080/kie-server/services/rest/server");
+        assertNull(cache.get("containers"));
+    }
+
+    @Test
+    public void testResponseOutdatedMeanwhileIsNotCached() {
+        ResponseCache cache = new ResponseCache(10, 10000);
+        long generation = cache.generation();
+        cache.onContainerAdded("container1", "http://localhost:8080/kie-server/services/rest/server");
+
+        ResponseCache.CachedResponse response = cache.put("containers", generation, HEADERS, "{}");
+        assertEquals("{}", response.getBody());
+        assertNull(cache.get("containers"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        ResponseCache cache = new ResponseCache(2, 10000);
+        cache.put("a", cache.generation(), HEADERS, "a");
+        cache.put("b", cache.generation(), HEADERS, "b");
+        cache.get("a");
+        cache.put("c", cache.generation(), HEADERS, "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("a").getBody());
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testDisabled() {
+        ResponseCache cache = new ResponseCache(0, 10000);
+        assertFalse(cache.isEnabled());
+        assertFalse(new ResponseCache(10, 0).isEnabled());
+
+        cache.put("a", cache.generation(), HEADERS, "a");
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testMatches() {
+        String eTag = new ResponseCache(1, 10000).put("a", 0, HEADERS, "a").getETag();
+
+        assertTrue(ResponseCache.matches(eTag, eTag));
+        assertTrue(ResponseCache.matches("W/" + eTag, eTag));
+        assertTrue(ResponseCache.matches("\"other\", " + eTag, eTag));
+        assertTrue(ResponseCache.matches("*", eTag));
+        assertFalse(ResponseCache.matches("\"other\"", eTag));
+        assertFalse(ResponseCache.matches(null, eTag));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.kie.server.router.ContainerInfo;
+
+/**
+ * Compares the time and memory the router spends to find the container of a proxied request, resolving it with the
+ * patterns once to find the target and once more to connect to it, with resolving it once by walking the path.
+ * Not run as part of the test suite, start it via its main method, optionally passing the number of known containers
+ * (100 by default) and of resolutions per iteration (1000000 by default).
+ */
+public class ContainerResolverBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    private static final String[] PATHS = {"/containers/%s/processes/evaluation/instances",
+                                           "/containers/%s/tasks/42/states/completed",
+                                           "/containers/instances/%s",
+                                           "/queries/containers/%s/process/instances",
+                                           "/queries/processes/instances"};
+
+    private static final Pattern P = Pattern.compile(".*/containers/([^/]+).*");
+    private static final Pattern P2 = Pattern.compile(".*/containers/instances/([^/]+).*");
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int containerCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int resolutions = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Map<String, List<ContainerInfo>> containers = new ConcurrentHashMap<>();
+        for (int i = 0; i < containerCount; i++) {
+            ContainerInfo info = new ContainerInfo("container-" + i + "_1.0.0", "container-" + i, "org.kie:container-" + i + ":1.0.0");
+            containers.put(info.getContainerId(), Collections.singletonList(info));
+            containers.put(info.getAlias(), Collections.singletonList(info));
+        }
+        String[] paths = new String[PATHS.length * containerCount];
+        for (int i = 0; i < paths.length; i++) {
+            paths[i] = String.format(PATHS[i % PATHS.length], "container-" + (i / PATHS.length));
+        }
+
+        System.out.printf("%d containers, %d resolutions%n", containerCount, resolutions);
+        System.out.printf("%-10s %12s %12s%n", "mode", "ns/op", "bytes/op");
+        run("patterns", paths, resolutions, path -> {
+            // resolved again for the connection
+            sink = resolveWithPatterns(path, containers);
+            return resolveWithPatterns(path, containers);
+        });
+        run("path", paths, resolutions, path -> DefaultContainerResolver.resolveContainerId(path, containers));
+    }
+
+    private static void run(String mode, String[] paths, int resolutions, Function<String, String> resolver) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        double time = Double.MAX_VALUE;
+        double allocated = Double.MAX_VALUE;
+        // first iteration warms up, the best of the others is reported
+        for (int i = 0; i <= ITERATIONS; i++) {
+            long bytes = allocatedBytes(threads);
+            long start = System.nanoTime();
+            for (int j = 0; j < resolutions; j++) {
+                sink = resolver.apply(paths[j % paths.length]);
+            }
+            long elapsed = System.nanoTime() - start;
+            bytes = allocatedBytes(threads) - bytes;
+            if (i > 0) {
+                time = Math.min(time, (double) elapsed / resolutions);
+                allocated = Math.min(allocated, (double) bytes / resolutions);
+            }
+        }
+        System.out.printf("%-10s %12.1f %12.1f%n", mode, time, allocated);
+    }
+
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /* how the container used to be resolved, without the query parameter */
+    private static String resolveWithPatterns(String path, Map<String, List<ContainerInfo>> containers) {
+        Matcher matcher = P.matcher(path);
+        if (matcher.find() && containers.containsKey(matcher.group(1))) {
+            return matcher.group(1);
+        }
+        matcher = P2.matcher(path);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.server.router.ContainerInfo;
+import org.kie.server.router.spi.ContainerResolver;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultContainerResolverTest {
+
+    @Mock
+    private ServerConnection serverConnection;
+
+    private final DefaultContainerResolver resolver = new DefaultContainerResolver();
+
+    private final Map<String, List<ContainerInfo>> containers = new HashMap<>();
+
+    {
+        ContainerInfo evaluation = new ContainerInfo("evaluation_1.0.0", "evaluation", "org.jbpm:evaluation:1.0.0");
+        containers.put("evaluation_1.0.0", Collections.singletonList(evaluation));
+        containers.put("evaluation", Collections.singletonList(evaluation));
+    }
+
+    @Test
+    public void testContainerInPath() {
+        assertEquals("evaluation_1.0.0", resolve("/containers/evaluation_1.0.0/processes/evaluation/instances"));
+        assertEquals("evaluation", resolve("/containers/evaluation/processes/evaluation/instances"));
+        assertEquals("evaluation", resolve("/containers/evaluation"));
+        assertEquals("evaluation", resolve("/queries/containers/evaluation/process/instances"));
+    }
+
+    @Test
+    public void testContainerInstanceInPath() {
+        assertEquals("unknown", resolve("/containers/instances/unknown"));
+        assertEquals("evaluation", resolve("/containers/instances/evaluation/processes"));
+    }
+
+    @Test
+    public void testNoContainerInPath() {
+        assertNull(resolve("/containers/unknown/processes"));
+        assertNull(resolve("/containers"));
+        assertNull(resolve("/containers/"));
+        assertNull(resolve("/containers//evaluation"));
+        assertNull(resolve("/mycontainers/evaluation"));
+        assertNull(resolve("containers/evaluation"));
+        assertNull(resolve(""));
+        assertNull(resolve("/"));
+    }
+
+    @Test
+    public void testContainerInQuery() {
+        HttpServerExchange exchange = new HttpServerExchange(serverConnection);
+        exchange.setRelativePath("/queries/processes/instances");
+        exchange.addQueryParam("containerId", "evaluation");
+        assertEquals("evaluation", resolver.resolveContainerId(exchange, containers));
+
+        exchange = new HttpServerExchange(serverConnection);
+        exchange.setRelativePath("/queries/processes/instances");
+        assertEquals(ContainerResolver.NOT_FOUND, resolver.resolveContainerId(exchange, containers));
+    }
+
+    @Test
+    public void testSameAsPatterns() {
+        String[] paths = {"/containers/evaluation/containers/instances/other", "/containers/instances/instances/evaluation",
+                          "/containers/containers/evaluation", "/containers/instances", "/containers/instances/",
+                          "/a/containers/evaluation/b/containers/unknown", "/containers/evaluation/x/containers/instances/y/z",
+                          "//containers/evaluation", "/containers/evaluation/", "/jobs/containers/instances/evaluation_1.0.0"};
+        for (String path : paths) {
+            assertEquals(path, resolveWithPatterns(path), resolve(path));
+        }
+    }
+
+    private String resolve(String path) {
+        return DefaultContainerResolver.resolveContainerId(path, containers);
+    }
+
+    /* how the container used to be resolved */
+    private String resolveWithPatterns(String path) {
+        Matcher matcher = Pattern.compile(".*/containers/([^/]+).*").matcher(path);
+        if (matcher.find() && containers.containsKey(matcher.group(1))) {
+            return matcher.group(1);
+        }
+        matcher = Pattern.compile(".*/containers/instances/([^/]+).*").matcher(path);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.router.proxy;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.Undertow;
+import io.undertow.server.handlers.BlockingHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.router.Configuration;
+import org.kie.server.router.handlers.AdminHttpHandler;
+import org.kie.server.router.spi.ConfigRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KieServerProxyClientTest {
+
+    private final List<Undertow> servers = new ArrayList<>();
+    private ScheduledExecutorService executorService;
+    private Configuration configuration;
+    private AdminHttpHandler adminHandler;
+    private KieServerProxyClient proxyClient;
+
+    @Before
+    public void createClient() {
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        configuration = new Configuration();
+        ConfigRepository repository = mock(ConfigRepository.class);
+        when(repository.load()).thenReturn(configuration);
+        adminHandler = new AdminHttpHandler(configuration, repository, executorService);
+        proxyClient = new KieServerProxyClient(configuration, adminHandler);
+        adminHandler.setProxyClient(proxyClient);
+    }
+
+    @After
+    public void stopServers() {
+        servers.forEach(Undertow::stop);
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testRemovedServerAddedBack() {
+        String url = startKieServer(0);
+        configuration.addServerHost("server-1", url);
+        configuration.addContainerHost("container1", url);
+        adminHandler.removeUnavailableServer(url);
+        assertTrue(configuration.getHostsPerContainer().get("container1").isEmpty());
+        assertEquals(1, adminHandler.getFailedHosts().size());
+
+        proxyClient.probeHosts();
+
+        assertEquals(url, configuration.getHostsPerContainer().get("container1").get(0));
+        assertEquals(url, configuration.getHostsPerServer().get("server-1").get(0));
+        assertTrue(adminHandler.getFailedHosts().isEmpty());
+        assertTrue(proxyClient.getHostSelector().statistics(url).isHealthy());
+    }
+
+    @Test
+    public void testRemovedServerKeptUntilAvailable() throws Exception {
+        String url;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            url = "http://localhost:" + socket.getLocalPort();
+        }
+        configuration.addServerHost("server-1", url);
+        configuration.addContainerHost("container1", url);
+        adminHandler.removeUnavailableServer(url);
+
+        proxyClient.probeHosts();
+
+        assertTrue(configuration.getHostsPerContainer().get("container1").isEmpty());
+        assertEquals(1, adminHandler.getFailedHosts().size());
+        assertFalse(proxyClient.getHostSelector().statistics(url).isHealthy());
+    }
+
+    @Test
+    public void testServersProbedInParallel() {
+        String url1 = startKieServer(500);
+        String url2 = startKieServer(500);
+        configuration.addServerHost("server-1", url1);
+        configuration.addServerHost("server-2", url2);
+
+        long start = System.nanoTime();
+        proxyClient.probeHosts();
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.MILLISECONDS.toNanos(900));
+        // the response time of the probe counts as the latency of an idle server
+        for (String url : new String[]{url1, url2}) {
+            HostStatistics statistics = proxyClient.getHostSelector().statistics(url);
+            assertTrue(statistics.isHealthy());
+            assertTrue(statistics.getLatency() >= TimeUnit.MILLISECONDS.toNanos(400));
+        }
+    }
+
+    private String startKieServer(long responseTime) {
+        Undertow server = Undertow.builder().addHttpListener(0, "localhost").setHandler(new BlockingHandler(exchange -> {
+            Thread.sleep(responseTime);
+            exchange.getResponseSender().send("{}");
+        })).build();
+        server.start();
+        servers.add(server);
+        return "http://localhost:" + ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+}
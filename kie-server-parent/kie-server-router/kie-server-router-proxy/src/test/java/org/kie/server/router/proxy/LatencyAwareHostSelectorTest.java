@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyAwareHostSelectorTest {
+
+    private final LatencyAwareHostSelector selector = new LatencyAwareHostSelector();
+
+    private final HostStatistics server1 = selector.statistics("http://localhost:8080/kie-server/services/rest/server");
+    private final HostStatistics server2 = selector.statistics("http://localhost:8180/kie-server/services/rest/server");
+    private final List<HostStatistics> hosts = Arrays.asList(server1, server2);
+
+    @Test
+    public void testServersWithoutStatisticsSelectedInTurns() {
+        Set<Integer> selected = new HashSet<>();
+        selected.add(selector.select(hosts, 0));
+        selected.add(selector.select(hosts, 0));
+
+        assertEquals(2, selected.size());
+    }
+
+    @Test
+    public void testFasterServerSelected() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(200), 0);
+        server2.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, selector.select(hosts, 0));
+        }
+    }
+
+    @Test
+    public void testBusyServerShedsRequests() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        server2.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        server2.start();
+
+        assertEquals(0, selector.select(hosts, 0));
+        server1.start();
+        server1.start();
+        assertEquals(1, selector.select(hosts, 0));
+    }
+
+    @Test
+    public void testNewServerPresumedAverage() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        HostStatistics.Request request = server2.start();
+
+        // the request in progress counts even though the server didn't respond yet
+        assertEquals(0, selector.select(hosts, 0));
+        request.end(true);
+        assertEquals(0, server2.getOutstanding());
+        assertTrue(server2.getLatency() >= 0);
+    }
+
+    @Test
+    public void testUnhealthyServerSkipped() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        server2.record(TimeUnit.MILLISECONDS.toNanos(200), 0);
+        server1.setHealthy(false);
+
+        assertEquals(1, selector.select(hosts, 0));
+
+        server2.setHealthy(false);
+        assertEquals(0, selector.select(hosts, 0));
+    }
+
+    @Test
+    public void testLatencyFollowsPeakAndDecays() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        server1.record(TimeUnit.MILLISECONDS.toNanos(500), 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), server1.getLatency(1, 0), 1);
+
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 1 + HostStatistics.DECAY_TIME);
+        double decayed = server1.getLatency(1 + HostStatistics.DECAY_TIME, 0);
+        assertTrue(decayed < TimeUnit.MILLISECONDS.toNanos(500) && decayed > TimeUnit.MILLISECONDS.toNanos(20));
+
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 1 + 10 * HostStatistics.DECAY_TIME);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), server1.getLatency(1 + 10 * HostStatistics.DECAY_TIME, 0), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testLatencyDecaysWhileIdle() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        server2.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        // a single slow response, then no request is sent to the server anymore
+        server1.record(TimeUnit.MILLISECONDS.toNanos(2000), 1);
+        assertEquals(1, selector.select(hosts, 1));
+
+        // the other server keeps responding fast meanwhile
+        long now = 0;
+        for (int i = 0; i < 40; i++) {
+            now += HostStatistics.DECAY_TIME / 4;
+            server2.record(TimeUnit.MILLISECONDS.toNanos(20), now);
+        }
+        // the idle server is presumed about as fast as the other one again
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), server1.getLatency(now, TimeUnit.MILLISECONDS.toNanos(20)), TimeUnit.MILLISECONDS.toNanos(1));
+        // and is tried again once the other one is busy
+        server2.start();
+        assertEquals(0, selector.select(hosts, now));
+    }
+
+    @Test
+    public void testIdleServerDoesNotTakeEveryRequest() {
+        server1.record(TimeUnit.MILLISECONDS.toNanos(2000), 0);
+        server2.record(TimeUnit.MILLISECONDS.toNanos(20), 0);
+        // no health probes, the slow server gets no response to update its latency while idle
+        long now = 100 * HostStatistics.DECAY_TIME;
+        server2.record(TimeUnit.MILLISECONDS.toNanos(20), now);
+
+        int[] selected = new int[2];
+        for (int i = 0; i < 10; i++) {
+            int index = selector.select(hosts, now);
+            hosts.get(index).start();
+            selected[index]++;
+        }
+        // the requests in progress are shared instead of all sent to the server nothing is known about anymore
+        assertEquals(5, selected[0]);
+        assertEquals(5, selected[1]);
+    }
+
+    @Test
+    public void testFailedRequestCounted() {
+        HostStatistics.Request request = server1.start();
+        request.end(false);
+        request.end(false);
+
+        assertEquals(0, server1.getOutstanding());
+        assertEquals(1, server1.getRequests());
+        assertEquals(1, server1.getFailures());
+        assertEquals(-1, server1.getLatency(), 0);
+    }
+}
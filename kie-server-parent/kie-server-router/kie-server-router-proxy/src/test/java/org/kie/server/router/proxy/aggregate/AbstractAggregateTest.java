@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 
+import org.kie.server.router.proxy.aggragate.PageSource;
 import org.w3c.dom.Document;
 
 public abstract class AbstractAggregateTest {
@@ -37,6 +38,13 @@ public abstract class AbstractAggregateTest {
         }
     }
 
+    /**
+     * Server returning the whole given response as its first page, regardless of the page size.
+     */
+    protected PageSource singlePage(String response) {
+        return (page, pageSize) -> page == 0 ? response : "";
+    }
+
     protected Document toXml(String xml) throws Exception {
         try (ByteArrayInputStream stream = new ByteArrayInputStream(xml.getBytes("UTF-8"))) {
             Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stream);
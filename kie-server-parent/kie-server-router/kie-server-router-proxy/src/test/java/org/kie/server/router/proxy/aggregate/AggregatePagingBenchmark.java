@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy.aggregate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.kie.server.router.proxy.aggragate.JSONResponseAggregator;
+import org.kie.server.router.proxy.aggragate.JaxbXMLResponseAggregator;
+import org.kie.server.router.proxy.aggragate.PageSource;
+import org.kie.server.router.proxy.aggragate.PagedResponseMerger;
+import org.kie.server.router.proxy.aggragate.ResponseAggregator;
+import org.kie.server.router.proxy.aggragate.XstreamXMLResponseAggregator;
+
+/**
+ * Compares aggregating a deep page of process definitions out of every server's first (1 + page) * pageSize entries
+ * with merging it out of the pages of the servers. The responses of the servers are rendered upfront, so only the
+ * work done by the router is measured, along with the number of entries it had to read.
+ * Not run as part of the test suite, start it via its main method, optionally passing the page (100 by default), the
+ * page size (10 by default) and the number of servers (10 by default).
+ */
+public class AggregatePagingBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int page = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int servers = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int fetchSize = PagedResponseMerger.fetchSize(page, pageSize, servers);
+
+        Map<String, ResponseAggregator> aggregators = new LinkedHashMap<>();
+        aggregators.put("json", new JSONResponseAggregator());
+        aggregators.put("jaxb", new JaxbXMLResponseAggregator());
+        aggregators.put("xstream", new XstreamXMLResponseAggregator());
+        Map<String, Function<List<Integer>, String>> renderers = new HashMap<>();
+        renderers.put("json", AggregatePagingBenchmark::json);
+        renderers.put("jaxb", AggregatePagingBenchmark::jaxb);
+        renderers.put("xstream", AggregatePagingBenchmark::xstream);
+
+        System.out.printf("page %d, page size %d, %d servers, merge fetch size %d%n", page, pageSize, servers, fetchSize);
+        System.out.printf("%-8s %-8s %12s %12s%n", "format", "mode", "entries", "ms/op");
+        for (Map.Entry<String, ResponseAggregator> aggregator : aggregators.entrySet()) {
+            List<Server> sources = new ArrayList<>();
+            for (int i = 0; i < servers; i++) {
+                sources.add(new Server(i, servers, (1 + page) * pageSize, renderers.get(aggregator.getKey())));
+            }
+            double full = Double.MAX_VALUE;
+            double merge = Double.MAX_VALUE;
+            long fullEntries = 0;
+            long mergeEntries = 0;
+            // first iteration warms up, the best of the others is reported
+            for (int i = 0; i <= ITERATIONS; i++) {
+                sources.forEach(Server::reset);
+                double fullRun = full(aggregator.getValue(), sources, page, pageSize);
+                fullEntries = entries(sources);
+
+                sources.forEach(Server::reset);
+                double mergeRun = merge(aggregator.getValue(), sources, page, pageSize, fetchSize);
+                mergeEntries = entries(sources);
+                if (i > 0) {
+                    full = Math.min(full, fullRun);
+                    merge = Math.min(merge, mergeRun);
+                }
+            }
+            System.out.printf("%-8s %-8s %12d %12.2f%n", aggregator.getKey(), "full", fullEntries, full);
+            System.out.printf("%-8s %-8s %12d %12.2f%n", aggregator.getKey(), "merge", mergeEntries, merge);
+        }
+    }
+
+    private static double full(ResponseAggregator aggregator, List<Server> sources, int page, int pageSize) {
+        long start = System.nanoTime();
+        List<String> data = new ArrayList<>();
+        for (Server source : sources) {
+            data.add(source.fetch(0, (1 + page) * pageSize));
+        }
+        sink = aggregator.aggregate(data, "ProcessId", true, page, pageSize);
+        return (System.nanoTime() - start) / 1_000_000d;
+    }
+
+    private static double merge(ResponseAggregator aggregator, List<Server> sources, int page, int pageSize, int fetchSize) {
+        long start = System.nanoTime();
+        sink = aggregator.aggregate(sources, "ProcessId", true, page, pageSize, fetchSize);
+        return (System.nanoTime() - start) / 1_000_000d;
+    }
+
+    private static long entries(List<Server> sources) {
+        return sources.stream().mapToLong(source -> source.entries.get()).sum();
+    }
+
+    /**
+     * Server holding every n-th process definition, so the requested page spreads evenly across the servers.
+     */
+    private static class Server implements PageSource {
+
+        private final int index;
+        private final int servers;
+        private final int size;
+        private final Function<List<Integer>, String> renderer;
+        private final Map<String, String> pages = new HashMap<>();
+        private final Map<String, Integer> pageEntries = new HashMap<>();
+        private final AtomicLong entries = new AtomicLong();
+
+        private Server(int index, int servers, int size, Function<List<Integer>, String> renderer) {
+            this.index = index;
+            this.servers = servers;
+            this.size = size;
+            this.renderer = renderer;
+        }
+
+        private void reset() {
+            entries.set(0);
+        }
+
+        @Override
+        public String fetch(int page, int pageSize) {
+            String key = page + ":" + pageSize;
+            String response = pages.computeIfAbsent(key, k -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = page * pageSize; i < Math.min(size, (page + 1) * pageSize); i++) {
+                    ids.add(i * servers + index);
+                }
+                pageEntries.put(k, ids.size());
+                return renderer.apply(ids);
+            });
+            entries.addAndGet(pageEntries.get(key));
+            return response;
+        }
+    }
+
+    private static String id(int id) {
+        // sorted as strings by the aggregators
+        return String.format("%08d", id);
+    }
+
+    private static String json(List<Integer> ids) {
+        StringBuilder json = new StringBuilder("{\"processes\": [");
+        for (int i = 0; i < ids.size(); i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("{\"process-id\": \"").append(id(ids.get(i)))
+                    .append("\", \"container-id\": \"evaluation\", \"package\": \"org.jbpm\", \"process-name\": \"Evaluation\", \"process-version\": \"1\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String jaxb(List<Integer> ids) {
+        StringBuilder xml = new StringBuilder("<process-definitions>");
+        for (Integer id : ids) {
+            xml.append("<processes><process-id>").append(id(id))
+                    .append("</process-id><process-name>Evaluation</process-name><process-version>1</process-version><package>org.jbpm</package><container-id>evaluation</container-id></processes>");
+        }
+        return xml.append("</process-definitions>").toString();
+    }
+
+    private static String xstream(List<Integer> ids) {
+        StringBuilder xml = new StringBuilder("<org.kie.server.api.model.definition.ProcessDefinitionList><processes>");
+        for (Integer id : ids) {
+            xml.append("<org.kie.server.api.model.definition.ProcessDefinition><id>").append(id(id))
+                    .append("</id><name>Evaluation</name><version>1</version><packageName>org.jbpm</packageName><containerId>evaluation</containerId></org.kie.server.api.model.definition.ProcessDefinition>");
+        }
+        return xml.append("</processes></org.kie.server.api.model.definition.ProcessDefinitionList>").toString();
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.xml.xpath.XPath;
@@ -623,5 +624,51 @@ public class JAXBAggregatorTest extends AbstractAggregateTest {
         assertEquals("xsi:type", firstNodeAttributes.item(1).getNodeName());
         assertEquals("jaxbList", firstNodeAttributes.item(1).getNodeValue());
     }
-}
 
+    @Test
+    public void testMergeProcessDefinitionsPage() throws Exception {
+        String xml1 = read(this.getClass().getResourceAsStream("/jaxb/process-def-1.xml"));
+        String xml2 = read(this.getClass().getResourceAsStream("/jaxb/process-def-2.xml"));
+        JaxbXMLResponseAggregator aggregate = new JaxbXMLResponseAggregator();
+
+        String result = aggregate.aggregate(Arrays.asList(singlePage(xml1), singlePage(xml2)), "ProcessId", true, 1, 2, 10);
+        logger.debug(result);
+
+        Document xml = toXml(result);
+        assertNotNull(xml);
+
+        NodeList processes = xml.getElementsByTagName("process-definitions");
+        assertNotNull(processes);
+        assertEquals(1, processes.getLength());
+
+        NodeList processDefs = xml.getElementsByTagName("processes");
+        assertNotNull(processDefs);
+        assertEquals(2, processDefs.getLength());
+
+        NodeList processDefIds = xml.getElementsByTagName("process-id");
+        assertNotNull(processDefIds);
+        assertEquals(2, processDefIds.getLength());
+        // make sure only the requested window is merged
+        String value1 = processDefIds.item(0).getFirstChild().getNodeValue();
+        assertEquals("3", value1);
+        String value2 = processDefIds.item(1).getFirstChild().getNodeValue();
+        assertEquals("4", value2);
+    }
+
+    @Test
+    public void testMergeProcessDefinitionsSourceEmpty() throws Exception {
+        String xml1 = read(this.getClass().getResourceAsStream("/jaxb/process-def-empty.xml"));
+        String xml2 = read(this.getClass().getResourceAsStream("/jaxb/process-def-1.xml"));
+        JaxbXMLResponseAggregator aggregate = new JaxbXMLResponseAggregator();
+
+        String result = aggregate.aggregate(Arrays.asList(singlePage(xml1), singlePage(xml2)), "ProcessId", true, 0, 5, 10);
+        logger.debug(result);
+
+        Document xml = toXml(result);
+        assertNotNull(xml);
+
+        NodeList processDefs = xml.getElementsByTagName("processes");
+        assertNotNull(processDefs);
+        assertEquals(2, processDefs.getLength());
+    }
+}
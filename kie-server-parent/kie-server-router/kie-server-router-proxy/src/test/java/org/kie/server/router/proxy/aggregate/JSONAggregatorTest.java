@@ -20,6 +20,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.logging.Logger;
@@ -543,5 +544,61 @@ public class JSONAggregatorTest extends AbstractAggregateTest {
         assertNotNull(aggregated);
         assertEquals(2, aggregated.length());
     }
-}
 
+    @Test
+    public void testMergeProcessDefinitionsPage() throws Exception {
+        String json1 = read(this.getClass().getResourceAsStream("/json/process-def-1.json"));
+        String json2 = read(this.getClass().getResourceAsStream("/json/process-def-2.json"));
+
+        JSONResponseAggregator aggregate = new JSONResponseAggregator();
+
+        String merged = aggregate.aggregate(Arrays.asList(singlePage(json2), singlePage(json1)), "ProcessId", true, 2, 2, 10);
+        logger.debug(merged);
+
+        JSONObject aggregated = new JSONObject(merged);
+        assertNotNull(aggregated);
+
+        Object processes = aggregated.get("processes");
+        assertNotNull(processes);
+        assertTrue(processes instanceof JSONArray);
+
+        JSONArray processDefs = (JSONArray) processes;
+        assertEquals(2, processDefs.length());
+        // make sure only the requested window is merged
+        String value1 = ((JSONObject)processDefs.get(0)).getString("process-id");
+        assertEquals("5", value1);
+        String value2 = ((JSONObject)processDefs.get(1)).getString("process-id");
+        assertEquals("6", value2);
+    }
+
+    @Test
+    public void testMergeProcessDefinitionsSourceEmpty() throws Exception {
+        String json1 = read(this.getClass().getResourceAsStream("/json/process-def-empty.json"));
+        String json2 = read(this.getClass().getResourceAsStream("/json/process-def-2.json"));
+
+        JSONResponseAggregator aggregate = new JSONResponseAggregator();
+
+        String merged = aggregate.aggregate(Arrays.asList(singlePage(json1), singlePage(json2)), "ProcessId", true, 0, 2, 10);
+        logger.debug(merged);
+
+        JSONArray processDefs = new JSONObject(merged).getJSONArray("processes");
+        assertEquals(2, processDefs.length());
+        assertEquals("6", ((JSONObject)processDefs.get(0)).getString("process-id"));
+        assertEquals("7", ((JSONObject)processDefs.get(1)).getString("process-id"));
+    }
+
+    @Test
+    public void testMergeRawList() throws Exception {
+        String json1 = read(this.getClass().getResourceAsStream("/json/raw-list-1.json"));
+        String json2 = read(this.getClass().getResourceAsStream("/json/raw-list-2.json"));
+
+        JSONResponseAggregator aggregate = new JSONResponseAggregator();
+
+        String merged = aggregate.aggregate(Arrays.asList(singlePage(json1), singlePage(json2)), null, true, 1, 2, 10);
+        logger.debug(merged);
+
+        JSONArray aggregated = new JSONArray(merged);
+        assertNotNull(aggregated);
+        assertEquals(2, aggregated.length());
+    }
+}
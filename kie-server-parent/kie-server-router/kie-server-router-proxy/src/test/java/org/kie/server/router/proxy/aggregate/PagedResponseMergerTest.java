@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.kie.server.router.proxy.aggragate.PageSource;
+import org.kie.server.router.proxy.aggragate.PagedResponseMerger;
+
+public class PagedResponseMergerTest {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final PagedResponseMerger<List<Integer>, Integer> merger = new PagedResponseMerger<>(PagedResponseMergerTest::parse,
+                                                                                                  list -> list,
+                                                                                                  Comparator.<Integer>naturalOrder());
+
+    @Test
+    public void testMergeMatchesSortedSlice() {
+        Random random = new Random(7);
+        List<List<Integer>> servers = new ArrayList<>();
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            List<Integer> entries = new ArrayList<>();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                entries.add(random.nextInt(100));
+            }
+            Collections.sort(entries);
+            servers.add(entries);
+            all.addAll(entries);
+        }
+        Collections.sort(all);
+
+        List<PageSource> sources = servers.stream().map(this::source).collect(Collectors.toList());
+        for (int fetchSize : new int[]{1, 3, 10, 50}) {
+            for (int page = 0; page * 4 <= all.size(); page++) {
+                PagedResponseMerger.Page<List<Integer>, Integer> merged = merger.merge(sources, page, 4, fetchSize);
+                assertNotNull(merged);
+                assertEquals(all.subList(page * 4, Math.min(all.size(), page * 4 + 4)), merged.getEntries());
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyRequiredPagesAreFetched() {
+        // all entries of the page are on the first server, the others are only asked for their first page
+        List<PageSource> sources = Arrays.asList(source(range(0, 100)), source(range(1000, 1100)), source(range(2000, 2100)));
+
+        PagedResponseMerger.Page<List<Integer>, Integer> merged = merger.merge(sources, 5, 10, 20);
+        assertEquals(range(50, 60), merged.getEntries());
+        assertEquals(3 + 1 + 1, fetches.get());
+    }
+
+    @Test
+    public void testExhaustedSources() {
+        List<PageSource> sources = Arrays.asList(source(range(0, 3)), source(Collections.emptyList()), source(range(3, 5)));
+
+        assertEquals(range(2, 4), merger.merge(sources, 1, 2, 2).getEntries());
+        assertEquals(range(4, 5), merger.merge(sources, 2, 2, 2).getEntries());
+
+        PagedResponseMerger.Page<List<Integer>, Integer> merged = merger.merge(sources, 3, 2, 2);
+        assertTrue(merged.getEntries().isEmpty());
+        assertNotNull(merged.getTemplate());
+    }
+
+    @Test
+    public void testNoResponses() {
+        PagedResponseMerger.Page<List<Integer>, Integer> merged = merger.merge(Arrays.asList((page, pageSize) -> null, (page, pageSize) -> ""), 0, 10, 10);
+        assertNull(merged.getTemplate());
+        assertTrue(merged.getEntries().isEmpty());
+    }
+
+    @Test
+    public void testUnpageableResponse() {
+        assertNull(merger.merge(Arrays.asList(source(range(0, 3)), (page, pageSize) -> "not a list"), 0, 10, 10));
+    }
+
+    private PageSource source(List<Integer> entries) {
+        return (page, pageSize) -> {
+            fetches.incrementAndGet();
+            int start = Math.min(entries.size(), page * pageSize);
+            return entries.subList(start, Math.min(entries.size(), start + pageSize)).stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        };
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> range = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+
+    private static List<Integer> parse(String response) {
+        if (!response.startsWith("[")) {
+            return null;
+        }
+        String entries = response.substring(1, response.length() - 1);
+        if (entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(entries.split(",")).map(Integer::valueOf).collect(Collectors.toList());
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.logging.Logger;
@@ -631,5 +632,55 @@ public class XstreamAggregatorTest extends AbstractAggregateTest {
         assertNotNull(processes);
         assertEquals(2, processes.getLength());
     }
-}
 
+    @Test
+    public void testMergeProcessDefinitionsPage() throws Exception {
+        String xml1 = read(this.getClass().getResourceAsStream("/xstream/process-def-1.xml"));
+        String xml2 = read(this.getClass().getResourceAsStream("/xstream/process-def-2.xml"));
+        XstreamXMLResponseAggregator aggregate = new XstreamXMLResponseAggregator();
+
+        String result = aggregate.aggregate(Arrays.asList(singlePage(xml1), singlePage(xml2)), "ProcessId", true, 1, 2, 10);
+        logger.debug(result);
+
+        Document xml = toXml(result);
+        assertNotNull(xml);
+
+        NodeList processes = xml.getElementsByTagName("org.kie.server.api.model.definition.ProcessDefinitionList");
+        assertNotNull(processes);
+        assertEquals(1, processes.getLength());
+
+        NodeList defs = xml.getElementsByTagName("processes");
+        assertNotNull(defs);
+        assertEquals(1, defs.getLength());
+
+        NodeList processDefs = xml.getElementsByTagName("org.kie.server.api.model.definition.ProcessDefinition");
+        assertNotNull(processDefs);
+        assertEquals(2, processDefs.getLength());
+
+        NodeList processDefIds = xml.getElementsByTagName("id");
+        assertNotNull(processDefIds);
+        assertEquals(2, processDefIds.getLength());
+        // make sure only the requested window is merged
+        String value1 = processDefIds.item(0).getFirstChild().getNodeValue();
+        assertEquals("3", value1);
+        String value2 = processDefIds.item(1).getFirstChild().getNodeValue();
+        assertEquals("4", value2);
+    }
+
+    @Test
+    public void testMergeProcessDefinitionsSourceEmpty() throws Exception {
+        String xml1 = read(this.getClass().getResourceAsStream("/xstream/process-def-empty.xml"));
+        String xml2 = read(this.getClass().getResourceAsStream("/xstream/process-def-1.xml"));
+        XstreamXMLResponseAggregator aggregate = new XstreamXMLResponseAggregator();
+
+        String result = aggregate.aggregate(Arrays.asList(singlePage(xml1), singlePage(xml2)), "ProcessId", true, 0, 5, 10);
+        logger.debug(result);
+
+        Document xml = toXml(result);
+        assertNotNull(xml);
+
+        NodeList processDefs = xml.getElementsByTagName("org.kie.server.api.model.definition.ProcessDefinition");
+        assertNotNull(processDefs);
+        assertEquals(2, processDefs.getLength());
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.router.utils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.BlockingHandler;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xnio.XnioIoThread;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncHttpClientTest {
+
+    private final List<Undertow> servers = new ArrayList<>();
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final List<Thread> completionThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private String serverUrl;
+
+    @Before
+    public void startServer() {
+        serverUrl = url(start(new BlockingHandler(exchange -> {
+            clientPorts.add(exchange.getSourceAddress().getPort());
+            if ("/slow".equals(exchange.getRequestPath())) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            exchange.getResponseSender().send("response of " + exchange.getRequestPath());
+        }), 4));
+    }
+
+    @After
+    public void stopServers() {
+        release.countDown();
+        servers.forEach(Undertow::stop);
+    }
+
+    @Test
+    public void testIdleConnectionsReused() throws Exception {
+        String routerUrl = url(start(relay(new AsyncHttpClient(10000, 1), serverUrl), 4));
+
+        assertEquals("response of /first", get(routerUrl + "/first"));
+        assertEquals("response of /second", get(routerUrl + "/second"));
+        assertEquals(2, clientPorts.size());
+        assertEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testConnectionsClosedWithoutIdleSlots() throws Exception {
+        String routerUrl = url(start(relay(new AsyncHttpClient(10000, 0), serverUrl), 4));
+
+        assertEquals("response of /first", get(routerUrl + "/first"));
+        assertEquals("response of /second", get(routerUrl + "/second"));
+        assertEquals(2, clientPorts.size());
+        assertNotEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        String routerUrl = url(start(relay(new AsyncHttpClient(100, 1), serverUrl), 4));
+
+        assertEquals(SocketTimeoutException.class.getName(), get(routerUrl + "/slow"));
+        // the timed out connection isn't kept, the next request gets a new one
+        release.countDown();
+        assertEquals("response of /fast", get(routerUrl + "/fast"));
+        assertNotEquals(clientPorts.get(0), clientPorts.get(1));
+    }
+
+    @Test
+    public void testConnectionFailure() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        String routerUrl = url(start(relay(new AsyncHttpClient(10000, 1), "http://localhost:" + closedPort), 4));
+
+        String failure = get(routerUrl + "/any");
+        assertTrue(failure, SocketException.class.isAssignableFrom(Class.forName(failure)));
+    }
+
+    @Test
+    public void testWorkerNotHeldWhileWaiting() throws Exception {
+        // a single worker thread, released while the slow server is waited for
+        String routerUrl = url(start(relay(new AsyncHttpClient(10000, 1), serverUrl), 1));
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> get(routerUrl + "/slow"));
+        while (clientPorts.isEmpty()) {
+            Thread.sleep(10);
+        }
+        assertEquals("response of /fast", get(routerUrl + "/fast"));
+        assertFalse(slow.isDone());
+
+        release.countDown();
+        assertEquals("response of /slow", slow.get(10, TimeUnit.SECONDS));
+        for (Thread thread : completionThreads) {
+            assertTrue(thread.getName(), thread instanceof XnioIoThread);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testWaitOnSingleWorker() throws Exception {
+        AsyncHttpClient client = new AsyncHttpClient(10000, 1);
+        // the only worker thread waits for the response, which must not need a worker thread to complete
+        String routerUrl = url(start(new BlockingHandler(exchange -> {
+            String body = client.send(exchange, serverUrl + exchange.getRequestPath(), Methods.GET, null).join().getBody();
+            exchange.getResponseSender().send(body);
+        }), 1));
+
+        assertEquals("response of /blocking", get(routerUrl + "/blocking"));
+    }
+
+    /*
+     * Sends the requests to the server as the aggregate handlers do: the exchange is dispatched and responded on a
+     * worker thread once the response is in, failures are answered with the name of their exception.
+     */
+    private HttpHandler relay(AsyncHttpClient client, String url) {
+        return new BlockingHandler(exchange -> exchange.dispatch(SameThreadExecutor.INSTANCE, () -> {
+            client.send(exchange, url + exchange.getRequestPath(), Methods.GET, null)
+                    .whenComplete((response, e) -> completionThreads.add(Thread.currentThread()))
+                    .whenCompleteAsync((response, e) -> {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        exchange.getResponseSender().send(cause != null ? cause.getClass().getName() : response.getBody());
+                    }, exchange.getConnection().getWorker());
+        }));
+    }
+
+    private Undertow start(HttpHandler handler, int workerThreads) {
+        Undertow server = Undertow.builder().addHttpListener(0, "localhost").setWorkerThreads(workerThreads).setHandler(handler).build();
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static String url(Undertow server) {
+        return "http://localhost:" + ((InetSocketAddress) server.getListenerInfo().get(0).getAddress()).getPort();
+    }
+
+    private static String get(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setReadTimeout(10000);
+            try (InputStream in = connection.getInputStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                return reader.lines().collect(Collectors.joining("\n"));
+            }
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+}
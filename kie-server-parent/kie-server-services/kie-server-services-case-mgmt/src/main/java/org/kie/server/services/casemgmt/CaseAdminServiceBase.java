@@ -22,6 +22,7 @@ import org.jbpm.casemgmt.api.admin.CaseInstanceMigrationService;
 import org.jbpm.casemgmt.api.admin.CaseMigrationReport;
 import org.kie.server.api.model.cases.CaseMigrationReportInstance;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.locator.ContainerIdCache;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +59,8 @@ public class CaseAdminServiceBase {
         
         CaseMigrationReport report = caseInstanceMigrationService.migrate(caseId, targetContainerId, processMapping, nodeMapping);
         logger.debug("Migration of case instance {} finished with report {}", caseId, report);
+        // process instances of the case and their tasks belong to the target container now
+        ContainerIdCache.invalidateContainer(containerId);
         return ConvertUtils.convertCaseMigrationReport(caseId, report);
     }
 }
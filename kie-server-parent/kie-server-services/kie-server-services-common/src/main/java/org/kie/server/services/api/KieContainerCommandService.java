@@ -15,6 +15,9 @@
 
 package org.kie.server.services.api;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 import org.kie.server.api.commands.CommandScript;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ServiceResponse;
@@ -23,6 +26,28 @@ import org.kie.server.api.model.ServiceResponsesList;
 public interface KieContainerCommandService<V> {
 
     ServiceResponse<V> callContainer(String containerId, String payload, MarshallingFormat marshallingFormat, String classType);
+
+    /**
+     * Same as {@link #callContainer(String, String, MarshallingFormat, String)} but takes the payload as raw bytes
+     * as received from the transport. Default implementation converts the payload into its <code>String</code>
+     * form (Base64 for binary formats), implementations are encouraged to unmarshall the bytes directly.
+     */
+    default ServiceResponse<V> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType) {
+        if (payload == null) {
+            return callContainer(containerId, (String) null, marshallingFormat, classType);
+        }
+        String content = marshallingFormat.isBinary() ? Base64.getEncoder().encodeToString(payload) : new String(payload, StandardCharsets.UTF_8);
+        return callContainer(containerId, content, marshallingFormat, classType);
+    }
+
+    /**
+     * Same as {@link #callContainer(String, byte[], MarshallingFormat, String)} but with the ksession to be used given
+     * explicitly (e.g. as request header) so implementations do not need to search the payload for it. When given it
+     * takes precedence over the lookup defined in the payload. Default implementation ignores it and relies on the payload.
+     */
+    default ServiceResponse<V> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType, String lookup) {
+        return callContainer(containerId, payload, marshallingFormat, classType);
+    }
     
     ServiceResponsesList executeScript(CommandScript commands, MarshallingFormat marshallingFormat, String classType);
 }
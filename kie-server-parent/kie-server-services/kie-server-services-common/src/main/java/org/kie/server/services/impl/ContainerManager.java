@@ -15,8 +15,19 @@
 
 package org.kie.server.services.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.KieServerEnvironment;
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.api.model.KieContainerStatus;
@@ -39,15 +50,16 @@ public class ContainerManager {
             kieServer.markAsReady();
             return;
         }
-        for (KieContainerResource containerResource : containers) {
-            if (KieContainerStatus.STARTED.equals(containerResource.getStatus())) {
-                kieServer.createContainer(containerResource.getContainerId(), containerResource);
-            } else if (KieContainerStatus.DEACTIVATED.equals(containerResource.getStatus())) {
-                kieServer.createContainer(containerResource.getContainerId(), containerResource);
-                kieServer.deactivateContainer(containerResource.getContainerId());
-                containerResource.setStatus(KieContainerStatus.DEACTIVATED);
+        long start = System.currentTimeMillis();
+        int threads = getInstallThreads(containers);
+        if (threads > 1) {
+            installContainersParallel(kieServer, containers, threads);
+        } else {
+            for (KieContainerResource containerResource : containers) {
+                installContainer(kieServer, containerResource);
             }
         }
+        logger.info("Installed {} containers on kie server '{}' in {} ms", containers.size(), kieServer, System.currentTimeMillis() - start);
         currentState.setContainers(containers);
         if (kieServerSetup.getServerConfig() != null) {
             currentState.setConfiguration(kieServerSetup.getServerConfig());
@@ -55,4 +67,96 @@ public class ContainerManager {
         kieServer.getServerRegistry().getStateRepository().store(KieServerEnvironment.getServerId(), currentState);
         kieServer.markAsReady();
     }
+
+    /**
+     * Installs containers on at most the given number of threads of the install executor, each container is created
+     * (and deactivated when requested) by a single thread so server extensions still process it in their start order
+     * (e.g. jBPM before case management). Returns once all containers are installed.
+     */
+    protected void installContainersParallel(KieServerImpl kieServer, Set<KieContainerResource> containers, int threads) {
+        logger.info("Installing containers in parallel on {} threads", threads);
+        ExecutorService executor = getInstallExecutor(threads);
+        // the executor may be shared and larger, so only as many tasks as threads are submitted, each taking containers from the queue
+        Queue<KieContainerResource> pending = new ConcurrentLinkedQueue<>(containers);
+        List<Future<?>> installers = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                installers.add(executor.submit(() -> {
+                    KieContainerResource containerResource;
+                    while ((containerResource = pending.poll()) != null) {
+                        try {
+                            installContainer(kieServer, containerResource);
+                        } catch (RuntimeException e) {
+                            logger.error("Unexpected error while installing container {}", containerResource.getContainerId(), e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> installer : installers) {
+                try {
+                    installer.get();
+                } catch (ExecutionException e) {
+                    logger.error("Unexpected error while installing containers", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while installing containers on kie server '{}'", kieServer);
+            pending.clear();
+            installers.forEach(installer -> installer.cancel(true));
+        } finally {
+            releaseInstallExecutor(executor);
+        }
+    }
+
+    /**
+     * Returns the executor to install containers in parallel on. By default a new pool of the given number of threads
+     * is created for every install, environments managing their threads (e.g. EJB containers) override this to
+     * provide their managed executor along with {@link #releaseInstallExecutor(ExecutorService)}.
+     */
+    protected ExecutorService getInstallExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, new InstallThreadFactory());
+    }
+
+    /**
+     * Called once all containers are installed with the executor returned by {@link #getInstallExecutor(int)}.
+     */
+    protected void releaseInstallExecutor(ExecutorService executor) {
+        executor.shutdownNow();
+    }
+
+    protected void installContainer(KieServerImpl kieServer, KieContainerResource containerResource) {
+        long start = System.currentTimeMillis();
+        if (KieContainerStatus.STARTED.equals(containerResource.getStatus())) {
+            kieServer.createContainer(containerResource.getContainerId(), containerResource);
+        } else if (KieContainerStatus.DEACTIVATED.equals(containerResource.getStatus())) {
+            kieServer.createContainer(containerResource.getContainerId(), containerResource);
+            kieServer.deactivateContainer(containerResource.getContainerId());
+            containerResource.setStatus(KieContainerStatus.DEACTIVATED);
+        } else {
+            return;
+        }
+        logger.info("Container {} installed in {} ms", containerResource.getContainerId(), System.currentTimeMillis() - start);
+    }
+
+    protected int getInstallThreads(Set<KieContainerResource> containers) {
+        if (containers.size() < 2 || !Boolean.getBoolean(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL)) {
+            return 1;
+        }
+        int threads = Integer.getInteger(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS, Runtime.getRuntime().availableProcessors());
+        return Math.max(1, Math.min(threads, containers.size()));
+    }
+
+    private static class InstallThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = delegate.newThread(runnable);
+            thread.setName("kie-server-container-install-" + counter.incrementAndGet());
+            return thread;
+        }
+    }
 }
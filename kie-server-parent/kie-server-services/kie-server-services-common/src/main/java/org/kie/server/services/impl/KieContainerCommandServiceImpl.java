@@ -15,11 +15,10 @@
 
 package org.kie.server.services.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
 import org.kie.api.command.Command;
@@ -48,12 +47,12 @@ import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.services.api.KieContainerCommandService;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.locator.ContainerLocatorProvider;
+import org.kie.server.services.impl.marshal.LookupParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class KieContainerCommandServiceImpl implements KieContainerCommandService<ExecutionResults> {
 
-    protected static final Pattern LOOKUP            = Pattern.compile("[\"']?lookup[\"']?\\s*[:=]\\s*[\"']([^\"']+)[\"']");
     private static final Logger logger             = LoggerFactory.getLogger(KieContainerCommandServiceImpl.class);
 
     protected KieServerImpl kieServer;
@@ -65,24 +64,54 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
     }
 
     public ServiceResponse<ExecutionResults> callContainer(String containerId, String payload, MarshallingFormat marshallingFormat, String classType) {
-        return callContainer(containerId, payload, marshallingFormat, classType, false);
+        return callContainer(containerId, payload, marshallingFormat, classType, null, false);
     }
 
-    protected ServiceResponse<ExecutionResults> callContainer(String containerId, String payload, MarshallingFormat marshallingFormat, String classType, boolean marshallResponse) {
+    @Override
+    public ServiceResponse<ExecutionResults> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType) {
+        return callContainer(containerId, payload, marshallingFormat, classType, null);
+    }
+
+    @Override
+    public ServiceResponse<ExecutionResults> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType, String lookup) {
+        if (payload != null && marshallingFormat.isBinary()) {
+            // binary content is unmarshalled as it is, without going through its text form
+            return callContainer(containerId, null, marshallingFormat, lookup, false, kci -> unmarshallCommand(kci, payload, marshallingFormat, classType));
+        }
+        String content = payload == null ? null : new String(payload, StandardCharsets.UTF_8);
+        return callContainer(containerId, content, marshallingFormat, classType, lookup, false);
+    }
+
+    protected ServiceResponse<ExecutionResults> callContainer(String containerId, String payload, MarshallingFormat marshallingFormat, String classType, String lookup, boolean marshallResponse) {
         if( payload == null ) {
             return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Error calling container " + containerId + ". Empty payload. ");
         }
+        return callContainer(containerId, marshallingFormat.isBinary() ? null : payload, marshallingFormat, lookup, marshallResponse,
+                             kci -> unmarshallCommand(kci, payload, marshallingFormat, classType));
+    }
+
+    /**
+     * @param textPayload payload the lookup can be parsed from, null when only the unmarshalled command can tell it
+     */
+    private ServiceResponse<ExecutionResults> callContainer(String containerId, String textPayload, MarshallingFormat marshallingFormat, String lookup, boolean marshallResponse, CommandUnmarshaller unmarshaller) {
         try {
             KieContainerInstanceImpl kci = (KieContainerInstanceImpl) context.getContainer( containerId, ContainerLocatorProvider.get().getLocator() );
             // the following code is subject to a concurrent call to dispose(), but the cost of synchronizing it
             // would likely not be worth it. At this point a decision was made to fail the execution if a concurrent
             // call do dispose() is executed.
             if (kci != null && kci.getKieContainer() != null) {
-                String sessionId = null;
-                // this is a weak way of finding the lookup, but it is the same used in kie-camel. Will keep it for now.
-                Matcher m = LOOKUP.matcher(payload);
-                if (m.find()) {
-                    sessionId = m.group(1);
+                String sessionId = lookup;
+                Command<?> cmd = null;
+                if (sessionId == null) {
+                    if (textPayload == null) {
+                        // binary content cannot be pre-parsed so take the lookup from the unmarshalled command
+                        cmd = unmarshaller.unmarshall(kci);
+                        if (cmd instanceof BatchExecutionCommandImpl) {
+                            sessionId = ((BatchExecutionCommandImpl) cmd).getLookup();
+                        }
+                    } else {
+                        sessionId = LookupParser.parse(textPayload, marshallingFormat);
+                    }
                 }
 
                 // find the session
@@ -94,13 +123,10 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
                     ks = kci.getKieContainer().getKieSession();
                 }
                 if (ks != null) {
-                    Class<? extends Command> type =  BatchExecutionCommandImpl.class;
-                    if (classType != null && !classType.isEmpty()) {
-                        type = (Class<? extends Command>) kci.getKieContainer().getClassLoader().loadClass(classType);
+                    if (cmd == null) {
+                        cmd = unmarshaller.unmarshall(kci);
                     }
 
-                    Command<?> cmd = kci.getMarshaller( marshallingFormat ).unmarshall(payload, type);
-
                     if (cmd == null) {
                         return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Body of in message not of the expected type '" + Command.class.getName() + "'");
                     }
@@ -131,6 +157,24 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
         }
     }
 
+    protected Command<?> unmarshallCommand(KieContainerInstanceImpl kci, String payload, MarshallingFormat marshallingFormat, String classType) throws ClassNotFoundException {
+        Class<? extends Command> type =  BatchExecutionCommandImpl.class;
+        if (classType != null && !classType.isEmpty()) {
+            type = (Class<? extends Command>) kci.getKieContainer().getClassLoader().loadClass(classType);
+        }
+
+        return kci.getMarshaller( marshallingFormat ).unmarshall(payload, type);
+    }
+
+    protected Command<?> unmarshallCommand(KieContainerInstanceImpl kci, byte[] payload, MarshallingFormat marshallingFormat, String classType) throws ClassNotFoundException {
+        Class<? extends Command> type =  BatchExecutionCommandImpl.class;
+        if (classType != null && !classType.isEmpty()) {
+            type = (Class<? extends Command>) kci.getKieContainer().getClassLoader().loadClass(classType);
+        }
+
+        return kci.getMarshaller( marshallingFormat ).unmarshall(payload, type);
+    }
+
     @Override
     public ServiceResponsesList executeScript(CommandScript commands, MarshallingFormat marshallingFormat, String classType) {
         List<ServiceResponse<? extends Object>> responses = new ArrayList<ServiceResponse<? extends Object>>();
@@ -150,7 +194,7 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
                 } else if (command instanceof ListContainersCommand) {
                     responses.add(this.kieServer.listContainers(((ListContainersCommand)command).getKieContainerResourceFilter()));
                 } else if (command instanceof CallContainerCommand) {
-                    ServiceResponse response = callContainer(((CallContainerCommand) command).getContainerId(), ((CallContainerCommand) command).getPayload(), marshallingFormat, classType, true);
+                    ServiceResponse response = callContainer(((CallContainerCommand) command).getContainerId(), ((CallContainerCommand) command).getPayload(), marshallingFormat, classType, null, true);
 
                     responses.add(response);
                 } else if (command instanceof DisposeContainerCommand) {
@@ -210,4 +254,9 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
         }
         return new ServiceResponsesList(responses);
     }
+
+    private interface CommandUnmarshaller {
+
+        Command<?> unmarshall(KieContainerInstanceImpl kci) throws ClassNotFoundException;
+    }
 }
@@ -178,22 +178,21 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
     }
 
     public Marshaller getMarshaller(MarshallingFormat format) {
-        synchronized ( marshallers ) {
-            Marshaller marshaller = marshallers.get( format );
-            if ( marshaller == null ) {
-                marshaller = MarshallerFactory.getMarshaller( getExtraClasses(), format, this.kieContainer.getClassLoader() );
-                this.marshallers.put( format, marshaller );
-            }
+        // fast path - marshaller is almost always already created, so avoid any locking
+        Marshaller marshaller = marshallers.get( format );
+        if ( marshaller != null ) {
             return marshaller;
         }
+        // computeIfAbsent guarantees marshaller for given format is created only once
+        return marshallers.computeIfAbsent( format, f -> MarshallerFactory.getMarshaller( getExtraClasses(), f, this.kieContainer.getClassLoader() ) );
     }
 
     public void disposeMarshallers() {
-        synchronized ( marshallers ) {
-            for ( Marshaller marshaller : this.marshallers.values() ) {
+        for ( MarshallingFormat format : this.marshallers.keySet() ) {
+            Marshaller marshaller = this.marshallers.remove( format );
+            if ( marshaller != null ) {
                 marshaller.dispose();
             }
-            this.marshallers.clear();
         }
     }
 
@@ -67,6 +67,7 @@ import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.api.KieServerRegistryAware;
 import org.kie.server.services.api.StartupStrategy;
 import org.kie.server.services.impl.controller.DefaultRestControllerImpl;
+import org.kie.server.services.impl.locator.ContainerIdCache;
 import org.kie.server.services.impl.locator.ContainerLocatorProvider;
 import org.kie.server.services.impl.policy.PolicyManager;
 import org.kie.server.services.impl.security.JACCIdentityProvider;
@@ -584,6 +585,7 @@ public class KieServerImpl implements KieServer {
                         kieContainer.dispose();
                         ks.getRepository().removeKieModule(releaseId);
                         logger.info("Container {} (for release id {}) successfully stopped", containerId, kci.getResource().getReleaseId());
+                        ContainerIdCache.invalidateContainer(containerId);
 
                         // store the current state of the server
                         storeServerState(currentState -> {
@@ -711,7 +713,8 @@ public class KieServerImpl implements KieServer {
      * Persists updated KieServer state.
      * @param kieServerStateConsumer
      */
-    private void storeServerState(Consumer<KieServerState> kieServerStateConsumer) {
+    // containers may be created concurrently (parallel install, concurrent requests), state is updated in place
+    private synchronized void storeServerState(Consumer<KieServerState> kieServerStateConsumer) {
         KieServerState currentState = repository.load(KieServerEnvironment.getServerId());
         kieServerStateConsumer.accept(currentState);
         repository.store(KieServerEnvironment.getServerId(), currentState);
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl.locator;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.services.api.KieContainerInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded cache of container ids resolved by container locators, shared by all requests so locating the container
+ * of a process instance or task does not need to hit the database every time.
+ * <p>
+ * Size is configured via <code>org.kie.server.container.locator.cache.size</code> (10000 entries by default), 0 disables
+ * caching. Once full, the oldest entries are evicted first to make room for new ones. Lookups don't lock, only
+ * updates of the cache do, as they follow a database query anyway. Entries of a container are invalidated when the
+ * container is disposed and when instances are migrated out of it, and an entry is dropped when found to point to
+ * a container that does not serve the requested alias. Caching should be disabled when instances are migrated by
+ * other servers sharing the same database within containers of the same alias, as those migrations are not seen
+ * by this server.
+ */
+public class ContainerIdCache<K> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerIdCache.class);
+
+    static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final List<ContainerIdCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    private static final ContainerIdCache<Long> PROCESS_INSTANCES = new ContainerIdCache<>("process instance",
+            Integer.getInteger(KieServerConstants.KIE_SERVER_CONTAINER_LOCATOR_CACHE_SIZE, DEFAULT_MAX_SIZE));
+    private static final ContainerIdCache<Long> TASKS = new ContainerIdCache<>("task",
+            Integer.getInteger(KieServerConstants.KIE_SERVER_CONTAINER_LOCATOR_CACHE_SIZE, DEFAULT_MAX_SIZE));
+
+    private final String name;
+    private final int maxSize;
+    private final Map<K, String> containerIds = new ConcurrentHashMap<>();
+    // keys in insertion order, guarded by this
+    private final LinkedHashSet<K> insertionOrder = new LinkedHashSet<>();
+
+    ContainerIdCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        caches.add(this);
+    }
+
+    public static ContainerIdCache<Long> processInstances() {
+        return PROCESS_INSTANCES;
+    }
+
+    public static ContainerIdCache<Long> tasks() {
+        return TASKS;
+    }
+
+    /**
+     * Removes entries pointing to given container from all caches.
+     */
+    public static void invalidateContainer(String containerId) {
+        caches.forEach(cache -> cache.evictContainer(containerId));
+    }
+
+    public String get(K key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        return containerIds.get(key);
+    }
+
+    /**
+     * Returns cached container id of given key only when it is one of given container instances, a cached entry
+     * may point to a container that does not serve the requested alias anymore, e.g. after a migration done elsewhere,
+     * in which case it is evicted.
+     */
+    public String get(K key, List<? extends KieContainerInstance> containerInstances) {
+        String containerId = get(key);
+        if (containerId == null || containerInstances == null) {
+            return containerId;
+        }
+        for (KieContainerInstance containerInstance : containerInstances) {
+            if (containerId.equals(containerInstance.getContainerId())) {
+                return containerId;
+            }
+        }
+        evict(key, containerId);
+        return null;
+    }
+
+    public synchronized void put(K key, String containerId) {
+        if (maxSize <= 0 || containerId == null) {
+            return;
+        }
+        if (containerIds.put(key, containerId) == null) {
+            insertionOrder.add(key);
+            Iterator<K> oldest = insertionOrder.iterator();
+            while (insertionOrder.size() > maxSize) {
+                containerIds.remove(oldest.next());
+                oldest.remove();
+            }
+        }
+    }
+
+    public synchronized void evict(K key) {
+        containerIds.remove(key);
+        insertionOrder.remove(key);
+    }
+
+    private synchronized void evict(K key, String containerId) {
+        if (containerIds.remove(key, containerId)) {
+            insertionOrder.remove(key);
+        }
+    }
+
+    public synchronized void evictAll(Collection<? extends K> keys) {
+        keys.forEach(this::evict);
+    }
+
+    public synchronized void evictContainer(String containerId) {
+        int size = containerIds.size();
+        containerIds.values().removeIf(containerId::equals);
+        insertionOrder.retainAll(containerIds.keySet());
+        int evicted = size - containerIds.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} {} entries of container {}", evicted, name, containerId);
+        }
+    }
+
+    public int size() {
+        return containerIds.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerIdCache{" +
+                "name='" + name + '\'' +
+                ", maxSize=" + maxSize +
+                ", size=" + size() +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl.marshal;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the <code>lookup</code> (ksession name) of a batch execution command without unmarshalling the payload.
+ * Only the top level of the document is visited: for JSON the fields of the root object (nested values are
+ * skipped without being materialized), for XML the attributes of the root element. Parsing stops as soon as
+ * the lookup is found, so for payloads produced by the kie server marshallers only the first few bytes are read.
+ */
+public final class LookupParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(LookupParser.class);
+
+    private static final String LOOKUP = "lookup";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    private LookupParser() {
+    }
+
+    /**
+     * Returns the top level lookup of given payload or <code>null</code> when it does not define one, is malformed
+     * or is in a format that cannot be pre-parsed (binary formats), in which case the caller should rely on the
+     * unmarshalled command instead.
+     */
+    public static String parse(String payload, MarshallingFormat format) {
+        if (payload == null || format == null) {
+            return null;
+        }
+        try {
+            switch (format) {
+                case JSON:
+                    return parseJson(payload);
+                case JAXB:
+                case XSTREAM:
+                    return parseXml(payload);
+                default:
+                    return null;
+            }
+        } catch (IOException | XMLStreamException e) {
+            // leave it to unmarshalling to report malformed content
+            logger.debug("Unable to read lookup from {} payload: {}", format, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String parseJson(String payload) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (LOOKUP.equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static String parseXml(String payload) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(payload));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return reader.getAttributeValue(null, LOOKUP);
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -15,6 +15,9 @@
 
 package org.kie.server.services.impl.marshal;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
@@ -52,41 +55,25 @@ public class MarshallerHelper {
     }
 
     public String marshal(String containerId, String marshallingFormat, Object entity, ContainerLocator locator) {
-        MarshallingFormat format = getFormat(marshallingFormat);
-        if (format == null) {
-            throw new IllegalArgumentException("Unknown marshalling format " + marshallingFormat);
-        }
-
-        KieContainerInstance containerInstance = registry.getContainer(containerId, locator);
-        if (containerInstance == null) {
-            throw new IllegalArgumentException("No container found for id " + containerId + " .");
-        }
-
-        Marshaller marshaller = containerInstance.getMarshaller(format);
-        if (marshaller == null) {
-            throw new IllegalArgumentException("No marshaller found for format " + format);
-        }
-
-        return marshaller.marshall(entity, Collections.singletonMap(MARSHALLER_PARAMETER_STRICT, isStrictType(marshallingFormat)));
-
+        return getContainerMarshaller(containerId, marshallingFormat, locator).marshall(entity, getParameters(marshallingFormat));
     }
 
     public String marshal(String marshallingFormat, Object entity) {
-    	MarshallingFormat format = getFormat(marshallingFormat);
-
-        if (format == null) {
-            throw new IllegalArgumentException("Unknown marshalling format " + marshallingFormat);
-        }
+        return getServerMarshaller(marshallingFormat).marshall(entity, getParameters(marshallingFormat));
+    }
+    
+    public byte[] marshalToBytes(String containerId, String marshallingFormat, Object entity) {
+        return marshalToBytes(containerId, marshallingFormat, entity, ContainerLocatorProvider.get().getLocator());
+    }
 
-        Marshaller marshaller = serverMarshallers.get(format);
-        if (marshaller == null) {
-        	marshaller = MarshallerFactory.getMarshaller(getExtraClasses(registry), format, this.getClass().getClassLoader());
-        	serverMarshallers.put(format, marshaller);
-        }
+    public byte[] marshalToBytes(String containerId, String marshallingFormat, Object entity, ContainerLocator locator) {
+        return getContainerMarshaller(containerId, marshallingFormat, locator).marshallToBytes(entity, getParameters(marshallingFormat));
+    }
 
-        return marshaller.marshall(entity, Collections.singletonMap(MARSHALLER_PARAMETER_STRICT, isStrictType(marshallingFormat)));
+    public byte[] marshalToBytes(String marshallingFormat, Object entity) {
+        return getServerMarshaller(marshallingFormat).marshallToBytes(entity, getParameters(marshallingFormat));
     }
-    
+
     public <T> T unmarshal(String containerId, String data, String marshallingFormat, Class<T> unmarshalType) {
         return unmarshal(containerId, data, marshallingFormat, unmarshalType, ContainerLocatorProvider.get().getLocator());
     }
@@ -117,6 +104,23 @@ public class MarshallerHelper {
         return (T) instance;
     }
 
+    public <T> T unmarshal(String containerId, byte[] data, String marshallingFormat, Class<T> unmarshalType) {
+        return unmarshal(containerId, data, marshallingFormat, unmarshalType, ContainerLocatorProvider.get().getLocator());
+    }
+
+    public <T> T unmarshal(String containerId, byte[] data, String marshallingFormat, Class<T> unmarshalType, ContainerLocator locator) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        Object instance = getContainerMarshaller(containerId, marshallingFormat, locator).unmarshall(data, unmarshalType);
+
+        if (instance instanceof Wrapped) {
+            return (T) ((Wrapped) instance).unwrap();
+        }
+
+        return (T) instance;
+    }
+
     public <T> T unmarshal(String data, String marshallingFormat, Class<T> unmarshalType) {
         if (data == null || data.isEmpty()) {
             return null;
@@ -138,6 +142,34 @@ public class MarshallerHelper {
         return (T) instance;
     }
 
+    public <T> T unmarshal(InputStream data, String marshallingFormat, Class<T> unmarshalType) {
+        if (data == null) {
+            return null;
+        }
+        // same as for a string payload, an empty body is no content rather than an error
+        PushbackInputStream input = new PushbackInputStream(data);
+        try {
+            int first = input.read();
+            if (first == -1) {
+                return null;
+            }
+            input.unread(first);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read the payload", e);
+        }
+        MarshallingFormat format = getFormat(marshallingFormat);
+
+        Marshaller marshaller = getServerMarshaller(format);
+
+        Object instance = marshaller.unmarshall(input, unmarshalType);
+
+        if (instance instanceof Wrapped) {
+            return (T) ((Wrapped) instance).unwrap();
+        }
+
+        return (T) instance;
+    }
+
     public static MarshallingFormat getFormat(String descriptor) {
         MarshallingFormat format = MarshallingFormat.fromType(descriptor);
         if (format == null) {
@@ -147,6 +179,44 @@ public class MarshallerHelper {
         return format;
     }
     
+    private Marshaller getContainerMarshaller(String containerId, String marshallingFormat, ContainerLocator locator) {
+        MarshallingFormat format = getFormat(marshallingFormat);
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown marshalling format " + marshallingFormat);
+        }
+
+        KieContainerInstance containerInstance = registry.getContainer(containerId, locator);
+        if (containerInstance == null) {
+            throw new IllegalArgumentException("No container found for id " + containerId + " .");
+        }
+
+        Marshaller marshaller = containerInstance.getMarshaller(format);
+        if (marshaller == null) {
+            throw new IllegalArgumentException("No marshaller found for format " + format);
+        }
+        return marshaller;
+    }
+
+    private Marshaller getServerMarshaller(String marshallingFormat) {
+        MarshallingFormat format = getFormat(marshallingFormat);
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown marshalling format " + marshallingFormat);
+        }
+        return getServerMarshaller(format);
+    }
+
+    private static Map<String, Object> getParameters(String marshallingFormat) {
+        return Collections.singletonMap(MARSHALLER_PARAMETER_STRICT, isStrictType(marshallingFormat));
+    }
+
+    protected Marshaller getServerMarshaller(MarshallingFormat format) {
+        Marshaller marshaller = serverMarshallers.get(format);
+        if (marshaller == null) {
+            marshaller = serverMarshallers.computeIfAbsent(format, f -> MarshallerFactory.getMarshaller(getExtraClasses(registry), f, this.getClass().getClassLoader()));
+        }
+        return marshaller;
+    }
+
     private static Set<Class<?>> getExtraClasses(KieServerRegistry registry) {
     	Set<Class<?>> extraClasses;
     	
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.FileUtils;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message.Level;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.server.api.KieServerEnvironment;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.api.model.ServiceResponse;
+import org.kie.server.services.impl.storage.file.KieServerStateFileRepository;
+
+/**
+ * Measures the throughput of {@link KieContainerCommandServiceImpl#callContainer} at 1, 8 and 64 threads, each call
+ * looking up the marshaller of the container to unmarshall a small batch executed on a stateless session.
+ * Not run as part of the test suite, start it via its main method, optionally passing the marshalling format
+ * (JSON by default), the thread counts (1,8,64 by default) and the duration of each run in seconds (5 by default).
+ */
+public class CallContainerBenchmark {
+
+    private static final String CONTAINER_ID = "call-container-benchmark";
+    private static final String KSESSION = "stateless";
+    private static final ReleaseId RELEASE_ID = new ReleaseId("org.kie.server.benchmark", "call-container", "1.0.0");
+    private static final int ITERATIONS = 3;
+
+    private static final String JSON = "{\"lookup\":\"" + KSESSION + "\",\"commands\":["
+            + "{\"insert\":{\"object\":\"benchmark\",\"out-identifier\":\"fact\"}},"
+            + "{\"fire-all-rules\":{\"out-identifier\":\"fired\"}}]}";
+    private static final String XSTREAM = "<batch-execution lookup=\"" + KSESSION + "\">"
+            + "<insert out-identifier=\"fact\"><string>benchmark</string></insert>"
+            + "<fire-all-rules out-identifier=\"fired\"/></batch-execution>";
+
+    public static void main(String[] args) throws Exception {
+        MarshallingFormat format = args.length > 0 ? MarshallingFormat.fromType(args[0]) : MarshallingFormat.JSON;
+        String[] threadCounts = (args.length > 1 ? args[1] : "1,8,64").split(",");
+        long duration = TimeUnit.SECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 5);
+        String payload = format == MarshallingFormat.XSTREAM ? XSTREAM : JSON;
+
+        KieServerEnvironment.setServerId("call-container-benchmark");
+        File repositoryDir = Files.createTempDirectory("kie-server-call-benchmark").toFile();
+        KieServerImpl kieServer = new KieServerImpl(new KieServerStateFileRepository(repositoryDir));
+        kieServer.init();
+        try {
+            buildKjar();
+            kieServer.getServerRegistry().getKieSessionLookupManager().addHandler(
+                    (kieSessionId, containerInstance, registry) -> containerInstance.getKieContainer().newStatelessKieSession(kieSessionId));
+            ServiceResponse<KieContainerResource> created = kieServer.createContainer(CONTAINER_ID, new KieContainerResource(CONTAINER_ID, RELEASE_ID, KieContainerStatus.STARTED));
+            if (created.getType() != ServiceResponse.ResponseType.SUCCESS) {
+                throw new IllegalStateException(created.getMsg());
+            }
+            KieContainerCommandServiceImpl commandService = new KieContainerCommandServiceImpl(kieServer, kieServer.getServerRegistry());
+            ServiceResponse<ExecutionResults> response = commandService.callContainer(CONTAINER_ID, payload, format, null);
+            if (response.getType() != ServiceResponse.ResponseType.SUCCESS) {
+                throw new IllegalStateException(response.getMsg());
+            }
+
+            System.out.printf("%s payload, %d s per run%n", format, TimeUnit.NANOSECONDS.toSeconds(duration));
+            System.out.printf("%-8s %14s%n", "threads", "calls/s");
+            for (String threadCount : threadCounts) {
+                int threads = Integer.parseInt(threadCount.trim());
+                double best = 0;
+                // first run warms up, the best of the others is reported
+                for (int i = 0; i <= ITERATIONS; i++) {
+                    double throughput = run(commandService, payload, format, threads, duration);
+                    if (i > 0) {
+                        best = Math.max(best, throughput);
+                    }
+                }
+                System.out.printf("%-8d %14.0f%n", threads, best);
+            }
+        } finally {
+            kieServer.destroy();
+            FileUtils.deleteDirectory(repositoryDir);
+        }
+    }
+
+    private static double run(KieContainerCommandServiceImpl commandService, String payload, MarshallingFormat format, int threads, long duration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean stop = new AtomicBoolean();
+            List<Future<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                calls.add(executor.submit(() -> {
+                    start.await();
+                    long count = 0;
+                    while (!stop.get()) {
+                        if (commandService.callContainer(CONTAINER_ID, payload, format, null).getType() != ServiceResponse.ResponseType.SUCCESS) {
+                            throw new IllegalStateException("Call to container " + CONTAINER_ID + " failed");
+                        }
+                        count++;
+                    }
+                    return count;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            TimeUnit.NANOSECONDS.sleep(duration);
+            stop.set(true);
+            long total = 0;
+            for (Future<Long> call : calls) {
+                total += call.get();
+            }
+            return total * (double) TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - begin);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void buildKjar() {
+        KieServices ks = KieServices.Factory.get();
+        KieModuleModel kieModule = ks.newKieModuleModel();
+        kieModule.newKieBaseModel("kbase").setDefault(true)
+                .newKieSessionModel(KSESSION).setType(KieSessionModel.KieSessionType.STATELESS).setDefault(true);
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(ks.newReleaseId(RELEASE_ID.getGroupId(), RELEASE_ID.getArtifactId(), RELEASE_ID.getVersion()));
+        kfs.writeKModuleXML(kieModule.toXML());
+        kfs.write("src/main/resources/org/kie/server/benchmark/rules.drl",
+                  "package org.kie.server.benchmark;\nrule \"length\" when $s : String( length > 3 ) then end\n");
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
+            throw new IllegalStateException("Unable to build kjar: " + kieBuilder.getResults());
+        }
+        ks.getRepository().addKieModule(kieBuilder.getKieModule());
+    }
+}
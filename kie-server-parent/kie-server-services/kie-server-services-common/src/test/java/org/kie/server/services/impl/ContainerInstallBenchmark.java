@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.Message.Level;
+import org.kie.api.runtime.KieContainer;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.KieServerEnvironment;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.controller.api.model.KieServerSetup;
+import org.kie.server.services.api.KieContainerInstance;
+import org.kie.server.services.api.KieServerExtension;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.api.SupportedTransports;
+import org.kie.server.services.impl.storage.KieServerState;
+import org.kie.server.services.impl.storage.file.KieServerStateFileRepository;
+
+/**
+ * Compares the time needed to install the containers of a server state on startup sequentially and in parallel
+ * (<code>org.kie.server.startup.parallel.install</code>). Synthetic kjars are built up front, every container builds all
+ * kbases of its kjar when created, as extensions do. Not run as part of the test suite, start it via its main method,
+ * optionally passing the number of kjars, rules per kjar and install threads (20, 200 and available processors by default).
+ */
+public class ContainerInstallBenchmark {
+
+    private static final String GROUP_ID = "org.kie.server.benchmark";
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int kjars = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int rules = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        KieServerEnvironment.setServerId("container-install-benchmark");
+        File repositoryDir = Files.createTempDirectory("kie-server-install-benchmark").toFile();
+        KieServerImpl kieServer = new KieServerImpl(new KieServerStateFileRepository(repositoryDir)) {
+            @Override
+            public List<KieServerExtension> getServerExtensions() {
+                return Collections.singletonList(new KieBaseBuildingExtension());
+            }
+        };
+        kieServer.init();
+        try {
+            List<KieModule> kieModules = new ArrayList<>();
+            for (int i = 0; i < kjars; i++) {
+                kieModules.add(buildKjar("kjar-" + i, rules));
+            }
+            System.out.printf("%d kjars, %d rules each, %d install threads%n", kjars, rules, threads);
+
+            // first run of each mode warms up, order alternates so neither mode always runs on warmer caches
+            for (int i = 0; i <= ITERATIONS; i++) {
+                long sequential;
+                long parallel;
+                if (i % 2 == 0) {
+                    sequential = install(kieServer, kieModules, "sequential-" + i, false, threads);
+                    parallel = install(kieServer, kieModules, "parallel-" + i, true, threads);
+                } else {
+                    parallel = install(kieServer, kieModules, "parallel-" + i, true, threads);
+                    sequential = install(kieServer, kieModules, "sequential-" + i, false, threads);
+                }
+                System.out.printf("%-8s sequential %8d ms  parallel %8d ms%n", i == 0 ? "warm-up" : "run " + i, sequential, parallel);
+            }
+        } finally {
+            kieServer.destroy();
+            System.clearProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL);
+            System.clearProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS);
+            FileUtils.deleteDirectory(repositoryDir);
+        }
+    }
+
+    private static long install(KieServerImpl kieServer, List<KieModule> kieModules, String prefix, boolean parallel, int threads) {
+        // disposing the last container of a release removes its module from the repository
+        kieModules.forEach(KieServices.Factory.get().getRepository()::addKieModule);
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL, Boolean.toString(parallel));
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS, Integer.toString(threads));
+        Set<KieContainerResource> containers = new HashSet<>();
+        for (int i = 0; i < kieModules.size(); i++) {
+            containers.add(new KieContainerResource(prefix + "-" + i, new ReleaseId(GROUP_ID, "kjar-" + i, "1.0.0"), KieContainerStatus.STARTED));
+        }
+
+        long start = System.nanoTime();
+        new ContainerManager().installContainersSync(kieServer, containers, new KieServerState(), new KieServerSetup());
+        long duration = (System.nanoTime() - start) / 1000000;
+
+        for (KieContainerResource container : containers) {
+            if (kieServer.getServerRegistry().getContainer(container.getContainerId()) == null) {
+                throw new IllegalStateException("Container " + container.getContainerId() + " was not installed");
+            }
+            kieServer.disposeContainer(container.getContainerId());
+        }
+        return duration;
+    }
+
+    private static KieModule buildKjar(String artifactId, int rules) {
+        StringBuilder drl = new StringBuilder("package org.kie.server.benchmark;\n");
+        for (int i = 0; i < rules; i++) {
+            drl.append("rule \"rule").append(i).append("\" when $s : String( length > ").append(i)
+                    .append(", this != \"").append(artifactId).append("\" ) then end\n");
+        }
+        KieServices ks = KieServices.Factory.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(ks.newReleaseId(GROUP_ID, artifactId, "1.0.0"));
+        kfs.write("src/main/resources/org/kie/server/benchmark/rules.drl", drl.toString());
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
+            throw new IllegalStateException("Unable to build " + artifactId + ": " + kieBuilder.getResults());
+        }
+        return kieBuilder.getKieModule();
+    }
+
+    private static class KieBaseBuildingExtension implements KieServerExtension {
+
+        @Override
+        public boolean isInitialized() {
+            return true;
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public void init(KieServerImpl kieServer, KieServerRegistry registry) {
+        }
+
+        @Override
+        public void destroy(KieServerImpl kieServer, KieServerRegistry registry) {
+        }
+
+        @Override
+        public void createContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+            KieContainer kieContainer = kieContainerInstance.getKieContainer();
+            kieContainer.getKieBaseNames().forEach(kieContainer::getKieBase);
+        }
+
+        @Override
+        public void updateContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        }
+
+        @Override
+        public boolean isUpdateContainerAllowed(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+            return true;
+        }
+
+        @Override
+        public void disposeContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        }
+
+        @Override
+        public List<Object> getAppComponents(SupportedTransports type) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public <T> T getAppComponents(Class<T> serviceType) {
+            return null;
+        }
+
+        @Override
+        public String getImplementedCapability() {
+            return "Benchmark";
+        }
+
+        @Override
+        public List<Object> getServices() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getExtensionName() {
+            return "Benchmark";
+        }
+
+        @Override
+        public Integer getStartOrder() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.controller.api.model.KieServerSetup;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.storage.KieServerState;
+import org.kie.server.services.impl.storage.KieServerStateRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContainerManagerTest {
+
+    private KieServerImpl kieServer;
+    private KieServerStateRepository repository;
+
+    @Before
+    public void setup() {
+        kieServer = mock(KieServerImpl.class);
+        repository = mock(KieServerStateRepository.class);
+        KieServerRegistry registry = mock(KieServerRegistry.class);
+        when(kieServer.getServerRegistry()).thenReturn(registry);
+        when(registry.getStateRepository()).thenReturn(repository);
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL);
+        System.clearProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS);
+    }
+
+    @Test
+    public void testInstallContainersSequentiallyByDefault() {
+        Set<KieContainerResource> containers = containers(4, KieContainerStatus.STARTED);
+        Set<String> threads = recordInstallThreads();
+
+        new ContainerManager().installContainersSync(kieServer, containers, new KieServerState(), new KieServerSetup());
+
+        verify(kieServer, times(4)).createContainer(anyString(), any(KieContainerResource.class));
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+        verify(repository).store(any(), any(KieServerState.class));
+        verify(kieServer).markAsReady();
+    }
+
+    @Test(timeout = 10000)
+    public void testInstallContainersInParallel() throws Exception {
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL, "true");
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS, "3");
+        Set<KieContainerResource> containers = containers(3, KieContainerStatus.STARTED);
+        containers.add(new KieContainerResource("deactivated", new ReleaseId("org.kie", "deactivated", "1.0"), KieContainerStatus.DEACTIVATED));
+        KieServerState state = new KieServerState();
+
+        // every create waits for the others, so it only completes when they run concurrently
+        CountDownLatch running = new CountDownLatch(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(kieServer.createContainer(anyString(), any(KieContainerResource.class))).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            running.countDown();
+            running.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        new ContainerManager().installContainersSync(kieServer, containers, state, new KieServerSetup());
+
+        assertThat(running.getCount()).isZero();
+        assertThat(threads).hasSize(3).allMatch(name -> name.startsWith("kie-server-container-install-"));
+        verify(kieServer, times(4)).createContainer(anyString(), any(KieContainerResource.class));
+        verify(kieServer).deactivateContainer("deactivated");
+        assertThat(state.getContainers()).isSameAs(containers);
+        verify(repository).store(any(), any(KieServerState.class));
+        verify(kieServer).markAsReady();
+    }
+
+    @Test(timeout = 10000)
+    public void testInstallContainersOnProvidedExecutor() throws Exception {
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL, "true");
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS, "2");
+        Set<KieContainerResource> containers = containers(6, KieContainerStatus.STARTED);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(kieServer.createContainer(anyString(), any(KieContainerResource.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                if ("container-0".equals(invocation.getArguments()[0])) {
+                    throw new IllegalStateException("Unable to create container-0");
+                }
+                return null;
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        // a managed executor is shared and larger than the number of install threads
+        ExecutorService managedExecutor = Executors.newFixedThreadPool(8);
+        try {
+            new ContainerManager() {
+                @Override
+                protected ExecutorService getInstallExecutor(int threads) {
+                    return managedExecutor;
+                }
+
+                @Override
+                protected void releaseInstallExecutor(ExecutorService executor) {
+                }
+            }.installContainersSync(kieServer, containers, new KieServerState(), new KieServerSetup());
+
+            assertThat(maxRunning.get()).isEqualTo(2);
+            assertThat(managedExecutor.isShutdown()).isFalse();
+            // a failing container does not prevent the others from being installed
+            verify(kieServer, times(6)).createContainer(anyString(), any(KieContainerResource.class));
+            verify(kieServer).markAsReady();
+        } finally {
+            managedExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelInstallThreadsBoundedByContainers() {
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL, "true");
+        System.setProperty(KieServerConstants.KIE_SERVER_STARTUP_PARALLEL_INSTALL_THREADS, "16");
+        ContainerManager containerManager = new ContainerManager();
+
+        assertThat(containerManager.getInstallThreads(containers(5, KieContainerStatus.STARTED))).isEqualTo(5);
+        assertThat(containerManager.getInstallThreads(containers(1, KieContainerStatus.STARTED))).isEqualTo(1);
+        assertThat(containerManager.getInstallThreads(Collections.emptySet())).isEqualTo(1);
+    }
+
+    @Test
+    public void testNoContainers() {
+        new ContainerManager().installContainersSync(kieServer, null, new KieServerState(), new KieServerSetup());
+
+        verify(kieServer, never()).createContainer(anyString(), any(KieContainerResource.class));
+        verify(kieServer).markAsReady();
+    }
+
+    private Set<String> recordInstallThreads() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(kieServer.createContainer(anyString(), any(KieContainerResource.class))).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return null;
+        });
+        return threads;
+    }
+
+    private static Set<KieContainerResource> containers(int count, KieContainerStatus status) {
+        Set<KieContainerResource> containers = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            containers.add(new KieContainerResource("container-" + i, new ReleaseId("org.kie", "container-" + i, "1.0"), status));
+        }
+        return containers;
+    }
+}
@@ -15,6 +15,13 @@
 
 package org.kie.server.services.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.assertj.core.api.Assertions;
 import org.drools.core.impl.InternalKieContainer;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
@@ -32,6 +39,7 @@ import org.kie.server.api.model.ReleaseId;
 public class KieContainerInstanceImplTest {
 
     private static final String CONTAINER_ID = "my-container";
+    private static final String CONCURRENT_CONTAINER_ID = "my-concurrent-container";
     private static final String GROUP_ID = "org.kie.server.test";
     private static final String ARTIFACT_ID = "my-test-artifact";
     private static final String VERSION_100 = "1.0.0.Final";
@@ -75,6 +83,36 @@ public class KieContainerInstanceImplTest {
         Assertions.assertThat(updatedMarshaller).isNotEqualTo(marshaller);
     }
 
+    @Test
+    public void testConcurrentMarshallerLookupCreatesSingleInstance() throws Exception {
+        createEmptyKjar(GROUP_ID, ARTIFACT_ID, VERSION_100);
+
+        KieServices ks = KieServices.Factory.get();
+        InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(CONCURRENT_CONTAINER_ID, RELEASE_ID_100);
+        KieContainerInstanceImpl containerInstance = new KieContainerInstanceImpl(CONCURRENT_CONTAINER_ID, KieContainerStatus.STARTED, kieContainer);
+
+        Marshaller expected = containerInstance.getMarshaller(MarshallingFormat.JSON);
+
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Marshaller>> lookups = new ArrayList<>();
+            for (int i = 0; i < threads * 4; i++) {
+                lookups.add(() -> containerInstance.getMarshaller(MarshallingFormat.JSON));
+            }
+            for (Future<Marshaller> result : executorService.invokeAll(lookups)) {
+                Assertions.assertThat(result.get()).isSameAs(expected);
+            }
+        } finally {
+            executorService.shutdownNow();
+            kieContainer.dispose();
+        }
+
+        containerInstance.disposeMarshallers();
+        // marshaller is recreated after dispose
+        Assertions.assertThat(containerInstance.getMarshaller(MarshallingFormat.JSON)).isNotSameAs(expected);
+    }
+
     private void verifyReleaseId(ReleaseId actualReleaseId, ReleaseId expectedReleaseId) {
         Assertions.assertThat(actualReleaseId).isNotNull();
         Assertions.assertThat(actualReleaseId.getGroupId()).isEqualTo(expectedReleaseId.getGroupId());
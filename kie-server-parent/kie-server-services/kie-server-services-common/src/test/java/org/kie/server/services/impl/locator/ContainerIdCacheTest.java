@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl.locator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContainerIdCacheTest {
+
+    @Test
+    public void testBoundedSize() {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 2);
+        cache.put(1L, "container-1");
+        cache.put(2L, "container-2");
+        cache.put(3L, "container-3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        // the oldest entry is evicted, the new one is kept
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isEqualTo("container-2");
+        assertThat(cache.get(3L)).isEqualTo("container-3");
+        // updating an entry does not evict others
+        cache.put(3L, "container-4");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2L)).isEqualTo("container-2");
+        assertThat(cache.get(3L)).isEqualTo("container-4");
+    }
+
+    @Test
+    public void testEvictedEntryNotEvictedAgain() {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 2);
+        cache.put(1L, "container-1");
+        cache.put(2L, "container-2");
+        cache.evict(1L);
+        cache.put(1L, "container-1");
+        cache.put(3L, "container-3");
+
+        // entry 1 was added back after entry 2, so entry 2 is the oldest one
+        assertThat(cache.get(1L)).isEqualTo("container-1");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("container-3");
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentPuts() throws Exception {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                long offset = i * 10000L;
+                futures.add(executor.submit(() -> {
+                    for (long key = offset; key < offset + 10000; key++) {
+                        cache.put(key, "container-" + key % 10);
+                        // other threads may have evicted it already
+                        assertThat(cache.get(key)).isIn(null, "container-" + key % 10);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    public void testBoundedByDefault() {
+        assertThat(ContainerIdCache.processInstances().getMaxSize()).isEqualTo(ContainerIdCache.DEFAULT_MAX_SIZE);
+        assertThat(ContainerIdCache.tasks().getMaxSize()).isEqualTo(ContainerIdCache.DEFAULT_MAX_SIZE);
+    }
+
+    @Test
+    public void testDisabled() {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 0);
+        cache.put(1L, "container-1");
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testGetOnlyFromGivenContainers() {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 10);
+        cache.put(1L, "container-1");
+
+        assertThat(cache.get(1L, Arrays.asList(container("container-1"), container("container-2")))).isEqualTo("container-1");
+        assertThat(cache.get(1L, null)).isEqualTo("container-1");
+        // entry pointing to a container not serving the alias anymore is dropped
+        assertThat(cache.get(1L, Collections.singletonList(container("container-2")))).isNull();
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    public void testEvict() {
+        ContainerIdCache<Long> cache = new ContainerIdCache<>("test", 10);
+        cache.put(1L, "container-1");
+        cache.put(2L, "container-1");
+        cache.put(3L, "container-2");
+
+        cache.evict(1L);
+        assertThat(cache.get(1L)).isNull();
+
+        cache.evictAll(Arrays.asList(2L, 3L));
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testInvalidateContainer() {
+        ContainerIdCache<Long> processInstances = new ContainerIdCache<>("process instance", 10);
+        ContainerIdCache<String> cases = new ContainerIdCache<>("case", 10);
+        processInstances.put(1L, "container-1");
+        processInstances.put(2L, "container-2");
+        cases.put("CASE-1", "container-1");
+
+        ContainerIdCache.invalidateContainer("container-1");
+
+        assertThat(processInstances.get(1L)).isNull();
+        assertThat(processInstances.get(2L)).isEqualTo("container-2");
+        assertThat(cases.get("CASE-1")).isNull();
+    }
+
+    private static KieContainerInstanceImpl container(String containerId) {
+        return new KieContainerInstanceImpl(containerId, KieContainerStatus.STARTED);
+    }
+}
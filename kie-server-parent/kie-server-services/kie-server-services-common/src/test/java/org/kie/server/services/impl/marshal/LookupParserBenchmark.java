@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl.marshal;
+
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.kie.server.api.marshalling.MarshallingFormat;
+
+/**
+ * Compares the time needed to find the ksession lookup of a 5 MB batch payload using the full text regular expression
+ * previously used by KieContainerCommandServiceImpl against {@link LookupParser}. Not run as part of the test suite,
+ * start it via its main method.
+ */
+public class LookupParserBenchmark {
+
+    private static final Pattern LOOKUP = Pattern.compile("[\"']?lookup[\"']?\\s*[:=]\\s*[\"']([^\"']+)[\"']");
+
+    private static final int PAYLOAD_SIZE = 5 * 1024 * 1024;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    public static void main(String[] args) {
+        String lookupFirst = jsonPayload(true);
+        String lookupLast = jsonPayload(false);
+        String noLookup = lookupLast.replace("\"lookup\"", "\"other\"");
+        String xml = xmlPayload();
+
+        run("JSON lookup first", lookupFirst, MarshallingFormat.JSON);
+        run("JSON lookup last", lookupLast, MarshallingFormat.JSON);
+        run("JSON no lookup", noLookup, MarshallingFormat.JSON);
+        run("XML lookup attribute", xml, MarshallingFormat.XSTREAM);
+    }
+
+    private static void run(String name, String payload, MarshallingFormat format) {
+        double regex = measure(payload, p -> {
+            Matcher m = LOOKUP.matcher(p);
+            return m.find() ? m.group(1) : null;
+        });
+        double parser = measure(payload, p -> LookupParser.parse(p, format));
+        System.out.printf("%-22s %5.1f MB  regex %10.3f ms  parser %10.3f ms%n", name, payload.length() / (1024.0 * 1024.0), regex, parser);
+    }
+
+    private static double measure(String payload, Function<String, String> lookup) {
+        for (int i = 0; i < WARMUP; i++) {
+            lookup.apply(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.apply(payload);
+        }
+        return (System.nanoTime() - start) / (ITERATIONS * 1000000.0);
+    }
+
+    private static String jsonPayload(boolean lookupFirst) {
+        StringBuilder payload = new StringBuilder(PAYLOAD_SIZE + 1024);
+        payload.append('{');
+        if (lookupFirst) {
+            payload.append("\"lookup\" : \"ksession1\", ");
+        }
+        payload.append("\"commands\" : [ ");
+        for (int i = 0; payload.length() < PAYLOAD_SIZE; i++) {
+            if (i > 0) {
+                payload.append(", ");
+            }
+            payload.append("{ \"insert\" : { \"object\" : { \"org.kie.server.Person\" : { \"name\" : \"person-").append(i)
+                    .append("\", \"age\" : ").append(i % 100).append(" } }, \"out-identifier\" : \"person-").append(i)
+                    .append("\", \"return-object\" : true, \"entry-point\" : \"DEFAULT\" } }");
+        }
+        payload.append(" ]");
+        if (!lookupFirst) {
+            payload.append(", \"lookup\" : \"ksession1\"");
+        }
+        return payload.append('}').toString();
+    }
+
+    private static String xmlPayload() {
+        StringBuilder payload = new StringBuilder(PAYLOAD_SIZE + 1024);
+        payload.append("<batch-execution lookup=\"ksession1\">");
+        for (int i = 0; payload.length() < PAYLOAD_SIZE; i++) {
+            payload.append("<insert out-identifier=\"person-").append(i).append("\" return-object=\"true\" entry-point=\"DEFAULT\">")
+                    .append("<org.kie.server.Person><name>person-").append(i).append("</name><age>").append(i % 100)
+                    .append("</age></org.kie.server.Person></insert>");
+        }
+        return payload.append("</batch-execution>").toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.impl.marshal;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.command.KieCommands;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LookupParserTest {
+
+    @Test
+    public void testLookupFromMarshalledBatch() {
+        KieCommands commands = KieServices.Factory.get().getCommands();
+        BatchExecutionCommand batch = commands.newBatchExecution(Arrays.asList(commands.newInsert("fact", "out")), "ksession1");
+
+        for (MarshallingFormat format : new MarshallingFormat[]{MarshallingFormat.JSON, MarshallingFormat.JAXB, MarshallingFormat.XSTREAM}) {
+            String payload = MarshallerFactory.getMarshaller(new HashSet<>(), format, getClass().getClassLoader()).marshall(batch);
+            assertEquals(format.toString(), "ksession1", LookupParser.parse(payload, format));
+        }
+    }
+
+    @Test
+    public void testJsonLookupAfterCommands() {
+        String payload = "{\"commands\":[{\"insert\":{\"object\":{\"lookup\":\"nested\"}}}],\"lookup\":\"ksession1\"}";
+
+        assertEquals("ksession1", LookupParser.parse(payload, MarshallingFormat.JSON));
+    }
+
+    @Test
+    public void testNestedLookupIsIgnored() {
+        assertNull(LookupParser.parse("{\"commands\":[{\"insert\":{\"object\":{\"lookup\":\"nested\"}}}]}", MarshallingFormat.JSON));
+        assertNull(LookupParser.parse("<batch-execution><insert><object lookup=\"nested\"/></insert></batch-execution>", MarshallingFormat.XSTREAM));
+    }
+
+    @Test
+    public void testNoLookup() {
+        assertNull(LookupParser.parse("{\"insert\":{\"object\":\"fact\"}}", MarshallingFormat.JSON));
+        assertNull(LookupParser.parse("{\"lookup\":null,\"commands\":[]}", MarshallingFormat.JSON));
+        assertNull(LookupParser.parse("[]", MarshallingFormat.JSON));
+        assertNull(LookupParser.parse("<insert out-identifier=\"out\"/>", MarshallingFormat.JAXB));
+        assertNull(LookupParser.parse(null, MarshallingFormat.JSON));
+    }
+
+    @Test
+    public void testMalformedPayload() {
+        assertNull(LookupParser.parse("{\"commands\":[", MarshallingFormat.JSON));
+        assertNull(LookupParser.parse("<batch-execution", MarshallingFormat.XSTREAM));
+    }
+
+    @Test
+    public void testBinaryFormatIsNotParsed() {
+        assertNull(LookupParser.parse("eyJsb29rdXAiOiJrc2Vzc2lvbjEifQ==", MarshallingFormat.SMILE));
+    }
+}
@@ -84,6 +84,7 @@ public class DMNKieServerExtension
         if (!initialized) {
             return;
         }
+        modelEvaluatorServiceBase.disposeDMNRuntime(id);
     }
 
     @Override
@@ -96,6 +97,7 @@ public class DMNKieServerExtension
         if (!initialized) {
             return;
         }
+        modelEvaluatorServiceBase.disposeDMNRuntime(id);
     }
 
     @Override
@@ -16,11 +16,15 @@
 package org.kie.server.services.dmn;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
 
+import org.kie.api.KieBase;
 import org.kie.api.runtime.KieRuntimeFactory;
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.dmn.api.core.DMNRuntime;
@@ -60,6 +64,8 @@ public class ModelEvaluatorServiceBase {
 
     private KieServerRegistry context;
     private MarshallerHelper marshallerHelper;
+    // DMN runtime (with its listeners) of each container, shared by all evaluations on the container
+    private final Map<String, ContainerDMNRuntime> dmnRuntimes = new ConcurrentHashMap<>();
 
     public ModelEvaluatorServiceBase(KieServerRegistry context) {
         this.context = context;
@@ -69,7 +75,7 @@ public class ModelEvaluatorServiceBase {
     public ServiceResponse<DMNModelInfoList> getModels(String containerId) {
         try {
             KieContainerInstanceImpl kContainer = context.getContainer(containerId, ContainerLocatorProvider.get().getLocator());
-            DMNRuntime kieRuntime = KieRuntimeFactory.of(kContainer.getKieContainer().getKieBase()).get(DMNRuntime.class);
+            DMNRuntime kieRuntime = getDMNRuntime(kContainer);
             
             List<DMNModel> models = kieRuntime.getModels();
             List<DMNModelInfo> result = models.stream().map(ModelEvaluatorServiceBase::modelToInfo).collect(Collectors.toList());
@@ -154,28 +160,29 @@ public class ModelEvaluatorServiceBase {
 
 
     public ServiceResponse<DMNResultKS> evaluateDecisions(String containerId, String contextPayload, String marshallingType) {
+        return evaluateDecisions(containerId, () -> {
+            LOG.debug("Will deserialize payload: {}", contextPayload);
+            return marshallerHelper.unmarshal(containerId, contextPayload, marshallingType, DMNContextKS.class);
+        });
+    }
+
+    /**
+     * Same as {@link #evaluateDecisions(String, String, String)} but takes the payload as raw bytes as received
+     * from the transport so binary formats are read as they are.
+     */
+    public ServiceResponse<DMNResultKS> evaluateDecisions(String containerId, byte[] contextPayload, String marshallingType) {
+        return evaluateDecisions(containerId, () -> {
+            LOG.debug("Will deserialize {} bytes of payload", contextPayload == null ? 0 : contextPayload.length);
+            return marshallerHelper.unmarshal(containerId, contextPayload, marshallingType, DMNContextKS.class);
+        });
+    }
+
+    private ServiceResponse<DMNResultKS> evaluateDecisions(String containerId, Supplier<DMNContextKS> contextPayload) {
         try {
             KieContainerInstanceImpl kContainer = context.getContainer(containerId, ContainerLocatorProvider.get().getLocator());
-            DMNRuntime dmnRuntime = KieRuntimeFactory.of(kContainer.getKieContainer().getKieBase()).get(DMNRuntime.class);
-
-            PrometheusKieServerExtension extension = (PrometheusKieServerExtension)context.getServerExtension(PrometheusKieServerExtension.EXTENSION_NAME);
-            if (extension != null) {
-                //default handler
-                PrometheusMetricsDMNListener listener = new PrometheusMetricsDMNListener(PrometheusKieServerExtension.getMetrics(), kContainer);
-                dmnRuntime.addListener(listener);
-
-                //custom handler
-                List<DMNRuntimeEventListener> listeners = extension.getDMNRuntimeListeners(kContainer);
-                listeners.forEach(l -> {
-                    if (!dmnRuntime.getListeners().contains(l)) {
-                        dmnRuntime.addListener(l);
-                    }
-                });
+            DMNRuntime dmnRuntime = getDMNRuntime(kContainer);
 
-            }
-
-            LOG.debug("Will deserialize payload: {}", contextPayload);
-            DMNContextKS evalCtx = marshallerHelper.unmarshal(containerId, contextPayload, marshallingType, DMNContextKS.class);
+            DMNContextKS evalCtx = contextPayload.get();
             
             DMNEvaluationResult evaluationResult = DMNEvaluationUtils.evaluate(dmnRuntime,
                                                                                evalCtx.getNamespace(),
@@ -204,8 +211,59 @@ public class ModelEvaluatorServiceBase {
         }
     }
 
+    /**
+     * Returns the DMN runtime of given container, creating it and registering its listeners on first use or when
+     * the container's kie base changed (container update).
+     */
+    public DMNRuntime getDMNRuntime(KieContainerInstanceImpl kContainer) {
+        KieBase kieBase = kContainer.getKieContainer().getKieBase();
+        ContainerDMNRuntime cached = dmnRuntimes.get(kContainer.getContainerId());
+        if (cached != null && cached.kieBase == kieBase) {
+            return cached.dmnRuntime;
+        }
+        return dmnRuntimes.compute(kContainer.getContainerId(), (id, current) -> {
+            if (current != null && current.kieBase == kieBase) {
+                return current;
+            }
+            DMNRuntime dmnRuntime = KieRuntimeFactory.of(kieBase).get(DMNRuntime.class);
+            registerListeners(dmnRuntime, kContainer);
+            return new ContainerDMNRuntime(kieBase, dmnRuntime);
+        }).dmnRuntime;
+    }
+
+    public void disposeDMNRuntime(String containerId) {
+        dmnRuntimes.remove(containerId);
+    }
+
+    private void registerListeners(DMNRuntime dmnRuntime, KieContainerInstanceImpl kContainer) {
+        PrometheusKieServerExtension extension = (PrometheusKieServerExtension)context.getServerExtension(PrometheusKieServerExtension.EXTENSION_NAME);
+        if (extension != null) {
+            //default handler
+            PrometheusMetricsDMNListener listener = new PrometheusMetricsDMNListener(PrometheusKieServerExtension.getMetrics(), kContainer);
+            dmnRuntime.addListener(listener);
+
+            //custom handler
+            List<DMNRuntimeEventListener> listeners = extension.getDMNRuntimeListeners(kContainer);
+            listeners.forEach(l -> {
+                if (!dmnRuntime.getListeners().contains(l)) {
+                    dmnRuntime.addListener(l);
+                }
+            });
+        }
+    }
+
     public KieServerRegistry getKieServerRegistry() {
         return this.context;
     }
 
+    private static class ContainerDMNRuntime {
+
+        private final KieBase kieBase;
+        private final DMNRuntime dmnRuntime;
+
+        private ContainerDMNRuntime(KieBase kieBase, DMNRuntime dmnRuntime) {
+            this.kieBase = kieBase;
+            this.dmnRuntime = dmnRuntime;
+        }
+    }
 }
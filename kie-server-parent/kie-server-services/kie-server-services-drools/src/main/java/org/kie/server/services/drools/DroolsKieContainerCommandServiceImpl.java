@@ -16,11 +16,13 @@
 package org.kie.server.services.drools;
 
 import java.util.Arrays;
+import java.util.function.BiFunction;
 
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
 import org.kie.api.command.Command;
 import org.kie.api.command.ExecutableCommand;
 import org.kie.api.runtime.ExecutionResults;
+import org.kie.server.api.marshalling.Marshaller;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ServiceResponse;
 import org.kie.server.services.api.KieServerRegistry;
@@ -47,6 +49,23 @@ public class DroolsKieContainerCommandServiceImpl extends KieContainerCommandSer
         if( payload == null ) {
             return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Error calling container " + containerId + ". Empty payload. ");
         }
+        return callContainer(containerId, marshallingFormat, classType, null, (marshaller, type) -> marshaller.unmarshall(payload, type));
+    }
+
+    @Override
+    public ServiceResponse<ExecutionResults> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType) {
+        return callContainer(containerId, payload, marshallingFormat, classType, null);
+    }
+
+    @Override
+    public ServiceResponse<ExecutionResults> callContainer(String containerId, byte[] payload, MarshallingFormat marshallingFormat, String classType, String lookup) {
+        if( payload == null ) {
+            return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Error calling container " + containerId + ". Empty payload. ");
+        }
+        return callContainer(containerId, marshallingFormat, classType, lookup, (marshaller, type) -> marshaller.unmarshall(payload, type));
+    }
+
+    protected ServiceResponse<ExecutionResults> callContainer(String containerId, MarshallingFormat marshallingFormat, String classType, String lookup, BiFunction<Marshaller, Class<? extends Command>, Command<?>> unmarshaller) {
         try {
             KieContainerInstanceImpl kci = (KieContainerInstanceImpl) context.getContainer( containerId, ContainerLocatorProvider.get().getLocator());
 
@@ -57,7 +76,7 @@ public class DroolsKieContainerCommandServiceImpl extends KieContainerCommandSer
                     type = (Class<? extends Command>) kci.getKieContainer().getClassLoader().loadClass(classType);
                 }
 
-                Command<?> cmd = kci.getMarshaller( marshallingFormat ).unmarshall(payload, type);
+                Command<?> cmd = unmarshaller.apply(kci.getMarshaller( marshallingFormat ), type);
 
                 if (!(cmd instanceof BatchExecutionCommandImpl)) {
                     cmd = new BatchExecutionCommandImpl(Arrays.asList(new ExecutableCommand<?>[]{(ExecutableCommand<?>) cmd} ));
@@ -66,6 +85,9 @@ public class DroolsKieContainerCommandServiceImpl extends KieContainerCommandSer
                 if (cmd == null || ((BatchExecutionCommandImpl)cmd).getCommands() == null || ((BatchExecutionCommandImpl)cmd).getCommands().isEmpty()) {
                     return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Bad request, no commands to be executed - either wrong format or no data");
                 }
+                if (lookup != null) {
+                    ((BatchExecutionCommandImpl) cmd).setLookup(lookup);
+                }
 
                 ExecutionResults results = rulesExecutionService.call(kci, (BatchExecutionCommandImpl) cmd);
                 return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.SUCCESS, "Container " + containerId + " successfully called.", results);
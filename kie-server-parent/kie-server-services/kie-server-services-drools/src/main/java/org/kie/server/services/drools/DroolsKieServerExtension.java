@@ -84,7 +84,7 @@ public class DroolsKieServerExtension implements KieServerExtension {
 
     @Override
     public void destroy(KieServerImpl kieServer, KieServerRegistry registry) {
-        // no-op?
+        rulesExecutionService.disposeSessionPools();
     }
 
     @Override
@@ -125,6 +125,7 @@ public class DroolsKieServerExtension implements KieServerExtension {
 
         kieContainerInstance.addExtraClasses(extraClasses);
 
+        rulesExecutionService.createSessionPools(kieContainerInstance);
     }
 
     @Override
@@ -141,7 +142,7 @@ public class DroolsKieServerExtension implements KieServerExtension {
 
     @Override
     public void disposeContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
-
+        rulesExecutionService.disposeSessionPools(id);
     }
 
     @Override
@@ -47,27 +47,50 @@ public class DroolsKieSessionLookupHandler implements KieSessionLookupHandler {
                 }
             }
 
-            PrometheusKieServerExtension extension = (PrometheusKieServerExtension)registry.getServerExtension(PrometheusKieServerExtension.EXTENSION_NAME);
-            if (extension != null && ks != null) {
-                RuleRuntimeEventManager eventManager = (RuleRuntimeEventManager) ks;
-
-                //default handler
-                PrometheusMetricsDroolsListener listener = new PrometheusMetricsDroolsListener(PrometheusKieServerExtension.getMetrics(),
-                        kieSessionId, containerInstance);
-                eventManager.addEventListener(listener);
-
-                //custom handlers
-                List<AgendaEventListener> droolsListeners = extension.getDroolsListeners(kieSessionId, containerInstance);
-                droolsListeners.forEach(l -> {
-                    if (!eventManager.getAgendaEventListeners().contains(l)) {
-                        eventManager.addEventListener(l);
-                    }
-                });
-
+            if (ks != null) {
+                registerListeners(kieSessionId, ks, containerInstance, registry);
             }
             return ks;
         }
 
         return null;
     }
+
+    static void registerListeners(String kieSessionId, CommandExecutor ks, KieContainerInstance containerInstance, KieServerRegistry registry) {
+        PrometheusKieServerExtension extension = (PrometheusKieServerExtension)registry.getServerExtension(PrometheusKieServerExtension.EXTENSION_NAME);
+        if (extension == null) {
+            return;
+        }
+        RuleRuntimeEventManager eventManager = (RuleRuntimeEventManager) ks;
+        if (hasPrometheusListener(eventManager)) {
+            return;
+        }
+        // sessions looked up from the container are shared by all requests, register listeners only once
+        synchronized (ks) {
+            if (hasPrometheusListener(eventManager)) {
+                return;
+            }
+            //custom handlers
+            List<AgendaEventListener> droolsListeners = extension.getDroolsListeners(kieSessionId, containerInstance);
+            droolsListeners.forEach(l -> {
+                if (!eventManager.getAgendaEventListeners().contains(l)) {
+                    eventManager.addEventListener(l);
+                }
+            });
+
+            //default handler, added last as it marks the session as registered
+            PrometheusMetricsDroolsListener listener = new PrometheusMetricsDroolsListener(PrometheusKieServerExtension.getMetrics(),
+                    kieSessionId, containerInstance);
+            eventManager.addEventListener(listener);
+        }
+    }
+
+    private static boolean hasPrometheusListener(RuleRuntimeEventManager eventManager) {
+        for (AgendaEventListener listener : eventManager.getAgendaEventListeners()) {
+            if (listener instanceof PrometheusMetricsDroolsListener) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.drools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.drools.compiler.kie.util.InjectionHelper;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.FileLoggerModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.event.kiebase.KieBaseEventListener;
+import org.kie.api.event.process.ProcessEventListener;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.RuleRuntimeEventListener;
+import org.kie.api.logger.KieLoggers;
+import org.kie.api.runtime.CommandExecutor;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSessionsPool;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of pre-created sessions of a single ksession of a container. Sessions are created by the container from the
+ * ksession model, so they get its clock, loggers and listeners, and get the server listeners registered once, when
+ * created, so executing commands does not need to look up or wire the session on every request.
+ * <p>
+ * Number of executions running at the same time is bounded by max size, callers wait up to the configured timeout
+ * for a session to become available. Stateful sessions are handed out exclusively and, unless disabled, reset when
+ * returned so every execution starts with an empty working memory; listeners and globals the session had when
+ * created are restored after the reset. A stateless ksession has a single stateless session shared by all callers,
+ * backed by a drools sessions pool of min size (at least one) pre-created working memories, so executions reuse
+ * them instead of creating a new one each; drools always resets them when an execution returns them.
+ */
+public class KieSessionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieSessionPool.class);
+
+    private final String containerId;
+    private final String sessionName;
+    private final KieContainer kieContainer;
+    private final Consumer<CommandExecutor> listenersRegistrar;
+
+    private final int minSize;
+    private final int maxSize;
+    private final boolean resetOnReturn;
+    private final long timeout;
+
+    private final Semaphore permits;
+    private final BlockingQueue<PooledSession> idleSessions = new LinkedBlockingQueue<>();
+
+    private KieSessionsPool statelessSessionsPool;
+    private StatelessKieSession statelessSession;
+
+    private volatile boolean closed = false;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public KieSessionPool(String containerId, KieContainer kieContainer, KieSessionModel kieSessionModel, int minSize, int maxSize,
+                          boolean resetOnReturn, long timeout, Consumer<CommandExecutor> listenersRegistrar) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid KIE session pool size, min " + minSize + ", max " + maxSize);
+        }
+        this.containerId = containerId;
+        this.sessionName = kieSessionModel.getName();
+        this.kieContainer = kieContainer;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.resetOnReturn = resetOnReturn;
+        this.timeout = timeout;
+        this.listenersRegistrar = listenersRegistrar;
+        this.permits = new Semaphore(maxSize);
+
+        if (kieSessionModel.getType() == KieSessionModel.KieSessionType.STATELESS) {
+            // the container sessions pool refuses stateless ksession models, so pool the working memories of the kbase
+            // with the configuration of the model and wire the model the way the container does for stateless sessions
+            this.statelessSessionsPool = kieContainer.getKieBase(kieSessionModel.getKieBaseModel().getName()).newKieSessionsPool(Math.max(minSize, 1));
+            this.statelessSession = statelessSessionsPool.newStatelessKieSession(kieContainer.getKieSessionConfiguration(sessionName));
+            InjectionHelper.wireSessionComponents(kieSessionModel, statelessSession);
+            registerLoggers(kieSessionModel, statelessSession);
+            listenersRegistrar.accept(statelessSession);
+        } else {
+            for (int i = 0; i < minSize; i++) {
+                idleSessions.add(createSession());
+            }
+        }
+        logger.debug("Created KIE session pool {}", this);
+    }
+
+    public ExecutionResults execute(BatchExecutionCommand command) {
+        acquire();
+        try {
+            executions.incrementAndGet();
+            if (statelessSession != null) {
+                return statelessSession.execute(command);
+            }
+
+            PooledSession pooledSession = idleSessions.poll();
+            if (pooledSession == null) {
+                pooledSession = createSession();
+            }
+            boolean succeeded = false;
+            try {
+                ExecutionResults results = pooledSession.session.execute(command);
+                succeeded = true;
+                return results;
+            } finally {
+                release(pooledSession, succeeded);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public void dispose() {
+        closed = true;
+        PooledSession pooledSession;
+        while ((pooledSession = idleSessions.poll()) != null) {
+            destroy(pooledSession);
+        }
+        if (statelessSessionsPool != null) {
+            statelessSessionsPool.shutdown();
+        }
+        logger.debug("Disposed KIE session pool {}", this);
+    }
+
+    private static void registerLoggers(KieSessionModel kieSessionModel, StatelessKieSession session) {
+        KieLoggers loggers = KieServices.Factory.get().getLoggers();
+        if (kieSessionModel.getConsoleLogger() != null) {
+            loggers.newConsoleLogger(session);
+        }
+        FileLoggerModel fileLogger = kieSessionModel.getFileLogger();
+        if (fileLogger != null) {
+            if (fileLogger.isThreaded()) {
+                loggers.newThreadedFileLogger(session, fileLogger.getFile(), fileLogger.getInterval());
+            } else {
+                loggers.newFileLogger(session, fileLogger.getFile());
+            }
+        }
+    }
+
+    protected void acquire() {
+        if (closed) {
+            throw new IllegalStateException("KIE session pool for session '" + sessionName + "' on container '" + containerId + "' is disposed");
+        }
+        if (permits.tryAcquire()) {
+            return;
+        }
+        waits.incrementAndGet();
+        try {
+            if (permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timeouts.incrementAndGet();
+        throw new IllegalStateException("No KIE session '" + sessionName + "' available on container '" + containerId + "' within " + timeout + " ms");
+    }
+
+    protected PooledSession createSession() {
+        KieSession session = kieContainer.newKieSession(sessionName);
+        listenersRegistrar.accept(session);
+        created.incrementAndGet();
+        return new PooledSession(session);
+    }
+
+    protected void release(PooledSession pooledSession, boolean succeeded) {
+        if (closed || (!resetOnReturn && !succeeded)) {
+            destroy(pooledSession);
+            return;
+        }
+        if (resetOnReturn) {
+            try {
+                pooledSession.reset();
+            } catch (RuntimeException e) {
+                logger.warn("Unable to reset session '{}' of container '{}', discarding it", sessionName, containerId, e);
+                destroy(pooledSession);
+                return;
+            }
+        }
+        idleSessions.offer(pooledSession);
+    }
+
+    protected void destroy(PooledSession pooledSession) {
+        created.decrementAndGet();
+        try {
+            pooledSession.session.dispose();
+        } catch (RuntimeException e) {
+            logger.debug("Error disposing session '{}' of container '{}'", sessionName, containerId, e);
+        }
+    }
+
+    public String getContainerId() {
+        return containerId;
+    }
+
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isResetOnReturn() {
+        return resetOnReturn;
+    }
+
+    public boolean isStateless() {
+        return statelessSession != null;
+    }
+
+    /**
+     * Number of stateful sessions currently owned by the pool, both idle and in use.
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    /**
+     * Number of executions that had to wait for a session because max size was reached.
+     */
+    public long getWaitCount() {
+        return waits.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    @Override
+    public String toString() {
+        return "KieSessionPool{" +
+                "containerId='" + containerId + '\'' +
+                ", sessionName='" + sessionName + '\'' +
+                ", stateless=" + isStateless() +
+                ", minSize=" + minSize +
+                ", maxSize=" + maxSize +
+                ", resetOnReturn=" + resetOnReturn +
+                ", created=" + created.get() +
+                ", active=" + getActiveCount() +
+                ", executions=" + executions.get() +
+                ", waits=" + waits.get() +
+                ", timeouts=" + timeouts.get() +
+                '}';
+    }
+
+    protected static class PooledSession {
+
+        private final KieSession session;
+        // reset removes listeners and globals so keep the ones the session got on creation to restore them
+        private final List<AgendaEventListener> agendaEventListeners;
+        private final List<RuleRuntimeEventListener> ruleRuntimeEventListeners;
+        private final List<KieBaseEventListener> kieBaseEventListeners;
+        private final List<ProcessEventListener> processEventListeners;
+        private final Map<String, Object> globals = new HashMap<>();
+
+        PooledSession(KieSession session) {
+            StatefulKnowledgeSessionImpl sessionImpl = (StatefulKnowledgeSessionImpl) session;
+            this.session = session;
+            this.agendaEventListeners = new ArrayList<>(session.getAgendaEventListeners());
+            this.ruleRuntimeEventListeners = new ArrayList<>(session.getRuleRuntimeEventListeners());
+            this.kieBaseEventListeners = new ArrayList<>(sessionImpl.getKieBaseEventListeners());
+            // do not create the process runtime of sessions that have none
+            this.processEventListeners = sessionImpl.internalGetProcessRuntime() != null ?
+                    new ArrayList<>(session.getProcessEventListeners()) : Collections.emptyList();
+            session.getGlobals().getGlobalKeys().forEach(key -> globals.put(key, session.getGlobal(key)));
+        }
+
+        void reset() {
+            StatefulKnowledgeSessionImpl sessionImpl = (StatefulKnowledgeSessionImpl) session;
+            sessionImpl.reset();
+            agendaEventListeners.forEach(session::addEventListener);
+            ruleRuntimeEventListeners.forEach(session::addEventListener);
+            kieBaseEventListeners.forEach(sessionImpl::addEventListener);
+            processEventListeners.forEach(session::addEventListener);
+            globals.forEach(session::setGlobal);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.drools;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Exposes the metrics of KIE session pools to Prometheus, reading them from the pools on every scrape.
+ */
+public class KieSessionPoolCollector extends Collector {
+
+    private static final List<String> LABELS = Arrays.asList("container_id", "ksessionId");
+    private static final List<String> STATE_LABELS = Arrays.asList("container_id", "ksessionId", "state");
+
+    private final Supplier<Collection<KieSessionPool>> pools;
+
+    public KieSessionPoolCollector(Supplier<Collection<KieSessionPool>> pools) {
+        this.pools = pools;
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        GaugeMetricFamily sessions = new GaugeMetricFamily("drl_ksession_pool_sessions",
+                                                           "Sessions of KIE session pools by state", STATE_LABELS);
+        GaugeMetricFamily maxSize = new GaugeMetricFamily("drl_ksession_pool_max_size",
+                                                          "Max number of concurrent executions of KIE session pools", LABELS);
+        CounterMetricFamily executions = new CounterMetricFamily("drl_ksession_pool_executions_count",
+                                                                 "Executions on KIE session pools", LABELS);
+        CounterMetricFamily waits = new CounterMetricFamily("drl_ksession_pool_waits_count",
+                                                            "Executions that waited for a session of KIE session pools", LABELS);
+        CounterMetricFamily timeouts = new CounterMetricFamily("drl_ksession_pool_timeouts_count",
+                                                               "Executions that timed out waiting for a session of KIE session pools", LABELS);
+        for (KieSessionPool pool : pools.get()) {
+            List<String> labels = Arrays.asList(pool.getContainerId(), pool.getSessionName());
+            sessions.addMetric(Arrays.asList(pool.getContainerId(), pool.getSessionName(), "created"), pool.getCreatedCount());
+            sessions.addMetric(Arrays.asList(pool.getContainerId(), pool.getSessionName(), "idle"), pool.getIdleCount());
+            sessions.addMetric(Arrays.asList(pool.getContainerId(), pool.getSessionName(), "active"), pool.getActiveCount());
+            maxSize.addMetric(labels, pool.getMaxSize());
+            executions.addMetric(labels, pool.getExecutionCount());
+            waits.addMetric(labels, pool.getWaitCount());
+            timeouts.addMetric(labels, pool.getTimeoutCount());
+        }
+        return Arrays.asList(sessions, maxSize, executions, waits, timeouts);
+    }
+}
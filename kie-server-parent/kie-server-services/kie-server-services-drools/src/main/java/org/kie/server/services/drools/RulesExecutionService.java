@@ -15,25 +15,46 @@
 
 package org.kie.server.services.drools;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import io.prometheus.client.CollectorRegistry;
 
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
+import org.kie.api.builder.model.KieSessionModel;
 import org.kie.api.command.BatchExecutionCommand;
 import org.kie.api.event.KieRuntimeEventManager;
 import org.kie.api.event.rule.AgendaEventListener;
 import org.kie.api.event.rule.RuleRuntimeEventListener;
 import org.kie.api.runtime.CommandExecutor;
 import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieContainer;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
 import org.kie.server.services.api.KieContainerInstance;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.prometheus.PrometheusKieServerExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Direct rules execution service that allow use of typed objects instead of string only
  */
 public class RulesExecutionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RulesExecutionService.class);
+
     private KieServerRegistry context;
+
+    // container id -> ksession name -> pool, pool of the default stateful ksession is also kept under null key
+    private final Map<String, Map<String, KieSessionPool>> sessionPools = new ConcurrentHashMap<>();
+    private KieSessionPoolCollector sessionPoolCollector;
     
     private List<AgendaEventListener> agendaEventListeners;
     private List<RuleRuntimeEventListener> ruleRuntimeEventListeners;
@@ -47,6 +68,13 @@ public class RulesExecutionService {
         BatchExecutionCommandImpl command = (BatchExecutionCommandImpl) executionCommand;
 
         if (kci != null && kci.getKieContainer() != null) {
+            Map<String, KieSessionPool> pools = sessionPools.get(kci.getContainerId());
+            if (pools != null) {
+                KieSessionPool pool = pools.get(command.getLookup());
+                if (pool != null) {
+                    return pool.execute(command);
+                }
+            }
             // find the session
             CommandExecutor ks = null;
             if( command.getLookup() != null ) {
@@ -69,6 +97,96 @@ public class RulesExecutionService {
         throw new IllegalStateException("Unable to execute command " + command);
     }
     
+    /**
+     * Creates pools of sessions for all ksessions of given container when enabled via its
+     * {@link KieServerConstants#RCFG_KIE_SESSION_POOL} config item. Commands for pooled ksessions are then executed
+     * on pooled sessions instead of the ones looked up from the container.
+     */
+    public void createSessionPools(KieContainerInstance kci) {
+        if (kci.getResource() == null) {
+            return;
+        }
+        KieServerConfig config = new KieServerConfig(kci.getResource().getConfigItems());
+        if (!Boolean.parseBoolean(config.getConfigItemValue(KieServerConstants.RCFG_KIE_SESSION_POOL, "false"))) {
+            return;
+        }
+        int minSize = Integer.parseInt(config.getConfigItemValue(KieServerConstants.RCFG_KIE_SESSION_POOL_MIN_SIZE, "1"));
+        int maxSize = Integer.parseInt(config.getConfigItemValue(KieServerConstants.RCFG_KIE_SESSION_POOL_MAX_SIZE,
+                                                                 String.valueOf(Runtime.getRuntime().availableProcessors())));
+        boolean resetOnReturn = Boolean.parseBoolean(config.getConfigItemValue(KieServerConstants.RCFG_KIE_SESSION_POOL_RESET_ON_RETURN, "true"));
+        long timeout = Long.parseLong(config.getConfigItemValue(KieServerConstants.RCFG_KIE_SESSION_POOL_TIMEOUT, "10000"));
+
+        KieContainer kieContainer = kci.getKieContainer();
+        Map<String, KieSessionPool> pools = new HashMap<>();
+        try {
+            for (String kbase : kieContainer.getKieBaseNames()) {
+                for (String ksession : kieContainer.getKieSessionNamesInKieBase(kbase)) {
+                    KieSessionModel kieSessionModel = kieContainer.getKieSessionModel(ksession);
+                    KieSessionPool pool = new KieSessionPool(kci.getContainerId(), kieContainer, kieSessionModel, minSize, maxSize, resetOnReturn, timeout,
+                                                             ks -> {
+                                                                 DroolsKieSessionLookupHandler.registerListeners(ksession, ks, kci, context);
+                                                                 applyListeners(ks);
+                                                             });
+                    pools.put(ksession, pool);
+                    if (kieSessionModel.isDefault() && kieSessionModel.getType() == KieSessionModel.KieSessionType.STATEFUL) {
+                        pools.put(null, pool);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            pools.values().forEach(KieSessionPool::dispose);
+            throw e;
+        }
+        sessionPools.put(kci.getContainerId(), pools);
+        registerSessionPoolCollector();
+        logger.info("Created pools for KIE sessions {} of container {}", pools.keySet(), kci.getContainerId());
+    }
+
+    public void disposeSessionPools(String containerId) {
+        Map<String, KieSessionPool> pools = sessionPools.remove(containerId);
+        if (pools != null) {
+            pools.values().stream().distinct().forEach(KieSessionPool::dispose);
+        }
+    }
+
+    public void disposeSessionPools() {
+        sessionPools.keySet().forEach(this::disposeSessionPools);
+        synchronized (this) {
+            if (sessionPoolCollector != null) {
+                CollectorRegistry.defaultRegistry.unregister(sessionPoolCollector);
+                sessionPoolCollector = null;
+            }
+        }
+    }
+
+    /**
+     * Returns pools of sessions of given container by ksession name, e.g. to read their metrics.
+     */
+    public Map<String, KieSessionPool> getSessionPools(String containerId) {
+        Map<String, KieSessionPool> pools = sessionPools.get(containerId);
+        return pools == null ? Collections.emptyMap() : Collections.unmodifiableMap(pools);
+    }
+
+    /**
+     * Returns pools of sessions of all containers.
+     */
+    public Collection<KieSessionPool> getSessionPools() {
+        return sessionPools.values().stream()
+                .flatMap(pools -> pools.values().stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /*
+     * Containers are created once all extensions are initialized, so whether Prometheus is enabled is only known
+     * when the first pool is created
+     */
+    protected synchronized void registerSessionPoolCollector() {
+        if (sessionPoolCollector == null && context.getServerExtension(PrometheusKieServerExtension.EXTENSION_NAME) != null) {
+            sessionPoolCollector = new KieSessionPoolCollector(this::getSessionPools).register();
+        }
+    }
+
     protected void applyListeners(CommandExecutor ks) {
         
         if (ruleRuntimeEventListeners != null) {
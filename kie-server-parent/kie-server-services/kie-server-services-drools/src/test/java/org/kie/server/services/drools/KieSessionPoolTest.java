@@ -0,0 +1,322 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.drools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.builder.model.KieSessionModel;
+import org.kie.api.builder.model.ListenerModel;
+import org.kie.api.command.BatchExecutionCommand;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.CommandExecutor;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.command.CommandFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KieSessionPoolTest {
+
+    static final String CONTAINER_ID = "pool-container";
+    static final String STATEFUL = "stateful";
+    static final String STATELESS = "stateless";
+
+    private KieContainer kieContainer;
+    private final List<CommandExecutor> createdSessions = new CopyOnWriteArrayList<>();
+    private final List<Object> results = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setup() {
+        kieContainer = createKieContainer();
+    }
+
+    @After
+    public void cleanup() {
+        kieContainer.dispose();
+    }
+
+    @Test
+    public void testConcurrentExecutions() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        KieSessionPool pool = newPool(STATEFUL, 1, 3, ks -> ((KieSession) ks).addEventListener(new DefaultAgendaEventListener() {
+            @Override
+            public void beforeMatchFired(BeforeMatchFiredEvent event) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void afterMatchFired(AfterMatchFiredEvent event) {
+                inFlight.decrementAndGet();
+            }
+        }));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        ExecutionResults executionResults = pool.execute(batch(STATEFUL, "fact-" + thread + "-" + j));
+                        // every execution starts with an empty working memory
+                        assertEquals(1, executionResults.getValue("fired"));
+                        assertEquals(1, ((List<?>) executionResults.getValue("objects")).size());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(400, pool.getExecutionCount());
+        assertEquals(400, results.size());
+        assertTrue("Max in flight " + maxInFlight.get(), maxInFlight.get() <= 3);
+        assertTrue("Created " + pool.getCreatedCount(), pool.getCreatedCount() <= 3);
+        assertEquals(pool.getCreatedCount(), createdSessions.size());
+        assertEquals(pool.getCreatedCount(), pool.getIdleCount());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(0, pool.getTimeoutCount());
+    }
+
+    @Test
+    public void testTimeoutWhenMaxSizeReached() throws Exception {
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        KieSessionPool pool = newPool(STATEFUL, 0, 1, blockingListener(executing, release));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ExecutionResults> blocked = executor.submit(() -> pool.execute(batch(STATEFUL, "block")));
+            assertTrue(executing.await(10, TimeUnit.SECONDS));
+            assertEquals(1, pool.getActiveCount());
+
+            try {
+                pool.execute(batch(STATEFUL, "fact"));
+                fail("Execution should time out as the only session is in use");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("within 100 ms"));
+            }
+            assertEquals(1, pool.getWaitCount());
+            assertEquals(1, pool.getTimeoutCount());
+
+            release.countDown();
+            assertEquals(1, blocked.get(10, TimeUnit.SECONDS).getValue("fired"));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, pool.execute(batch(STATEFUL, "fact")).getValue("fired"));
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(2, pool.getExecutionCount());
+    }
+
+    @Test
+    public void testDispose() throws Exception {
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        KieSessionPool pool = newPool(STATEFUL, 2, 2, blockingListener(executing, release));
+        assertEquals(2, pool.getIdleCount());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ExecutionResults> inFlight = executor.submit(() -> pool.execute(batch(STATEFUL, "block")));
+            assertTrue(executing.await(10, TimeUnit.SECONDS));
+
+            pool.dispose();
+            assertEquals(0, pool.getIdleCount());
+            assertEquals(1, pool.getCreatedCount());
+
+            // the session in use is disposed once returned
+            release.countDown();
+            inFlight.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, pool.getCreatedCount());
+        assertEquals(0, pool.getIdleCount());
+        for (CommandExecutor session : createdSessions) {
+            assertFalse(((StatefulKnowledgeSessionImpl) session).isAlive());
+        }
+
+        try {
+            pool.execute(batch(STATEFUL, "fact"));
+            fail("Disposed pool should not execute commands");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("is disposed"));
+        }
+    }
+
+    @Test
+    public void testSessionsCreatedFromModel() {
+        KieSessionPool pool = newPool(STATEFUL, 1, 1, ks -> ((KieSession) ks).addEventListener(new DefaultAgendaEventListener()));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, pool.execute(batch(STATEFUL, "fact-" + i)).getValue("fired"));
+        }
+
+        assertEquals(1, createdSessions.size());
+        KieSession session = (KieSession) createdSessions.get(0);
+        assertTrue(session.getSessionClock() instanceof SessionPseudoClock);
+        // global and listeners set on creation survive the resets
+        assertEquals(Arrays.asList("fact-0", "fact-1", "fact-2"), results);
+        assertEquals(results, session.getGlobal("results"));
+        assertEquals(1, session.getAgendaEventListeners().size());
+    }
+
+    @Test
+    public void testStatelessSession() {
+        Set<Object> workingMemories = Collections.newSetFromMap(new IdentityHashMap<>());
+        ModelAgendaListener.FIRED.set(0);
+        KieSessionPool pool = newPool(STATELESS, 1, 2, ks -> ((StatelessKieSession) ks).addEventListener(new DefaultAgendaEventListener() {
+            @Override
+            public void beforeMatchFired(BeforeMatchFiredEvent event) {
+                workingMemories.add(event.getKieRuntime());
+            }
+        }));
+        assertTrue(pool.isStateless());
+        for (int i = 0; i < 3; i++) {
+            ExecutionResults executionResults = pool.execute(batch(STATELESS, "fact-" + i));
+            // the reused working memory was reset in between
+            assertEquals(1, executionResults.getValue("fired"));
+            assertEquals(1, ((List<?>) executionResults.getValue("objects")).size());
+        }
+        assertEquals(1, createdSessions.size());
+        assertTrue(createdSessions.get(0) instanceof StatelessKieSession);
+        assertEquals(Arrays.asList("fact-0", "fact-1", "fact-2"), results);
+        // every execution ran on the pre-created working memory, with the listener of the ksession model
+        assertEquals(1, workingMemories.size());
+        assertEquals(3, ModelAgendaListener.FIRED.get());
+        assertEquals(3, pool.getExecutionCount());
+        assertEquals(0, pool.getCreatedCount());
+
+        pool.dispose();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        newPool(STATEFUL, 2, 1, ks -> {});
+    }
+
+    private KieSessionPool newPool(String ksession, int minSize, int maxSize, Consumer<CommandExecutor> listeners) {
+        return new KieSessionPool(CONTAINER_ID, kieContainer, kieContainer.getKieSessionModel(ksession), minSize, maxSize, true, 100, ks -> {
+            if (ks instanceof KieSession) {
+                ((KieSession) ks).setGlobal("results", results);
+            } else {
+                ((StatelessKieSession) ks).setGlobal("results", results);
+            }
+            listeners.accept(ks);
+            createdSessions.add(ks);
+        });
+    }
+
+    private static Consumer<CommandExecutor> blockingListener(CountDownLatch executing, CountDownLatch release) {
+        return ks -> ((KieSession) ks).addEventListener(new DefaultAgendaEventListener() {
+            @Override
+            public void beforeMatchFired(BeforeMatchFiredEvent event) {
+                if ("block".equals(event.getMatch().getObjects().get(0))) {
+                    executing.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+    }
+
+    static BatchExecutionCommand batch(String lookup, String fact) {
+        return CommandFactory.newBatchExecution(Arrays.asList(CommandFactory.newInsert(fact),
+                                                              CommandFactory.newFireAllRules("fired"),
+                                                              CommandFactory.newGetObjects("objects")),
+                                                lookup);
+    }
+
+    static KieContainer createKieContainer() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie.server.test", "session-pool", "1.0.0");
+        KieModuleModel kieModule = ks.newKieModuleModel();
+        kieModule.newKieBaseModel("kbase").setDefault(true)
+                .newKieSessionModel(STATEFUL).setType(KieSessionModel.KieSessionType.STATEFUL).setDefault(true)
+                .setClockType(ClockTypeOption.get("pseudo"))
+                .getKieBaseModel()
+                .newKieSessionModel(STATELESS).setType(KieSessionModel.KieSessionType.STATELESS)
+                .newListenerModel(ModelAgendaListener.class.getName(), ListenerModel.Kind.AGENDA_EVENT_LISTENER);
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        kfs.writeKModuleXML(kieModule.toXML());
+        kfs.write("src/main/resources/org/kie/server/services/drools/pool.drl",
+                  "package org.kie.server.services.drools;\n" +
+                  "global java.util.List results;\n" +
+                  "rule \"record\" when $s : String() then if (results != null) { results.add($s); } end\n");
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            throw new IllegalStateException("Unable to build kjar: " + kieBuilder.getResults());
+        }
+        return ks.newKieContainer(CONTAINER_ID, releaseId);
+    }
+
+    public static class ModelAgendaListener extends DefaultAgendaEventListener {
+
+        static final AtomicInteger FIRED = new AtomicInteger();
+
+        @Override
+        public void afterMatchFired(AfterMatchFiredEvent event) {
+            FIRED.incrementAndGet();
+        }
+    }
+}
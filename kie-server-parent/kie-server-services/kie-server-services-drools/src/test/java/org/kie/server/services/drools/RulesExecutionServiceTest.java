@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.server.services.drools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import io.prometheus.client.CollectorRegistry;
+import org.drools.core.impl.InternalKieContainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.KieServerConfigItem;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerRegistryImpl;
+import org.kie.server.services.prometheus.PrometheusKieServerExtension;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.kie.server.services.drools.KieSessionPoolTest.CONTAINER_ID;
+import static org.kie.server.services.drools.KieSessionPoolTest.STATEFUL;
+import static org.kie.server.services.drools.KieSessionPoolTest.batch;
+
+public class RulesExecutionServiceTest {
+
+    private static final String[] LABELS = {"container_id", "ksessionId"};
+
+    private KieServerRegistryImpl registry;
+    private RulesExecutionService rulesExecutionService;
+    private KieContainerInstanceImpl containerInstance;
+
+    @Before
+    public void setup() {
+        registry = new KieServerRegistryImpl();
+        rulesExecutionService = new RulesExecutionService(registry);
+
+        InternalKieContainer kieContainer = (InternalKieContainer) KieSessionPoolTest.createKieContainer();
+        containerInstance = new KieContainerInstanceImpl(CONTAINER_ID, KieContainerStatus.STARTED, kieContainer);
+        containerInstance.getResource().setConfigItems(Arrays.asList(
+                new KieServerConfigItem(KieServerConstants.RCFG_KIE_SESSION_POOL, "true", String.class.getName()),
+                new KieServerConfigItem(KieServerConstants.RCFG_KIE_SESSION_POOL_MAX_SIZE, "2", String.class.getName())));
+    }
+
+    @After
+    public void cleanup() {
+        rulesExecutionService.disposeSessionPools();
+        containerInstance.getKieContainer().dispose();
+    }
+
+    @Test
+    public void testPooledExecutions() {
+        rulesExecutionService.createSessionPools(containerInstance);
+        Map<String, KieSessionPool> pools = rulesExecutionService.getSessionPools(CONTAINER_ID);
+        assertEquals(3, pools.size());
+        assertSame(pools.get(STATEFUL), pools.get(null));
+        assertEquals(2, pools.get(STATEFUL).getMaxSize());
+        assertEquals(2, rulesExecutionService.getSessionPools().size());
+
+        assertEquals(1, rulesExecutionService.call(containerInstance, batch(STATEFUL, "fact")).getValue("fired"));
+        assertEquals(1, rulesExecutionService.call(containerInstance, batch(null, "fact")).getValue("fired"));
+        assertEquals(2, pools.get(STATEFUL).getExecutionCount());
+    }
+
+    @Test
+    public void testPoolsDisposedWithContainer() {
+        rulesExecutionService.createSessionPools(containerInstance);
+        KieSessionPool pool = rulesExecutionService.getSessionPools(CONTAINER_ID).get(STATEFUL);
+        assertEquals(1, pool.getCreatedCount());
+
+        rulesExecutionService.disposeSessionPools(CONTAINER_ID);
+
+        assertTrue(rulesExecutionService.getSessionPools(CONTAINER_ID).isEmpty());
+        assertTrue(rulesExecutionService.getSessionPools().isEmpty());
+        assertEquals(0, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testNoPoolsUnlessEnabled() {
+        containerInstance.getResource().setConfigItems(new ArrayList<>());
+        rulesExecutionService.createSessionPools(containerInstance);
+
+        assertTrue(rulesExecutionService.getSessionPools(CONTAINER_ID).isEmpty());
+    }
+
+    @Test
+    public void testPoolMetrics() {
+        PrometheusKieServerExtension prometheus = mock(PrometheusKieServerExtension.class);
+        when(prometheus.getExtensionName()).thenReturn(PrometheusKieServerExtension.EXTENSION_NAME);
+        registry.registerServerExtension(prometheus);
+
+        rulesExecutionService.createSessionPools(containerInstance);
+        rulesExecutionService.call(containerInstance, batch(STATEFUL, "fact"));
+
+        String[] values = {CONTAINER_ID, STATEFUL};
+        CollectorRegistry metrics = CollectorRegistry.defaultRegistry;
+        assertEquals(1.0, metrics.getSampleValue("drl_ksession_pool_executions_count", LABELS, values), 0.0);
+        assertEquals(0.0, metrics.getSampleValue("drl_ksession_pool_timeouts_count", LABELS, values), 0.0);
+        assertEquals(2.0, metrics.getSampleValue("drl_ksession_pool_max_size", LABELS, values), 0.0);
+        assertEquals(1.0, metrics.getSampleValue("drl_ksession_pool_sessions", new String[]{"container_id", "ksessionId", "state"},
+                                                 new String[]{CONTAINER_ID, STATEFUL, "idle"}), 0.0);
+
+        rulesExecutionService.disposeSessionPools();
+        assertNull(metrics.getSampleValue("drl_ksession_pool_executions_count", LABELS, values));
+    }
+}
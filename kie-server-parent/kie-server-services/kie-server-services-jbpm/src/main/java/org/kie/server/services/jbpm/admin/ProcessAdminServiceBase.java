@@ -37,6 +37,7 @@ import org.kie.server.api.model.admin.ProcessNodeList;
 import org.kie.server.api.model.admin.TimerInstanceList;
 import org.kie.server.api.model.instance.NodeInstanceList;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.locator.ContainerIdCache;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
 import org.kie.server.services.jbpm.ConvertUtils;
 import org.slf4j.Logger;
@@ -72,6 +73,7 @@ public class ProcessAdminServiceBase {
                 processInstanceId, containerId, targetContainerId, targetProcessId, nodeMapping);
         MigrationReport report = processInstanceMigrationService.migrate(containerId, processInstanceId.longValue(), targetContainerId, targetProcessId, nodeMapping);
         logger.debug("Migration of process instance {} finished with report {}", processInstanceId, report);
+        invalidateContainerIds(containerId, Collections.singletonList(processInstanceId.longValue()));
         return convertMigrationReport(report);
     }
 
@@ -87,6 +89,7 @@ public class ProcessAdminServiceBase {
         List<MigrationReport> reports = processInstanceMigrationService.migrate(containerId, convert(processInstancesId), targetContainerId, targetProcessId, nodeMapping);
 
         logger.debug("Migration of process instances {} finished with reports {}", processInstancesId, reports);
+        invalidateContainerIds(containerId, processInstancesId);
         return convertMigrationReports(reports);
     }
 
@@ -208,6 +211,12 @@ public class ProcessAdminServiceBase {
      * helper methods
      */
 
+    // migrated instances and their tasks belong to the target container now
+    protected void invalidateContainerIds(String containerId, List<Long> processInstancesId) {
+        ContainerIdCache.processInstances().evictAll(processInstancesId);
+        ContainerIdCache.tasks().evictContainer(containerId);
+    }
+
     protected MigrationReportInstanceList convertMigrationReports(List<MigrationReport> reports) {
 
         if (reports == null) {
@@ -25,6 +25,7 @@ import org.jbpm.runtime.manager.impl.jpa.EntityManagerFactoryManager;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.services.api.ContainerLocator;
 import org.kie.server.services.api.KieContainerInstance;
+import org.kie.server.services.impl.locator.ContainerIdCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +34,7 @@ import org.slf4j.LoggerFactory;
  * To improve performance the operation of locating the container id is done only once
  * and stored as part of the instance of this class so in case of multiple method calls will require it
  * single instance of this class should be used to avoid too many look ups.
+ * Found container ids are also kept in a cache shared by all instances, see {@link ContainerIdCache}.
  */
 public class ByProcessInstanceIdContainerLocator implements ContainerLocator {
 
@@ -53,6 +55,12 @@ public class ByProcessInstanceIdContainerLocator implements ContainerLocator {
             logger.debug("Container id has already be found for process instance {} and is {}", processInstanceId, containerId);
             return containerId;
         }
+        String cachedContainerId = ContainerIdCache.processInstances().get(processInstanceId, containerInstances);
+        if (cachedContainerId != null) {
+            logger.debug("Found cached container id '{}' for process instance id {}", cachedContainerId, processInstanceId);
+            containerId = cachedContainerId;
+            return containerId;
+        }
         logger.debug("Searching for container id for process instance id {} and alias {}", processInstanceId, alias);
         EntityManager em = EntityManagerFactoryManager.get().getOrCreate(KieServerConstants.KIE_SERVER_PERSISTENCE_UNIT_NAME).createEntityManager();
 
@@ -62,6 +70,7 @@ public class ByProcessInstanceIdContainerLocator implements ContainerLocator {
                     .setParameter("piId", processInstanceId)
                     .getSingleResult();
             logger.debug("Found container id '{}' for process instance id {}", containerId, processInstanceId);
+            ContainerIdCache.processInstances().put(processInstanceId, containerId);
             return containerId;
 
         } catch (NoResultException e) {
@@ -24,6 +24,7 @@ import org.jbpm.runtime.manager.impl.jpa.EntityManagerFactoryManager;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.services.api.ContainerLocator;
 import org.kie.server.services.api.KieContainerInstance;
+import org.kie.server.services.impl.locator.ContainerIdCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +33,7 @@ import org.slf4j.LoggerFactory;
  * To improve performance the operation of locating the container id is done only once
  * and stored as part of the instance of this class so in case of multiple method calls will require it
  * single instance of this class should be used to avoid too many look ups.
+ * Found container ids are also kept in a cache shared by all instances, see {@link ContainerIdCache}.
  */
 public class ByTaskIdContainerLocator implements ContainerLocator {
 
@@ -52,6 +54,12 @@ public class ByTaskIdContainerLocator implements ContainerLocator {
             logger.debug("Container id has already be found for task {} and is {}", taskId, containerId);
             return containerId;
         }
+        String cachedContainerId = ContainerIdCache.tasks().get(taskId, containerInstances);
+        if (cachedContainerId != null) {
+            logger.debug("Found cached container id '{}' for task id {}", cachedContainerId, taskId);
+            containerId = cachedContainerId;
+            return containerId;
+        }
         logger.debug("Searching for container id for task id {} and alias {}", taskId, alias);
         EntityManager em = EntityManagerFactoryManager.get().getOrCreate(KieServerConstants.KIE_SERVER_PERSISTENCE_UNIT_NAME).createEntityManager();
 
@@ -61,6 +69,7 @@ public class ByTaskIdContainerLocator implements ContainerLocator {
                     .setParameter("taskId", taskId)
                     .getSingleResult();
             logger.debug("Found container id '{}' for task id {}", containerId, taskId);
+            ContainerIdCache.tasks().put(taskId, containerId);
             return containerId;
 
         } catch (NoResultException e) {
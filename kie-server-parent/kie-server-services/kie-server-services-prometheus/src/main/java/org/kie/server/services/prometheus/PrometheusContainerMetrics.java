@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.server.services.prometheus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+
+/**
+ * Label children of the rule and decision metrics of a single container release, bound on first use so recording
+ * a rule firing or a decision evaluation does not resolve the release id nor look the child up by its label values.
+ * A new instance is created when the container is updated to another release.
+ */
+class PrometheusContainerMetrics {
+
+    private final String containerId;
+    private final Object releaseIdKey;
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+
+    // ksession -> rule -> child
+    private final Map<String, Map<String, Histogram.Child>> droolsEvaluationTime = new ConcurrentHashMap<>();
+    // model namespace -> model name -> child
+    private final Map<String, Map<String, Histogram.Child>> dmnEvaluationTime = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Counter.Child>> dmnEvaluationFailed = new ConcurrentHashMap<>();
+
+    PrometheusContainerMetrics(String containerId, Object releaseIdKey, String groupId, String artifactId, String version) {
+        this.containerId = containerId;
+        this.releaseIdKey = releaseIdKey;
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+    }
+
+    boolean isBoundTo(Object releaseIdKey) {
+        return this.releaseIdKey == releaseIdKey || (releaseIdKey != null && releaseIdKey.equals(this.releaseIdKey));
+    }
+
+    Histogram.Child getDroolsEvaluationTime(Histogram histogram, String kieSessionId, String ruleName) {
+        Map<String, Histogram.Child> rules = group(droolsEvaluationTime, String.valueOf(kieSessionId));
+        Histogram.Child child = rules.get(ruleName);
+        if (child == null) {
+            child = rules.computeIfAbsent(ruleName, r -> histogram.labels(containerId, kieSessionId, groupId, artifactId, version, r));
+        }
+        return child;
+    }
+
+    Histogram.Child getDMNEvaluationTime(Histogram histogram, String modelName, String modelNamespace) {
+        Map<String, Histogram.Child> models = group(dmnEvaluationTime, modelNamespace);
+        Histogram.Child child = models.get(modelName);
+        if (child == null) {
+            child = models.computeIfAbsent(modelName, m -> histogram.labels(containerId, groupId, artifactId, version, m, modelNamespace));
+        }
+        return child;
+    }
+
+    Counter.Child getDMNEvaluationFailed(Counter counter, String modelName, String modelNamespace) {
+        Map<String, Counter.Child> models = group(dmnEvaluationFailed, modelNamespace);
+        Counter.Child child = models.get(modelName);
+        if (child == null) {
+            child = models.computeIfAbsent(modelName, m -> counter.labels(containerId, groupId, artifactId, version, m, modelNamespace));
+        }
+        return child;
+    }
+
+    // plain lookup first as computeIfAbsent locks the bin even when the key is present
+    private static <C> Map<String, C> group(Map<String, Map<String, C>> children, String group) {
+        Map<String, C> groupChildren = children.get(group);
+        if (groupChildren == null) {
+            groupChildren = children.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+        }
+        return groupChildren;
+    }
+}
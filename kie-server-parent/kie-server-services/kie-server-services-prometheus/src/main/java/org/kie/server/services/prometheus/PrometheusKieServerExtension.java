@@ -200,6 +200,7 @@ public class PrometheusKieServerExtension implements KieServerExtension {
     @Override
     public void disposeContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
         customMetrics.clearAgendaEventListener(kieContainerInstance);
+        getMetrics().disposeContainer(id);
     }
 
     @Override
@@ -14,6 +14,9 @@
  */
 package org.kie.server.services.prometheus;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.IntStream;
 
 import io.prometheus.client.Counter;
@@ -21,6 +24,10 @@ import io.prometheus.client.Gauge;
 import io.prometheus.client.Histogram;
 import io.prometheus.client.Summary;
 import org.apache.commons.lang3.ArrayUtils;
+import org.kie.api.runtime.KieContainer;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.services.api.KieContainerInstance;
 
 public class PrometheusMetrics {
 
@@ -28,6 +35,21 @@ public class PrometheusMetrics {
     private static final long HALF_SECOND_NANO = 500_000_000;
     private static final long NANOSECONDS_PER_SECOND = 1_000_000_000;
 
+    private final Map<String, PrometheusContainerMetrics> containerMetrics = new ConcurrentHashMap<>();
+    private final int samplingRate;
+
+    public PrometheusMetrics() {
+        this(Integer.getInteger(KieServerConstants.KIE_PROMETHEUS_SERVER_EXT_SAMPLING_RATE, 1));
+    }
+
+    /**
+     * @param samplingRate rule firings and decision evaluations are timed on average once every
+     * <code>samplingRate</code> times, 1 times all of them
+     */
+    public PrometheusMetrics(int samplingRate) {
+        this.samplingRate = Math.max(samplingRate, 1);
+    }
+
     private static long toNano(long second) {
         return second * NANOSECONDS_PER_SECOND;
     }
@@ -122,4 +144,29 @@ public class PrometheusMetrics {
         return optaPlannerSolverCount;
     }
 
+    boolean isSampled() {
+        return samplingRate == 1 || ThreadLocalRandom.current().nextInt(samplingRate) == 0;
+    }
+
+    PrometheusContainerMetrics getContainerMetrics(KieContainerInstance containerInstance) {
+        KieContainer kieContainer = containerInstance.getKieContainer();
+        Object releaseIdKey = kieContainer != null ? kieContainer.getReleaseId() : null;
+        PrometheusContainerMetrics metrics = containerMetrics.get(containerInstance.getContainerId());
+        if (metrics != null && metrics.isBoundTo(releaseIdKey)) {
+            return metrics;
+        }
+        // first use or the container was updated to another release
+        return containerMetrics.compute(containerInstance.getContainerId(), (id, current) -> {
+            if (current != null && current.isBoundTo(releaseIdKey)) {
+                return current;
+            }
+            ReleaseId releaseId = containerInstance.getResource().getReleaseId();
+            return new PrometheusContainerMetrics(id, releaseIdKey, releaseId.getGroupId(), releaseId.getArtifactId(), releaseId.getVersion());
+        });
+    }
+
+    void disposeContainer(String containerId) {
+        containerMetrics.remove(containerId);
+    }
+
 }
@@ -29,7 +29,6 @@ import org.kie.dmn.api.core.event.BeforeEvaluateDecisionTableEvent;
 import org.kie.dmn.api.core.event.DMNRuntimeEventListener;
 import org.kie.dmn.core.impl.AfterEvaluateDecisionEventImpl;
 import org.kie.dmn.core.impl.BeforeEvaluateDecisionEventImpl;
-import org.kie.server.api.model.ReleaseId;
 import org.kie.server.services.api.KieContainerInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +47,9 @@ public class PrometheusMetricsDMNListener implements DMNRuntimeEventListener {
 
     @Override
     public void beforeEvaluateDecision(BeforeEvaluateDecisionEvent e) {
+        if (!metrics.isSampled()) {
+            return;
+        }
         long nanoTime = System.nanoTime();
         BeforeEvaluateDecisionEventImpl event = getBeforeImpl(e);
         event.setTimestamp(nanoTime);
@@ -58,22 +60,22 @@ public class PrometheusMetricsDMNListener implements DMNRuntimeEventListener {
         AfterEvaluateDecisionEventImpl afterImpl = getAfterImpl(e);
         BeforeEvaluateDecisionEventImpl event = getBeforeImpl(afterImpl.getBeforeEvent());
         DecisionNode decisionNode = e.getDecision();
+        PrometheusContainerMetrics containerMetrics = metrics.getContainerMetrics(kieContainer);
         long startTime = event.getTimestamp();
-        long elapsed = System.nanoTime() - startTime;
-        ReleaseId releaseId = kieContainer.getResource().getReleaseId();
-        metrics.getEvaluationTimeHistogram()
-                .labels(kieContainer.getContainerId(), releaseId.getGroupId(), releaseId.getArtifactId(), releaseId.getVersion(), decisionNode.getModelName(), decisionNode.getModelNamespace())
-                .observe(elapsed);
+        // failures are always counted, evaluation time only when sampled
+        if (startTime != 0) {
+            long elapsed = System.nanoTime() - startTime;
+            containerMetrics.getDMNEvaluationTime(metrics.getEvaluationTimeHistogram(), decisionNode.getModelName(), decisionNode.getModelNamespace())
+                    .observe(elapsed);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Elapsed time: " + elapsed);
+            }
+        }
         DMNDecisionResult decisionResultById = e.getResult().getDecisionResultById(decisionNode.getId());
         if(decisionResultById != null && decisionResultById.hasErrors()) {
-            metrics.getDMNNumberOfEvaluationFailed()
-                    .labels(kieContainer.getContainerId(), releaseId.getGroupId(), releaseId.getArtifactId(), releaseId.getVersion(), decisionNode.getModelName(), decisionNode.getModelNamespace())
+            containerMetrics.getDMNEvaluationFailed(metrics.getDMNNumberOfEvaluationFailed(), decisionNode.getModelName(), decisionNode.getModelNamespace())
                     .inc();
         }
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("Elapsed time: " + elapsed);
-        }
     }
 
     private AfterEvaluateDecisionEventImpl getAfterImpl(AfterEvaluateDecisionEvent e) {
@@ -25,7 +25,6 @@ import org.kie.api.event.rule.MatchCancelledEvent;
 import org.kie.api.event.rule.MatchCreatedEvent;
 import org.kie.api.event.rule.RuleFlowGroupActivatedEvent;
 import org.kie.api.event.rule.RuleFlowGroupDeactivatedEvent;
-import org.kie.server.api.model.ReleaseId;
 import org.kie.server.services.api.KieContainerInstance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +54,9 @@ public class PrometheusMetricsDroolsListener implements AgendaEventListener {
 
     @Override
     public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        if (!metrics.isSampled()) {
+            return;
+        }
         long nanoTime = System.nanoTime();
         BeforeActivationFiredEventImpl impl = getBeforeImpl(event);
         impl.setTimestamp(nanoTime);
@@ -65,11 +67,14 @@ public class PrometheusMetricsDroolsListener implements AgendaEventListener {
         AfterActivationFiredEventImpl afterImpl = getAfterImpl(event);
         BeforeActivationFiredEventImpl beforeImpl = getBeforeImpl(afterImpl.getBeforeMatchFiredEvent());
         long startTime = beforeImpl.getTimestamp();
+        if (startTime == 0) {
+            // firing not sampled
+            return;
+        }
         long elapsed = System.nanoTime() - startTime;
         String ruleName = event.getMatch().getRule().getName();
-        ReleaseId releaseId = containerInstance.getResource().getReleaseId();
-        metrics.getDroolsEvaluationTimeHistogram()
-                .labels(containerInstance.getContainerId(), kieSessionId, releaseId.getGroupId(), releaseId.getArtifactId(), releaseId.getVersion(), ruleName)
+        metrics.getContainerMetrics(containerInstance)
+                .getDroolsEvaluationTime(metrics.getDroolsEvaluationTimeHistogram(), kieSessionId, ruleName)
                 .observe(elapsed);
         if (logger.isDebugEnabled()) {
             logger.debug("Elapsed time: " + elapsed);